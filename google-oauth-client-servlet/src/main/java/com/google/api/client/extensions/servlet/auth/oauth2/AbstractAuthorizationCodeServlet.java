@@ -25,6 +25,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 
 /**
  * Thread-safe OAuth 2.0 authorization code flow HTTP servlet that manages and persists end-user
@@ -43,9 +44,11 @@ import javax.servlet.http.HttpServletResponse;
  * #getRedirectUri(HttpServletRequest)}. The servlet to process that should extend {@link
  * AbstractAuthorizationCodeCallbackServlet}, which should redirect back to this servlet on success.
  *
- * <p>Although this implementation is thread-safe, it can only process one request at a time. For a
- * more performance-critical multi-threaded web application, instead use {@link
- * AuthorizationCodeFlow} directly.
+ * <p>Requests are processed concurrently. The flow is initialized once, and the credential of a
+ * request is confined to it: it is available from {@link #getCredential()} on the thread servicing
+ * the request, and from {@link #getCredential(HttpServletRequest)} for as long as the request
+ * lives, for example after a forward or an asynchronous dispatch. To avoid loading the credential
+ * from the credential data store on every request of a session, see {@link #getCredentialCache()}.
  *
  * <p>Sample usage:
  *
@@ -92,55 +95,100 @@ public abstract class AbstractAuthorizationCodeServlet extends HttpServlet {
 
   private static final long serialVersionUID = 1L;
 
-  /** Lock on the flow and credential. */
-  private final Lock lock = new ReentrantLock();
+  /**
+   * Name of the request attribute that holds the persisted credential associated with the request.
+   *
+   * @since 1.40.0
+   */
+  public static final String CREDENTIAL_ATTRIBUTE =
+      AbstractAuthorizationCodeServlet.class.getName() + ".credential";
 
-  /** Persisted credential associated with the current request or {@code null} for none. */
-  private Credential credential;
+  /** Persisted credential associated with the request serviced by the current thread. */
+  private static final ThreadLocal<Credential> CURRENT_CREDENTIAL = new ThreadLocal<Credential>();
+
+  /** Lock on the flow initialization. */
+  private final Lock lock = new ReentrantLock();
 
   /**
    * Authorization code flow to be used across all HTTP servlet requests or {@code null} before
    * initialized in {@link #initializeFlow()}.
    */
-  private AuthorizationCodeFlow flow;
+  private volatile AuthorizationCodeFlow flow;
 
   @Override
   protected void service(HttpServletRequest req, HttpServletResponse resp)
       throws IOException, ServletException {
-    lock.lock();
-    try {
-      // load credential from persistence store
-      String userId = getUserId(req);
-      if (flow == null) {
-        flow = initializeFlow();
-      }
+    // load credential from the session or else from persistence store
+    String userId = getUserId(req);
+    AuthorizationCodeFlow flow = getFlow();
+    SessionCredentialCache cache = getCredentialCache();
+    HttpSession session = cache == null ? null : req.getSession(false);
+    Credential credential = session == null ? null : cache.get(session, userId);
+    if (credential == null) {
       credential = flow.loadCredential(userId);
-      // if credential found with an access token, invoke the user code
-      if (credential != null && credential.getAccessToken() != null) {
-        try {
-          super.service(req, resp);
-          return;
-        } catch (HttpResponseException e) {
-          // if access token is null, assume it is because auth failed and we need to re-authorize
-          // but if access token is not null, it is some other problem
-          if (credential.getAccessToken() != null) {
-            throw e;
-          }
+      if (session != null && credential != null && credential.getAccessToken() != null) {
+        cache.put(session, userId, credential);
+      }
+    }
+    // if credential found with an access token, invoke the user code
+    if (credential != null && credential.getAccessToken() != null) {
+      // restore the previous credential in case this servlet was included by another one
+      Credential previous = CURRENT_CREDENTIAL.get();
+      CURRENT_CREDENTIAL.set(credential);
+      req.setAttribute(CREDENTIAL_ATTRIBUTE, credential);
+      try {
+        super.service(req, resp);
+        return;
+      } catch (HttpResponseException e) {
+        // if access token is null, assume it is because auth failed and we need to re-authorize
+        // but if access token is not null, it is some other problem
+        if (credential.getAccessToken() != null) {
+          throw e;
+        }
+        req.removeAttribute(CREDENTIAL_ATTRIBUTE);
+        if (session != null) {
+          cache.invalidate(session);
+        }
+      } finally {
+        if (previous == null) {
+          CURRENT_CREDENTIAL.remove();
+        } else {
+          CURRENT_CREDENTIAL.set(previous);
         }
       }
-      // redirect to the authorization flow
-      AuthorizationCodeRequestUrl authorizationUrl = flow.newAuthorizationUrl();
-      authorizationUrl.setRedirectUri(getRedirectUri(req));
-      onAuthorization(req, resp, authorizationUrl);
-      credential = null;
-    } finally {
-      lock.unlock();
     }
+    // redirect to the authorization flow
+    AuthorizationCodeRequestUrl authorizationUrl =
+        flow.getAuthorizationStateStore() == null
+            ? flow.newAuthorizationUrl()
+            : flow.newAuthorizationUrl(flow.newAuthorizationState(userId));
+    authorizationUrl.setRedirectUri(getRedirectUri(req));
+    onAuthorization(req, resp, authorizationUrl);
+  }
+
+  /**
+   * Returns the authorization code flow, calling {@link #initializeFlow()} if this is the first
+   * request or if initialization failed before.
+   */
+  private AuthorizationCodeFlow getFlow() throws ServletException, IOException {
+    AuthorizationCodeFlow result = flow;
+    if (result == null) {
+      lock.lock();
+      try {
+        result = flow;
+        if (result == null) {
+          flow = result = initializeFlow();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return result;
   }
 
   /**
    * Loads the authorization code flow to be used across all HTTP servlet requests (only called
-   * during the first HTTP servlet request).
+   * during the first HTTP servlet request, or again during the next one if it failed).
    */
   protected abstract AuthorizationCodeFlow initializeFlow() throws ServletException, IOException;
 
@@ -155,11 +203,38 @@ public abstract class AbstractAuthorizationCodeServlet extends HttpServlet {
    */
   protected abstract String getUserId(HttpServletRequest req) throws ServletException, IOException;
 
+  /**
+   * Returns the cache of credentials in the HTTP session or {@code null} to load the credential
+   * from the flow on every request.
+   *
+   * <p>Default implementation returns {@code null}. The credential is only cached in existing
+   * sessions, and the returned cache should be added to the refresh listeners of the flow, see
+   * {@link SessionCredentialCache}.
+   *
+   * @since 1.40.0
+   */
+  protected SessionCredentialCache getCredentialCache() {
+    return null;
+  }
+
   /**
    * Return the persisted credential associated with the current request or {@code null} for none.
+   *
+   * <p>The credential is only available on the thread that services the request. Use {@link
+   * #getCredential(HttpServletRequest)} from any other thread.
    */
   protected final Credential getCredential() {
-    return credential;
+    return CURRENT_CREDENTIAL.get();
+  }
+
+  /**
+   * Return the persisted credential associated with the given request or {@code null} for none.
+   *
+   * @param req HTTP servlet request
+   * @since 1.40.0
+   */
+  protected final Credential getCredential(HttpServletRequest req) {
+    return (Credential) req.getAttribute(CREDENTIAL_ATTRIBUTE);
   }
 
   /**
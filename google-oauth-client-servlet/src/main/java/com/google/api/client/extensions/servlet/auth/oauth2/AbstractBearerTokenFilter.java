@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.extensions.servlet.auth.oauth2;
+
+import com.google.api.client.auth.oauth2.BearerTokenVerifier;
+import com.google.api.client.auth.oauth2.BearerTokenVerifier.VerifiedToken;
+import com.google.api.client.util.Charsets;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Thread-safe OAuth 2.0 resource server filter that only lets requests with a valid bearer token in
+ * the {@code Authorization} header through (as specified in <a
+ * href="https://tools.ietf.org/html/rfc6750">RFC 6750</a>).
+ *
+ * <p>The token is verified by the {@link BearerTokenVerifier} returned by {@link
+ * #initializeVerifier()}, for example an {@link
+ * com.google.api.client.auth.openidconnect.IdTokenBearerTokenVerifier} or an {@link
+ * com.google.api.client.auth.oauth2.IntrospectionClient}. The {@link VerifiedToken} is then
+ * available from the {@link #VERIFIED_TOKEN_ATTRIBUTE} request attribute. Requests without a token
+ * or with an invalid one are answered with {@code 401 Unauthorized} and a {@code WWW-Authenticate}
+ * challenge, and malformed requests with {@code 400 Bad Request}.
+ *
+ * <p>Verified tokens are cached, as SHA-256 digests, for {@link #DEFAULT_CACHE_SECONDS} seconds but
+ * never beyond the expiration time of the token, so steady-state requests only cost a cache lookup.
+ * Requests are never serialized: a token that misses the cache is verified on the request thread,
+ * and concurrent requests with the same new token may each verify it.
+ *
+ * <p>Sample usage:
+ *
+ * <pre>{@code
+ * public class ApiFilter extends AbstractBearerTokenFilter {
+ *
+ * &#64;Override
+ * protected BearerTokenVerifier initializeVerifier() {
+ * return new IdTokenBearerTokenVerifier(
+ * new IdTokenVerifier.Builder().setAudience(Arrays.asList("https://api.example.com")).build(),
+ * GsonFactory.getDefaultInstance());
+ * }
+ * }
+ * }</pre>
+ *
+ * @since 1.40.0
+ */
+public abstract class AbstractBearerTokenFilter implements Filter {
+
+  private static final Logger LOGGER = Logger.getLogger(AbstractBearerTokenFilter.class.getName());
+
+  /** Name of the request attribute that holds the {@link VerifiedToken} of the request. */
+  public static final String VERIFIED_TOKEN_ATTRIBUTE =
+      AbstractBearerTokenFilter.class.getName() + ".verifiedToken";
+
+  /** Default value for the maximum seconds to cache a verified token. */
+  public static final long DEFAULT_CACHE_SECONDS = 60;
+
+  /** Default value for the maximum number of cached verified tokens. */
+  public static final long DEFAULT_CACHE_MAXIMUM_SIZE = 10000;
+
+  /** Authentication scheme. */
+  private static final String SCHEME = "Bearer";
+
+  /** Clock. */
+  private final Clock clock;
+
+  /** Maximum milliseconds to cache a verified token. */
+  private final long cacheMillis;
+
+  /** Verified tokens by token digest. */
+  private final Cache<String, CachedToken> cache;
+
+  /** Bearer token verifier or {@code null} before initialized in {@link #init(FilterConfig)}. */
+  private volatile BearerTokenVerifier verifier;
+
+  /**
+   * Constructs a filter that caches up to {@link #DEFAULT_CACHE_MAXIMUM_SIZE} verified tokens for
+   * {@link #DEFAULT_CACHE_SECONDS} seconds.
+   */
+  protected AbstractBearerTokenFilter() {
+    this(DEFAULT_CACHE_SECONDS, DEFAULT_CACHE_MAXIMUM_SIZE, Clock.SYSTEM);
+  }
+
+  /**
+   * @param cacheSeconds maximum seconds to cache a verified token or {@code 0} to disable the cache
+   * @param cacheMaximumSize maximum number of cached verified tokens
+   * @param clock clock
+   */
+  protected AbstractBearerTokenFilter(long cacheSeconds, long cacheMaximumSize, Clock clock) {
+    Preconditions.checkArgument(cacheSeconds >= 0);
+    Preconditions.checkArgument(cacheMaximumSize >= 0);
+    this.clock = Preconditions.checkNotNull(clock);
+    cacheMillis = TimeUnit.SECONDS.toMillis(cacheSeconds);
+    cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(cacheSeconds == 0 ? 0 : cacheMaximumSize)
+            .expireAfterWrite(Math.max(cacheMillis, 1), TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  /**
+   * Initializes the filter with the verifier returned by {@link #initializeVerifier()}.
+   *
+   * <p>Overriding is allowed, but it must call the super implementation.
+   */
+  @Override
+  public void init(FilterConfig filterConfig) throws ServletException {
+    try {
+      verifier = Preconditions.checkNotNull(initializeVerifier());
+    } catch (IOException e) {
+      throw new ServletException(e);
+    }
+  }
+
+  @Override
+  public final void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException {
+    if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    HttpServletRequest req = (HttpServletRequest) request;
+    HttpServletResponse resp = (HttpServletResponse) response;
+    String token = null;
+    Enumeration<String> headers = req.getHeaders("Authorization");
+    while (headers != null && headers.hasMoreElements()) {
+      String header = headers.nextElement();
+      if (header.regionMatches(true, 0, SCHEME, 0, SCHEME.length())
+          && header.length() > SCHEME.length()
+          && header.charAt(SCHEME.length()) == ' ') {
+        if (token != null) {
+          sendChallenge(
+              req, resp, HttpServletResponse.SC_BAD_REQUEST, "invalid_request", "Multiple tokens");
+          return;
+        }
+        token = header.substring(SCHEME.length() + 1).trim();
+      }
+    }
+    if (token == null) {
+      sendChallenge(req, resp, HttpServletResponse.SC_UNAUTHORIZED, null, null);
+      return;
+    }
+    if (!isB64Token(token)) {
+      sendChallenge(
+          req, resp, HttpServletResponse.SC_BAD_REQUEST, "invalid_request", "Malformed token");
+      return;
+    }
+    VerifiedToken verifiedToken;
+    try {
+      verifiedToken = verify(token);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Failed to verify the bearer token", e);
+      resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      return;
+    }
+    if (verifiedToken == null) {
+      sendChallenge(
+          req, resp, HttpServletResponse.SC_UNAUTHORIZED, "invalid_token", "Invalid token");
+      return;
+    }
+    req.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, verifiedToken);
+    chain.doFilter(req, resp);
+  }
+
+  @Override
+  public void destroy() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Loads the bearer token verifier to be used across all requests (only called once, from {@link
+   * #init(FilterConfig)}).
+   */
+  protected abstract BearerTokenVerifier initializeVerifier() throws ServletException, IOException;
+
+  /**
+   * Returns the realm of the {@code WWW-Authenticate} challenge for the given request or {@code
+   * null} for none.
+   *
+   * <p>Default implementation returns {@code null}.
+   */
+  protected String getRealm(HttpServletRequest req) {
+    return null;
+  }
+
+  /**
+   * Returns the verified token of the given request or {@code null} if it did not pass through the
+   * filter.
+   *
+   * @param req HTTP servlet request
+   */
+  public static VerifiedToken getVerifiedToken(HttpServletRequest req) {
+    return (VerifiedToken) req.getAttribute(VERIFIED_TOKEN_ATTRIBUTE);
+  }
+
+  /** Returns the verified token from the cache if possible or {@code null} if it is not valid. */
+  private VerifiedToken verify(String token) throws IOException {
+    String key = Hashing.sha256().hashString(token, Charsets.UTF_8).toString();
+    CachedToken cached = cache.getIfPresent(key);
+    long now = clock.currentTimeMillis();
+    if (cached != null) {
+      if (cached.expirationTimeMillis > now) {
+        return cached.token;
+      }
+      cache.asMap().remove(key, cached);
+    }
+    VerifiedToken verifiedToken = verifier.verify(token);
+    if (verifiedToken != null && cacheMillis > 0) {
+      long expirationTimeMillis = now + cacheMillis;
+      Long tokenExpirationTimeMillis = verifiedToken.getExpirationTimeMilliseconds();
+      if (tokenExpirationTimeMillis != null) {
+        expirationTimeMillis = Math.min(expirationTimeMillis, tokenExpirationTimeMillis);
+      }
+      if (expirationTimeMillis > now) {
+        cache.put(key, new CachedToken(verifiedToken, expirationTimeMillis));
+      }
+    }
+    return verifiedToken;
+  }
+
+  /**
+   * Responds with the given status code and a {@code WWW-Authenticate} challenge with the given
+   * error code and description, if any.
+   */
+  private void sendChallenge(
+      HttpServletRequest req,
+      HttpServletResponse resp,
+      int statusCode,
+      String error,
+      String errorDescription)
+      throws IOException {
+    StringBuilder challenge = new StringBuilder(SCHEME);
+    String realm = getRealm(req);
+    char separator = ' ';
+    if (realm != null) {
+      challenge.append(separator).append("realm=\"").append(realm).append('"');
+      separator = ',';
+    }
+    if (error != null) {
+      challenge.append(separator).append("error=\"").append(error).append('"');
+      challenge.append(",error_description=\"").append(errorDescription).append('"');
+    }
+    resp.setHeader("WWW-Authenticate", challenge.toString());
+    resp.sendError(statusCode);
+  }
+
+  /** Returns whether the given token has the {@code b64token} syntax of RFC 6750. */
+  private static boolean isB64Token(String token) {
+    int length = token.length();
+    while (length > 0 && token.charAt(length - 1) == '=') {
+      length--;
+    }
+    if (length == 0) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = token.charAt(i);
+      if (!(c >= 'a' && c <= 'z'
+          || c >= 'A' && c <= 'Z'
+          || c >= '0' && c <= '9'
+          || c == '-'
+          || c == '.'
+          || c == '_'
+          || c == '~'
+          || c == '+'
+          || c == '/')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Verified token with the time it may be used from the cache until. */
+  private static final class CachedToken {
+
+    final VerifiedToken token;
+
+    final long expirationTimeMillis;
+
+    CachedToken(VerifiedToken token, long expirationTimeMillis) {
+      this.token = token;
+      this.expirationTimeMillis = expirationTimeMillis;
+    }
+  }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.extensions.servlet.auth.oauth2.jakarta;
+
+import com.google.api.client.auth.oauth2.AuthorizationCodeFlow;
+import com.google.api.client.auth.oauth2.AuthorizationCodeResponseUrl;
+import com.google.api.client.auth.oauth2.AuthorizationCodeTokenRequest;
+import com.google.api.client.auth.oauth2.AuthorizationState;
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.TokenResponse;
+import com.google.api.client.auth.oauth2.TokenResponseException;
+import com.google.api.client.util.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe OAuth 2.0 authorization code callback servlet using the jakarta namespace that
+ * exchanges the authorization code asynchronously.
+ *
+ * <p>This is an alternative to {@link AbstractAuthorizationCodeCallbackServlet} for applications
+ * whose token endpoint may be slow. The request is put into asynchronous mode and the token request
+ * and the storage of the credential run on a bounded executor (see {@link #createExecutor()}), so
+ * the container thread is released right away. {@link #onSuccess} and {@link #onFailure} are called
+ * on the executor thread, after which the asynchronous request is completed. If the exchange takes
+ * longer than {@link #ASYNC_TIMEOUT_SECONDS} seconds, {@link #onFailure} is instead called with a
+ * {@link TimeoutException} on the container thread, and the exchange is left to complete for
+ * duplicate callbacks.
+ *
+ * <p>Callbacks of the same user with the same authorization code, as sent when a browser submits
+ * the redirect twice, share a single token exchange and are all passed the resulting credential.
+ * Completed exchanges are remembered for {@link #DEDUPLICATION_SECONDS} seconds.
+ *
+ * <p>The servlet must be declared as supporting asynchronous requests, for example with {@code
+ * <async-supported>true</async-supported>} in {@code web.xml}. Subclasses implement the same
+ * methods as for {@link AbstractAuthorizationCodeCallbackServlet}.
+ *
+ * @since 1.40.0
+ */
+public abstract class AbstractAsyncAuthorizationCodeCallbackServlet extends HttpServlet {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final Logger LOGGER =
+      Logger.getLogger(AbstractAsyncAuthorizationCodeCallbackServlet.class.getName());
+
+  /** Default number of threads that exchange authorization codes. */
+  public static final int DEFAULT_THREAD_COUNT = 8;
+
+  /** Default number of exchanges that may wait for a thread before callbacks are rejected. */
+  public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+  /** Seconds a completed exchange is shared with duplicate callbacks. */
+  public static final long DEDUPLICATION_SECONDS = 60;
+
+  /** Seconds after which a callback whose exchange has not completed times out. */
+  public static final long ASYNC_TIMEOUT_SECONDS = 60;
+
+  /** Lock on the flow and executor initialization. */
+  private final Lock lock = new ReentrantLock();
+
+  /**
+   * Authorization code flow to be used across all HTTP servlet requests or {@code null} before
+   * initialized in {@link #initializeFlow()}.
+   */
+  private volatile AuthorizationCodeFlow flow;
+
+  /**
+   * Executor of the token exchanges or {@code null} before created in {@link #createExecutor()}.
+   */
+  private transient volatile ExecutorService executor;
+
+  /** Pending and recently completed token exchanges by user ID and authorization code. */
+  private final transient Cache<String, SettableFuture<Credential>> exchanges =
+      CacheBuilder.newBuilder().expireAfterWrite(DEDUPLICATION_SECONDS, TimeUnit.SECONDS).build();
+
+  @Override
+  protected final void doGet(HttpServletRequest req, HttpServletResponse resp)
+      throws ServletException, IOException {
+    StringBuffer buf = req.getRequestURL();
+    if (req.getQueryString() != null) {
+      buf.append('?').append(req.getQueryString());
+    }
+    AuthorizationCodeResponseUrl responseUrl = new AuthorizationCodeResponseUrl(buf.toString());
+    final String code = responseUrl.getCode();
+    final String state = responseUrl.getState();
+    if (responseUrl.getError() != null) {
+      onError(req, resp, responseUrl);
+    } else if (code == null) {
+      resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+      resp.getWriter().print("Missing authorization code");
+    } else {
+      final String redirectUri = getRedirectUri(req);
+      final String userId = getUserId(req);
+      final String key = userId + '\0' + code;
+      final AsyncContext asyncContext = req.startAsync(req, resp);
+      final AtomicBoolean done = new AtomicBoolean();
+      asyncContext.setTimeout(TimeUnit.SECONDS.toMillis(ASYNC_TIMEOUT_SECONDS));
+      asyncContext.addListener(
+          new AsyncListener() {
+            public void onTimeout(AsyncEvent event) {
+              complete(
+                  asyncContext,
+                  done,
+                  null,
+                  new TimeoutException("Timed out exchanging the authorization code"));
+            }
+
+            public void onError(AsyncEvent event) {
+              if (done.compareAndSet(false, true)) {
+                LOGGER.log(
+                    Level.WARNING,
+                    "Failed to complete the authorization code callback",
+                    event.getThrowable());
+                completeQuietly(asyncContext);
+              }
+            }
+
+            public void onComplete(AsyncEvent event) {}
+
+            public void onStartAsync(AsyncEvent event) {}
+          });
+      SettableFuture<Credential> exchange = SettableFuture.create();
+      SettableFuture<Credential> existing = exchanges.asMap().putIfAbsent(key, exchange);
+      if (existing == null) {
+        final SettableFuture<Credential> newExchange = exchange;
+        try {
+          getExecutor()
+              .execute(
+                  new Runnable() {
+                    public void run() {
+                      try {
+                        AuthorizationCodeFlow flow = getFlow();
+                        TokenResponse response =
+                            newTokenRequest(flow, code, state, userId)
+                                .setRedirectUri(redirectUri)
+                                .execute();
+                        newExchange.set(flow.createAndStoreCredential(response, userId));
+                      } catch (Throwable e) {
+                        exchanges.asMap().remove(key, newExchange);
+                        newExchange.setException(e);
+                      }
+                    }
+                  });
+        } catch (RejectedExecutionException e) {
+          exchanges.asMap().remove(key, newExchange);
+          newExchange.setException(e);
+        }
+      } else {
+        exchange = existing;
+      }
+      final SettableFuture<Credential> result = exchange;
+      result.addListener(
+          new Runnable() {
+            public void run() {
+              try {
+                complete(asyncContext, done, Futures.getDone(result), null);
+              } catch (ExecutionException e) {
+                complete(asyncContext, done, null, e.getCause());
+              }
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+  }
+
+  /**
+   * Returns the token request for the given authorization code, consuming the pending authorization
+   * of the given state and user ID if the flow has an authorization state store.
+   *
+   * @throws IllegalArgumentException if the state is not that of a pending authorization of the
+   *     user
+   */
+  private static AuthorizationCodeTokenRequest newTokenRequest(
+      AuthorizationCodeFlow flow, String code, String state, String userId) throws IOException {
+    if (flow.getAuthorizationStateStore() == null) {
+      return flow.newTokenRequest(code);
+    }
+    AuthorizationState authorizationState = flow.consumeAuthorizationState(state, userId);
+    Preconditions.checkArgument(authorizationState != null, "Invalid or expired state");
+    return flow.newTokenRequest(code, authorizationState);
+  }
+
+  /**
+   * Calls {@link #onSuccess} with the given credential or {@link #onFailure} with the given cause
+   * and completes the asynchronous request, unless it has already been done.
+   *
+   * @param asyncContext asynchronous context of the callback
+   * @param done whether the callback has already been answered, which is set by this method
+   * @param credential credential or {@code null} on failure
+   * @param cause cause of the failure or {@code null} on success
+   */
+  private void complete(
+      AsyncContext asyncContext, AtomicBoolean done, Credential credential, Throwable cause) {
+    if (!done.compareAndSet(false, true)) {
+      return;
+    }
+    HttpServletRequest req;
+    HttpServletResponse resp;
+    try {
+      req = (HttpServletRequest) asyncContext.getRequest();
+      resp = (HttpServletResponse) asyncContext.getResponse();
+    } catch (IllegalStateException e) {
+      // already completed by the container
+      return;
+    }
+    try {
+      if (cause == null) {
+        onSuccess(req, resp, credential);
+      } else {
+        onFailure(req, resp, cause);
+      }
+    } catch (Exception e) {
+      LOGGER.log(Level.WARNING, "Failed to complete the authorization code callback", e);
+      if (!resp.isCommitted()) {
+        resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+      }
+    } finally {
+      completeQuietly(asyncContext);
+    }
+  }
+
+  /** Completes the asynchronous request, unless it has already been completed by the container. */
+  private static void completeQuietly(AsyncContext asyncContext) {
+    try {
+      asyncContext.complete();
+    } catch (IllegalStateException e) {
+      LOGGER.log(Level.FINE, "Authorization code callback already completed", e);
+    }
+  }
+
+  /**
+   * Returns the authorization code flow, calling {@link #initializeFlow()} if this is the first
+   * token exchange or if initialization failed before.
+   */
+  private AuthorizationCodeFlow getFlow() throws ServletException, IOException {
+    AuthorizationCodeFlow result = flow;
+    if (result == null) {
+      lock.lock();
+      try {
+        result = flow;
+        if (result == null) {
+          flow = result = initializeFlow();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return result;
+  }
+
+  /** Returns the executor of the token exchanges, calling {@link #createExecutor()} if needed. */
+  private ExecutorService getExecutor() {
+    ExecutorService result = executor;
+    if (result == null) {
+      lock.lock();
+      try {
+        result = executor;
+        if (result == null) {
+          executor = result = createExecutor();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void destroy() {
+    ExecutorService result = executor;
+    if (result != null) {
+      result.shutdown();
+    }
+    super.destroy();
+  }
+
+  /**
+   * Creates the executor of the token exchanges (only called during the first HTTP servlet request
+   * with an authorization code). It is shut down when the servlet is destroyed.
+   *
+   * <p>The executor must be bounded: if it rejects an exchange, {@link #onFailure} is called with
+   * the {@link RejectedExecutionException}. Default implementation is a pool of {@link
+   * #DEFAULT_THREAD_COUNT} daemon threads with a queue of {@link #DEFAULT_QUEUE_CAPACITY}.
+   */
+  protected ExecutorService createExecutor() {
+    ThreadPoolExecutor result =
+        new ThreadPoolExecutor(
+            DEFAULT_THREAD_COUNT,
+            DEFAULT_THREAD_COUNT,
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(DEFAULT_QUEUE_CAPACITY),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(getClass().getSimpleName() + "-%d")
+                .build());
+    result.allowCoreThreadTimeOut(true);
+    return result;
+  }
+
+  /**
+   * Loads the authorization code flow to be used across all HTTP servlet requests (only called
+   * during the first token exchange, or again during the next one if it failed).
+   */
+  protected abstract AuthorizationCodeFlow initializeFlow() throws ServletException, IOException;
+
+  /** Returns the redirect URI for the given HTTP servlet request. */
+  protected abstract String getRedirectUri(HttpServletRequest req)
+      throws ServletException, IOException;
+
+  /**
+   * Returns the user ID for the given HTTP servlet request. This identifies your application's user
+   * and is used to assign and persist credentials to that user. Most commonly, this will be a user
+   * id stored in the session or even the session id itself.
+   *
+   * <p>If the flow has an {@link AuthorizationCodeFlow#getAuthorizationStateStore() authorization
+   * state store}, the authorization response is only accepted for the user ID that started the
+   * authorization, so the user ID must be derived from the session and never from request
+   * parameters.
+   *
+   * <p>It is called on the container thread, before the request is put into asynchronous mode.
+   */
+  protected abstract String getUserId(HttpServletRequest req) throws ServletException, IOException;
+
+  /**
+   * Handles a successfully granted authorization, on the thread that exchanged the authorization
+   * code.
+   *
+   * <p>Default implementation is to do nothing, but subclasses should override and implement.
+   * Sample implementation:
+   *
+   * <pre>
+   * resp.sendRedirect("/granted");
+   * </pre>
+   *
+   * @param req HTTP servlet request
+   * @param resp HTTP servlet response
+   * @param credential credential
+   * @throws ServletException HTTP servlet exception
+   * @throws IOException some I/O exception
+   */
+  protected void onSuccess(HttpServletRequest req, HttpServletResponse resp, Credential credential)
+      throws ServletException, IOException {}
+
+  /**
+   * Handles an error to the authorization, such as when an end user denies authorization.
+   *
+   * <p>It is called on the container thread, without putting the request into asynchronous mode.
+   * Default implementation is to do nothing, but subclasses should override and implement. Sample
+   * implementation:
+   *
+   * <pre>
+   * resp.sendRedirect("/denied");
+   * </pre>
+   *
+   * @param req HTTP servlet request
+   * @param resp HTTP servlet response
+   * @param errorResponse error response ({@link AuthorizationCodeResponseUrl#getError()} is not
+   *     {@code null})
+   * @throws ServletException HTTP servlet exception
+   * @throws IOException some I/O exception
+   */
+  protected void onError(
+      HttpServletRequest req, HttpServletResponse resp, AuthorizationCodeResponseUrl errorResponse)
+      throws ServletException, IOException {}
+
+  /**
+   * Handles a failed token exchange, on the thread that completed it, or a timed out one, on the
+   * container thread.
+   *
+   * <p>Default implementation is to respond with {@code 503 Service Unavailable} if the exchange
+   * was rejected by the executor, with {@code 504 Gateway Timeout} if it timed out ({@link
+   * TimeoutException}), with {@code 400 Bad Request} if the {@code state} parameter is not that of
+   * a pending authorization ({@link IllegalArgumentException}) or if the token server rejected the
+   * authorization code, and with {@code 500 Internal Server Error} otherwise.
+   *
+   * @param req HTTP servlet request
+   * @param resp HTTP servlet response
+   * @param cause cause of the failure, such as a {@link TokenResponseException}
+   * @throws ServletException HTTP servlet exception
+   * @throws IOException some I/O exception
+   */
+  protected void onFailure(HttpServletRequest req, HttpServletResponse resp, Throwable cause)
+      throws ServletException, IOException {
+    if (cause instanceof RejectedExecutionException) {
+      resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    } else if (cause instanceof TimeoutException) {
+      resp.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+    } else if (cause instanceof IllegalArgumentException
+        || cause instanceof TokenResponseException) {
+      resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+    } else {
+      LOGGER.log(Level.WARNING, "Failed to exchange the authorization code", cause);
+      resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    }
+  }
+}
@@ -16,6 +16,8 @@ package com.google.api.client.extensions.servlet.auth.oauth2.jakarta;
 
 import com.google.api.client.auth.oauth2.AuthorizationCodeFlow;
 import com.google.api.client.auth.oauth2.AuthorizationCodeResponseUrl;
+import com.google.api.client.auth.oauth2.AuthorizationCodeTokenRequest;
+import com.google.api.client.auth.oauth2.AuthorizationState;
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.auth.oauth2.TokenResponse;
 import jakarta.servlet.ServletException;
@@ -118,9 +120,22 @@ public abstract class AbstractAuthorizationCodeCallbackServlet extends HttpServl
         if (flow == null) {
           flow = initializeFlow();
         }
-        String redirectUri = getRedirectUri(req);
-        TokenResponse response = flow.newTokenRequest(code).setRedirectUri(redirectUri).execute();
         String userId = getUserId(req);
+        AuthorizationCodeTokenRequest tokenRequest;
+        if (flow.getAuthorizationStateStore() == null) {
+          tokenRequest = flow.newTokenRequest(code);
+        } else {
+          // the state must match a pending authorization of this application for the same user
+          AuthorizationState state = flow.consumeAuthorizationState(responseUrl.getState(), userId);
+          if (state == null) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            resp.getWriter().print("Invalid or expired state");
+            return;
+          }
+          tokenRequest = flow.newTokenRequest(code, state);
+        }
+        String redirectUri = getRedirectUri(req);
+        TokenResponse response = tokenRequest.setRedirectUri(redirectUri).execute();
         Credential credential = flow.createAndStoreCredential(response, userId);
         onSuccess(req, resp, credential);
       } finally {
@@ -143,6 +158,11 @@ public abstract class AbstractAuthorizationCodeCallbackServlet extends HttpServl
    * Returns the user ID for the given HTTP servlet request. This identifies your application's user
    * and is used to assign and persist credentials to that user. Most commonly, this will be a user
    * id stored in the session or even the session id itself.
+   *
+   * <p>If the flow has an {@link AuthorizationCodeFlow#getAuthorizationStateStore() authorization
+   * state store}, the authorization response is only accepted for the user ID that started the
+   * authorization, so the user ID must be derived from the session and never from request
+   * parameters.
    */
   protected abstract String getUserId(HttpServletRequest req) throws ServletException, IOException;
 
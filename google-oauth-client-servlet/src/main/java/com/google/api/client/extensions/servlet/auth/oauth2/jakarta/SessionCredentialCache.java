@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.extensions.servlet.auth.oauth2.jakarta;
+
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.CredentialRefreshListener;
+import com.google.api.client.auth.oauth2.TokenErrorResponse;
+import com.google.api.client.auth.oauth2.TokenResponse;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.servlet.http.HttpSession;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe cache of end-user credentials attached to the {@link HttpSession} using the jakarta
+ * namespace, so that requests of an authenticated session do not load the credential from the
+ * credential data store of the flow.
+ *
+ * <p>A cached credential is only used for the same user ID it was loaded for, and for at most
+ * {@link Builder#setMaxAgeSeconds max age} seconds. The cache is also a {@link
+ * CredentialRefreshListener}: once added to the flow, a refresh of a cached credential invalidates
+ * the cached credentials of that user in all sessions, which then load the refreshed credential
+ * from the data store again. Call {@link #invalidate(HttpSession)} when the user logs out.
+ *
+ * <p>Sample usage:
+ *
+ * <pre>{@code
+ * static final SessionCredentialCache CACHE = new SessionCredentialCache.Builder().build();
+ *
+ * &#64;Override
+ * protected AuthorizationCodeFlow initializeFlow() throws IOException {
+ * return new AuthorizationCodeFlow.Builder(...)
+ * .setDataStoreFactory(dataStoreFactory)
+ * .addRefreshListener(CACHE)
+ * .build();
+ * }
+ *
+ * &#64;Override
+ * protected SessionCredentialCache getCredentialCache() {
+ * return CACHE;
+ * }
+ * }</pre>
+ *
+ * <p>Credentials are not serialized with the session: after the session is passivated or migrated
+ * to another node, the credential is loaded from the data store again.
+ *
+ * @since 1.40.0
+ */
+public final class SessionCredentialCache implements CredentialRefreshListener {
+
+  /** Default value for the name of the session attribute. */
+  public static final String DEFAULT_ATTRIBUTE_NAME = SessionCredentialCache.class.getName();
+
+  /** Default value for the maximum age in seconds of a cached credential (5 minutes). */
+  public static final long DEFAULT_MAX_AGE_SECONDS = 5 * 60;
+
+  private final Clock clock;
+
+  private final String attributeName;
+
+  private final long maxAgeMillis;
+
+  /**
+   * Time of the last invalidation of each user ID in milliseconds. Invalidations older than the
+   * maximum age are forgotten, because older cached credentials have expired anyway.
+   */
+  private final Cache<String, Long> invalidations;
+
+  /** User ID of each cached credential, by identity of the credential. */
+  private final Cache<Credential, String> userIds;
+
+  /** @param builder builder */
+  SessionCredentialCache(Builder builder) {
+    clock = builder.clock;
+    attributeName = builder.attributeName;
+    maxAgeMillis = TimeUnit.SECONDS.toMillis(builder.maxAgeSeconds);
+    invalidations =
+        CacheBuilder.newBuilder().expireAfterWrite(maxAgeMillis, TimeUnit.MILLISECONDS).build();
+    userIds = CacheBuilder.newBuilder().weakKeys().<Credential, String>build();
+  }
+
+  /** Returns the name of the session attribute. */
+  public String getAttributeName() {
+    return attributeName;
+  }
+
+  /** Returns the maximum age in seconds of a cached credential. */
+  public long getMaxAgeSeconds() {
+    return TimeUnit.MILLISECONDS.toSeconds(maxAgeMillis);
+  }
+
+  /**
+   * Returns the credential cached in the given session for the given user ID or {@code null} for
+   * none.
+   *
+   * @param session HTTP session
+   * @param userId user ID
+   */
+  public Credential get(HttpSession session, String userId) {
+    Object attribute = session.getAttribute(attributeName);
+    if (!(attribute instanceof Entry)) {
+      return null;
+    }
+    Entry entry = (Entry) attribute;
+    Credential credential = entry.credential;
+    if (credential == null || !userId.equals(entry.userId)) {
+      return null;
+    }
+    long now = clock.currentTimeMillis();
+    Long invalidationTimeMillis = invalidations.getIfPresent(userId);
+    if (now - entry.cacheTimeMillis >= maxAgeMillis
+        || invalidationTimeMillis != null && entry.cacheTimeMillis <= invalidationTimeMillis) {
+      session.removeAttribute(attributeName);
+      return null;
+    }
+    return credential;
+  }
+
+  /**
+   * Caches the given credential of the given user ID in the given session.
+   *
+   * @param session HTTP session
+   * @param userId user ID
+   * @param credential credential
+   */
+  public void put(HttpSession session, String userId, Credential credential) {
+    Preconditions.checkNotNull(userId);
+    userIds.put(credential, userId);
+    session.setAttribute(attributeName, new Entry(userId, credential, clock.currentTimeMillis()));
+  }
+
+  /**
+   * Invalidates the credential cached in the given session, for example when the user logs out.
+   *
+   * @param session HTTP session
+   */
+  public void invalidate(HttpSession session) {
+    session.removeAttribute(attributeName);
+  }
+
+  /**
+   * Invalidates the credentials cached for the given user ID in all sessions, for example after the
+   * credential has been deleted from the data store.
+   *
+   * @param userId user ID
+   */
+  public void invalidate(String userId) {
+    invalidations.put(userId, clock.currentTimeMillis());
+  }
+
+  @Override
+  public void onTokenResponse(Credential credential, TokenResponse tokenResponse) {
+    invalidate(credential);
+  }
+
+  @Override
+  public void onTokenErrorResponse(Credential credential, TokenErrorResponse tokenErrorResponse) {
+    invalidate(credential);
+  }
+
+  private void invalidate(Credential credential) {
+    String userId = userIds.getIfPresent(credential);
+    if (userId != null) {
+      invalidate(userId);
+    }
+  }
+
+  /** Session attribute of a cached credential, which is not serialized with the session. */
+  private static final class Entry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    final String userId;
+
+    final transient Credential credential;
+
+    final long cacheTimeMillis;
+
+    Entry(String userId, Credential credential, long cacheTimeMillis) {
+      this.userId = userId;
+      this.credential = credential;
+      this.cacheTimeMillis = cacheTimeMillis;
+    }
+  }
+
+  /**
+   * Builder for {@link SessionCredentialCache}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static final class Builder {
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Name of the session attribute. */
+    String attributeName = DEFAULT_ATTRIBUTE_NAME;
+
+    /** Maximum age in seconds of a cached credential. */
+    long maxAgeSeconds = DEFAULT_MAX_AGE_SECONDS;
+
+    /** Builds a new instance of {@link SessionCredentialCache}. */
+    public SessionCredentialCache build() {
+      return new SessionCredentialCache(this);
+    }
+
+    /** Returns the clock. */
+    public final Clock getClock() {
+      return clock;
+    }
+
+    /** Sets the clock. */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /** Returns the name of the session attribute. */
+    public final String getAttributeName() {
+      return attributeName;
+    }
+
+    /**
+     * Sets the name of the session attribute (default is {@link #DEFAULT_ATTRIBUTE_NAME}).
+     *
+     * <p>Servlets using different flows in the same session must use different names.
+     */
+    public Builder setAttributeName(String attributeName) {
+      this.attributeName = Preconditions.checkNotNull(attributeName);
+      return this;
+    }
+
+    /** Returns the maximum age in seconds of a cached credential. */
+    public final long getMaxAgeSeconds() {
+      return maxAgeSeconds;
+    }
+
+    /**
+     * Sets the maximum age in seconds of a cached credential (default is {@link
+     * #DEFAULT_MAX_AGE_SECONDS}).
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setMaxAgeSeconds(long maxAgeSeconds) {
+      Preconditions.checkArgument(maxAgeSeconds > 0);
+      this.maxAgeSeconds = maxAgeSeconds;
+      return this;
+    }
+  }
+}
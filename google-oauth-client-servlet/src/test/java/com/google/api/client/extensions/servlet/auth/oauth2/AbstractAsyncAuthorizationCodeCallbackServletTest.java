@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.extensions.servlet.auth.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.client.auth.oauth2.AuthorizationCodeFlow;
+import com.google.api.client.auth.oauth2.AuthorizationCodeResponseUrl;
+import com.google.api.client.auth.oauth2.AuthorizationState;
+import com.google.api.client.auth.oauth2.AuthorizationStateStore;
+import com.google.api.client.auth.oauth2.BearerToken;
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.MemoryAuthorizationStateStore;
+import com.google.api.client.http.BasicAuthentication;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Test;
+
+public class AbstractAsyncAuthorizationCodeCallbackServletTest {
+
+  /** Token server that responds once it is released. */
+  private static class TokenServer extends MockHttpTransport {
+
+    final AtomicInteger requests = new AtomicInteger();
+
+    final CountDownLatch released = new CountDownLatch(1);
+
+    int statusCode = 200;
+
+    @Override
+    public LowLevelHttpRequest buildRequest(String method, String url) {
+      return new MockLowLevelHttpRequest(url) {
+        @Override
+        public LowLevelHttpResponse execute() throws IOException {
+          requests.incrementAndGet();
+          try {
+            released.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            throw new IOException(e);
+          }
+          MockLowLevelHttpResponse response =
+              new MockLowLevelHttpResponse()
+                  .setStatusCode(statusCode)
+                  .setContentType(Json.MEDIA_TYPE);
+          return statusCode == 200
+              ? response.setContent("{\"access_token\":\"abc\",\"token_type\":\"Bearer\"}")
+              : response.setContent("{\"error\":\"invalid_grant\"}");
+        }
+      };
+    }
+  }
+
+  private static class TestServlet extends AbstractAsyncAuthorizationCodeCallbackServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    final TokenServer tokenServer = new TokenServer();
+
+    final Map<String, Credential> credentials = new ConcurrentHashMap<String, Credential>();
+
+    final Map<String, String> errors = new ConcurrentHashMap<String, String>();
+
+    AuthorizationStateStore authorizationStateStore;
+
+    @Override
+    protected void onSuccess(
+        HttpServletRequest req, HttpServletResponse resp, Credential credential)
+        throws IOException {
+      credentials.put(req.getParameter("request"), credential);
+      resp.sendRedirect("/granted");
+    }
+
+    @Override
+    protected void onError(
+        HttpServletRequest req,
+        HttpServletResponse resp,
+        AuthorizationCodeResponseUrl errorResponse) {
+      errors.put(req.getParameter("request"), errorResponse.getError());
+    }
+
+    @Override
+    protected AuthorizationCodeFlow initializeFlow() {
+      return new AuthorizationCodeFlow.Builder(
+              BearerToken.authorizationHeaderAccessMethod(),
+              tokenServer,
+              GsonFactory.getDefaultInstance(),
+              new GenericUrl("https://server.example.com/token"),
+              new BasicAuthentication("id", "secret"),
+              "id",
+              "https://server.example.com/authorize")
+          .setAuthorizationStateStore(authorizationStateStore)
+          .build();
+    }
+
+    @Override
+    protected String getRedirectUri(HttpServletRequest req) {
+      return "https://app.example.com/oauth2callback";
+    }
+
+    @Override
+    protected String getUserId(HttpServletRequest req) {
+      return "user";
+    }
+  }
+
+  /** Callback request and the state of its response. */
+  private static class Callback {
+
+    final Map<String, String> parameters = new HashMap<String, String>();
+
+    final CountDownLatch completed = new CountDownLatch(1);
+
+    volatile String location;
+
+    volatile int error;
+
+    volatile boolean async;
+
+    volatile AsyncListener listener;
+
+    volatile long timeout;
+
+    /** Whether the container has completed the request, after which the context is unusable. */
+    volatile boolean containerCompleted;
+
+    final AtomicInteger completions = new AtomicInteger();
+
+    final HttpServletResponse response =
+        MockServlets.newProxy(
+            HttpServletResponse.class,
+            new InvocationHandler() {
+              public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("sendRedirect")) {
+                  location = (String) args[0];
+                } else if (method.getName().equals("sendError")) {
+                  error = (Integer) args[0];
+                }
+                return null;
+              }
+            });
+
+    final HttpServletRequest request =
+        MockServlets.newProxy(
+            HttpServletRequest.class,
+            new InvocationHandler() {
+              public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                  case "getRequestURL":
+                    return new StringBuffer("https://app.example.com/oauth2callback");
+                  case "getQueryString":
+                    StringBuilder query = new StringBuilder();
+                    for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                      query.append(query.length() == 0 ? "" : "&");
+                      query.append(parameter.getKey()).append('=').append(parameter.getValue());
+                    }
+                    return query.toString();
+                  case "getParameter":
+                    return parameters.get(args[0]);
+                  case "startAsync":
+                    async = true;
+                    return asyncContext;
+                  default:
+                    return null;
+                }
+              }
+            });
+
+    final AsyncContext asyncContext =
+        MockServlets.newProxy(
+            AsyncContext.class,
+            new InvocationHandler() {
+              public Object invoke(Object proxy, Method method, Object[] args) {
+                if (containerCompleted) {
+                  throw new IllegalStateException();
+                }
+                switch (method.getName()) {
+                  case "getRequest":
+                    return request;
+                  case "getResponse":
+                    return response;
+                  case "complete":
+                    completions.incrementAndGet();
+                    completed.countDown();
+                    return null;
+                  case "setTimeout":
+                    timeout = (Long) args[0];
+                    return null;
+                  case "addListener":
+                    listener = (AsyncListener) args[0];
+                    return null;
+                  default:
+                    return null;
+                }
+              }
+            });
+
+    Callback(String id, String code) {
+      parameters.put("request", id);
+      if (code != null) {
+        parameters.put("code", code);
+      }
+    }
+
+    void awaitCompletion() throws InterruptedException {
+      assertTrue(completed.await(10, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testDuplicateCallbacksShareOneExchange() throws Exception {
+    TestServlet servlet = new TestServlet();
+    Callback first = new Callback("first", "code1");
+    Callback second = new Callback("second", "code1");
+    servlet.doGet(first.request, first.response);
+    servlet.doGet(second.request, second.response);
+    // the container threads returned while the token request is still pending
+    assertTrue(first.async);
+    assertTrue(second.async);
+    assertEquals(1, first.completed.getCount());
+
+    servlet.tokenServer.released.countDown();
+    first.awaitCompletion();
+    second.awaitCompletion();
+    assertEquals(1, servlet.tokenServer.requests.get());
+    assertEquals("abc", servlet.credentials.get("first").getAccessToken());
+    assertSame(servlet.credentials.get("first"), servlet.credentials.get("second"));
+    assertEquals("/granted", second.location);
+
+    // a later duplicate is still answered from the completed exchange
+    Callback third = new Callback("third", "code1");
+    servlet.doGet(third.request, third.response);
+    third.awaitCompletion();
+    assertEquals(1, servlet.tokenServer.requests.get());
+
+    // a different code is exchanged separately
+    Callback other = new Callback("other", "code2");
+    servlet.doGet(other.request, other.response);
+    other.awaitCompletion();
+    assertEquals(2, servlet.tokenServer.requests.get());
+    servlet.destroy();
+  }
+
+  @Test
+  public void testTokenErrorResponse() throws Exception {
+    TestServlet servlet = new TestServlet();
+    servlet.tokenServer.statusCode = 400;
+    servlet.tokenServer.released.countDown();
+    Callback callback = new Callback("first", "code1");
+    servlet.doGet(callback.request, callback.response);
+    callback.awaitCompletion();
+    assertEquals(HttpServletResponse.SC_BAD_REQUEST, callback.error);
+    assertNull(servlet.credentials.get("first"));
+
+    // failed exchanges are not shared with later callbacks
+    Callback retry = new Callback("retry", "code1");
+    servlet.doGet(retry.request, retry.response);
+    retry.awaitCompletion();
+    assertEquals(2, servlet.tokenServer.requests.get());
+    servlet.destroy();
+  }
+
+  @Test
+  public void testErrorResponse() throws Exception {
+    TestServlet servlet = new TestServlet();
+    Callback callback = new Callback("first", null);
+    callback.parameters.put("error", "access_denied");
+    servlet.doGet(callback.request, callback.response);
+    assertFalse(callback.async);
+    assertEquals("access_denied", servlet.errors.get("first"));
+    assertEquals(0, servlet.tokenServer.requests.get());
+  }
+
+  @Test
+  public void testAuthorizationState() throws Exception {
+    TestServlet servlet = new TestServlet();
+    servlet.authorizationStateStore = new MemoryAuthorizationStateStore();
+    servlet.tokenServer.released.countDown();
+    AuthorizationState state = servlet.authorizationStateStore.create("user");
+
+    Callback forged = new Callback("forged", "code1");
+    forged.parameters.put("state", "forged");
+    servlet.doGet(forged.request, forged.response);
+    forged.awaitCompletion();
+    assertEquals(HttpServletResponse.SC_BAD_REQUEST, forged.error);
+    assertEquals(0, servlet.tokenServer.requests.get());
+
+    // a state created for another user is rejected
+    AuthorizationState otherState = servlet.authorizationStateStore.create("attacker");
+    Callback other = new Callback("other", "code1");
+    other.parameters.put("state", otherState.getState());
+    servlet.doGet(other.request, other.response);
+    other.awaitCompletion();
+    assertEquals(HttpServletResponse.SC_BAD_REQUEST, other.error);
+    assertEquals(0, servlet.tokenServer.requests.get());
+
+    Callback callback = new Callback("first", "code2");
+    callback.parameters.put("state", state.getState());
+    servlet.doGet(callback.request, callback.response);
+    callback.awaitCompletion();
+    assertEquals("abc", servlet.credentials.get("first").getAccessToken());
+    assertEquals(1, servlet.tokenServer.requests.get());
+    servlet.destroy();
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    TestServlet servlet = new TestServlet();
+    Callback callback = new Callback("first", "code1");
+    servlet.doGet(callback.request, callback.response);
+    assertEquals(
+        TimeUnit.SECONDS.toMillis(
+            AbstractAsyncAuthorizationCodeCallbackServlet.ASYNC_TIMEOUT_SECONDS),
+        callback.timeout);
+
+    callback.listener.onTimeout(new AsyncEvent(callback.asyncContext));
+    callback.awaitCompletion();
+    assertEquals(HttpServletResponse.SC_GATEWAY_TIMEOUT, callback.error);
+
+    // the exchange still completes for duplicate callbacks, without answering again
+    servlet.tokenServer.released.countDown();
+    Callback duplicate = new Callback("duplicate", "code1");
+    servlet.doGet(duplicate.request, duplicate.response);
+    duplicate.awaitCompletion();
+    assertEquals("/granted", duplicate.location);
+    assertNull(servlet.credentials.get("first"));
+    assertEquals(1, callback.completions.get());
+    assertEquals(1, servlet.tokenServer.requests.get());
+    servlet.destroy();
+  }
+
+  @Test
+  public void testCompletedByContainer() throws Exception {
+    TestServlet servlet = new TestServlet();
+    Callback callback = new Callback("first", "code1");
+    servlet.doGet(callback.request, callback.response);
+    callback.listener.onError(new AsyncEvent(callback.asyncContext, new IOException()));
+    assertEquals(1, callback.completions.get());
+
+    // the container completed another request on its own, without calling the listener
+    Callback other = new Callback("other", "code1");
+    servlet.doGet(other.request, other.response);
+    other.containerCompleted = true;
+
+    servlet.tokenServer.released.countDown();
+    Callback duplicate = new Callback("duplicate", "code1");
+    servlet.doGet(duplicate.request, duplicate.response);
+    duplicate.awaitCompletion();
+    assertEquals(1, callback.completions.get());
+    assertEquals(0, other.completions.get());
+    assertNull(servlet.credentials.get("first"));
+    assertNull(servlet.credentials.get("other"));
+    assertEquals("abc", servlet.credentials.get("duplicate").getAccessToken());
+    servlet.destroy();
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.extensions.servlet.auth.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.client.auth.oauth2.AuthorizationCodeFlow;
+import com.google.api.client.auth.oauth2.BearerToken;
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.TokenResponse;
+import com.google.api.client.http.BasicAuthentication;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.json.MockJsonFactory;
+import com.google.api.client.util.store.MemoryDataStoreFactory;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import org.junit.Test;
+
+public class AbstractAuthorizationCodeServletTest {
+
+  private static final int USERS = 8;
+
+  private static class TestServlet extends AbstractAuthorizationCodeServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    final AtomicInteger flowInitializations = new AtomicInteger();
+
+    final CyclicBarrier barrier;
+
+    final MemoryDataStoreFactory dataStoreFactory = new MemoryDataStoreFactory();
+
+    SessionCredentialCache credentialCache;
+
+    TestServlet(CyclicBarrier barrier) {
+      this.barrier = barrier;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+      Credential credential = getCredential();
+      try {
+        // only passes if all requests are serviced at the same time
+        if (barrier != null) {
+          barrier.await(10, TimeUnit.SECONDS);
+        }
+      } catch (Exception e) {
+        throw new IOException(e);
+      }
+      assertSame(credential, getCredential());
+      assertSame(credential, getCredential(req));
+      resp.addHeader("X-Access-Token", credential.getAccessToken());
+    }
+
+    @Override
+    protected AuthorizationCodeFlow initializeFlow() throws IOException {
+      flowInitializations.incrementAndGet();
+      return new AuthorizationCodeFlow.Builder(
+              BearerToken.authorizationHeaderAccessMethod(),
+              new MockHttpTransport(),
+              new MockJsonFactory(),
+              new GenericUrl("https://server.example.com/token"),
+              new BasicAuthentication("id", "secret"),
+              "id",
+              "https://server.example.com/authorize")
+          .setDataStoreFactory(dataStoreFactory)
+          .build();
+    }
+
+    @Override
+    protected SessionCredentialCache getCredentialCache() {
+      return credentialCache;
+    }
+
+    @Override
+    protected String getRedirectUri(HttpServletRequest req) {
+      return "https://app.example.com/oauth2callback";
+    }
+
+    @Override
+    protected String getUserId(HttpServletRequest req) {
+      return req.getParameter("user");
+    }
+  }
+
+  @Test
+  public void testConcurrentRequests() throws Exception {
+    final TestServlet servlet = new TestServlet(new CyclicBarrier(USERS));
+    AuthorizationCodeFlow flow = servlet.initializeFlow();
+    for (int i = 0; i < USERS; i++) {
+      flow.createAndStoreCredential(new TokenResponse().setAccessToken("token" + i), "user" + i);
+    }
+    servlet.flowInitializations.set(0);
+
+    ExecutorService executor = Executors.newFixedThreadPool(USERS);
+    try {
+      List<Future<Map<String, String>>> futures = new ArrayList<Future<Map<String, String>>>();
+      for (int i = 0; i < USERS; i++) {
+        final String user = "user" + i;
+        futures.add(
+            executor.submit(
+                new Callable<Map<String, String>>() {
+                  public Map<String, String> call() throws Exception {
+                    Map<String, String> responseHeaders = new HashMap<String, String>();
+                    servlet.service(newRequest(user), newResponse(responseHeaders));
+                    return responseHeaders;
+                  }
+                }));
+      }
+      for (int i = 0; i < USERS; i++) {
+        assertEquals("token" + i, futures.get(i).get().get("X-Access-Token"));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(1, servlet.flowInitializations.get());
+    assertNull(servlet.getCredential());
+  }
+
+  @Test
+  public void testRedirectWithoutCredential() throws Exception {
+    TestServlet servlet = new TestServlet(null);
+    Map<String, String> responseHeaders = new HashMap<String, String>();
+    HttpServletRequest request = newRequest("unknown");
+    servlet.service(request, newResponse(responseHeaders));
+    assertTrue(responseHeaders.get("Location").startsWith("https://server.example.com/authorize"));
+    assertNull(servlet.getCredential(request));
+  }
+
+  @Test
+  public void testCredentialCache() throws Exception {
+    TestServlet servlet = new TestServlet(null);
+    servlet.credentialCache = new SessionCredentialCache.Builder().build();
+    AuthorizationCodeFlow flow = servlet.initializeFlow();
+    flow.createAndStoreCredential(new TokenResponse().setAccessToken("token"), "user");
+    HttpSession session = MockServlets.newSession();
+
+    Map<String, String> responseHeaders = new HashMap<String, String>();
+    servlet.service(newRequest("user", session), newResponse(responseHeaders));
+    assertEquals("token", responseHeaders.get("X-Access-Token"));
+    Credential credential = servlet.credentialCache.get(session, "user");
+    assertNotNull(credential);
+
+    // later requests of the session do not read the data store
+    flow.getCredentialDataStore().clear();
+    responseHeaders.clear();
+    servlet.service(newRequest("user", session), newResponse(responseHeaders));
+    assertEquals("token", responseHeaders.get("X-Access-Token"));
+    servlet.service(newRequest("user"), newResponse(responseHeaders));
+    assertTrue(responseHeaders.containsKey("Location"));
+
+    // a refresh invalidates the cached credential
+    servlet.credentialCache.onTokenResponse(credential, new TokenResponse());
+    responseHeaders.clear();
+    servlet.service(newRequest("user", session), newResponse(responseHeaders));
+    assertTrue(responseHeaders.containsKey("Location"));
+    assertNull(servlet.credentialCache.get(session, "user"));
+  }
+
+  /** Returns a GET request whose {@code user} parameter is the given user ID. */
+  static HttpServletRequest newRequest(String user) {
+    return newRequest(user, null);
+  }
+
+  /**
+   * Returns a GET request whose {@code user} parameter is the given user ID and whose session is
+   * the given one or {@code null} for none.
+   */
+  static HttpServletRequest newRequest(final String user, final HttpSession session) {
+    final Map<String, Object> attributes = new HashMap<String, Object>();
+    return MockServlets.newProxy(
+        HttpServletRequest.class,
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+              case "getMethod":
+                return "GET";
+              case "getProtocol":
+                return "HTTP/1.1";
+              case "getParameter":
+                return "user".equals(args[0]) ? user : null;
+              case "getAttribute":
+                return attributes.get(args[0]);
+              case "setAttribute":
+                return attributes.put((String) args[0], args[1]);
+              case "removeAttribute":
+                return attributes.remove(args[0]);
+              case "getSession":
+                return session;
+              default:
+                return null;
+            }
+          }
+        });
+  }
+
+  /** Returns a response that records its headers and redirect location into the given map. */
+  static HttpServletResponse newResponse(final Map<String, String> headers) {
+    return MockServlets.newProxy(
+        HttpServletResponse.class,
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+              case "addHeader":
+              case "setHeader":
+                headers.put((String) args[0], (String) args[1]);
+                return null;
+              case "sendRedirect":
+                headers.put("Location", (String) args[0]);
+                return null;
+              default:
+                return null;
+            }
+          }
+        });
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.extensions.servlet.auth.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.api.client.auth.oauth2.BearerTokenVerifier;
+import com.google.api.client.auth.oauth2.BearerTokenVerifier.VerifiedToken;
+import com.google.api.client.testing.http.FixedClock;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AbstractBearerTokenFilterTest {
+
+  private static final long NOW_MILLIS = 1000000000000L;
+
+  /** Verifier that accepts tokens starting with {@code "valid"} and counts verifications. */
+  private static class TestVerifier implements BearerTokenVerifier {
+
+    final AtomicInteger verifications = new AtomicInteger();
+
+    volatile Long expirationTimeMillis;
+
+    public VerifiedToken verify(String token) throws IOException {
+      verifications.incrementAndGet();
+      if (token.equals("unavailable")) {
+        throw new IOException("authorization server unavailable");
+      }
+      return token.startsWith("valid")
+          ? new VerifiedToken(token, expirationTimeMillis, null)
+          : null;
+    }
+  }
+
+  private static class TestFilter extends AbstractBearerTokenFilter {
+
+    final TestVerifier verifier = new TestVerifier();
+
+    TestFilter(FixedClock clock) {
+      super(60, 100, clock);
+    }
+
+    @Override
+    protected BearerTokenVerifier initializeVerifier() {
+      return verifier;
+    }
+
+    @Override
+    protected String getRealm(HttpServletRequest req) {
+      return "example";
+    }
+  }
+
+  /** Filtered request and its response. */
+  private static class Exchange {
+
+    final Map<String, Object> attributes = new HashMap<String, Object>();
+
+    final Map<String, String> headers = new HashMap<String, String>();
+
+    int status;
+
+    VerifiedToken filtered;
+
+    final HttpServletRequest request;
+
+    final HttpServletResponse response =
+        MockServlets.newProxy(
+            HttpServletResponse.class,
+            new InvocationHandler() {
+              public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("setHeader")) {
+                  headers.put((String) args[0], (String) args[1]);
+                } else if (method.getName().equals("sendError")) {
+                  status = (Integer) args[0];
+                }
+                return null;
+              }
+            });
+
+    final FilterChain chain =
+        new FilterChain() {
+          public void doFilter(ServletRequest request, ServletResponse response) {
+            filtered = AbstractBearerTokenFilter.getVerifiedToken((HttpServletRequest) request);
+            status = HttpServletResponse.SC_OK;
+          }
+        };
+
+    Exchange(String... authorization) {
+      final List<String> authorizationHeaders = Arrays.asList(authorization);
+      request =
+          MockServlets.newProxy(
+              HttpServletRequest.class,
+              new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                  switch (method.getName()) {
+                    case "getHeaders":
+                      return "Authorization".equals(args[0])
+                          ? Collections.enumeration(authorizationHeaders)
+                          : null;
+                    case "getAttribute":
+                      return attributes.get(args[0]);
+                    case "setAttribute":
+                      return attributes.put((String) args[0], args[1]);
+                    default:
+                      return null;
+                  }
+                }
+              });
+    }
+  }
+
+  private final FixedClock clock = new FixedClock(NOW_MILLIS);
+
+  private TestFilter filter;
+
+  @Before
+  public void setUp() throws Exception {
+    filter = new TestFilter(clock);
+    filter.init(null);
+  }
+
+  private Exchange filter(String... authorization) throws Exception {
+    Exchange exchange = new Exchange(authorization);
+    filter.doFilter(exchange.request, exchange.response, exchange.chain);
+    return exchange;
+  }
+
+  @Test
+  public void testValidToken() throws Exception {
+    Exchange exchange = filter("Bearer valid-1");
+    assertEquals(HttpServletResponse.SC_OK, exchange.status);
+    assertEquals("valid-1", exchange.filtered.getSubject());
+    assertSame(
+        exchange.filtered,
+        exchange.attributes.get(AbstractBearerTokenFilter.VERIFIED_TOKEN_ATTRIBUTE));
+
+    // the scheme is case-insensitive and the verified token is cached
+    exchange = filter("bearer valid-1");
+    assertEquals(HttpServletResponse.SC_OK, exchange.status);
+    assertEquals(1, filter.verifier.verifications.get());
+    clock.setTime(NOW_MILLIS + 60000L);
+    filter("Bearer valid-1");
+    assertEquals(2, filter.verifier.verifications.get());
+  }
+
+  @Test
+  public void testCacheBoundedByTokenExpiration() throws Exception {
+    filter.verifier.expirationTimeMillis = NOW_MILLIS + 10000L;
+    filter("Bearer valid-1");
+    clock.setTime(NOW_MILLIS + 9000L);
+    filter("Bearer valid-1");
+    assertEquals(1, filter.verifier.verifications.get());
+    clock.setTime(NOW_MILLIS + 10000L);
+    filter("Bearer valid-1");
+    assertEquals(2, filter.verifier.verifications.get());
+  }
+
+  @Test
+  public void testMissingToken() throws Exception {
+    Exchange exchange = filter();
+    assertEquals(HttpServletResponse.SC_UNAUTHORIZED, exchange.status);
+    assertEquals("Bearer realm=\"example\"", exchange.headers.get("WWW-Authenticate"));
+    assertNull(exchange.filtered);
+
+    exchange = filter("Basic dXNlcjpwYXNz");
+    assertEquals(HttpServletResponse.SC_UNAUTHORIZED, exchange.status);
+  }
+
+  @Test
+  public void testInvalidToken() throws Exception {
+    Exchange exchange = filter("Bearer forged");
+    assertEquals(HttpServletResponse.SC_UNAUTHORIZED, exchange.status);
+    assertEquals(
+        "Bearer realm=\"example\",error=\"invalid_token\",error_description=\"Invalid token\"",
+        exchange.headers.get("WWW-Authenticate"));
+    assertNull(exchange.filtered);
+    // invalid tokens are not cached
+    filter("Bearer forged");
+    assertEquals(2, filter.verifier.verifications.get());
+  }
+
+  @Test
+  public void testMalformedRequest() throws Exception {
+    Exchange exchange = filter("Bearer valid-1", "Bearer valid-2");
+    assertEquals(HttpServletResponse.SC_BAD_REQUEST, exchange.status);
+    assertEquals(
+        "Bearer realm=\"example\",error=\"invalid_request\",error_description=\"Multiple tokens\"",
+        exchange.headers.get("WWW-Authenticate"));
+    assertEquals(HttpServletResponse.SC_BAD_REQUEST, filter("Bearer valid\"1").status);
+    assertEquals(HttpServletResponse.SC_BAD_REQUEST, filter("Bearer ==").status);
+    assertEquals(0, filter.verifier.verifications.get());
+  }
+
+  @Test
+  public void testVerifierUnavailable() throws Exception {
+    Exchange exchange = filter("Bearer unavailable");
+    assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, exchange.status);
+    assertNull(exchange.filtered);
+  }
+}
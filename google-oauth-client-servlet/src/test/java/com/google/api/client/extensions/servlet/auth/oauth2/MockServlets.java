@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.extensions.servlet.auth.oauth2;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.http.HttpSession;
+
+/** Creates mock servlet API objects for tests. */
+final class MockServlets {
+
+  /**
+   * Returns a proxy of the given interface whose methods are handled by the given handler. Methods
+   * that return a primitive return its default value when the handler returns {@code null}.
+   */
+  static <T> T newProxy(Class<T> type, final InvocationHandler handler) {
+    return type.cast(
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            new InvocationHandler() {
+              public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result = handler.invoke(proxy, method, args);
+                if (result == null && method.getReturnType() == boolean.class) {
+                  return false;
+                }
+                if (result == null && method.getReturnType() == int.class) {
+                  return 0;
+                }
+                if (result == null && method.getReturnType() == long.class) {
+                  return 0L;
+                }
+                return result;
+              }
+            }));
+  }
+
+  /** Returns a session that keeps its attributes in memory. */
+  static HttpSession newSession() {
+    final Map<String, Object> attributes = new ConcurrentHashMap<String, Object>();
+    return newProxy(
+        HttpSession.class,
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+              case "getAttribute":
+                return attributes.get(args[0]);
+              case "setAttribute":
+                return attributes.put((String) args[0], args[1]);
+              case "removeAttribute":
+                return attributes.remove(args[0]);
+              default:
+                return null;
+            }
+          }
+        });
+  }
+
+  private MockServlets() {}
+}
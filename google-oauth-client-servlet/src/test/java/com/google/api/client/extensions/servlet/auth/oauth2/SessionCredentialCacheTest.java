@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.extensions.servlet.auth.oauth2;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.api.client.auth.oauth2.BearerToken;
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.TokenErrorResponse;
+import com.google.api.client.auth.oauth2.TokenResponse;
+import com.google.api.client.testing.http.FixedClock;
+import javax.servlet.http.HttpSession;
+import org.junit.Test;
+
+public class SessionCredentialCacheTest {
+
+  private static final long NOW_MILLIS = 1000000000000L;
+
+  private final FixedClock clock = new FixedClock(NOW_MILLIS);
+
+  private final SessionCredentialCache cache =
+      new SessionCredentialCache.Builder().setClock(clock).setMaxAgeSeconds(60).build();
+
+  private final Credential credential =
+      new Credential(BearerToken.authorizationHeaderAccessMethod()).setAccessToken("token");
+
+  @Test
+  public void testGet() {
+    HttpSession session = MockServlets.newSession();
+    assertNull(cache.get(session, "user"));
+    cache.put(session, "user", credential);
+    assertSame(credential, cache.get(session, "user"));
+    // a different user of the same session
+    assertNull(cache.get(session, "other"));
+  }
+
+  @Test
+  public void testMaxAge() {
+    HttpSession session = MockServlets.newSession();
+    cache.put(session, "user", credential);
+    clock.setTime(NOW_MILLIS + 59000L);
+    assertSame(credential, cache.get(session, "user"));
+    clock.setTime(NOW_MILLIS + 60000L);
+    assertNull(cache.get(session, "user"));
+  }
+
+  @Test
+  public void testInvalidateSession() {
+    HttpSession session = MockServlets.newSession();
+    cache.put(session, "user", credential);
+    cache.invalidate(session);
+    assertNull(cache.get(session, "user"));
+  }
+
+  @Test
+  public void testRefreshInvalidatesAllSessions() {
+    HttpSession session = MockServlets.newSession();
+    HttpSession otherSession = MockServlets.newSession();
+    HttpSession otherUserSession = MockServlets.newSession();
+    Credential otherUserCredential =
+        new Credential(BearerToken.authorizationHeaderAccessMethod()).setAccessToken("token");
+    cache.put(session, "user", credential);
+    cache.put(otherSession, "user", credential);
+    cache.put(otherUserSession, "other", otherUserCredential);
+
+    clock.setTime(NOW_MILLIS + 1000L);
+    cache.onTokenResponse(credential, new TokenResponse());
+    assertNull(cache.get(session, "user"));
+    assertNull(cache.get(otherSession, "user"));
+    assertSame(otherUserCredential, cache.get(otherUserSession, "other"));
+
+    // credentials cached after the refresh are used again
+    clock.setTime(NOW_MILLIS + 2000L);
+    cache.put(session, "user", credential);
+    assertSame(credential, cache.get(session, "user"));
+
+    clock.setTime(NOW_MILLIS + 3000L);
+    cache.onTokenErrorResponse(credential, new TokenErrorResponse());
+    assertNull(cache.get(session, "user"));
+  }
+}
@@ -17,9 +17,6 @@ package com.google.api.client.auth.oauth;
 import com.google.api.client.util.StringUtils;
 import com.google.common.io.BaseEncoding;
 import java.security.GeneralSecurityException;
-import javax.crypto.Mac;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
 
 /** OAuth {@code "HMAC-SHA256"} signature method. */
 public final class OAuthHmacSha256Signer implements OAuthSigner {
@@ -30,6 +27,9 @@ public final class OAuthHmacSha256Signer implements OAuthSigner {
   /** Token secret */
   private String tokenSharedSecret;
 
+  /** Key derived from the secrets or {@code null} if not yet derived. */
+  private volatile SigningEngines.HmacKey hmacKey;
+
   public void setTokenSecret(String tokenSecret) {
     tokenSharedSecret = tokenSecret;
   }
@@ -45,20 +45,13 @@ public final class OAuthHmacSha256Signer implements OAuthSigner {
 
   @Override
   public String computeSignature(String signatureBaseString) throws GeneralSecurityException {
-    // compute key
-    StringBuilder keyBuffer = new StringBuilder();
-    if (clientSharedSecret != null) {
-      keyBuffer.append(OAuthParameters.escape(clientSharedSecret));
-    }
-    keyBuffer.append('&');
-    if (tokenSharedSecret != null) {
-      keyBuffer.append(OAuthParameters.escape(tokenSharedSecret));
-    }
-    String key = keyBuffer.toString();
+    // derive the key only when the token secret changed
+    SigningEngines.HmacKey hmacKey =
+        SigningEngines.hmacKey(this.hmacKey, "HmacSHA256", clientSharedSecret, tokenSharedSecret);
+    this.hmacKey = hmacKey;
     // sign
-    SecretKey secretKey = new SecretKeySpec(StringUtils.getBytesUtf8(key), "HmacSHA256");
-    Mac mac = Mac.getInstance("HmacSHA256");
-    mac.init(secretKey);
-    return BaseEncoding.base64().encode(mac.doFinal(StringUtils.getBytesUtf8(signatureBaseString)));
+    return BaseEncoding.base64()
+        .encode(
+            SigningEngines.hmacSha256(hmacKey.key, StringUtils.getBytesUtf8(signatureBaseString)));
   }
 }
@@ -18,14 +18,14 @@ import com.google.api.client.util.Base64;
 import com.google.api.client.util.Beta;
 import com.google.api.client.util.StringUtils;
 import java.security.GeneralSecurityException;
-import javax.crypto.Mac;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
 
 /**
  * {@link Beta} <br>
  * OAuth {@code "HMAC-SHA1"} signature method.
  *
+ * <p>The key is derived from the shared secrets once and signing reuses a MAC engine per thread, so
+ * a signer should be kept rather than created for each request.
+ *
  * @since 1.0
  * @author Yaniv Inbar
  */
@@ -38,27 +38,20 @@ public final class OAuthHmacSigner implements OAuthSigner {
   /** Token-shared secret or {@code null} for none. */
   public String tokenSharedSecret;
 
+  /** Key derived from the shared secrets or {@code null} if not yet derived. */
+  private volatile SigningEngines.HmacKey hmacKey;
+
   public String getSignatureMethod() {
     return "HMAC-SHA1";
   }
 
   public String computeSignature(String signatureBaseString) throws GeneralSecurityException {
-    // compute key
-    StringBuilder keyBuf = new StringBuilder();
-    String clientSharedSecret = this.clientSharedSecret;
-    if (clientSharedSecret != null) {
-      keyBuf.append(OAuthParameters.escape(clientSharedSecret));
-    }
-    keyBuf.append('&');
-    String tokenSharedSecret = this.tokenSharedSecret;
-    if (tokenSharedSecret != null) {
-      keyBuf.append(OAuthParameters.escape(tokenSharedSecret));
-    }
-    String key = keyBuf.toString();
+    // derive the key only when a shared secret changed
+    SigningEngines.HmacKey hmacKey =
+        SigningEngines.hmacKey(this.hmacKey, "HmacSHA1", clientSharedSecret, tokenSharedSecret);
+    this.hmacKey = hmacKey;
     // sign
-    SecretKey secretKey = new SecretKeySpec(StringUtils.getBytesUtf8(key), "HmacSHA1");
-    Mac mac = Mac.getInstance("HmacSHA1");
-    mac.init(secretKey);
-    return Base64.encodeBase64String(mac.doFinal(StringUtils.getBytesUtf8(signatureBaseString)));
+    return Base64.encodeBase64String(
+        SigningEngines.hmacSha1(hmacKey.key, StringUtils.getBytesUtf8(signatureBaseString)));
   }
 }
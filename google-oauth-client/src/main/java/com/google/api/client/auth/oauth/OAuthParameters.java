@@ -16,18 +16,22 @@ package com.google.api.client.auth.oauth;
 
 import com.google.api.client.http.GenericUrl;
 import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpEncoding;
+import com.google.api.client.http.HttpEncodingStreamingContent;
 import com.google.api.client.http.HttpExecuteInterceptor;
 import com.google.api.client.http.HttpRequest;
 import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.UrlEncodedContent;
+import com.google.api.client.util.Base64;
 import com.google.api.client.util.Beta;
 import com.google.api.client.util.Data;
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.StreamingContent;
 import com.google.api.client.util.escape.PercentEscaper;
-import com.google.common.collect.Multiset;
-import com.google.common.collect.SortedMultiset;
-import com.google.common.collect.TreeMultiset;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.Collection;
 import java.util.Map;
@@ -52,14 +56,24 @@ import java.util.Map;
  * <p>If you have a custom request initializer, take a look at the sample usage for {@link
  * HttpExecuteInterceptor}, which this class also implements.
  *
+ * <p>Signing a request stores its nonce, timestamp and signature in the fields of this class, so an
+ * instance must not be used to sign concurrent requests. Use {@link OAuthSigningConfiguration} to
+ * share a single configuration between threads.
+ *
  * @since 1.0
  * @author Yaniv Inbar
  */
 @Beta
 public final class OAuthParameters implements HttpExecuteInterceptor, HttpRequestInitializer {
 
-  /** Secure random number generator to sign requests. */
-  private static final SecureRandom RANDOM = new SecureRandom();
+  /** Secure random number generator to sign requests, per thread to avoid contention. */
+  private static final ThreadLocal<SecureRandom> RANDOM =
+      new ThreadLocal<SecureRandom>() {
+        @Override
+        protected SecureRandom initialValue() {
+          return new SecureRandom();
+        }
+      };
 
   /** Required OAuth signature algorithm. */
   public OAuthSigner signer;
@@ -79,6 +93,28 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
   /** Realm. */
   public String realm;
 
+  /**
+   * Base64 encoded hash of the request body as defined by the OAuth Request Body Hash extension.
+   * Normally computed using {@link #computeBodyHash} when signing a request if {@link
+   * #bodyHashAlgorithm} is set, and reset when signing a request without one, so that it is never
+   * carried over from a previously signed request.
+   *
+   * @since 1.40.0
+   */
+  public String bodyHash;
+
+  /**
+   * Message digest algorithm used to compute {@link #bodyHash} when signing a request whose content
+   * is not URL-encoded, such as {@code "SHA-1"} or {@code "SHA-256"}, or {@code null} to not
+   * compute a body hash.
+   *
+   * <p>The extension requires the algorithm to match the one of the signature method, for example
+   * {@code "SHA-1"} for {@code HMAC-SHA1} and {@code RSA-SHA1}.
+   *
+   * @since 1.40.0
+   */
+  public String bodyHashAlgorithm;
+
   /** Signature. Required but normally computed using {@link #computeSignature}. */
   public String signature;
 
@@ -113,7 +149,12 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
    * the {@link #nonce} field.
    */
   public void computeNonce() {
-    nonce = Long.toHexString(Math.abs(RANDOM.nextLong()));
+    nonce = newNonce();
+  }
+
+  /** Returns a nonce based on the hex string of a random non-negative long. */
+  static String newNonce() {
+    return Long.toHexString(Math.abs(RANDOM.get().nextLong()));
   }
 
   /**
@@ -125,32 +166,33 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
   }
 
   /**
-   * This class is used as the Entry for the SortedMultiset. Parameters are sorted lexically first
-   * by key, then by value.
+   * Computes the hash of the given request content using {@link #bodyHashAlgorithm}, setting the
+   * value of the {@link #bodyHash} field.
+   *
+   * <p>The content is streamed through the message digest without being buffered, so it must
+   * support being written more than once (see {@link HttpContent#retrySupported()}).
+   *
+   * @param content request content or {@code null} for an empty body
+   * @throws IllegalArgumentException if the content cannot be written more than once
+   * @since 1.40.0
    */
-  private static class Parameter implements Comparable<Parameter> {
-    private final String key;
-    private final String value;
-
-    public Parameter(String key, String value) {
-      this.key = key;
-      this.value = value;
-    }
-
-    public String getKey() {
-      return key;
-    }
-
-    public String getValue() {
-      return value;
-    }
+  public void computeBodyHash(HttpContent content) throws IOException, GeneralSecurityException {
+    computeBodyHash(content, null);
+  }
 
-    @Override
-    public int compareTo(Parameter p) {
-      // Compare lexically by key, then value on ties
-      int result = key.compareTo(p.key);
-      return result == 0 ? value.compareTo(p.value) : result;
+  private void computeBodyHash(HttpContent content, HttpEncoding encoding)
+      throws IOException, GeneralSecurityException {
+    MessageDigest digest = MessageDigest.getInstance(bodyHashAlgorithm);
+    if (content != null) {
+      Preconditions.checkArgument(
+          content.retrySupported(), "body hash requires content that can be written twice");
+      StreamingContent streamingContent =
+          encoding == null ? content : new HttpEncodingStreamingContent(content, encoding);
+      DigestOutputStream out = new DigestOutputStream(digest);
+      streamingContent.writeTo(out);
+      out.flush();
     }
+    bodyHash = Base64.encodeBase64String(digest.digest());
   }
 
   /**
@@ -164,7 +206,8 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
     OAuthSigner signer = this.signer;
     String signatureMethod = this.signatureMethod = signer.getSignatureMethod();
     // oauth_* parameters (except oauth_signature)
-    SortedMultiset<Parameter> parameters = TreeMultiset.create();
+    SignatureBaseStringBuilder parameters = SignatureBaseStringBuilder.get();
+    putParameterIfValueNotNull(parameters, "oauth_body_hash", bodyHash);
     putParameterIfValueNotNull(parameters, "oauth_callback", callback);
     putParameterIfValueNotNull(parameters, "oauth_consumer_key", consumerKey);
     putParameterIfValueNotNull(parameters, "oauth_nonce", nonce);
@@ -180,47 +223,15 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
         String name = fieldEntry.getKey();
         if (value instanceof Collection<?>) {
           for (Object repeatedValue : (Collection<?>) value) {
-            putParameter(parameters, name, repeatedValue);
+            parameters.addParameter(name, repeatedValue);
           }
         } else {
-          putParameter(parameters, name, value);
+          parameters.addParameter(name, value);
         }
       }
     }
-    // normalize parameters
-    StringBuilder parametersBuf = new StringBuilder();
-    boolean first = true;
-    for (Parameter parameter : parameters.elementSet()) {
-      if (first) {
-        first = false;
-      } else {
-        parametersBuf.append('&');
-      }
-      parametersBuf.append(parameter.getKey());
-      String value = parameter.getValue();
-      if (value != null) {
-        parametersBuf.append('=').append(value);
-      }
-    }
-    String normalizedParameters = parametersBuf.toString();
-    // normalize URL, removing any query parameters and possibly port
-    GenericUrl normalized = new GenericUrl();
-    String scheme = requestUrl.getScheme();
-    normalized.setScheme(scheme);
-    normalized.setHost(requestUrl.getHost());
-    normalized.setPathParts(requestUrl.getPathParts());
-    int port = requestUrl.getPort();
-    if ("http".equals(scheme) && port == 80 || "https".equals(scheme) && port == 443) {
-      port = -1;
-    }
-    normalized.setPort(port);
-    String normalizedPath = normalized.build();
-    // signature base string
-    StringBuilder buf = new StringBuilder();
-    buf.append(escape(requestMethod)).append('&');
-    buf.append(escape(normalizedPath)).append('&');
-    buf.append(escape(normalizedParameters));
-    String signatureBaseString = buf.toString();
+    // signature base string with normalized URL and parameters
+    String signatureBaseString = parameters.build(requestMethod, requestUrl);
     signature = signer.computeSignature(signatureBaseString);
   }
 
@@ -231,6 +242,7 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
   public String getAuthorizationHeader() {
     StringBuilder buf = new StringBuilder("OAuth");
     appendParameter(buf, "realm", realm);
+    appendParameter(buf, "oauth_body_hash", bodyHash);
     appendParameter(buf, "oauth_callback", callback);
     appendParameter(buf, "oauth_consumer_key", consumerKey);
     appendParameter(buf, "oauth_nonce", nonce);
@@ -251,16 +263,12 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
   }
 
   private void putParameterIfValueNotNull(
-      Multiset<Parameter> parameters, String key, String value) {
+      SignatureBaseStringBuilder parameters, String key, String value) {
     if (value != null) {
-      putParameter(parameters, key, value);
+      parameters.addParameter(key, value);
     }
   }
 
-  private void putParameter(Multiset<Parameter> parameters, String key, Object value) {
-    parameters.add(new Parameter(escape(key), value == null ? null : escape(value.toString())));
-  }
-
   /** Returns the escaped form of the given value using OAuth escaping rules. */
   public static String escape(String value) {
     return ESCAPER.escape(value);
@@ -273,6 +281,16 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
   public void intercept(HttpRequest request) throws IOException {
     computeNonce();
     computeTimestamp();
+    sign(request);
+  }
+
+  /**
+   * Computes the signature of the given request, including its URL-encoded content or the hash of
+   * any other content if {@link #bodyHashAlgorithm} is set, and sets its {@code Authorization}
+   * header.
+   */
+  void sign(HttpRequest request) throws IOException {
+    bodyHash = null;
     try {
       GenericUrl url = request.getUrl();
       HttpContent content = request.getContent();
@@ -280,6 +298,8 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
       if (content instanceof UrlEncodedContent) {
         urlEncodedParams = Data.mapOf(((UrlEncodedContent) content).getData());
         url.putAll(urlEncodedParams);
+      } else if (bodyHashAlgorithm != null) {
+        computeBodyHash(content, request.getEncoding());
       }
       computeSignature(request.getRequestMethod(), url);
       if (urlEncodedParams != null) {
@@ -294,4 +314,24 @@ public final class OAuthParameters implements HttpExecuteInterceptor, HttpReques
     }
     request.getHeaders().setAuthorization(getAuthorizationHeader());
   }
+
+  /** Output stream that only feeds the bytes written to it into a message digest. */
+  private static final class DigestOutputStream extends OutputStream {
+
+    private final MessageDigest digest;
+
+    DigestOutputStream(MessageDigest digest) {
+      this.digest = digest;
+    }
+
+    @Override
+    public void write(int b) {
+      digest.update((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      digest.update(b, off, len);
+    }
+  }
 }
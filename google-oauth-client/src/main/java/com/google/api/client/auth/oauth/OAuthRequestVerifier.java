@@ -0,0 +1,726 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth;
+
+import com.google.api.client.auth.openidconnect.MemoryReplayGuard;
+import com.google.api.client.auth.openidconnect.ReplayGuard;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.util.Base64;
+import com.google.api.client.util.Beta;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.SecurityUtils;
+import com.google.api.client.util.StringUtils;
+import com.google.api.client.util.escape.CharEscapers;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link Beta} <br>
+ * Verifies OAuth 1.0a signed requests received by a service provider.
+ *
+ * <p>The verifier parses the {@code Authorization: OAuth ...} header, rebuilds the signature base
+ * string with the same normalization as {@link OAuthParameters#computeSignature} and checks the
+ * signature with the secret or public key of the consumer. It also rejects requests whose timestamp
+ * is outside of the {@link Builder#setTimestampWindowSeconds(long) timestamp window} and requests
+ * whose nonce has been seen before, using a {@link ReplayGuard}. Sample usage:
+ *
+ * <pre>{@code
+ * OAuthRequestVerifier verifier = new OAuthRequestVerifier.Builder(secretProvider).build();
+ * ...
+ * OAuthParameters parameters =
+ *     verifier.verify(method, requestUrl, request.getHeader("Authorization"));
+ * if (parameters == null) {
+ *   // respond with 401
+ * }
+ * }</pre>
+ *
+ * <p>The {@code HMAC-SHA1}, {@code HMAC-SHA256} and {@code RSA-SHA1} signature methods are
+ * supported. Consumer secrets and public keys are cached for {@link
+ * Builder#setSecretCacheSeconds(long)} seconds, so that verification does not hit the {@link
+ * SecretProvider} for every request. The {@code HMAC} keys derived from the secrets are cached for
+ * the same time per consumer and token, and derived again only when a secret changed.
+ *
+ * <p>Implementation is thread-safe.
+ *
+ * @since 1.40.0
+ */
+@Beta
+public final class OAuthRequestVerifier {
+  private static final Logger LOGGER = Logger.getLogger(OAuthRequestVerifier.class.getName());
+
+  /**
+   * Default value for the accepted difference in seconds between a timestamp and now (5 minutes).
+   */
+  public static final long DEFAULT_TIMESTAMP_WINDOW_SECONDS = 5 * 60;
+
+  /** Default value for the seconds consumer secrets and public keys are cached (1 minute). */
+  public static final long DEFAULT_SECRET_CACHE_SECONDS = 60;
+
+  /** Default value for the maximum number of cached consumer secrets and public keys. */
+  public static final long DEFAULT_SECRET_CACHE_MAXIMUM_SIZE = 10000;
+
+  /** Prefix of the {@code Authorization} header value. */
+  private static final String AUTHORIZATION_SCHEME = "OAuth";
+
+  private final SecretProvider secretProvider;
+  private final ReplayGuard replayGuard;
+  private final Clock clock;
+  private final long timestampWindowSeconds;
+
+  /** Cached consumer secrets or {@code null} if caching is disabled. */
+  private final Cache<String, Optional<String>> consumerSecrets;
+
+  /** Cached consumer public keys or {@code null} if caching is disabled. */
+  private final Cache<String, Optional<PublicKey>> consumerPublicKeys;
+
+  /**
+   * Cached {@code HMAC} keys by signature method, consumer key and token or {@code null} if caching
+   * is disabled.
+   */
+  private final Cache<List<String>, SigningEngines.HmacKey> hmacKeys;
+
+  /** @param builder builder */
+  OAuthRequestVerifier(Builder builder) {
+    secretProvider = builder.secretProvider;
+    replayGuard = builder.replayGuard == null ? new MemoryReplayGuard() : builder.replayGuard;
+    clock = builder.clock;
+    timestampWindowSeconds = builder.timestampWindowSeconds;
+    if (builder.secretCacheSeconds == 0) {
+      consumerSecrets = null;
+      consumerPublicKeys = null;
+      hmacKeys = null;
+    } else {
+      consumerSecrets =
+          CacheBuilder.newBuilder()
+              .expireAfterWrite(builder.secretCacheSeconds, TimeUnit.SECONDS)
+              .maximumSize(builder.secretCacheMaximumSize)
+              .build();
+      consumerPublicKeys =
+          CacheBuilder.newBuilder()
+              .expireAfterWrite(builder.secretCacheSeconds, TimeUnit.SECONDS)
+              .maximumSize(builder.secretCacheMaximumSize)
+              .build();
+      hmacKeys =
+          CacheBuilder.newBuilder()
+              .expireAfterWrite(builder.secretCacheSeconds, TimeUnit.SECONDS)
+              .maximumSize(builder.secretCacheMaximumSize)
+              .build();
+    }
+  }
+
+  /** Returns the provider of consumer and token secrets. */
+  public SecretProvider getSecretProvider() {
+    return secretProvider;
+  }
+
+  /** Returns the replay guard used to reject nonces that have been seen before. */
+  public ReplayGuard getReplayGuard() {
+    return replayGuard;
+  }
+
+  /** Returns the clock. */
+  public Clock getClock() {
+    return clock;
+  }
+
+  /** Returns the accepted difference in seconds between a request timestamp and now. */
+  public long getTimestampWindowSeconds() {
+    return timestampWindowSeconds;
+  }
+
+  /**
+   * Parses the OAuth parameters of the given {@code Authorization} header value.
+   *
+   * <p>All parameters are percent-decoded, including {@link OAuthParameters#signature} and {@link
+   * OAuthParameters#signatureMethod}. Parameters without a field in {@link OAuthParameters} are not
+   * returned, but {@link #verify} includes them in the signature base string.
+   *
+   * @param authorizationHeader {@code Authorization} header value
+   * @return parsed parameters or {@code null} if the header does not use the {@code OAuth} scheme
+   * @throws IllegalArgumentException if the header is malformed
+   */
+  public static OAuthParameters parseAuthorizationHeader(String authorizationHeader) {
+    return parseAuthorizationHeader(authorizationHeader, new LinkedHashMap<String, String>());
+  }
+
+  /**
+   * Parses the OAuth parameters of the given {@code Authorization} header value as specified in <a
+   * href="https://tools.ietf.org/html/rfc5849#section-3.5.1">Authorization Header</a>, putting the
+   * parameters without a field in {@link OAuthParameters} into the given map.
+   *
+   * <p>Values are quoted strings, which may contain commas and backslash-escaped characters. The
+   * {@code realm} is kept as sent if it is not percent-encoded, as other clients do not encode it.
+   */
+  private static OAuthParameters parseAuthorizationHeader(
+      String authorizationHeader, Map<String, String> otherParameters) {
+    if (authorizationHeader == null
+        || !authorizationHeader.regionMatches(
+            true, 0, AUTHORIZATION_SCHEME, 0, AUTHORIZATION_SCHEME.length())
+        || authorizationHeader.length() > AUTHORIZATION_SCHEME.length()
+            && authorizationHeader.charAt(AUTHORIZATION_SCHEME.length()) != ' ') {
+      return null;
+    }
+    OAuthParameters parameters = new OAuthParameters();
+    Set<String> names = new HashSet<String>();
+    int length = authorizationHeader.length();
+    int index = AUTHORIZATION_SCHEME.length();
+    while (true) {
+      while (index < length
+          && (authorizationHeader.charAt(index) == ','
+              || isWhitespace(authorizationHeader.charAt(index)))) {
+        index++;
+      }
+      if (index == length) {
+        break;
+      }
+      int equals = authorizationHeader.indexOf('=', index);
+      Preconditions.checkArgument(
+          equals != -1
+              && isToken(authorizationHeader.substring(index, equals))
+              && equals + 1 < length
+              && authorizationHeader.charAt(equals + 1) == '"',
+          "malformed OAuth parameter at index %s",
+          index);
+      String name = CharEscapers.decodeUriPath(authorizationHeader.substring(index, equals));
+      StringBuilder quoted = new StringBuilder();
+      index = equals + 2;
+      while (true) {
+        Preconditions.checkArgument(index < length, "unterminated OAuth parameter: %s", name);
+        char c = authorizationHeader.charAt(index++);
+        if (c == '"') {
+          break;
+        }
+        if (c == '\\') {
+          Preconditions.checkArgument(index < length, "unterminated OAuth parameter: %s", name);
+          c = authorizationHeader.charAt(index++);
+        }
+        quoted.append(c);
+      }
+      while (index < length && isWhitespace(authorizationHeader.charAt(index))) {
+        index++;
+      }
+      Preconditions.checkArgument(
+          index == length || authorizationHeader.charAt(index) == ',',
+          "malformed OAuth parameter: %s",
+          name);
+      Preconditions.checkArgument(names.add(name), "duplicate OAuth parameter: %s", name);
+      if (name.equals("realm")) {
+        try {
+          parameters.realm = CharEscapers.decodeUriPath(quoted.toString());
+        } catch (IllegalArgumentException e) {
+          parameters.realm = quoted.toString();
+        }
+        continue;
+      }
+      String value = CharEscapers.decodeUriPath(quoted.toString());
+      switch (name) {
+        case "oauth_body_hash":
+          parameters.bodyHash = value;
+          break;
+        case "oauth_callback":
+          parameters.callback = value;
+          break;
+        case "oauth_consumer_key":
+          parameters.consumerKey = value;
+          break;
+        case "oauth_nonce":
+          parameters.nonce = value;
+          break;
+        case "oauth_signature":
+          parameters.signature = value;
+          break;
+        case "oauth_signature_method":
+          parameters.signatureMethod = value;
+          break;
+        case "oauth_timestamp":
+          parameters.timestamp = value;
+          break;
+        case "oauth_token":
+          parameters.token = value;
+          break;
+        case "oauth_verifier":
+          parameters.verifier = value;
+          break;
+        case "oauth_version":
+          parameters.version = value;
+          break;
+        default:
+          otherParameters.put(name, value);
+          break;
+      }
+    }
+    return parameters;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t';
+  }
+
+  /** Returns whether the given parameter name is non-empty and has no separator characters. */
+  private static boolean isToken(String name) {
+    if (name.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (c == '"' || c == ',' || c == '\\' || isWhitespace(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Verifies the given signed request.
+   *
+   * <p>The request URL must contain the query parameters of the request as received. For a request
+   * with {@code application/x-www-form-urlencoded} content, the form parameters must be added to it
+   * as query parameters, as {@link OAuthParameters#intercept} does when signing. If the request has
+   * an {@link OAuthParameters#bodyHash}, it is covered by the signature, but the caller must check
+   * it against the request body.
+   *
+   * <p>The nonce of a request is recorded only once its signature has been verified, so that forged
+   * requests cannot fill the replay guard.
+   *
+   * @param requestMethod HTTP request method
+   * @param requestUrl request URL as received, including form parameters
+   * @param authorizationHeader {@code Authorization} header value or {@code null} for none
+   * @return verified OAuth parameters or {@code null} if the request could not be verified
+   * @throws IOException if a secret could not be looked up or the replay guard could not be reached
+   */
+  public OAuthParameters verify(
+      String requestMethod, GenericUrl requestUrl, String authorizationHeader) throws IOException {
+    OAuthParameters parameters;
+    Map<String, String> otherParameters = new LinkedHashMap<String, String>();
+    try {
+      parameters = parseAuthorizationHeader(authorizationHeader, otherParameters);
+    } catch (IllegalArgumentException e) {
+      LOGGER.log(Level.INFO, "OAuth authorization header is malformed. ", e);
+      return null;
+    }
+    if (parameters == null
+        || parameters.consumerKey == null
+        || parameters.nonce == null
+        || parameters.signature == null
+        || parameters.signatureMethod == null
+        || parameters.timestamp == null) {
+      LOGGER.log(Level.INFO, "OAuth request is missing required parameters.");
+      return null;
+    }
+    if (parameters.version != null && !"1.0".equals(parameters.version)) {
+      LOGGER.log(Level.INFO, "OAuth request has an unsupported version.");
+      return null;
+    }
+    long timestampSeconds;
+    try {
+      timestampSeconds = Long.parseLong(parameters.timestamp);
+    } catch (NumberFormatException e) {
+      LOGGER.log(Level.INFO, "OAuth request has a malformed timestamp.");
+      return null;
+    }
+    long nowSeconds = TimeUnit.MILLISECONDS.toSeconds(clock.currentTimeMillis());
+    if (Math.abs(nowSeconds - timestampSeconds) > timestampWindowSeconds) {
+      LOGGER.log(Level.INFO, "OAuth request timestamp is outside of the accepted window.");
+      return null;
+    }
+    try {
+      if (!verifySignature(requestMethod, requestUrl, parameters, otherParameters)) {
+        LOGGER.log(Level.INFO, "OAuth request signature verification failed.");
+        return null;
+      }
+    } catch (GeneralSecurityException | IllegalArgumentException e) {
+      LOGGER.log(Level.INFO, "OAuth request signature verification failed. ", e);
+      return null;
+    }
+    String tokenId = parameters.timestamp + '\0' + parameters.nonce + '\0' + parameters.token;
+    if (!replayGuard.checkAndRecord(
+        parameters.consumerKey, tokenId, timestampSeconds + timestampWindowSeconds)) {
+      LOGGER.log(Level.INFO, "OAuth request nonce has already been used.");
+      return null;
+    }
+    return parameters;
+  }
+
+  /**
+   * Verifies the signature of the given request, whose base string also includes the header
+   * parameters without a field in {@link OAuthParameters}, except {@code realm}.
+   */
+  private boolean verifySignature(
+      String requestMethod,
+      GenericUrl requestUrl,
+      OAuthParameters parameters,
+      Map<String, String> otherParameters)
+      throws IOException, GeneralSecurityException {
+    GenericUrl url = requestUrl;
+    if (!otherParameters.isEmpty()) {
+      url = requestUrl.clone();
+      for (Map.Entry<String, String> parameter : otherParameters.entrySet()) {
+        Object existing = url.get(parameter.getKey());
+        if (existing == null) {
+          url.put(parameter.getKey(), parameter.getValue());
+        } else {
+          List<Object> values = new ArrayList<Object>();
+          if (existing instanceof Collection<?>) {
+            values.addAll((Collection<?>) existing);
+          } else {
+            values.add(existing);
+          }
+          values.add(parameter.getValue());
+          url.put(parameter.getKey(), values);
+        }
+      }
+    }
+    String signature = parameters.signature;
+    BaseStringCapture capture = new BaseStringCapture(parameters.signatureMethod);
+    parameters.signer = capture;
+    try {
+      parameters.computeSignature(requestMethod, url);
+    } finally {
+      parameters.signer = null;
+      parameters.signature = signature;
+    }
+    byte[] signatureBaseString = StringUtils.getBytesUtf8(capture.signatureBaseString);
+    byte[] expected;
+    switch (parameters.signatureMethod) {
+      case "HMAC-SHA1":
+        SigningEngines.HmacKey hmacKey = getHmacKey(parameters, "HmacSHA1");
+        if (hmacKey == null) {
+          return false;
+        }
+        expected = SigningEngines.hmacSha1(hmacKey.key, signatureBaseString);
+        break;
+      case "HMAC-SHA256":
+        hmacKey = getHmacKey(parameters, "HmacSHA256");
+        if (hmacKey == null) {
+          return false;
+        }
+        expected = SigningEngines.hmacSha256(hmacKey.key, signatureBaseString);
+        break;
+      case "RSA-SHA1":
+        PublicKey publicKey = getConsumerPublicKey(parameters.consumerKey);
+        byte[] signatureBytes = Base64.decodeBase64(signature);
+        return publicKey != null
+            && signatureBytes != null
+            && SecurityUtils.verify(
+                SecurityUtils.getSha1WithRsaSignatureAlgorithm(),
+                publicKey,
+                signatureBytes,
+                signatureBaseString);
+      default:
+        return false;
+    }
+    return MessageDigest.isEqual(
+        StringUtils.getBytesUtf8(Base64.encodeBase64String(expected)),
+        StringUtils.getBytesUtf8(signature));
+  }
+
+  /**
+   * Returns the {@code HMAC} key of the consumer and token of the request, reusing the cached key
+   * if the secrets did not change, or {@code null} if the consumer or token is unknown.
+   */
+  private SigningEngines.HmacKey getHmacKey(OAuthParameters parameters, String algorithm)
+      throws IOException {
+    String consumerSecret = getConsumerSecret(parameters.consumerKey);
+    String tokenSecret = getTokenSecret(parameters);
+    if (consumerSecret == null || tokenSecret == null) {
+      return null;
+    }
+    if (hmacKeys == null) {
+      return SigningEngines.hmacKey(null, algorithm, consumerSecret, tokenSecret);
+    }
+    List<String> cacheKey =
+        Arrays.asList(parameters.signatureMethod, parameters.consumerKey, parameters.token);
+    SigningEngines.HmacKey previous = hmacKeys.getIfPresent(cacheKey);
+    SigningEngines.HmacKey hmacKey =
+        SigningEngines.hmacKey(previous, algorithm, consumerSecret, tokenSecret);
+    if (hmacKey != previous) {
+      hmacKeys.put(cacheKey, hmacKey);
+    }
+    return hmacKey;
+  }
+
+  /**
+   * Returns the cached {@code HMAC} key of the given signature method, consumer and token or {@code
+   * null} for none.
+   */
+  @VisibleForTesting
+  SigningEngines.HmacKey getCachedHmacKey(
+      String signatureMethod, String consumerKey, String token) {
+    return hmacKeys == null
+        ? null
+        : hmacKeys.getIfPresent(Arrays.asList(signatureMethod, consumerKey, token));
+  }
+
+  /**
+   * Returns the token secret of the request, {@code ""} if the request has no token or {@code null}
+   * if the token is unknown.
+   */
+  private String getTokenSecret(OAuthParameters parameters) throws IOException {
+    if (parameters.token == null) {
+      return "";
+    }
+    return secretProvider.getTokenSecret(parameters.consumerKey, parameters.token);
+  }
+
+  private String getConsumerSecret(final String consumerKey) throws IOException {
+    if (consumerSecrets == null) {
+      return secretProvider.getConsumerSecret(consumerKey);
+    }
+    return getCached(
+        consumerSecrets,
+        consumerKey,
+        new Callable<Optional<String>>() {
+          public Optional<String> call() throws IOException {
+            return Optional.fromNullable(secretProvider.getConsumerSecret(consumerKey));
+          }
+        });
+  }
+
+  private PublicKey getConsumerPublicKey(final String consumerKey) throws IOException {
+    if (consumerPublicKeys == null) {
+      return secretProvider.getConsumerPublicKey(consumerKey);
+    }
+    return getCached(
+        consumerPublicKeys,
+        consumerKey,
+        new Callable<Optional<PublicKey>>() {
+          public Optional<PublicKey> call() throws IOException {
+            return Optional.fromNullable(secretProvider.getConsumerPublicKey(consumerKey));
+          }
+        });
+  }
+
+  private static <T> T getCached(
+      Cache<String, Optional<T>> cache, String consumerKey, Callable<Optional<T>> loader)
+      throws IOException {
+    try {
+      return cache.get(consumerKey, loader).orNull();
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Error looking up the secret of consumer " + consumerKey, e);
+    }
+  }
+
+  /** Signer that only records the signature base string it is given. */
+  private static final class BaseStringCapture implements OAuthSigner {
+
+    private final String signatureMethod;
+
+    String signatureBaseString;
+
+    BaseStringCapture(String signatureMethod) {
+      this.signatureMethod = signatureMethod;
+    }
+
+    public String getSignatureMethod() {
+      return signatureMethod;
+    }
+
+    public String computeSignature(String signatureBaseString) {
+      this.signatureBaseString = signatureBaseString;
+      return null;
+    }
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Provides the secrets of the consumers and tokens issued by a service provider.
+   *
+   * <p>Implementations must be thread-safe.
+   *
+   * @since 1.40.0
+   */
+  @Beta
+  public interface SecretProvider {
+
+    /**
+     * Returns the shared secret of the given consumer for the {@code HMAC} signature methods or
+     * {@code null} if the consumer is unknown.
+     *
+     * @param consumerKey consumer key
+     */
+    String getConsumerSecret(String consumerKey) throws IOException;
+
+    /**
+     * Returns the public key of the given consumer for the {@code RSA-SHA1} signature method or
+     * {@code null} if the consumer is unknown or has no public key.
+     *
+     * @param consumerKey consumer key
+     */
+    PublicKey getConsumerPublicKey(String consumerKey) throws IOException;
+
+    /**
+     * Returns the shared secret of the given token or {@code null} if the token is unknown, not
+     * issued to the given consumer, or no longer valid.
+     *
+     * <p>Token secrets are not cached by the verifier.
+     *
+     * @param consumerKey consumer key
+     * @param token token value
+     */
+    String getTokenSecret(String consumerKey, String token) throws IOException;
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Builder for {@link OAuthRequestVerifier}.
+   *
+   * <p>Implementation is not thread-safe.
+   *
+   * @since 1.40.0
+   */
+  @Beta
+  public static final class Builder {
+
+    /** Provider of consumer and token secrets. */
+    SecretProvider secretProvider;
+
+    /** Replay guard or {@code null} for a new {@link MemoryReplayGuard}. */
+    ReplayGuard replayGuard;
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Accepted difference in seconds between a request timestamp and now. */
+    long timestampWindowSeconds = DEFAULT_TIMESTAMP_WINDOW_SECONDS;
+
+    /** Seconds consumer secrets and public keys are cached. */
+    long secretCacheSeconds = DEFAULT_SECRET_CACHE_SECONDS;
+
+    /** Maximum number of cached consumer secrets and public keys. */
+    long secretCacheMaximumSize = DEFAULT_SECRET_CACHE_MAXIMUM_SIZE;
+
+    /** @param secretProvider provider of consumer and token secrets */
+    public Builder(SecretProvider secretProvider) {
+      this.secretProvider = Preconditions.checkNotNull(secretProvider);
+    }
+
+    /** Builds a new instance of {@link OAuthRequestVerifier}. */
+    public OAuthRequestVerifier build() {
+      return new OAuthRequestVerifier(this);
+    }
+
+    /** Returns the provider of consumer and token secrets. */
+    public final SecretProvider getSecretProvider() {
+      return secretProvider;
+    }
+
+    /** Returns the replay guard or {@code null} for a new {@link MemoryReplayGuard}. */
+    public final ReplayGuard getReplayGuard() {
+      return replayGuard;
+    }
+
+    /**
+     * Sets the replay guard used to reject nonces that have been seen before or {@code null} for a
+     * new {@link MemoryReplayGuard} (the default).
+     *
+     * <p>Nonces are recorded with the consumer key as issuer until the request timestamp plus the
+     * timestamp window. Use a guard backed by a shared store when requests may be received by any
+     * of several processes.
+     */
+    public Builder setReplayGuard(ReplayGuard replayGuard) {
+      this.replayGuard = replayGuard;
+      return this;
+    }
+
+    /** Returns the clock. */
+    public final Clock getClock() {
+      return clock;
+    }
+
+    /** Sets the clock. */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /** Returns the accepted difference in seconds between a request timestamp and now. */
+    public final long getTimestampWindowSeconds() {
+      return timestampWindowSeconds;
+    }
+
+    /**
+     * Sets the accepted difference in seconds between a request timestamp and now (default is
+     * {@link #DEFAULT_TIMESTAMP_WINDOW_SECONDS}).
+     *
+     * <p>It must be greater or equal to zero.
+     */
+    public Builder setTimestampWindowSeconds(long timestampWindowSeconds) {
+      Preconditions.checkArgument(timestampWindowSeconds >= 0);
+      this.timestampWindowSeconds = timestampWindowSeconds;
+      return this;
+    }
+
+    /** Returns the seconds consumer secrets and public keys are cached. */
+    public final long getSecretCacheSeconds() {
+      return secretCacheSeconds;
+    }
+
+    /**
+     * Sets the seconds consumer secrets and public keys are cached (default is {@link
+     * #DEFAULT_SECRET_CACHE_SECONDS}) or {@code 0} to look them up for every request.
+     *
+     * <p>Unknown consumers are cached as well, so a newly registered consumer may be rejected for
+     * up to this long.
+     *
+     * <p>It must be greater or equal to zero.
+     */
+    public Builder setSecretCacheSeconds(long secretCacheSeconds) {
+      Preconditions.checkArgument(secretCacheSeconds >= 0);
+      this.secretCacheSeconds = secretCacheSeconds;
+      return this;
+    }
+
+    /** Returns the maximum number of cached consumer secrets and public keys. */
+    public final long getSecretCacheMaximumSize() {
+      return secretCacheMaximumSize;
+    }
+
+    /**
+     * Sets the maximum number of cached consumer secrets and public keys (default is {@link
+     * #DEFAULT_SECRET_CACHE_MAXIMUM_SIZE}).
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setSecretCacheMaximumSize(long secretCacheMaximumSize) {
+      Preconditions.checkArgument(secretCacheMaximumSize > 0);
+      this.secretCacheMaximumSize = secretCacheMaximumSize;
+      return this;
+    }
+  }
+}
@@ -20,13 +20,13 @@ import com.google.api.client.util.SecurityUtils;
 import com.google.api.client.util.StringUtils;
 import java.security.GeneralSecurityException;
 import java.security.PrivateKey;
-import java.security.Signature;
 
 /**
  * {@link Beta} <br>
  * OAuth {@code "RSA-SHA1"} signature method.
  *
- * <p>The private key may be loaded using the utilities in {@link SecurityUtils}.
+ * <p>The private key may be loaded using the utilities in {@link SecurityUtils}. Signing reuses a
+ * signature engine per thread, which is only initialized again for a different private key.
  *
  * @since 1.0
  * @author Yaniv Inbar
@@ -42,8 +42,7 @@ public final class OAuthRsaSigner implements OAuthSigner {
   }
 
   public String computeSignature(String signatureBaseString) throws GeneralSecurityException {
-    Signature signer = SecurityUtils.getSha1WithRsaSignatureAlgorithm();
     byte[] data = StringUtils.getBytesUtf8(signatureBaseString);
-    return Base64.encodeBase64String(SecurityUtils.sign(signer, privateKey, data));
+    return Base64.encodeBase64String(SigningEngines.rsaSha1(privateKey, data));
   }
 }
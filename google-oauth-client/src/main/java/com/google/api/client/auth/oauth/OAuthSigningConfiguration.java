@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth;
+
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.util.Beta;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import java.io.IOException;
+
+/**
+ * {@link Beta} <br>
+ * Immutable OAuth 1.0a signing configuration that may be shared by concurrent requests.
+ *
+ * <p>Unlike {@link OAuthParameters}, which stores the nonce, timestamp and signature of the request
+ * being signed in its own fields, this class computes them into a new parameter snapshot confined
+ * to the signing thread. A single instance may therefore be installed on a shared {@link
+ * com.google.api.client.http.HttpRequestFactory} without any locking:
+ *
+ * <pre>{@code
+ * public static HttpRequestFactory createRequestFactory(HttpTransport transport) {
+ * OAuthSigningConfiguration configuration =
+ *     new OAuthSigningConfiguration.Builder(signer, consumerKey).setToken(token).build();
+ * return transport.createRequestFactory(configuration);
+ * }
+ * }</pre>
+ *
+ * <p>The {@link OAuthSigner} must be thread-safe and must not be modified after this configuration
+ * is built. The signers in this package are thread-safe as long as their secrets and keys are not
+ * changed.
+ *
+ * <p>Implementation is immutable and thread-safe.
+ *
+ * @since 1.40.0
+ */
+@Beta
+public final class OAuthSigningConfiguration
+    implements HttpExecuteInterceptor, HttpRequestInitializer {
+
+  /** OAuth signature method. */
+  private final OAuthSigner signer;
+
+  /** Consumer key. */
+  private final String consumerKey;
+
+  /** Token value or {@code null} for none. */
+  private final String token;
+
+  /** Realm or {@code null} for none. */
+  private final String realm;
+
+  /** Absolute URI back to which the server will redirect or {@code null} for none. */
+  private final String callback;
+
+  /** Verification code or {@code null} for none. */
+  private final String verifier;
+
+  /** Version or {@code null} for none. */
+  private final String version;
+
+  /** Message digest algorithm of the request body hash or {@code null} for none. */
+  private final String bodyHashAlgorithm;
+
+  /** Clock used to compute timestamps. */
+  private final Clock clock;
+
+  /** @param builder builder */
+  OAuthSigningConfiguration(Builder builder) {
+    signer = builder.signer;
+    consumerKey = builder.consumerKey;
+    token = builder.token;
+    realm = builder.realm;
+    callback = builder.callback;
+    verifier = builder.verifier;
+    version = builder.version;
+    bodyHashAlgorithm = builder.bodyHashAlgorithm;
+    clock = builder.clock;
+  }
+
+  /** Returns the OAuth signature method. */
+  public OAuthSigner getSigner() {
+    return signer;
+  }
+
+  /** Returns the consumer key. */
+  public String getConsumerKey() {
+    return consumerKey;
+  }
+
+  /** Returns the token value or {@code null} for none. */
+  public String getToken() {
+    return token;
+  }
+
+  /** Returns the realm or {@code null} for none. */
+  public String getRealm() {
+    return realm;
+  }
+
+  /** Returns the absolute URI back to which the server will redirect or {@code null} for none. */
+  public String getCallback() {
+    return callback;
+  }
+
+  /** Returns the verification code or {@code null} for none. */
+  public String getVerifier() {
+    return verifier;
+  }
+
+  /** Returns the version or {@code null} for none. */
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the message digest algorithm of the request body hash or {@code null} for none.
+   *
+   * @see OAuthParameters#bodyHashAlgorithm
+   */
+  public String getBodyHashAlgorithm() {
+    return bodyHashAlgorithm;
+  }
+
+  /** Returns the clock used to compute timestamps. */
+  public Clock getClock() {
+    return clock;
+  }
+
+  /**
+   * Returns new OAuth parameters with a fresh nonce and timestamp, but no signature.
+   *
+   * <p>The returned instance is not shared with any other caller.
+   */
+  public OAuthParameters newParameters() {
+    OAuthParameters parameters = new OAuthParameters();
+    parameters.signer = signer;
+    parameters.consumerKey = consumerKey;
+    parameters.token = token;
+    parameters.realm = realm;
+    parameters.callback = callback;
+    parameters.verifier = verifier;
+    parameters.version = version;
+    parameters.bodyHashAlgorithm = bodyHashAlgorithm;
+    parameters.nonce = OAuthParameters.newNonce();
+    parameters.timestamp = Long.toString(clock.currentTimeMillis() / 1000);
+    return parameters;
+  }
+
+  public void initialize(HttpRequest request) throws IOException {
+    request.setInterceptor(this);
+  }
+
+  public void intercept(HttpRequest request) throws IOException {
+    newParameters().sign(request);
+  }
+
+  /**
+   * {@link Beta} <br>
+   * Builder for {@link OAuthSigningConfiguration}.
+   *
+   * <p>Implementation is not thread-safe.
+   *
+   * @since 1.40.0
+   */
+  @Beta
+  public static final class Builder {
+
+    /** OAuth signature method. */
+    OAuthSigner signer;
+
+    /** Consumer key. */
+    String consumerKey;
+
+    /** Token value or {@code null} for none. */
+    String token;
+
+    /** Realm or {@code null} for none. */
+    String realm;
+
+    /** Absolute URI back to which the server will redirect or {@code null} for none. */
+    String callback;
+
+    /** Verification code or {@code null} for none. */
+    String verifier;
+
+    /** Version or {@code null} for none. */
+    String version;
+
+    /** Message digest algorithm of the request body hash or {@code null} for none. */
+    String bodyHashAlgorithm;
+
+    /** Clock used to compute timestamps. */
+    Clock clock = Clock.SYSTEM;
+
+    /**
+     * @param signer OAuth signature method
+     * @param consumerKey consumer key
+     */
+    public Builder(OAuthSigner signer, String consumerKey) {
+      setSigner(signer);
+      setConsumerKey(consumerKey);
+    }
+
+    /**
+     * Returns a builder initialized from the non-computed fields of the given parameters.
+     *
+     * <p>The nonce, timestamp, signature and signature method of the given parameters are ignored.
+     *
+     * @param parameters OAuth parameters with at least a signer and consumer key
+     */
+    public static Builder from(OAuthParameters parameters) {
+      return new Builder(parameters.signer, parameters.consumerKey)
+          .setToken(parameters.token)
+          .setRealm(parameters.realm)
+          .setCallback(parameters.callback)
+          .setVerifier(parameters.verifier)
+          .setVersion(parameters.version)
+          .setBodyHashAlgorithm(parameters.bodyHashAlgorithm);
+    }
+
+    /** Builds a new instance of {@link OAuthSigningConfiguration}. */
+    public OAuthSigningConfiguration build() {
+      return new OAuthSigningConfiguration(this);
+    }
+
+    /** Returns the OAuth signature method. */
+    public final OAuthSigner getSigner() {
+      return signer;
+    }
+
+    /** Sets the OAuth signature method. */
+    public Builder setSigner(OAuthSigner signer) {
+      this.signer = Preconditions.checkNotNull(signer);
+      return this;
+    }
+
+    /** Returns the consumer key. */
+    public final String getConsumerKey() {
+      return consumerKey;
+    }
+
+    /** Sets the consumer key. */
+    public Builder setConsumerKey(String consumerKey) {
+      this.consumerKey = Preconditions.checkNotNull(consumerKey);
+      return this;
+    }
+
+    /** Returns the token value or {@code null} for none. */
+    public final String getToken() {
+      return token;
+    }
+
+    /** Sets the token value or {@code null} for none. */
+    public Builder setToken(String token) {
+      this.token = token;
+      return this;
+    }
+
+    /** Returns the realm or {@code null} for none. */
+    public final String getRealm() {
+      return realm;
+    }
+
+    /** Sets the realm or {@code null} for none. */
+    public Builder setRealm(String realm) {
+      this.realm = realm;
+      return this;
+    }
+
+    /** Returns the absolute URI back to which the server will redirect or {@code null} for none. */
+    public final String getCallback() {
+      return callback;
+    }
+
+    /** Sets the absolute URI back to which the server will redirect or {@code null} for none. */
+    public Builder setCallback(String callback) {
+      this.callback = callback;
+      return this;
+    }
+
+    /** Returns the verification code or {@code null} for none. */
+    public final String getVerifier() {
+      return verifier;
+    }
+
+    /** Sets the verification code or {@code null} for none. */
+    public Builder setVerifier(String verifier) {
+      this.verifier = verifier;
+      return this;
+    }
+
+    /** Returns the version or {@code null} for none. */
+    public final String getVersion() {
+      return version;
+    }
+
+    /** Sets the version or {@code null} for none. */
+    public Builder setVersion(String version) {
+      this.version = version;
+      return this;
+    }
+
+    /** Returns the message digest algorithm of the request body hash or {@code null} for none. */
+    public final String getBodyHashAlgorithm() {
+      return bodyHashAlgorithm;
+    }
+
+    /**
+     * Sets the message digest algorithm of the request body hash, such as {@code "SHA-1"}, or
+     * {@code null} for none.
+     *
+     * <p>The body hash is streamed over any request content that is not URL-encoded, which must
+     * then support being written more than once.
+     *
+     * @see OAuthParameters#bodyHashAlgorithm
+     */
+    public Builder setBodyHashAlgorithm(String bodyHashAlgorithm) {
+      this.bodyHashAlgorithm = bodyHashAlgorithm;
+      return this;
+    }
+
+    /** Returns the clock used to compute timestamps. */
+    public final Clock getClock() {
+      return clock;
+    }
+
+    /**
+     * Sets the clock used to compute timestamps.
+     *
+     * <p>The default value is {@link Clock#SYSTEM}.
+     */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+  }
+}
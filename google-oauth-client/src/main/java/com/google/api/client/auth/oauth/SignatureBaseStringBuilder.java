@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.util.escape.CharEscapers;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builder of OAuth 1.0a <a href="http://tools.ietf.org/html/rfc5849#section-3.4.1">signature base
+ * strings</a> that reuses its buffers.
+ *
+ * <p>Parameters are escaped once when added and kept in a reusable array that is sorted in place.
+ * The base string is then written into a single buffer: the request method and the normalized URL
+ * are escaped while they are appended, and the already escaped parameters only need their {@code
+ * '%'} characters escaped again. The output is the same as escaping each part with {@link
+ * OAuthParameters#escape(String)}.
+ *
+ * <p>Implementation is not thread-safe, so use {@link #get()} to obtain the instance of the current
+ * thread.
+ */
+final class SignatureBaseStringBuilder {
+
+  /** Builder of each thread. */
+  private static final ThreadLocal<SignatureBaseStringBuilder> BUILDERS =
+      new ThreadLocal<SignatureBaseStringBuilder>() {
+        @Override
+        protected SignatureBaseStringBuilder initialValue() {
+          return new SignatureBaseStringBuilder();
+        }
+      };
+
+  /** Maximum buffer capacity kept between uses. */
+  private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+  /** Parameters, of which the first {@link #size} are in use. */
+  private Parameter[] parameters = new Parameter[16];
+
+  /** Number of parameters in use. */
+  private int size;
+
+  /** Sum of the lengths of the escaped parameters. */
+  private int parametersLength;
+
+  private StringBuilder buf = new StringBuilder(256);
+
+  private SignatureBaseStringBuilder() {}
+
+  /** Returns the builder of the current thread, without any parameters. */
+  static SignatureBaseStringBuilder get() {
+    SignatureBaseStringBuilder builder = BUILDERS.get();
+    builder.size = 0;
+    builder.parametersLength = 0;
+    return builder;
+  }
+
+  /**
+   * Adds a parameter.
+   *
+   * @param key unescaped key
+   * @param value unescaped value or {@code null} for a parameter without value
+   */
+  void addParameter(String key, Object value) {
+    if (size == parameters.length) {
+      parameters = Arrays.copyOf(parameters, 2 * size);
+    }
+    Parameter parameter = parameters[size];
+    if (parameter == null) {
+      parameter = parameters[size] = new Parameter();
+    }
+    parameter.key = OAuthParameters.escape(key);
+    parameter.value = value == null ? null : OAuthParameters.escape(value.toString());
+    parametersLength += parameter.key.length() + (value == null ? 0 : parameter.value.length() + 1);
+    size++;
+  }
+
+  /**
+   * Returns the signature base string for the added parameters and the given request.
+   *
+   * @param requestMethod request method
+   * @param requestUrl request URL, whose query parameters and default port are ignored
+   */
+  String build(String requestMethod, GenericUrl requestUrl) {
+    Arrays.sort(parameters, 0, size);
+    StringBuilder buf = this.buf;
+    buf.setLength(0);
+    // escaped '%' characters take three times the space
+    buf.ensureCapacity(64 + requestMethod.length() + 3 * parametersLength);
+    appendEscaped(buf, requestMethod);
+    buf.append('&');
+    // normalized URL, without query parameters, user info or default port
+    String scheme = requestUrl.getScheme();
+    appendEscaped(buf, scheme);
+    buf.append("%3A%2F%2F");
+    appendEscaped(buf, requestUrl.getHost());
+    int port = requestUrl.getPort();
+    if (port != -1
+        && !("http".equals(scheme) && port == 80 || "https".equals(scheme) && port == 443)) {
+      buf.append("%3A").append(port);
+    }
+    List<String> pathParts = requestUrl.getPathParts();
+    if (pathParts != null) {
+      for (int i = 0; i < pathParts.size(); i++) {
+        if (i != 0) {
+          buf.append("%2F");
+        }
+        String pathPart = pathParts.get(i);
+        if (pathPart.length() != 0) {
+          appendEscaped(buf, CharEscapers.escapeUriPath(pathPart));
+        }
+      }
+    }
+    buf.append('&');
+    // normalized parameters, skipping duplicates
+    Parameter previous = null;
+    for (int i = 0; i < size; i++) {
+      Parameter parameter = parameters[i];
+      if (previous != null && previous.compareTo(parameter) == 0) {
+        continue;
+      }
+      if (previous != null) {
+        buf.append("%26");
+      }
+      appendEscapedAgain(buf, parameter.key);
+      if (parameter.value != null) {
+        buf.append("%3D");
+        appendEscapedAgain(buf, parameter.value);
+      }
+      previous = parameter;
+    }
+    String result = buf.toString();
+    if (buf.capacity() > MAX_RETAINED_CAPACITY) {
+      this.buf = new StringBuilder(256);
+    }
+    return result;
+  }
+
+  /** Appends the given value escaped like {@link OAuthParameters#escape(String)}. */
+  private static void appendEscaped(StringBuilder buf, String value) {
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c >= 0x80) {
+        // multi-byte characters are left to the escaper
+        buf.append(OAuthParameters.escape(value.substring(i)));
+        return;
+      }
+      if (isUnreserved(c)) {
+        buf.append(c);
+      } else {
+        buf.append('%').append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+      }
+    }
+  }
+
+  /** Appends the given escaped value escaped again, which only affects {@code '%'} characters. */
+  private static void appendEscapedAgain(StringBuilder buf, String escapedValue) {
+    int length = escapedValue.length();
+    for (int i = 0; i < length; i++) {
+      char c = escapedValue.charAt(i);
+      if (c == '%') {
+        buf.append("%25");
+      } else {
+        buf.append(c);
+      }
+    }
+  }
+
+  private static boolean isUnreserved(char c) {
+    return c >= 'a' && c <= 'z'
+        || c >= 'A' && c <= 'Z'
+        || c >= '0' && c <= '9'
+        || c == '-'
+        || c == '_'
+        || c == '.'
+        || c == '~';
+  }
+
+  /** Escaped parameter, sorted lexically first by key, then by value. */
+  private static final class Parameter implements Comparable<Parameter> {
+
+    String key;
+
+    /** Value or {@code null} for none, which is sorted first. */
+    String value;
+
+    @Override
+    public int compareTo(Parameter p) {
+      int result = key.compareTo(p.key);
+      if (result != 0 || value == p.value) {
+        return result;
+      }
+      if (value == null || p.value == null) {
+        return value == null ? -1 : 1;
+      }
+      return value.compareTo(p.value);
+    }
+  }
+}
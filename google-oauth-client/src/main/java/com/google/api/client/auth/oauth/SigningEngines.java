@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth;
+
+import com.google.api.client.util.Objects;
+import com.google.api.client.util.SecurityUtils;
+import com.google.api.client.util.StringUtils;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.Signature;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Thread-confined, reusable MAC and signature engines for the OAuth signature methods.
+ *
+ * <p>Looking up an engine with {@code getInstance} and initializing it with a key dominates the
+ * cost of signing a short signature base string. Each thread keeps one engine per algorithm, which
+ * is only initialized again when it is used with a different key instance, so signers should derive
+ * their keys once and keep them.
+ *
+ * <p>Implementation is thread-safe.
+ */
+final class SigningEngines {
+
+  /** {@code "HmacSHA1"} engine, per thread. */
+  private static final ThreadLocal<Engine<Mac>> HMAC_SHA1_ENGINES = new ThreadLocal<Engine<Mac>>();
+
+  /** {@code "HmacSHA256"} engine, per thread. */
+  private static final ThreadLocal<Engine<Mac>> HMAC_SHA256_ENGINES =
+      new ThreadLocal<Engine<Mac>>();
+
+  /** {@code "SHA1withRSA"} engine, per thread. */
+  private static final ThreadLocal<Engine<Signature>> RSA_SHA1_ENGINES =
+      new ThreadLocal<Engine<Signature>>();
+
+  private SigningEngines() {}
+
+  /**
+   * Returns the HMAC key for the given shared secrets as specified in <a
+   * href="http://tools.ietf.org/html/rfc5849#section-3.4.2">HMAC-SHA1</a>, reusing the given
+   * previously derived key if the secrets did not change.
+   *
+   * @param previous previously derived key or {@code null} for none
+   * @param algorithm MAC algorithm
+   * @param clientSharedSecret client-shared secret or {@code null} for none
+   * @param tokenSharedSecret token-shared secret or {@code null} for none
+   */
+  static HmacKey hmacKey(
+      HmacKey previous, String algorithm, String clientSharedSecret, String tokenSharedSecret) {
+    if (previous != null
+        && Objects.equal(previous.clientSharedSecret, clientSharedSecret)
+        && Objects.equal(previous.tokenSharedSecret, tokenSharedSecret)) {
+      return previous;
+    }
+    StringBuilder keyBuf = new StringBuilder();
+    if (clientSharedSecret != null) {
+      keyBuf.append(OAuthParameters.escape(clientSharedSecret));
+    }
+    keyBuf.append('&');
+    if (tokenSharedSecret != null) {
+      keyBuf.append(OAuthParameters.escape(tokenSharedSecret));
+    }
+    return new HmacKey(
+        clientSharedSecret,
+        tokenSharedSecret,
+        new SecretKeySpec(StringUtils.getBytesUtf8(keyBuf.toString()), algorithm));
+  }
+
+  /** Computes the {@code "HmacSHA1"} MAC of the given data. */
+  static byte[] hmacSha1(SecretKey key, byte[] data) throws GeneralSecurityException {
+    return mac(HMAC_SHA1_ENGINES, "HmacSHA1", key, data);
+  }
+
+  /** Computes the {@code "HmacSHA256"} MAC of the given data. */
+  static byte[] hmacSha256(SecretKey key, byte[] data) throws GeneralSecurityException {
+    return mac(HMAC_SHA256_ENGINES, "HmacSHA256", key, data);
+  }
+
+  private static byte[] mac(
+      ThreadLocal<Engine<Mac>> engines, String algorithm, SecretKey key, byte[] data)
+      throws GeneralSecurityException {
+    Engine<Mac> engine = engines.get();
+    if (engine == null) {
+      engine = new Engine<Mac>(Mac.getInstance(algorithm));
+      engines.set(engine);
+    }
+    // doFinal() resets the engine to the state after init(), so it only needs to be initialized
+    // again for a different key
+    if (engine.key != key) {
+      engine.key = null;
+      engine.engine.init(key);
+      engine.key = key;
+    }
+    return engine.engine.doFinal(data);
+  }
+
+  /** Computes the {@code "SHA1withRSA"} signature of the given data. */
+  static byte[] rsaSha1(PrivateKey privateKey, byte[] data) throws GeneralSecurityException {
+    Engine<Signature> engine = RSA_SHA1_ENGINES.get();
+    if (engine == null) {
+      engine = new Engine<Signature>(SecurityUtils.getSha1WithRsaSignatureAlgorithm());
+      RSA_SHA1_ENGINES.set(engine);
+    }
+    // sign() resets the engine to the state after initSign(), so it only needs to be initialized
+    // again for a different key
+    if (engine.key != privateKey) {
+      engine.key = null;
+      engine.engine.initSign(privateKey);
+      engine.key = privateKey;
+    }
+    try {
+      engine.engine.update(data);
+      return engine.engine.sign();
+    } catch (GeneralSecurityException e) {
+      // the engine state is unspecified after an exception
+      engine.key = null;
+      throw e;
+    }
+  }
+
+  /** HMAC key together with the shared secrets it was derived from. */
+  static final class HmacKey {
+
+    final String clientSharedSecret;
+
+    final String tokenSharedSecret;
+
+    final SecretKey key;
+
+    HmacKey(String clientSharedSecret, String tokenSharedSecret, SecretKey key) {
+      this.clientSharedSecret = clientSharedSecret;
+      this.tokenSharedSecret = tokenSharedSecret;
+      this.key = key;
+    }
+  }
+
+  /** Engine together with the key it was last initialized with. */
+  private static final class Engine<T> {
+
+    final T engine;
+
+    /** Key the engine is initialized with or {@code null} if it must be initialized. */
+    Key key;
+
+    Engine(T engine) {
+      this.engine = engine;
+    }
+  }
+}
@@ -36,7 +36,6 @@ import com.google.api.client.util.store.DataStoreFactory;
 import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -91,6 +90,9 @@ public class AuthorizationCodeFlow {
   /** The Proof Key for Code Exchange (PKCE) or {@code null} if this flow should not use PKCE. */
   private final PKCE pkce;
 
+  /** Store of the state of pending authorizations or {@code null} for none. */
+  private final AuthorizationStateStore authorizationStateStore;
+
   /** Credential persistence store or {@code null} for none. */
   @Beta @Deprecated private final CredentialStore credentialStore;
 
@@ -164,6 +166,7 @@ public class AuthorizationCodeFlow {
     credentialCreatedListener = builder.credentialCreatedListener;
     refreshListeners = Collections.unmodifiableCollection(builder.refreshListeners);
     pkce = builder.pkce;
+    authorizationStateStore = builder.authorizationStateStore;
   }
 
   /**
@@ -221,7 +224,11 @@ public class AuthorizationCodeFlow {
             if (pkce != null) {
               Map<String, Object> data =
                   Data.mapOf(UrlEncodedContent.getContent(request).getData());
-              data.put("code_verifier", pkce.getVerifier());
+              // keep the code verifier of an authorization state, see newTokenRequest(String,
+              // AuthorizationState)
+              if (data.get("code_verifier") == null) {
+                data.put("code_verifier", pkce.getVerifier());
+              }
             }
           }
         };
@@ -233,6 +240,102 @@ public class AuthorizationCodeFlow {
         .setScopes(scopes);
   }
 
+  /**
+   * Returns the state of a new authorization with a fresh {@code state} parameter and PKCE code
+   * verifier, recorded in the {@link #getAuthorizationStateStore() authorization state store} for
+   * the given user ID.
+   *
+   * <p>The user ID must identify the user agent, for example by being taken from its authenticated
+   * session: the authorization response is only accepted for the same user ID, see {@link
+   * #consumeAuthorizationState(String, String)}.
+   *
+   * <p>Sample usage:
+   *
+   * <pre>{@code
+   * AuthorizationState state = flow.newAuthorizationState(userId);
+   * String url = flow.newAuthorizationUrl(state).setRedirectUri("https://client.example.com/rd")
+   * .build();
+   * response.sendRedirect(url);
+   * }</pre>
+   *
+   * @param userId user ID that starts the authorization
+   * @throws IllegalStateException if the flow has no authorization state store
+   * @since 1.40.0
+   */
+  public AuthorizationState newAuthorizationState(String userId) throws IOException {
+    Preconditions.checkNotNull(userId);
+    Preconditions.checkState(
+        authorizationStateStore != null, "flow has no authorization state store");
+    return authorizationStateStore.create(userId);
+  }
+
+  /**
+   * Returns a new instance of an authorization code request URL for the given authorization state,
+   * with its {@code state} parameter and PKCE code challenge.
+   *
+   * <p>It calls {@link #newAuthorizationUrl()}, so that the parameters added by subclasses are
+   * kept, and then sets the parameters of the authorization state.
+   *
+   * @param authorizationState authorization state, as returned by {@link
+   *     #newAuthorizationState(String)}
+   * @since 1.40.0
+   */
+  public AuthorizationCodeRequestUrl newAuthorizationUrl(AuthorizationState authorizationState) {
+    AuthorizationCodeRequestUrl url = newAuthorizationUrl();
+    url.setState(authorizationState.getState());
+    url.setCodeChallenge(authorizationState.getCodeChallenge());
+    url.setCodeChallengeMethod(authorizationState.getCodeChallengeMethod());
+    return url;
+  }
+
+  /**
+   * Returns and forgets the authorization state of the given {@code state} parameter of an
+   * authorization response, provided that it was created for the given user ID.
+   *
+   * <p>Sample usage:
+   *
+   * <pre>{@code
+   * AuthorizationState state = flow.consumeAuthorizationState(responseUrl.getState(), userId);
+   * if (state == null) {
+   * // reject the response
+   * }
+   * TokenResponse response = flow.newTokenRequest(responseUrl.getCode(), state)
+   * .setRedirectUri("https://client.example.com/rd").execute();
+   * }</pre>
+   *
+   * @param state value of the {@code state} parameter or {@code null} for none
+   * @param userId user ID that receives the authorization response
+   * @return authorization state or {@code null} if it is unknown, has expired, has already been
+   *     consumed or was created for another user ID
+   * @throws IllegalStateException if the flow has no authorization state store
+   * @since 1.40.0
+   */
+  public AuthorizationState consumeAuthorizationState(String state, String userId)
+      throws IOException {
+    Preconditions.checkState(
+        authorizationStateStore != null, "flow has no authorization state store");
+    return authorizationStateStore.consume(state, userId);
+  }
+
+  /**
+   * Returns a new instance of an authorization code token request based on the given authorization
+   * code, with the PKCE code verifier of the given authorization state.
+   *
+   * <p>It calls {@link #newTokenRequest(String)}, so that the request type and parameters of
+   * subclasses are kept, and then sets the {@code code_verifier} parameter, which takes precedence
+   * over the code verifier of {@link Builder#enablePKCE()}.
+   *
+   * @param authorizationCode authorization code
+   * @param authorizationState authorization state, as returned by {@link
+   *     #consumeAuthorizationState}
+   * @since 1.40.0
+   */
+  public AuthorizationCodeTokenRequest newTokenRequest(
+      String authorizationCode, AuthorizationState authorizationState) {
+    return newTokenRequest(authorizationCode)
+        .set("code_verifier", authorizationState.getCodeVerifier());
+  }
+
   /**
    * Creates a new credential for the given user ID based on the given token response and stores it
    * in the credential store.
@@ -407,6 +510,15 @@ public class AuthorizationCodeFlow {
     return clock;
   }
 
+  /**
+   * Returns the store of the state of pending authorizations or {@code null} for none.
+   *
+   * @since 1.40.0
+   */
+  public final AuthorizationStateStore getAuthorizationStateStore() {
+    return authorizationStateStore;
+  }
+
   /**
    * Returns the unmodifiable list of listeners for refresh token results.
    *
@@ -454,10 +566,7 @@ public class AuthorizationCodeFlow {
     }
 
     private static String generateVerifier() {
-      SecureRandom sr = new SecureRandom();
-      byte[] code = new byte[32];
-      sr.nextBytes(code);
-      return Base64.encodeBase64URLSafeString(code);
+      return AuthorizationState.randomToken();
     }
 
     /**
@@ -528,6 +637,9 @@ public class AuthorizationCodeFlow {
 
     PKCE pkce;
 
+    /** Store of the state of pending authorizations or {@code null} for none. */
+    AuthorizationStateStore authorizationStateStore;
+
     /** Credential persistence store or {@code null} for none. */
     @Deprecated @Beta CredentialStore credentialStore;
 
@@ -850,6 +962,32 @@ public class AuthorizationCodeFlow {
       return this;
     }
 
+    /**
+     * Returns the store of the state of pending authorizations or {@code null} for none.
+     *
+     * @since 1.40.0
+     */
+    public final AuthorizationStateStore getAuthorizationStateStore() {
+      return authorizationStateStore;
+    }
+
+    /**
+     * Sets the store of the state of pending authorizations or {@code null} for none.
+     *
+     * <p>With a store, each authorization gets its own {@code state} parameter and PKCE code
+     * verifier, see {@link AuthorizationCodeFlow#newAuthorizationState(String)}, instead of the
+     * single code verifier of {@link #enablePKCE()}.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @since 1.40.0
+     */
+    public Builder setAuthorizationStateStore(AuthorizationStateStore authorizationStateStore) {
+      this.authorizationStateStore = authorizationStateStore;
+      return this;
+    }
+
     /**
      * Sets the collection of scopes.
      *
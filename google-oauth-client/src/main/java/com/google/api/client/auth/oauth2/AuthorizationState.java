@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.util.Base64;
+import com.google.api.client.util.Objects;
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.StringUtils;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Data of a single authorization: the {@code state} parameter and the Proof Key for Code Exchange
+ * (PKCE) code verifier, as specified in <a href="https://tools.ietf.org/html/rfc7636">RFC 7636</a>.
+ *
+ * <p>A new authorization state is created by an {@link AuthorizationStateStore} for each
+ * authorization request and looked up again with the {@code state} parameter of the authorization
+ * response. It is bound to the user ID that started the authorization, so that an authorization
+ * response can only complete the authorization of that same user (see <a
+ * href="https://tools.ietf.org/html/rfc6749#section-10.12">RFC 6749 section 10.12</a>). The code
+ * challenge always uses the {@code S256} method.
+ *
+ * <p>Implementation is immutable and thread-safe.
+ *
+ * @since 1.40.0
+ */
+public final class AuthorizationState implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /** Code challenge method. */
+  public static final String CODE_CHALLENGE_METHOD = "S256";
+
+  /** Secure random number generators, per thread to avoid contention. */
+  private static final ThreadLocal<SecureRandom> RANDOM =
+      new ThreadLocal<SecureRandom>() {
+        @Override
+        protected SecureRandom initialValue() {
+          return new SecureRandom();
+        }
+      };
+
+  /** Value of the {@code state} parameter. */
+  private final String state;
+
+  /** User ID that started the authorization. */
+  private final String userId;
+
+  /** PKCE code verifier. */
+  private final String codeVerifier;
+
+  /** PKCE code challenge. */
+  private final String codeChallenge;
+
+  /** Expiration time in milliseconds. */
+  private final long expirationTimeMilliseconds;
+
+  /**
+   * @param state value of the {@code state} parameter
+   * @param userId user ID that started the authorization
+   * @param codeVerifier PKCE code verifier
+   * @param expirationTimeMilliseconds expiration time in milliseconds
+   */
+  public AuthorizationState(
+      String state, String userId, String codeVerifier, long expirationTimeMilliseconds) {
+    this.state = Preconditions.checkNotNull(state);
+    this.userId = Preconditions.checkNotNull(userId);
+    this.codeVerifier = Preconditions.checkNotNull(codeVerifier);
+    this.codeChallenge = computeCodeChallenge(codeVerifier);
+    this.expirationTimeMilliseconds = expirationTimeMilliseconds;
+  }
+
+  /**
+   * Returns a new authorization state with a random {@code state} parameter and code verifier.
+   *
+   * @param userId user ID that starts the authorization
+   * @param expirationTimeMilliseconds expiration time in milliseconds
+   */
+  public static AuthorizationState newRandom(String userId, long expirationTimeMilliseconds) {
+    return new AuthorizationState(randomToken(), userId, randomToken(), expirationTimeMilliseconds);
+  }
+
+  /** Returns the value of the {@code state} parameter. */
+  public String getState() {
+    return state;
+  }
+
+  /** Returns the user ID that started the authorization. */
+  public String getUserId() {
+    return userId;
+  }
+
+  /** Returns the PKCE code verifier. */
+  public String getCodeVerifier() {
+    return codeVerifier;
+  }
+
+  /** Returns the PKCE code challenge. */
+  public String getCodeChallenge() {
+    return codeChallenge;
+  }
+
+  /** Returns the PKCE code challenge method, which is always {@link #CODE_CHALLENGE_METHOD}. */
+  public String getCodeChallengeMethod() {
+    return CODE_CHALLENGE_METHOD;
+  }
+
+  /** Returns the expiration time in milliseconds. */
+  public long getExpirationTimeMilliseconds() {
+    return expirationTimeMilliseconds;
+  }
+
+  /** Returns whether the authorization state has expired at the given time in milliseconds. */
+  public boolean isExpired(long currentTimeMillis) {
+    return currentTimeMillis >= expirationTimeMilliseconds;
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(AuthorizationState.class)
+        .add("state", state)
+        .add("userId", userId)
+        .add("expirationTimeMilliseconds", expirationTimeMilliseconds)
+        .toString();
+  }
+
+  /** Returns 32 random bytes encoded as URL-safe Base64 without padding. */
+  static String randomToken() {
+    return Base64.encodeBase64URLSafeString(randomBytes(32));
+  }
+
+  /** Returns the given number of random bytes. */
+  static byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    RANDOM.get().nextBytes(bytes);
+    return bytes;
+  }
+
+  /** Returns the {@code S256} code challenge of the given code verifier. */
+  static String computeCodeChallenge(String codeVerifier) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return Base64.encodeBase64URLSafeString(
+          sha256.digest(StringUtils.getBytesUtf8(codeVerifier)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Evicts expired entries of authorization state stores in the background.
+ *
+ * <p>All stores share a single daemon thread. A store is only weakly referenced, so its task is
+ * cancelled once the store has been garbage collected.
+ */
+final class AuthorizationStateEviction {
+  private static final Logger LOGGER = Logger.getLogger(AuthorizationStateEviction.class.getName());
+
+  /** Store whose expired entries can be evicted. */
+  interface Evictable {
+
+    /** Evicts the expired entries. */
+    void evictExpired() throws IOException;
+  }
+
+  /** Holder of the lazily created scheduler. */
+  private static class SchedulerHolder {
+    static final ScheduledExecutorService INSTANCE =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("AuthorizationStateEviction-%d")
+                .build());
+  }
+
+  /**
+   * Schedules the periodic eviction of the expired entries of the given store.
+   *
+   * @param store store
+   * @param periodMillis milliseconds between evictions
+   */
+  static void schedule(Evictable store, long periodMillis) {
+    final WeakReference<Evictable> reference = new WeakReference<Evictable>(store);
+    final AtomicReference<ScheduledFuture<?>> future = new AtomicReference<ScheduledFuture<?>>();
+    future.set(
+        SchedulerHolder.INSTANCE.scheduleWithFixedDelay(
+            new Runnable() {
+              public void run() {
+                Evictable store = reference.get();
+                if (store == null) {
+                  future.get().cancel(false);
+                  return;
+                }
+                try {
+                  store.evictExpired();
+                } catch (IOException | RuntimeException e) {
+                  LOGGER.log(Level.WARNING, "Failed to evict expired authorization states", e);
+                }
+              }
+            },
+            periodMillis,
+            periodMillis,
+            TimeUnit.MILLISECONDS));
+  }
+
+  private AuthorizationStateEviction() {}
+}
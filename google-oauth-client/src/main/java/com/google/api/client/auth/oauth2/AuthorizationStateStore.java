@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import java.io.IOException;
+
+/**
+ * Store of the {@link AuthorizationState} of pending authorizations.
+ *
+ * <p>A store creates a fresh {@code state} parameter and PKCE code verifier for each authorization
+ * request, see {@link AuthorizationCodeFlow#newAuthorizationState(String)}, and returns it when the
+ * authorization response is received, see {@link AuthorizationCodeFlow#consumeAuthorizationState}.
+ *
+ * <p>Each state is bound to the user ID that started the authorization and is only returned for
+ * that same user ID, so that an attacker cannot have the authorization response of their own
+ * authorization accepted on behalf of another user (see <a
+ * href="https://tools.ietf.org/html/rfc6749#section-10.12">RFC 6749 section 10.12</a>). The user ID
+ * must therefore identify the user agent, for example by being taken from its authenticated
+ * session, and must not be taken from the request parameters.
+ *
+ * <p>Use {@link MemoryAuthorizationStateStore} for a single process, {@link
+ * DataStoreAuthorizationStateStore} for a shared {@link com.google.api.client.util.store.DataStore}
+ * or {@link SignedAuthorizationStateStore} to keep no server-side state at all.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @since 1.40.0
+ */
+public interface AuthorizationStateStore {
+
+  /**
+   * Creates and records the state of a new authorization.
+   *
+   * @param userId user ID that starts the authorization
+   * @return new authorization state
+   * @throws IOException if the state could not be recorded, for example because the store is full
+   */
+  AuthorizationState create(String userId) throws IOException;
+
+  /**
+   * Returns the authorization state of the given {@code state} parameter if it was created for the
+   * given user ID, and forgets it if the store records states.
+   *
+   * @param state value of the {@code state} parameter of the authorization response or {@code null}
+   *     for none
+   * @param userId user ID that receives the authorization response
+   * @return authorization state or {@code null} if it is unknown, has expired, has already been
+   *     consumed or was created for another user ID
+   * @throws IOException if the underlying store could not be reached
+   */
+  AuthorizationState consume(String state, String userId) throws IOException;
+}
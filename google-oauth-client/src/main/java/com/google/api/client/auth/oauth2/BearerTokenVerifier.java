@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.util.Objects;
+import java.io.IOException;
+
+/**
+ * Verifier of the bearer tokens presented to a resource server (as specified in <a
+ * href="https://tools.ietf.org/html/rfc6750">RFC 6750</a>).
+ *
+ * <p>Implementations include {@link IntrospectionClient} for opaque access tokens and {@link
+ * com.google.api.client.auth.openidconnect.IdTokenBearerTokenVerifier} for ID tokens.
+ *
+ * <p>Implementations should be thread-safe.
+ *
+ * @since 1.40.0
+ */
+public interface BearerTokenVerifier {
+
+  /**
+   * Verifies the given bearer token.
+   *
+   * @param token bearer token
+   * @return verified token or {@code null} if the token is not valid
+   * @throws IOException if verification fails to run, for example if the authorization server
+   *     cannot be reached
+   */
+  VerifiedToken verify(String token) throws IOException;
+
+  /**
+   * Bearer token that has been verified.
+   *
+   * <p>Implementation is immutable and thread-safe.
+   */
+  final class VerifiedToken {
+
+    /** Subject the token was issued for or {@code null} for none. */
+    private final String subject;
+
+    /** Expiration time of the token in milliseconds or {@code null} for none. */
+    private final Long expirationTimeMilliseconds;
+
+    /** Verifier-specific details or {@code null} for none. */
+    private final Object details;
+
+    /**
+     * @param subject subject the token was issued for or {@code null} for none
+     * @param expirationTimeMilliseconds expiration time of the token in milliseconds or {@code
+     *     null} for none
+     * @param details verifier-specific details, such as the introspection response, or {@code null}
+     *     for none
+     */
+    public VerifiedToken(String subject, Long expirationTimeMilliseconds, Object details) {
+      this.subject = subject;
+      this.expirationTimeMilliseconds = expirationTimeMilliseconds;
+      this.details = details;
+    }
+
+    /** Returns the subject the token was issued for or {@code null} for none. */
+    public String getSubject() {
+      return subject;
+    }
+
+    /** Returns the expiration time of the token in milliseconds or {@code null} for none. */
+    public Long getExpirationTimeMilliseconds() {
+      return expirationTimeMilliseconds;
+    }
+
+    /** Returns the verifier-specific details or {@code null} for none. */
+    public Object getDetails() {
+      return details;
+    }
+
+    @Override
+    public String toString() {
+      return Objects.toStringHelper(VerifiedToken.class)
+          .add("subject", subject)
+          .add("expirationTimeMilliseconds", expirationTimeMilliseconds)
+          .toString();
+    }
+  }
+}
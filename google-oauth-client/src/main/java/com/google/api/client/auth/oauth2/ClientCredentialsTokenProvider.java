@@ -0,0 +1,505 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Joiner;
+import com.google.api.client.util.Objects;
+import com.google.api.client.util.Preconditions;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe provider of access tokens obtained with the <a
+ * href="http://tools.ietf.org/html/rfc6749#section-4.4">Client Credentials Grant</a>, which
+ * authorizes HTTP requests as an {@link HttpRequestInitializer}.
+ *
+ * <p>Access tokens are cached per scope set (the token server and client are fixed per provider),
+ * so a single provider should be created per token server and client and shared by all call sites.
+ * Tokens are refreshed ahead of their expiration: the first request that finds a token within the
+ * {@link Builder#setRefreshAheadSeconds(long) refresh window} fetches a new one while concurrent
+ * requests keep using the current token, and only when no usable token is left do requests wait for
+ * a single shared token request. Sample usage:
+ *
+ * <pre>
+ * ClientCredentialsTokenProvider tokenProvider =
+ * new ClientCredentialsTokenProvider.Builder(transport, jsonFactory, tokenServerUrl,
+ * new BasicAuthentication(clientId, clientSecret))
+ * .setScopes(Arrays.asList("orders.read"))
+ * .build();
+ * HttpRequestFactory requestFactory = transport.createRequestFactory(tokenProvider);
+ * HttpRequestFactory writeRequestFactory =
+ * transport.createRequestFactory(tokenProvider.forScopes(Arrays.asList("orders.write")));
+ * </pre>
+ *
+ * @since 1.40.0
+ */
+public class ClientCredentialsTokenProvider
+    implements HttpExecuteInterceptor, HttpRequestInitializer, HttpUnsuccessfulResponseHandler {
+
+  static final Logger LOGGER = Logger.getLogger(ClientCredentialsTokenProvider.class.getName());
+
+  /** Default value for the seconds before expiration at which tokens are refreshed (5 minutes). */
+  public static final long DEFAULT_REFRESH_AHEAD_SECONDS = 5 * 60;
+
+  /** HTTP transport. */
+  private final HttpTransport transport;
+
+  /** JSON factory. */
+  private final JsonFactory jsonFactory;
+
+  /** Token server URL. */
+  private final String tokenServerEncodedUrl;
+
+  /** Client authentication. */
+  private final HttpExecuteInterceptor clientAuthentication;
+
+  /** HTTP request initializer for token requests or {@code null} for none. */
+  private final HttpRequestInitializer requestInitializer;
+
+  /** Method of presenting the access token to the resource server. */
+  private final Credential.AccessMethod method;
+
+  /** Clock. */
+  private final Clock clock;
+
+  /** Milliseconds before expiration at which tokens are refreshed. */
+  private final long refreshAheadMillis;
+
+  /** Tokens of the default scopes. */
+  private final ScopedToken defaultToken;
+
+  /** Tokens by canonical scope string. */
+  private final ConcurrentMap<String, ScopedToken> tokens =
+      new ConcurrentHashMap<String, ScopedToken>();
+
+  /** @param builder builder */
+  protected ClientCredentialsTokenProvider(Builder builder) {
+    transport = builder.transport;
+    jsonFactory = builder.jsonFactory;
+    tokenServerEncodedUrl = builder.tokenServerUrl.build();
+    clientAuthentication = builder.clientAuthentication;
+    requestInitializer = builder.requestInitializer;
+    method = builder.method;
+    clock = builder.clock;
+    refreshAheadMillis = TimeUnit.SECONDS.toMillis(builder.refreshAheadSeconds);
+    defaultToken = getScopedToken(builder.scopes);
+  }
+
+  /** Returns the HTTP transport. */
+  public final HttpTransport getTransport() {
+    return transport;
+  }
+
+  /** Returns the JSON factory. */
+  public final JsonFactory getJsonFactory() {
+    return jsonFactory;
+  }
+
+  /** Returns the encoded token server URL. */
+  public final String getTokenServerEncodedUrl() {
+    return tokenServerEncodedUrl;
+  }
+
+  /** Returns the client authentication. */
+  public final HttpExecuteInterceptor getClientAuthentication() {
+    return clientAuthentication;
+  }
+
+  /** Returns the clock. */
+  public final Clock getClock() {
+    return clock;
+  }
+
+  /** Returns the default scopes as a space-separated string or {@code null} for none. */
+  public final String getScopes() {
+    return defaultToken.scopes;
+  }
+
+  /** Returns a valid access token for the default scopes, fetching one if needed. */
+  public String getAccessToken() throws IOException {
+    return defaultToken.getAccessToken();
+  }
+
+  /**
+   * Returns a valid access token for the given scopes, fetching one if needed.
+   *
+   * @param scopes scopes, in any order
+   */
+  public String getAccessToken(Collection<String> scopes) throws IOException {
+    return getScopedToken(scopes).getAccessToken();
+  }
+
+  /**
+   * Returns an HTTP request initializer that authorizes requests with tokens for the given scopes
+   * instead of the default scopes. The returned initializer shares the token cache of this provider
+   * and may be kept for reuse.
+   *
+   * @param scopes scopes, in any order
+   */
+  public HttpRequestInitializer forScopes(Collection<String> scopes) {
+    return getScopedToken(scopes);
+  }
+
+  /** Removes all cached tokens. */
+  public void invalidateAll() {
+    defaultToken.token = null;
+    for (ScopedToken scopedToken : tokens.values()) {
+      scopedToken.token = null;
+    }
+  }
+
+  @Override
+  public void initialize(HttpRequest request) throws IOException {
+    defaultToken.initialize(request);
+  }
+
+  @Override
+  public void intercept(HttpRequest request) throws IOException {
+    defaultToken.intercept(request);
+  }
+
+  @Override
+  public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry) {
+    return defaultToken.handleResponse(request, response, supportsRetry);
+  }
+
+  /**
+   * Executes a token request for the given scopes.
+   *
+   * <p>Overriding is allowed, for example to add parameters to the request.
+   *
+   * @param scopes space-separated scopes or {@code null} for none
+   */
+  protected TokenResponse executeTokenRequest(String scopes) throws IOException {
+    ClientCredentialsTokenRequest request =
+        new ClientCredentialsTokenRequest(
+                transport, jsonFactory, new GenericUrl(tokenServerEncodedUrl))
+            .setClientAuthentication(clientAuthentication)
+            .setRequestInitializer(requestInitializer);
+    if (scopes != null) {
+      request.setScopes(Collections.singleton(scopes));
+    }
+    return request.execute();
+  }
+
+  private ScopedToken getScopedToken(Collection<String> scopes) {
+    String key =
+        scopes == null || scopes.isEmpty() ? "" : Joiner.on(' ').join(new TreeSet<String>(scopes));
+    ScopedToken scopedToken = tokens.get(key);
+    if (scopedToken == null) {
+      scopedToken = new ScopedToken(key.isEmpty() ? null : key);
+      ScopedToken existing = tokens.putIfAbsent(key, scopedToken);
+      if (existing != null) {
+        scopedToken = existing;
+      }
+    }
+    return scopedToken;
+  }
+
+  /** Access token together with the times it should be refreshed and it expires. */
+  private static final class CachedToken {
+
+    final String accessToken;
+
+    /** Time in milliseconds after which a new token should be fetched. */
+    final long refreshTimeMillis;
+
+    /** Time in milliseconds after which the token must not be used. */
+    final long expirationTimeMillis;
+
+    CachedToken(String accessToken, long refreshTimeMillis, long expirationTimeMillis) {
+      this.accessToken = accessToken;
+      this.refreshTimeMillis = refreshTimeMillis;
+      this.expirationTimeMillis = expirationTimeMillis;
+    }
+  }
+
+  /** Cached token of a single scope set. */
+  private final class ScopedToken
+      implements HttpExecuteInterceptor, HttpRequestInitializer, HttpUnsuccessfulResponseHandler {
+
+    /** Canonical space-separated scopes or {@code null} for none. */
+    final String scopes;
+
+    /** Lock held while fetching a token. */
+    final Lock lock = new ReentrantLock();
+
+    /** Current token or {@code null} for none. */
+    volatile CachedToken token;
+
+    ScopedToken(String scopes) {
+      this.scopes = scopes;
+    }
+
+    String getAccessToken() throws IOException {
+      CachedToken current = token;
+      long now = clock.currentTimeMillis();
+      if (current != null && now < current.refreshTimeMillis) {
+        return current.accessToken;
+      }
+      boolean usable = current != null && now < current.expirationTimeMillis;
+      if (usable) {
+        // another thread is already refreshing, keep using the current token meanwhile
+        if (!lock.tryLock()) {
+          return current.accessToken;
+        }
+      } else {
+        lock.lock();
+      }
+      try {
+        // need to check if another thread has already refreshed the token
+        CachedToken latest = token;
+        if (latest != current
+            && latest != null
+            && clock.currentTimeMillis() < latest.refreshTimeMillis) {
+          return latest.accessToken;
+        }
+        try {
+          latest = fetch();
+        } catch (IOException e) {
+          if (usable && clock.currentTimeMillis() < current.expirationTimeMillis) {
+            LOGGER.log(Level.WARNING, "unable to refresh token ahead of expiration", e);
+            return current.accessToken;
+          }
+          throw e;
+        }
+        token = latest;
+        return latest.accessToken;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private CachedToken fetch() throws IOException {
+      long now = clock.currentTimeMillis();
+      TokenResponse response = executeTokenRequest(scopes);
+      Long expiresInSeconds = response.getExpiresInSeconds();
+      if (expiresInSeconds == null) {
+        return new CachedToken(response.getAccessToken(), Long.MAX_VALUE, Long.MAX_VALUE);
+      }
+      long lifetimeMillis = TimeUnit.SECONDS.toMillis(expiresInSeconds);
+      // refresh no earlier than half way through the lifetime, so short-lived tokens are reused
+      long refreshTimeMillis =
+          now + Math.max(lifetimeMillis - refreshAheadMillis, lifetimeMillis / 2);
+      return new CachedToken(response.getAccessToken(), refreshTimeMillis, now + lifetimeMillis);
+    }
+
+    @Override
+    public void initialize(HttpRequest request) throws IOException {
+      request.setInterceptor(this);
+      request.setUnsuccessfulResponseHandler(this);
+    }
+
+    @Override
+    public void intercept(HttpRequest request) throws IOException {
+      method.intercept(request, getAccessToken());
+    }
+
+    @Override
+    public boolean handleResponse(
+        HttpRequest request, HttpResponse response, boolean supportsRetry) {
+      if (response.getStatusCode() != HttpStatusCodes.STATUS_CODE_UNAUTHORIZED) {
+        return false;
+      }
+      List<String> authenticateList = response.getHeaders().getAuthenticateAsList();
+      if (authenticateList != null) {
+        for (String authenticate : authenticateList) {
+          if (authenticate.startsWith(BearerToken.AuthorizationHeaderAccessMethod.HEADER_PREFIX)
+              && !BearerToken.INVALID_TOKEN_ERROR.matcher(authenticate).find()) {
+            // rejected for another reason than the token, such as insufficient scope
+            return false;
+          }
+        }
+      }
+      lock.lock();
+      try {
+        CachedToken current = token;
+        // another thread may have already replaced the rejected token
+        if (current != null
+            && Objects.equal(current.accessToken, method.getAccessTokenFromRequest(request))) {
+          token = null;
+        }
+      } finally {
+        lock.unlock();
+      }
+      return supportsRetry;
+    }
+  }
+
+  /**
+   * Builder for {@link ClientCredentialsTokenProvider}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static class Builder {
+
+    /** HTTP transport. */
+    HttpTransport transport;
+
+    /** JSON factory. */
+    JsonFactory jsonFactory;
+
+    /** Token server URL. */
+    GenericUrl tokenServerUrl;
+
+    /** Client authentication. */
+    HttpExecuteInterceptor clientAuthentication;
+
+    /** HTTP request initializer for token requests or {@code null} for none. */
+    HttpRequestInitializer requestInitializer;
+
+    /** Method of presenting the access token to the resource server. */
+    Credential.AccessMethod method = BearerToken.authorizationHeaderAccessMethod();
+
+    /** Default scopes. */
+    Collection<String> scopes = Collections.emptyList();
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Seconds before expiration at which tokens are refreshed. */
+    long refreshAheadSeconds = DEFAULT_REFRESH_AHEAD_SECONDS;
+
+    /**
+     * @param transport HTTP transport
+     * @param jsonFactory JSON factory
+     * @param tokenServerUrl token server URL
+     * @param clientAuthentication client authentication (for example {@link
+     *     com.google.api.client.http.BasicAuthentication} or {@link
+     *     ClientParametersAuthentication})
+     */
+    public Builder(
+        HttpTransport transport,
+        JsonFactory jsonFactory,
+        GenericUrl tokenServerUrl,
+        HttpExecuteInterceptor clientAuthentication) {
+      this.transport = Preconditions.checkNotNull(transport);
+      this.jsonFactory = Preconditions.checkNotNull(jsonFactory);
+      this.tokenServerUrl = Preconditions.checkNotNull(tokenServerUrl);
+      this.clientAuthentication = Preconditions.checkNotNull(clientAuthentication);
+    }
+
+    /** Returns a new instance of a token provider based on the options set in the builder. */
+    public ClientCredentialsTokenProvider build() {
+      return new ClientCredentialsTokenProvider(this);
+    }
+
+    /** Returns the HTTP request initializer for token requests or {@code null} for none. */
+    public final HttpRequestInitializer getRequestInitializer() {
+      return requestInitializer;
+    }
+
+    /**
+     * Sets the HTTP request initializer for token requests or {@code null} for none.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setRequestInitializer(HttpRequestInitializer requestInitializer) {
+      this.requestInitializer = requestInitializer;
+      return this;
+    }
+
+    /** Returns the method of presenting the access token to the resource server. */
+    public final Credential.AccessMethod getMethod() {
+      return method;
+    }
+
+    /**
+     * Sets the method of presenting the access token to the resource server (default is {@link
+     * BearerToken#authorizationHeaderAccessMethod}).
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setMethod(Credential.AccessMethod method) {
+      this.method = Preconditions.checkNotNull(method);
+      return this;
+    }
+
+    /** Returns the default scopes. */
+    public final Collection<String> getScopes() {
+      return scopes;
+    }
+
+    /**
+     * Sets the default scopes (default is none).
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setScopes(Collection<String> scopes) {
+      this.scopes = Preconditions.checkNotNull(scopes);
+      return this;
+    }
+
+    /** Returns the clock. */
+    public final Clock getClock() {
+      return clock;
+    }
+
+    /**
+     * Sets the clock.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /** Returns the seconds before expiration at which tokens are refreshed. */
+    public final long getRefreshAheadSeconds() {
+      return refreshAheadSeconds;
+    }
+
+    /**
+     * Sets the seconds before expiration at which tokens are refreshed (default is {@link
+     * #DEFAULT_REFRESH_AHEAD_SECONDS}). Tokens are never refreshed before half of their lifetime
+     * has passed.
+     *
+     * <p>It must be greater or equal to zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setRefreshAheadSeconds(long refreshAheadSeconds) {
+      Preconditions.checkArgument(refreshAheadSeconds >= 0);
+      this.refreshAheadSeconds = refreshAheadSeconds;
+      return this;
+    }
+  }
+}
@@ -24,6 +24,7 @@ import com.google.api.client.http.HttpTransport;
 import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.util.Clock;
+import com.google.api.client.util.Joiner;
 import com.google.api.client.util.Lists;
 import com.google.api.client.util.Objects;
 import com.google.api.client.util.Preconditions;
@@ -32,6 +33,9 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -67,6 +71,11 @@ import java.util.logging.Logger;
  * {@link Builder#addRefreshListener(CredentialRefreshListener)} with {@link
  * DataStoreCredentialRefreshListener}.
  *
+ * <p>If the same refresh token is used to call APIs that need different scopes, use {@link
+ * #forScopes(Collection)} to obtain a request initializer that presents an access token for just
+ * those scopes. Such access tokens are kept in addition to the main access token and are refreshed
+ * independently of it and of each other.
+ *
  * <p>If you have a custom request initializer, request execute interceptor, or unsuccessful
  * response handler, take a look at the sample usage for {@link HttpExecuteInterceptor} and {@link
  * HttpUnsuccessfulResponseHandler}, which are interfaces that this class also implements.
@@ -154,6 +163,10 @@ public class Credential
    */
   private final HttpRequestInitializer requestInitializer;
 
+  /** Access tokens for scope subsets by space-separated sorted scopes. */
+  private final ConcurrentMap<String, ScopedAccessToken> scopedAccessTokens =
+      new ConcurrentHashMap<String, ScopedAccessToken>();
+
   /**
    * Constructor with the ability to access protected resources, but not refresh tokens.
    *
@@ -222,6 +235,25 @@ public class Credential
    * return {@code false}. Subclasses may override.
    */
   public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry) {
+    if (isInvalidToken(response)) {
+      try {
+        lock.lock();
+        try {
+          // need to check if another thread has already refreshed the token
+          return !Objects.equal(accessToken, method.getAccessTokenFromRequest(request))
+              || refreshToken();
+        } finally {
+          lock.unlock();
+        }
+      } catch (IOException exception) {
+        LOGGER.log(Level.SEVERE, "unable to refresh token", exception);
+      }
+    }
+    return false;
+  }
+
+  /** Returns whether the response indicates that the access token must be refreshed. */
+  static boolean isInvalidToken(HttpResponse response) {
     boolean refreshToken = false;
     boolean bearer = false;
 
@@ -246,22 +278,7 @@ public class Credential
     if (!bearer) {
       refreshToken = response.getStatusCode() == HttpStatusCodes.STATUS_CODE_UNAUTHORIZED;
     }
-
-    if (refreshToken) {
-      try {
-        lock.lock();
-        try {
-          // need to check if another thread has already refreshed the token
-          return !Objects.equal(accessToken, method.getAccessTokenFromRequest(request))
-              || refreshToken();
-        } finally {
-          lock.unlock();
-        }
-      } catch (IOException exception) {
-        LOGGER.log(Level.SEVERE, "unable to refresh token", exception);
-      }
-    }
-    return false;
+    return refreshToken;
   }
 
   public void initialize(HttpRequest request) throws IOException {
@@ -552,6 +569,173 @@ public class Credential
     return refreshListeners;
   }
 
+  /**
+   * Returns a request initializer that authorizes requests with an access token for the given
+   * scopes, obtained from the {@link #getRefreshToken() refresh token} of this credential.
+   *
+   * <p>The access token of each scope set is requested lazily, cached, and expires independently of
+   * the main access token and of other scope sets. Since they all share the refresh token, only one
+   * token request of this credential is in flight at any time. Scope sets are compared regardless
+   * of the order of the scopes, so the returned initializer may either be kept or obtained again
+   * for each request. If the token server rotates the refresh token, the new one is stored with
+   * {@link #setRefreshToken} and the refresh listeners are notified, as they are of error
+   * responses.
+   *
+   * @param scopes non-empty collection of scopes, which must be granted to the refresh token
+   * @since 1.40.0
+   */
+  public HttpRequestInitializer forScopes(Collection<String> scopes) {
+    Preconditions.checkArgument(!scopes.isEmpty(), "scopes must not be empty");
+    String key = Joiner.on(' ').join(new TreeSet<String>(scopes));
+    ScopedAccessToken scopedAccessToken = scopedAccessTokens.get(key);
+    if (scopedAccessToken == null) {
+      scopedAccessToken = new ScopedAccessToken(key);
+      ScopedAccessToken existing = scopedAccessTokens.putIfAbsent(key, scopedAccessToken);
+      if (existing != null) {
+        scopedAccessToken = existing;
+      }
+    }
+    return scopedAccessToken;
+  }
+
+  /**
+   * Executes a request for an access token for the given scopes from the token server.
+   *
+   * <p>The default implementation calls {@link RefreshTokenRequest#execute()} like {@link
+   * #executeRefreshToken()}, with the scopes set. If {@link #getRefreshToken()} is {@code null}, it
+   * instead returns {@code null}.
+   *
+   * <p>Subclasses may override for a different implementation. Implementations can assume that it
+   * is called with the same lock held as {@link #executeRefreshToken()}, so that a refresh token is
+   * never used by two requests at the same time, even if the token server rotates it.
+   *
+   * @param scopes space-separated scopes
+   * @return successful response from the token server or {@code null} if it is not possible to
+   *     obtain an access token
+   * @throws TokenResponseException if an error response was received from the token server
+   * @since 1.40.0
+   */
+  protected TokenResponse executeRefreshToken(String scopes) throws IOException {
+    String refreshToken = getRefreshToken();
+    if (refreshToken == null) {
+      return null;
+    }
+    return new RefreshTokenRequest(
+            transport, jsonFactory, new GenericUrl(tokenServerEncodedUrl), refreshToken)
+        .setScopes(Collections.singleton(scopes))
+        .setClientAuthentication(clientAuthentication)
+        .setRequestInitializer(requestInitializer)
+        .execute();
+  }
+
+  /** Access token for a scope subset, which shares the refresh token of the credential. */
+  private final class ScopedAccessToken
+      implements HttpExecuteInterceptor, HttpRequestInitializer, HttpUnsuccessfulResponseHandler {
+
+    /** Space-separated sorted scopes. */
+    private final String scopes;
+
+    /** Lock on the access token, held while it is being refreshed. */
+    private final Lock scopedLock = new ReentrantLock();
+
+    /** Access token or {@code null} for none. */
+    private String scopedAccessToken;
+
+    /** Expected expiration time in milliseconds or {@code null} for none. */
+    private Long scopedExpirationTimeMilliseconds;
+
+    ScopedAccessToken(String scopes) {
+      this.scopes = scopes;
+    }
+
+    public void initialize(HttpRequest request) throws IOException {
+      request.setInterceptor(this);
+      request.setUnsuccessfulResponseHandler(this);
+    }
+
+    public void intercept(HttpRequest request) throws IOException {
+      scopedLock.lock();
+      try {
+        // check if token will expire in a minute
+        if (scopedAccessToken == null
+            || scopedExpirationTimeMilliseconds != null
+                && scopedExpirationTimeMilliseconds - clock.currentTimeMillis() <= 60 * 1000) {
+          refresh();
+          if (scopedAccessToken == null) {
+            // nothing we can do without an access token
+            return;
+          }
+        }
+        method.intercept(request, scopedAccessToken);
+      } finally {
+        scopedLock.unlock();
+      }
+    }
+
+    public boolean handleResponse(
+        HttpRequest request, HttpResponse response, boolean supportsRetry) {
+      if (isInvalidToken(response)) {
+        try {
+          scopedLock.lock();
+          try {
+            // need to check if another thread has already refreshed the token
+            return !Objects.equal(scopedAccessToken, method.getAccessTokenFromRequest(request))
+                || refresh();
+          } finally {
+            scopedLock.unlock();
+          }
+        } catch (IOException exception) {
+          LOGGER.log(Level.SEVERE, "unable to refresh token", exception);
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Requests a new access token, with the scoped lock held.
+     *
+     * <p>The token request and the update of a rotated refresh token are done under the lock of the
+     * credential, like in {@link Credential#refreshToken()}, so that each request uses the latest
+     * refresh token.
+     */
+    private boolean refresh() throws IOException {
+      lock.lock();
+      try {
+        TokenResponse tokenResponse = executeRefreshToken(scopes);
+        if (tokenResponse == null) {
+          return false;
+        }
+        scopedAccessToken = tokenResponse.getAccessToken();
+        Long expiresIn = tokenResponse.getExpiresInSeconds();
+        scopedExpirationTimeMilliseconds =
+            expiresIn == null ? null : clock.currentTimeMillis() + expiresIn * 1000;
+        String newRefreshToken = tokenResponse.getRefreshToken();
+        if (newRefreshToken != null && !newRefreshToken.equals(getRefreshToken())) {
+          setRefreshToken(newRefreshToken);
+          for (CredentialRefreshListener refreshListener : refreshListeners) {
+            refreshListener.onTokenResponse(Credential.this, tokenResponse);
+          }
+        }
+        return true;
+      } catch (TokenResponseException e) {
+        boolean statusCode4xx = 400 <= e.getStatusCode() && e.getStatusCode() < 500;
+        if (e.getDetails() != null && statusCode4xx) {
+          scopedAccessToken = null;
+          scopedExpirationTimeMilliseconds = null;
+        }
+        for (CredentialRefreshListener refreshListener : refreshListeners) {
+          refreshListener.onTokenErrorResponse(Credential.this, e.getDetails());
+        }
+        if (statusCode4xx) {
+          throw e;
+        }
+      } finally {
+        lock.unlock();
+      }
+      return false;
+    }
+  }
+
   /**
    * Credential builder.
    *
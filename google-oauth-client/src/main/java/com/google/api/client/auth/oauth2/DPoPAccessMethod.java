@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseInterceptor;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import com.google.api.client.util.Base64;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.StringUtils;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe OAuth 2.0 method for accessing protected resources with sender-constrained access
+ * tokens as specified in <a href="https://tools.ietf.org/html/rfc9449">Demonstrating Proof of
+ * Possession (DPoP)</a>.
+ *
+ * <p>Every request carries the access token in a {@code "DPoP"} authorization header together with
+ * a proof JWT signed with {@code ES256} by a P-256 key pair, which binds the request method, the
+ * request URL and a hash of the access token. Everything that does not change between requests is
+ * computed once: the proof header with the public JSON Web Key when the method is built, and the
+ * access token hash once per access token. Signature engines are reused per thread. Nonces the
+ * server provides in the {@code DPoP-Nonce} response header are cached per origin and put in later
+ * proofs, and a request rejected with {@code use_dpop_nonce} is retried once with the new nonce.
+ * Sample usage:
+ *
+ * <pre>
+ * DPoPAccessMethod dpop = new DPoPAccessMethod.Builder(jsonFactory, keyPair).build();
+ * Credential credential = new Credential.Builder(dpop)
+ * ...
+ * .build();
+ * </pre>
+ *
+ * <p>The method is tied to its key pair, so a single instance should be created per key pair and
+ * shared. Use {@link #createProof} to obtain proofs for token requests.
+ *
+ * @since 1.40.0
+ */
+public final class DPoPAccessMethod implements Credential.AccessMethod {
+
+  /** Authorization header prefix. */
+  static final String HEADER_PREFIX = "DPoP ";
+
+  /** Name of the request header with the proof. */
+  public static final String PROOF_HEADER = "DPoP";
+
+  /** Name of the response header with the nonce to use in subsequent proofs. */
+  public static final String NONCE_HEADER = "DPoP-Nonce";
+
+  /** Type of a proof JWT. */
+  public static final String PROOF_TYPE = "dpop+jwt";
+
+  /** Error sent by servers that require a (new) nonce in the proof. */
+  static final Pattern USE_DPOP_NONCE_ERROR =
+      Pattern.compile("\\s*error\\s*=\\s*\"?use_dpop_nonce\"?");
+
+  /** Size in bytes of a P-256 coordinate and of each half of an ES256 signature. */
+  private static final int P256_FIELD_SIZE = 32;
+
+  private final JsonFactory jsonFactory;
+
+  private final ECPrivateKey privateKey;
+
+  private final Clock clock;
+
+  /** Base64url encoded proof header, which is the same for all proofs. */
+  private final String encodedHeader;
+
+  /** Signature engines initialized with the private key. */
+  private final ThreadLocal<Signature> signatures = new ThreadLocal<Signature>();
+
+  /** Hash of the most recently used access token. */
+  private volatile AccessTokenHash accessTokenHash;
+
+  /** Nonces by origin ({@link GenericUrl#buildAuthority()}). */
+  private final ConcurrentMap<String, String> nonces = new ConcurrentHashMap<String, String>();
+
+  /** @param builder builder */
+  DPoPAccessMethod(Builder builder) throws IOException {
+    jsonFactory = builder.jsonFactory;
+    privateKey = builder.privateKey;
+    clock = builder.clock;
+    GenericJson jwk = new GenericJson();
+    jwk.put("kty", "EC");
+    jwk.put("crv", "P-256");
+    jwk.put("x", encodeCoordinate(builder.publicKey.getW().getAffineX()));
+    jwk.put("y", encodeCoordinate(builder.publicKey.getW().getAffineY()));
+    // the jwk member of JsonWebSignature.Header is a string, so the header is built generically
+    GenericJson header = new GenericJson();
+    header.put("typ", PROOF_TYPE);
+    header.put("alg", "ES256");
+    header.put("jwk", jwk);
+    encodedHeader = Base64.encodeBase64URLSafeString(jsonFactory.toByteArray(header));
+  }
+
+  public void intercept(HttpRequest request, String accessToken) throws IOException {
+    request.getHeaders().setAuthorization(HEADER_PREFIX + accessToken);
+    request
+        .getHeaders()
+        .set(PROOF_HEADER, createProof(request.getRequestMethod(), request.getUrl(), accessToken));
+    // track nonces of this request, once even if it is retried
+    if (!(request.getUnsuccessfulResponseHandler() instanceof NonceHandler)) {
+      NonceHandler handler =
+          new NonceHandler(
+              request.getUnsuccessfulResponseHandler(), request.getResponseInterceptor());
+      request.setUnsuccessfulResponseHandler(handler);
+      request.setResponseInterceptor(handler);
+    }
+  }
+
+  public String getAccessTokenFromRequest(HttpRequest request) {
+    List<String> authorizationAsList = request.getHeaders().getAuthorizationAsList();
+    if (authorizationAsList != null) {
+      for (String header : authorizationAsList) {
+        if (header.startsWith(HEADER_PREFIX)) {
+          return header.substring(HEADER_PREFIX.length());
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns a new signed proof for a request.
+   *
+   * @param method HTTP method
+   * @param url request URL, of which the query and fragment are ignored
+   * @param accessToken access token the request carries or {@code null} for none (as in token
+   *     requests)
+   */
+  public String createProof(String method, GenericUrl url, String accessToken) throws IOException {
+    String origin = buildOrigin(url);
+    String path = url.getRawPath();
+    JsonWebToken.Payload payload = new JsonWebToken.Payload();
+    payload.setJwtId(UUID.randomUUID().toString());
+    payload.set("htm", method);
+    payload.set("htu", path == null ? origin : origin + path);
+    payload.setIssuedAtTimeSeconds(clock.currentTimeMillis() / 1000);
+    if (accessToken != null) {
+      payload.set("ath", hashAccessToken(accessToken));
+    }
+    String nonce = nonces.get(origin);
+    if (nonce != null) {
+      payload.set("nonce", nonce);
+    }
+    String signingInput =
+        encodedHeader + "." + Base64.encodeBase64URLSafeString(jsonFactory.toByteArray(payload));
+    byte[] signature;
+    try {
+      Signature engine = signatures.get();
+      if (engine == null) {
+        engine = Signature.getInstance("SHA256withECDSA");
+        engine.initSign(privateKey);
+        signatures.set(engine);
+      }
+      engine.update(StringUtils.getBytesUtf8(signingInput));
+      // the engine is ready for the next signature after signing
+      signature = toConcatenated(engine.sign());
+    } catch (GeneralSecurityException e) {
+      signatures.remove();
+      IOException io = new IOException();
+      io.initCause(e);
+      throw io;
+    }
+    return signingInput + "." + Base64.encodeBase64URLSafeString(signature);
+  }
+
+  /**
+   * Returns the cached nonce of the origin of the given URL or {@code null} for none.
+   *
+   * @param url URL
+   */
+  public String getNonce(GenericUrl url) {
+    return nonces.get(buildOrigin(url));
+  }
+
+  /**
+   * Records the nonce of a response to a request to the given URL, for example a token response.
+   *
+   * @param url request URL
+   * @param response response, which may or may not have a {@code DPoP-Nonce} header
+   * @return whether the nonce of the origin changed
+   */
+  public boolean updateNonce(GenericUrl url, HttpResponse response) {
+    String nonce = response.getHeaders().getFirstHeaderStringValue(NONCE_HEADER);
+    if (nonce == null) {
+      return false;
+    }
+    return !nonce.equals(nonces.put(buildOrigin(url), nonce));
+  }
+
+  private String hashAccessToken(String accessToken) throws IOException {
+    AccessTokenHash current = accessTokenHash;
+    if (current != null && current.accessToken.equals(accessToken)) {
+      return current.hash;
+    }
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(StringUtils.getBytesUtf8(accessToken));
+      current = new AccessTokenHash(accessToken, Base64.encodeBase64URLSafeString(digest));
+    } catch (GeneralSecurityException e) {
+      IOException io = new IOException();
+      io.initCause(e);
+      throw io;
+    }
+    accessTokenHash = current;
+    return current.hash;
+  }
+
+  /**
+   * Returns the origin of the given URL, that is its scheme, host and non-default port, without the
+   * user information that {@link GenericUrl#buildAuthority()} includes.
+   */
+  private static String buildOrigin(GenericUrl url) {
+    StringBuilder origin = new StringBuilder();
+    String scheme = url.getScheme().toLowerCase(Locale.US);
+    origin.append(scheme).append("://").append(url.getHost().toLowerCase(Locale.US));
+    int port = url.getPort();
+    if (port != -1
+        && !(port == 80 && "http".equals(scheme))
+        && !(port == 443 && "https".equals(scheme))) {
+      origin.append(':').append(port);
+    }
+    return origin.toString();
+  }
+
+  private static String encodeCoordinate(BigInteger coordinate) {
+    byte[] bytes = coordinate.toByteArray();
+    byte[] result = new byte[P256_FIELD_SIZE];
+    int length = Math.min(bytes.length, P256_FIELD_SIZE);
+    System.arraycopy(bytes, bytes.length - length, result, P256_FIELD_SIZE - length, length);
+    return Base64.encodeBase64URLSafeString(result);
+  }
+
+  /** Converts a DER encoded ECDSA signature to the concatenated form used by JWS. */
+  static byte[] toConcatenated(byte[] der) {
+    // SEQUENCE { INTEGER r, INTEGER s } with a one or two byte length
+    int offset = der[1] == (byte) 0x81 ? 3 : 2;
+    byte[] result = new byte[2 * P256_FIELD_SIZE];
+    offset = copyInteger(der, offset, result, 0);
+    copyInteger(der, offset, result, P256_FIELD_SIZE);
+    return result;
+  }
+
+  /** Copies a DER INTEGER right-aligned into the result and returns the offset after it. */
+  private static int copyInteger(byte[] der, int offset, byte[] result, int resultOffset) {
+    int length = der[offset + 1];
+    int start = offset + 2;
+    int end = start + length;
+    // skip the leading sign byte
+    while (length > P256_FIELD_SIZE) {
+      start++;
+      length--;
+    }
+    System.arraycopy(der, start, result, resultOffset + P256_FIELD_SIZE - length, length);
+    return end;
+  }
+
+  /** Access token together with its base64url encoded SHA-256 hash. */
+  private static final class AccessTokenHash {
+
+    final String accessToken;
+
+    final String hash;
+
+    AccessTokenHash(String accessToken, String hash) {
+      this.accessToken = accessToken;
+      this.hash = hash;
+    }
+  }
+
+  /**
+   * Records nonces from the responses to a request and retries it once when the server asks for a
+   * new nonce, delegating everything else to the original handler and interceptor.
+   */
+  private final class NonceHandler
+      implements HttpUnsuccessfulResponseHandler, HttpResponseInterceptor {
+
+    private final HttpUnsuccessfulResponseHandler delegate;
+
+    private final HttpResponseInterceptor responseDelegate;
+
+    private boolean retried;
+
+    NonceHandler(
+        HttpUnsuccessfulResponseHandler delegate, HttpResponseInterceptor responseDelegate) {
+      this.delegate = delegate;
+      this.responseDelegate = responseDelegate;
+    }
+
+    public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry)
+        throws IOException {
+      boolean changed = updateNonce(request.getUrl(), response);
+      List<String> authenticateList = response.getHeaders().getAuthenticateAsList();
+      if (changed && !retried && authenticateList != null) {
+        for (String authenticate : authenticateList) {
+          if (authenticate.startsWith(HEADER_PREFIX)
+              && USE_DPOP_NONCE_ERROR.matcher(authenticate).find()) {
+            retried = true;
+            return supportsRetry;
+          }
+        }
+      }
+      return delegate != null && delegate.handleResponse(request, response, supportsRetry);
+    }
+
+    public void interceptResponse(HttpResponse response) throws IOException {
+      updateNonce(response.getRequest().getUrl(), response);
+      if (responseDelegate != null) {
+        responseDelegate.interceptResponse(response);
+      }
+    }
+  }
+
+  /**
+   * Builder for {@link DPoPAccessMethod}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static final class Builder {
+
+    /** JSON factory. */
+    final JsonFactory jsonFactory;
+
+    /** Private key used to sign proofs. */
+    final ECPrivateKey privateKey;
+
+    /** Public key published in proofs. */
+    final ECPublicKey publicKey;
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /**
+     * @param jsonFactory JSON factory
+     * @param keyPair P-256 elliptic curve key pair
+     */
+    public Builder(JsonFactory jsonFactory, KeyPair keyPair) {
+      this.jsonFactory = Preconditions.checkNotNull(jsonFactory);
+      Preconditions.checkArgument(
+          keyPair.getPrivate() instanceof ECPrivateKey
+              && keyPair.getPublic() instanceof ECPublicKey,
+          "an elliptic curve key pair is required");
+      this.privateKey = (ECPrivateKey) keyPair.getPrivate();
+      this.publicKey = (ECPublicKey) keyPair.getPublic();
+      Preconditions.checkArgument(
+          publicKey.getParams().getCurve().getField().getFieldSize() == 8 * P256_FIELD_SIZE,
+          "a P-256 key pair is required");
+    }
+
+    /** Returns a new instance of the access method. */
+    public DPoPAccessMethod build() throws IOException {
+      return new DPoPAccessMethod(this);
+    }
+
+    /** Returns the clock. */
+    public Clock getClock() {
+      return clock;
+    }
+
+    /** Sets the clock. */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+  }
+}
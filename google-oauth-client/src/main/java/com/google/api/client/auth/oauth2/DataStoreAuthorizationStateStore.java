@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.store.DataStore;
+import com.google.api.client.util.store.DataStoreFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link AuthorizationStateStore} backed by a {@link DataStore}, so that pending authorizations can
+ * be shared by several processes or survive a restart.
+ *
+ * <p>Entries are keyed by their {@code state} parameter, so lookups take a single {@link
+ * DataStore#get} call. Evicting expired entries requires a scan of the whole data store, so it is
+ * only done in the background if {@link Builder#setEvictionIntervalSeconds(long)} is set. Otherwise
+ * it is only done by {@link #evictExpired()}, or when creating an authorization finds {@link
+ * Builder#setMaximumSize(int)} pending authorizations stored and some of them may have expired. If
+ * none has, the new authorization is rejected.
+ *
+ * <p>The number of pending authorizations is counted in memory, and only read from the data store
+ * on the first authorization and recounted on each eviction. Entries created or consumed by other
+ * processes sharing the data store, or concurrently with an eviction, are therefore only taken into
+ * account on the next eviction.
+ *
+ * <p>Authorizations are created and consumed without holding a lock during the data store I/O, so
+ * they do not wait for each other. Only one thread evicts at a time: threads that find the store
+ * full while another thread evicts do not wait for it and reject the new authorization.
+ *
+ * <p>Consuming an entry is a {@link DataStore#get} followed by a {@link DataStore#delete}, which is
+ * not atomic across processes. Within a process, an entry is only returned to one of the threads
+ * consuming it concurrently. The authorization code itself can still only be redeemed once.
+ *
+ * <p>Implementation is thread-safe.
+ *
+ * @since 1.40.0
+ */
+public final class DataStoreAuthorizationStateStore
+    implements AuthorizationStateStore, AuthorizationStateEviction.Evictable {
+
+  /** Default data store ID. */
+  public static final String DEFAULT_DATA_STORE_ID = AuthorizationState.class.getSimpleName();
+
+  /** Default value for the maximum number of pending authorizations. */
+  public static final int DEFAULT_MAXIMUM_SIZE = 100000;
+
+  private final DataStore<AuthorizationState> dataStore;
+  private final Clock clock;
+  private final long timeToLiveMillis;
+  private final int maximumSize;
+
+  /**
+   * Approximate number of pending authorizations or {@code -1} before it is read from the data
+   * store.
+   */
+  private final AtomicInteger size = new AtomicInteger(-1);
+
+  /**
+   * Lower bound of the expiration time in milliseconds of the pending authorizations, before which
+   * an eviction would not find any to evict.
+   */
+  private final AtomicLong earliestExpirationMillis = new AtomicLong();
+
+  /** Lock held while evicting. */
+  private final Lock evictionLock = new ReentrantLock();
+
+  /** States being consumed by a thread of this process. */
+  private final ConcurrentHashMap<String, Boolean> consuming =
+      new ConcurrentHashMap<String, Boolean>();
+
+  /** @param builder builder */
+  DataStoreAuthorizationStateStore(Builder builder) {
+    dataStore = builder.dataStore;
+    clock = builder.clock;
+    timeToLiveMillis = TimeUnit.SECONDS.toMillis(builder.timeToLiveSeconds);
+    maximumSize = builder.maximumSize;
+    if (builder.evictionIntervalSeconds > 0) {
+      AuthorizationStateEviction.schedule(
+          this, TimeUnit.SECONDS.toMillis(builder.evictionIntervalSeconds));
+    }
+  }
+
+  /** Returns the data store of the pending authorizations. */
+  public DataStore<AuthorizationState> getDataStore() {
+    return dataStore;
+  }
+
+  /** Returns the seconds a pending authorization remains valid. */
+  public long getTimeToLiveSeconds() {
+    return TimeUnit.MILLISECONDS.toSeconds(timeToLiveMillis);
+  }
+
+  /** Returns the maximum number of pending authorizations. */
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  @Override
+  public AuthorizationState create(String userId) throws IOException {
+    if (size.get() == -1) {
+      size.compareAndSet(-1, dataStore.size());
+    }
+    long now = clock.currentTimeMillis();
+    if (size.get() >= maximumSize) {
+      if (now >= earliestExpirationMillis.get() && evictionLock.tryLock()) {
+        try {
+          evict();
+        } finally {
+          evictionLock.unlock();
+        }
+      }
+      if (size.get() >= maximumSize) {
+        throw new IOException("Too many pending authorizations");
+      }
+    }
+    AuthorizationState state = AuthorizationState.newRandom(userId, now + timeToLiveMillis);
+    dataStore.set(state.getState(), state);
+    size.incrementAndGet();
+    lowerEarliestExpiration(state.getExpirationTimeMilliseconds());
+    return state;
+  }
+
+  @Override
+  public AuthorizationState consume(String state, String userId) throws IOException {
+    if (state == null || consuming.putIfAbsent(state, Boolean.TRUE) != null) {
+      return null;
+    }
+    AuthorizationState result;
+    try {
+      result = dataStore.get(state);
+      if (result == null) {
+        return null;
+      }
+      dataStore.delete(state);
+    } finally {
+      consuming.remove(state);
+    }
+    decrementSize();
+    return !result.getUserId().equals(userId) || result.isExpired(clock.currentTimeMillis())
+        ? null
+        : result;
+  }
+
+  /**
+   * Evicts expired pending authorizations by scanning the whole data store, and recounts the
+   * remaining ones.
+   */
+  @Override
+  public void evictExpired() throws IOException {
+    evictionLock.lock();
+    try {
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /** Evicts expired pending authorizations, with the eviction lock held. */
+  private void evict() throws IOException {
+    long now = clock.currentTimeMillis();
+    List<String> expired = new ArrayList<String>();
+    int remaining = 0;
+    // authorizations created during the scan expire after this
+    long earliestExpiration = now + timeToLiveMillis;
+    for (String key : dataStore.keySet()) {
+      AuthorizationState state = dataStore.get(key);
+      if (state == null) {
+        continue;
+      }
+      if (state.isExpired(now)) {
+        expired.add(key);
+      } else {
+        remaining++;
+        earliestExpiration = Math.min(earliestExpiration, state.getExpirationTimeMilliseconds());
+      }
+    }
+    for (String key : expired) {
+      dataStore.delete(key);
+    }
+    size.set(remaining);
+    earliestExpirationMillis.set(earliestExpiration);
+  }
+
+  private void decrementSize() {
+    int current;
+    do {
+      current = size.get();
+      if (current <= 0) {
+        return;
+      }
+    } while (!size.compareAndSet(current, current - 1));
+  }
+
+  private void lowerEarliestExpiration(long expirationTimeMillis) {
+    long current;
+    do {
+      current = earliestExpirationMillis.get();
+      if (current <= expirationTimeMillis) {
+        return;
+      }
+    } while (!earliestExpirationMillis.compareAndSet(current, expirationTimeMillis));
+  }
+
+  /**
+   * Builder for {@link DataStoreAuthorizationStateStore}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static final class Builder {
+
+    /** Data store of the pending authorizations. */
+    DataStore<AuthorizationState> dataStore;
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Seconds a pending authorization remains valid. */
+    long timeToLiveSeconds = MemoryAuthorizationStateStore.DEFAULT_TIME_TO_LIVE_SECONDS;
+
+    /** Maximum number of pending authorizations. */
+    int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    /** Seconds between background evictions or {@code 0} for none. */
+    long evictionIntervalSeconds;
+
+    /**
+     * @param dataStoreFactory data store factory, whose data store with ID {@link
+     *     #DEFAULT_DATA_STORE_ID} is used
+     */
+    public Builder(DataStoreFactory dataStoreFactory) throws IOException {
+      this(dataStoreFactory.<AuthorizationState>getDataStore(DEFAULT_DATA_STORE_ID));
+    }
+
+    /** @param dataStore data store of the pending authorizations */
+    public Builder(DataStore<AuthorizationState> dataStore) {
+      this.dataStore = Preconditions.checkNotNull(dataStore);
+    }
+
+    /** Builds a new instance of {@link DataStoreAuthorizationStateStore}. */
+    public DataStoreAuthorizationStateStore build() {
+      return new DataStoreAuthorizationStateStore(this);
+    }
+
+    /** Sets the clock. */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /**
+     * Sets the seconds a pending authorization remains valid (default is {@link
+     * MemoryAuthorizationStateStore#DEFAULT_TIME_TO_LIVE_SECONDS}).
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setTimeToLiveSeconds(long timeToLiveSeconds) {
+      Preconditions.checkArgument(timeToLiveSeconds > 0);
+      this.timeToLiveSeconds = timeToLiveSeconds;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of pending authorizations (default is {@link #DEFAULT_MAXIMUM_SIZE}).
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setMaximumSize(int maximumSize) {
+      Preconditions.checkArgument(maximumSize > 0);
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * Sets the seconds between evictions of expired pending authorizations in the background or
+     * {@code 0} for none (default is {@code 0}).
+     *
+     * <p>Each eviction scans the whole data store, so this should only be set if the data store is
+     * not otherwise expiring its entries and many authorizations are abandoned.
+     *
+     * <p>It must not be negative.
+     */
+    public Builder setEvictionIntervalSeconds(long evictionIntervalSeconds) {
+      Preconditions.checkArgument(evictionIntervalSeconds >= 0);
+      this.evictionIntervalSeconds = evictionIntervalSeconds;
+      return this;
+    }
+  }
+}
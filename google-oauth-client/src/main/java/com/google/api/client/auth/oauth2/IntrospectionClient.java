@@ -0,0 +1,462 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.util.Charsets;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe OAuth 2.0 token introspection client (as specified in <a
+ * href="https://tools.ietf.org/html/rfc7662">RFC 7662</a>) that caches introspection results.
+ *
+ * <p>Results for active tokens are cached until the token expires, but no longer than {@link
+ * Builder#setMaxCacheSeconds(long)}. Results for inactive tokens are cached for {@link
+ * Builder#setInactiveCacheSeconds(long)}. Concurrent introspections of the same token that miss the
+ * cache result in a single request to the introspection endpoint. Errors are not cached. Tokens are
+ * kept in the cache only as SHA-256 digests. Sample usage:
+ *
+ * <pre>
+ * IntrospectionClient introspectionClient =
+ * new IntrospectionClient.Builder(transport, jsonFactory, introspectionUrl)
+ * .setClientAuthentication(new BasicAuthentication(resourceServerId, resourceServerSecret))
+ * .build();
+ * ...
+ * IntrospectionResponse response = introspectionClient.introspect(accessToken);
+ * if (!response.isActive()) {...}
+ * </pre>
+ *
+ * <p>Returned responses are shared between callers and must not be modified. As a {@link
+ * BearerTokenVerifier}, the client accepts active tokens.
+ *
+ * @since 1.40.0
+ */
+public class IntrospectionClient implements BearerTokenVerifier {
+
+  /** Default value for the maximum seconds to cache the result for an active token (5 minutes). */
+  public static final long DEFAULT_MAX_CACHE_SECONDS = 5 * 60;
+
+  /** Default value for the seconds to cache the result for an inactive token. */
+  public static final long DEFAULT_INACTIVE_CACHE_SECONDS = 10;
+
+  /** Default value for the maximum number of cached results. */
+  public static final long DEFAULT_MAXIMUM_CACHE_SIZE = 10000;
+
+  /** HTTP transport. */
+  private final HttpTransport transport;
+
+  /** JSON factory. */
+  private final JsonFactory jsonFactory;
+
+  /** Introspection endpoint URL. */
+  private final String introspectionUrl;
+
+  /** Client authentication or {@code null} for none. */
+  private final HttpExecuteInterceptor clientAuthentication;
+
+  /** HTTP request initializer or {@code null} for none. */
+  private final HttpRequestInitializer requestInitializer;
+
+  /** Clock. */
+  private final Clock clock;
+
+  /** Maximum milliseconds to cache the result for an active token. */
+  private final long maxCacheMillis;
+
+  /** Milliseconds to cache the result for an inactive token. */
+  private final long inactiveCacheMillis;
+
+  /** Cached results by token digest. */
+  private final Cache<String, CachedResult> cache;
+
+  /** @param builder builder */
+  protected IntrospectionClient(Builder builder) {
+    transport = builder.transport;
+    jsonFactory = builder.jsonFactory;
+    introspectionUrl = builder.introspectionUrl.build();
+    clientAuthentication = builder.clientAuthentication;
+    requestInitializer = builder.requestInitializer;
+    clock = builder.clock;
+    maxCacheMillis = TimeUnit.SECONDS.toMillis(builder.maxCacheSeconds);
+    inactiveCacheMillis = TimeUnit.SECONDS.toMillis(builder.inactiveCacheSeconds);
+    cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(builder.maximumCacheSize)
+            .expireAfterWrite(Math.max(maxCacheMillis, inactiveCacheMillis), TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  /** Returns the HTTP transport. */
+  public final HttpTransport getTransport() {
+    return transport;
+  }
+
+  /** Returns the JSON factory. */
+  public final JsonFactory getJsonFactory() {
+    return jsonFactory;
+  }
+
+  /** Returns the introspection endpoint URL. */
+  public final String getIntrospectionUrl() {
+    return introspectionUrl;
+  }
+
+  /** Returns the client authentication or {@code null} for none. */
+  public final HttpExecuteInterceptor getClientAuthentication() {
+    return clientAuthentication;
+  }
+
+  /** Returns the HTTP request initializer or {@code null} for none. */
+  public final HttpRequestInitializer getRequestInitializer() {
+    return requestInitializer;
+  }
+
+  /** Returns the clock. */
+  public final Clock getClock() {
+    return clock;
+  }
+
+  /**
+   * Returns the introspection result for the given token, from the cache if possible.
+   *
+   * @param token token to introspect
+   * @return introspection response, which must not be modified
+   * @throws TokenResponseException for an error response
+   */
+  public IntrospectionResponse introspect(final String token) throws IOException {
+    String key = Hashing.sha256().hashString(token, Charsets.UTF_8).toString();
+    CachedResult cached = cache.getIfPresent(key);
+    if (cached != null) {
+      if (cached.expirationTimeMillis > clock.currentTimeMillis()) {
+        return cached.response;
+      }
+      cache.asMap().remove(key, cached);
+    }
+    try {
+      return cache.get(
+              key,
+              new Callable<CachedResult>() {
+                @Override
+                public CachedResult call() throws IOException {
+                  return load(token);
+                }
+              })
+          .response;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } catch (UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Verifies the given token by introspection, from the cache if possible.
+   *
+   * @param token token to verify
+   * @return verified token, whose details are the {@link IntrospectionResponse}, or {@code null} if
+   *     the token is not active
+   * @throws TokenResponseException for an error response
+   */
+  @Override
+  public VerifiedToken verify(String token) throws IOException {
+    IntrospectionResponse response = introspect(token);
+    if (!response.isActive()) {
+      return null;
+    }
+    Long expirationTimeSeconds = response.getExpirationTimeSeconds();
+    return new VerifiedToken(
+        response.getSubject(),
+        expirationTimeSeconds == null ? null : TimeUnit.SECONDS.toMillis(expirationTimeSeconds),
+        response);
+  }
+
+  /** Removes the cached result for the given token, if any. */
+  public void invalidate(String token) {
+    cache.invalidate(Hashing.sha256().hashString(token, Charsets.UTF_8).toString());
+  }
+
+  private CachedResult load(String token) throws IOException {
+    IntrospectionResponse response = newIntrospectionRequest(token).execute();
+    long now = clock.currentTimeMillis();
+    long expirationTimeMillis;
+    if (response.isActive()) {
+      expirationTimeMillis = now + maxCacheMillis;
+      Long expirationTimeSeconds = response.getExpirationTimeSeconds();
+      if (expirationTimeSeconds != null) {
+        expirationTimeMillis =
+            Math.min(expirationTimeMillis, TimeUnit.SECONDS.toMillis(expirationTimeSeconds));
+      }
+    } else {
+      expirationTimeMillis = now + inactiveCacheMillis;
+    }
+    return new CachedResult(response, expirationTimeMillis);
+  }
+
+  /**
+   * Returns a new introspection request for the given token.
+   *
+   * <p>Overriding is allowed, for example to set a token type hint, but it must call the super
+   * implementation.
+   *
+   * @param token token to introspect
+   */
+  protected IntrospectionRequest newIntrospectionRequest(String token) {
+    return new IntrospectionRequest(transport, jsonFactory, new GenericUrl(introspectionUrl), token)
+        .setClientAuthentication(clientAuthentication)
+        .setRequestInitializer(requestInitializer);
+  }
+
+  /** Introspection response together with the time it may be served from the cache until. */
+  private static final class CachedResult {
+
+    final IntrospectionResponse response;
+
+    /** Time in milliseconds until which the response may be served from the cache. */
+    final long expirationTimeMillis;
+
+    CachedResult(IntrospectionResponse response, long expirationTimeMillis) {
+      this.response = response;
+      this.expirationTimeMillis = expirationTimeMillis;
+    }
+  }
+
+  /**
+   * Builder for {@link IntrospectionClient}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static class Builder {
+
+    /** HTTP transport. */
+    HttpTransport transport;
+
+    /** JSON factory. */
+    JsonFactory jsonFactory;
+
+    /** Introspection endpoint URL. */
+    GenericUrl introspectionUrl;
+
+    /** Client authentication or {@code null} for none. */
+    HttpExecuteInterceptor clientAuthentication;
+
+    /** HTTP request initializer or {@code null} for none. */
+    HttpRequestInitializer requestInitializer;
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Maximum seconds to cache the result for an active token. */
+    long maxCacheSeconds = DEFAULT_MAX_CACHE_SECONDS;
+
+    /** Seconds to cache the result for an inactive token. */
+    long inactiveCacheSeconds = DEFAULT_INACTIVE_CACHE_SECONDS;
+
+    /** Maximum number of cached results. */
+    long maximumCacheSize = DEFAULT_MAXIMUM_CACHE_SIZE;
+
+    /**
+     * @param transport HTTP transport
+     * @param jsonFactory JSON factory
+     * @param introspectionUrl introspection endpoint URL
+     */
+    public Builder(HttpTransport transport, JsonFactory jsonFactory, GenericUrl introspectionUrl) {
+      setTransport(transport);
+      setJsonFactory(jsonFactory);
+      setIntrospectionUrl(introspectionUrl);
+    }
+
+    /**
+     * Returns a new instance of an introspection client based on the options set in the builder.
+     */
+    public IntrospectionClient build() {
+      return new IntrospectionClient(this);
+    }
+
+    /** Returns the HTTP transport. */
+    public final HttpTransport getTransport() {
+      return transport;
+    }
+
+    /**
+     * Sets the HTTP transport.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setTransport(HttpTransport transport) {
+      this.transport = Preconditions.checkNotNull(transport);
+      return this;
+    }
+
+    /** Returns the JSON factory. */
+    public final JsonFactory getJsonFactory() {
+      return jsonFactory;
+    }
+
+    /**
+     * Sets the JSON factory.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setJsonFactory(JsonFactory jsonFactory) {
+      this.jsonFactory = Preconditions.checkNotNull(jsonFactory);
+      return this;
+    }
+
+    /** Returns the introspection endpoint URL. */
+    public final GenericUrl getIntrospectionUrl() {
+      return introspectionUrl;
+    }
+
+    /**
+     * Sets the introspection endpoint URL.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setIntrospectionUrl(GenericUrl introspectionUrl) {
+      this.introspectionUrl = Preconditions.checkNotNull(introspectionUrl);
+      return this;
+    }
+
+    /** Returns the client authentication or {@code null} for none. */
+    public final HttpExecuteInterceptor getClientAuthentication() {
+      return clientAuthentication;
+    }
+
+    /**
+     * Sets the client authentication or {@code null} for none.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setClientAuthentication(HttpExecuteInterceptor clientAuthentication) {
+      this.clientAuthentication = clientAuthentication;
+      return this;
+    }
+
+    /** Returns the HTTP request initializer or {@code null} for none. */
+    public final HttpRequestInitializer getRequestInitializer() {
+      return requestInitializer;
+    }
+
+    /**
+     * Sets the HTTP request initializer or {@code null} for none.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setRequestInitializer(HttpRequestInitializer requestInitializer) {
+      this.requestInitializer = requestInitializer;
+      return this;
+    }
+
+    /** Returns the clock. */
+    public final Clock getClock() {
+      return clock;
+    }
+
+    /**
+     * Sets the clock.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /** Returns the maximum seconds to cache the result for an active token. */
+    public final long getMaxCacheSeconds() {
+      return maxCacheSeconds;
+    }
+
+    /**
+     * Sets the maximum seconds to cache the result for an active token (default is {@link
+     * #DEFAULT_MAX_CACHE_SECONDS}). Results are never cached beyond the expiration time of the
+     * token.
+     *
+     * <p>It must be greater or equal to zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setMaxCacheSeconds(long maxCacheSeconds) {
+      Preconditions.checkArgument(maxCacheSeconds >= 0);
+      this.maxCacheSeconds = maxCacheSeconds;
+      return this;
+    }
+
+    /** Returns the seconds to cache the result for an inactive token. */
+    public final long getInactiveCacheSeconds() {
+      return inactiveCacheSeconds;
+    }
+
+    /**
+     * Sets the seconds to cache the result for an inactive token (default is {@link
+     * #DEFAULT_INACTIVE_CACHE_SECONDS}).
+     *
+     * <p>It must be greater or equal to zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setInactiveCacheSeconds(long inactiveCacheSeconds) {
+      Preconditions.checkArgument(inactiveCacheSeconds >= 0);
+      this.inactiveCacheSeconds = inactiveCacheSeconds;
+      return this;
+    }
+
+    /** Returns the maximum number of cached results. */
+    public final long getMaximumCacheSize() {
+      return maximumCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of cached results (default is {@link #DEFAULT_MAXIMUM_CACHE_SIZE}).
+     *
+     * <p>It must be greater or equal to zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setMaximumCacheSize(long maximumCacheSize) {
+      Preconditions.checkArgument(maximumCacheSize >= 0);
+      this.maximumCacheSize = maximumCacheSize;
+      return this;
+    }
+  }
+}
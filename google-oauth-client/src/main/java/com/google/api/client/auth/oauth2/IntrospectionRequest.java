@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.BasicAuthentication;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.UrlEncodedContent;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.JsonObjectParser;
+import com.google.api.client.util.GenericData;
+import com.google.api.client.util.Key;
+import com.google.api.client.util.Preconditions;
+import java.io.IOException;
+
+/**
+ * OAuth 2.0 token introspection request as specified in <a
+ * href="https://tools.ietf.org/html/rfc7662#section-2.1">Introspection Request</a>.
+ *
+ * <p>Call {@link #execute()} to execute the request and use the returned {@link
+ * IntrospectionResponse}. On error, it will instead throw {@link TokenResponseException}. Use
+ * {@link IntrospectionClient} to cache results and collapse concurrent requests. Sample usage:
+ *
+ * <pre>
+ * IntrospectionResponse response =
+ * new IntrospectionRequest(transport, jsonFactory, introspectionUrl, token)
+ * .setClientAuthentication(new BasicAuthentication(resourceServerId, resourceServerSecret))
+ * .execute();
+ * if (response.isActive()) {...}
+ * </pre>
+ *
+ * <p>Implementation is not thread-safe.
+ *
+ * @since 1.40.0
+ */
+public class IntrospectionRequest extends GenericData {
+
+  /** HTTP request initializer or {@code null} for none. */
+  HttpRequestInitializer requestInitializer;
+
+  /** Client authentication or {@code null} for none. */
+  HttpExecuteInterceptor clientAuthentication;
+
+  /** HTTP transport. */
+  private final HttpTransport transport;
+
+  /** JSON factory. */
+  private final JsonFactory jsonFactory;
+
+  /** Introspection endpoint URL. */
+  private GenericUrl introspectionUrl;
+
+  /** Token to introspect. */
+  @Key private String token;
+
+  /**
+   * Hint about the type of the token ({@code "access_token"} or {@code "refresh_token"}) or {@code
+   * null} for none.
+   */
+  @Key("token_type_hint")
+  private String tokenTypeHint;
+
+  /**
+   * @param transport HTTP transport
+   * @param jsonFactory JSON factory
+   * @param introspectionUrl introspection endpoint URL
+   * @param token token to introspect
+   */
+  public IntrospectionRequest(
+      HttpTransport transport, JsonFactory jsonFactory, GenericUrl introspectionUrl, String token) {
+    this.transport = Preconditions.checkNotNull(transport);
+    this.jsonFactory = Preconditions.checkNotNull(jsonFactory);
+    setIntrospectionUrl(introspectionUrl);
+    setToken(token);
+  }
+
+  /** Returns the HTTP transport. */
+  public final HttpTransport getTransport() {
+    return transport;
+  }
+
+  /** Returns the JSON factory. */
+  public final JsonFactory getJsonFactory() {
+    return jsonFactory;
+  }
+
+  /** Returns the HTTP request initializer or {@code null} for none. */
+  public final HttpRequestInitializer getRequestInitializer() {
+    return requestInitializer;
+  }
+
+  /**
+   * Sets the HTTP request initializer or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionRequest setRequestInitializer(HttpRequestInitializer requestInitializer) {
+    this.requestInitializer = requestInitializer;
+    return this;
+  }
+
+  /** Returns the client authentication or {@code null} for none. */
+  public final HttpExecuteInterceptor getClientAuthentication() {
+    return clientAuthentication;
+  }
+
+  /**
+   * Sets the client authentication or {@code null} for none.
+   *
+   * <p>The introspection endpoint requires the protected resource to authenticate, typically with
+   * {@link BasicAuthentication} or {@link ClientParametersAuthentication}.
+   *
+   * <p>This HTTP request execute interceptor is guaranteed to be the last execute interceptor
+   * before the request is executed, and after any execute interceptor set by the {@link
+   * #getRequestInitializer()}.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionRequest setClientAuthentication(HttpExecuteInterceptor clientAuthentication) {
+    this.clientAuthentication = clientAuthentication;
+    return this;
+  }
+
+  /** Returns the introspection endpoint URL. */
+  public final GenericUrl getIntrospectionUrl() {
+    return introspectionUrl;
+  }
+
+  /**
+   * Sets the introspection endpoint URL.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionRequest setIntrospectionUrl(GenericUrl introspectionUrl) {
+    this.introspectionUrl = introspectionUrl;
+    Preconditions.checkArgument(introspectionUrl.getFragment() == null);
+    return this;
+  }
+
+  /** Returns the token to introspect. */
+  public final String getToken() {
+    return token;
+  }
+
+  /**
+   * Sets the token to introspect.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionRequest setToken(String token) {
+    this.token = Preconditions.checkNotNull(token);
+    return this;
+  }
+
+  /**
+   * Returns the hint about the type of the token ({@code "access_token"} or {@code
+   * "refresh_token"}) or {@code null} for none.
+   */
+  public final String getTokenTypeHint() {
+    return tokenTypeHint;
+  }
+
+  /**
+   * Sets the hint about the type of the token ({@code "access_token"} or {@code "refresh_token"})
+   * or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionRequest setTokenTypeHint(String tokenTypeHint) {
+    this.tokenTypeHint = tokenTypeHint;
+    return this;
+  }
+
+  /**
+   * Executes the introspection request and returns the HTTP response.
+   *
+   * <p>To execute and parse the response to {@link IntrospectionResponse}, instead use {@link
+   * #execute()}.
+   *
+   * @return successful introspection response, which can then be parsed directly using {@link
+   *     HttpResponse#parseAs(Class)} or some other parsing method
+   * @throws TokenResponseException for an error response
+   */
+  public final HttpResponse executeUnparsed() throws IOException {
+    // must set clientAuthentication as last execute interceptor in case it needs to sign request
+    HttpRequestFactory requestFactory =
+        transport.createRequestFactory(
+            new HttpRequestInitializer() {
+
+              public void initialize(HttpRequest request) throws IOException {
+                if (requestInitializer != null) {
+                  requestInitializer.initialize(request);
+                }
+                final HttpExecuteInterceptor interceptor = request.getInterceptor();
+                request.setInterceptor(
+                    new HttpExecuteInterceptor() {
+                      public void intercept(HttpRequest request) throws IOException {
+                        if (interceptor != null) {
+                          interceptor.intercept(request);
+                        }
+                        if (clientAuthentication != null) {
+                          clientAuthentication.intercept(request);
+                        }
+                      }
+                    });
+              }
+            });
+    HttpRequest request =
+        requestFactory.buildPostRequest(introspectionUrl, new UrlEncodedContent(this));
+    request.setParser(new JsonObjectParser(jsonFactory));
+    request.setThrowExceptionOnExecuteError(false);
+    HttpResponse response = request.execute();
+    if (response.isSuccessStatusCode()) {
+      return response;
+    }
+    throw TokenResponseException.from(jsonFactory, response);
+  }
+
+  /**
+   * Executes the introspection request and returns the parsed introspection response.
+   *
+   * @return parsed introspection response
+   * @throws TokenResponseException for an error response
+   */
+  public IntrospectionResponse execute() throws IOException {
+    return executeUnparsed().parseAs(IntrospectionResponse.class);
+  }
+
+  @Override
+  public IntrospectionRequest set(String fieldName, Object value) {
+    return (IntrospectionRequest) super.set(fieldName, value);
+  }
+}
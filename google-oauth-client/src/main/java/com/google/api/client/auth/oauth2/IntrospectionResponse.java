@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.util.Key;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * OAuth 2.0 JSON model for a token introspection response as specified in <a
+ * href="https://tools.ietf.org/html/rfc7662#section-2.2">Introspection Response</a>.
+ *
+ * <p>Implementation is not thread-safe. Responses returned by {@link IntrospectionClient} are
+ * shared between callers and must not be modified.
+ *
+ * @since 1.40.0
+ */
+public class IntrospectionResponse extends GenericJson {
+
+  /** Whether the token is currently active. */
+  @Key private Boolean active;
+
+  /** Space-separated list of scopes associated with the token or {@code null} for none. */
+  @Key private String scope;
+
+  /** Client ID of the client that requested the token or {@code null} for none. */
+  @Key("client_id")
+  private String clientId;
+
+  /** Human-readable identifier of the resource owner or {@code null} for none. */
+  @Key private String username;
+
+  /** Type of the token or {@code null} for none. */
+  @Key("token_type")
+  private String tokenType;
+
+  /** Expiration time in seconds or {@code null} for none. */
+  @Key("exp")
+  private Long expirationTimeSeconds;
+
+  /** Issued at time in seconds or {@code null} for none. */
+  @Key("iat")
+  private Long issuedAtTimeSeconds;
+
+  /** Subject of the token or {@code null} for none. */
+  @Key("sub")
+  private String subject;
+
+  /** Audience of the token, a {@link String} or a {@link List}, or {@code null} for none. */
+  @Key("aud")
+  private Object audience;
+
+  /** Issuer of the token or {@code null} for none. */
+  @Key("iss")
+  private String issuer;
+
+  /** Unique identifier of the token or {@code null} for none. */
+  @Key("jti")
+  private String jwtId;
+
+  /** Returns whether the token is currently active. */
+  public boolean isActive() {
+    return Boolean.TRUE.equals(active);
+  }
+
+  /**
+   * Sets whether the token is currently active.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setActive(boolean active) {
+    this.active = active;
+    return this;
+  }
+
+  /** Returns the space-separated list of scopes associated with the token or {@code null}. */
+  public String getScope() {
+    return scope;
+  }
+
+  /**
+   * Sets the space-separated list of scopes associated with the token or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setScope(String scope) {
+    this.scope = scope;
+    return this;
+  }
+
+  /** Returns the client ID of the client that requested the token or {@code null} for none. */
+  public String getClientId() {
+    return clientId;
+  }
+
+  /**
+   * Sets the client ID of the client that requested the token or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setClientId(String clientId) {
+    this.clientId = clientId;
+    return this;
+  }
+
+  /** Returns the human-readable identifier of the resource owner or {@code null} for none. */
+  public String getUsername() {
+    return username;
+  }
+
+  /**
+   * Sets the human-readable identifier of the resource owner or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setUsername(String username) {
+    this.username = username;
+    return this;
+  }
+
+  /** Returns the type of the token or {@code null} for none. */
+  public String getTokenType() {
+    return tokenType;
+  }
+
+  /**
+   * Sets the type of the token or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setTokenType(String tokenType) {
+    this.tokenType = tokenType;
+    return this;
+  }
+
+  /** Returns the expiration time in seconds or {@code null} for none. */
+  public Long getExpirationTimeSeconds() {
+    return expirationTimeSeconds;
+  }
+
+  /**
+   * Sets the expiration time in seconds or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setExpirationTimeSeconds(Long expirationTimeSeconds) {
+    this.expirationTimeSeconds = expirationTimeSeconds;
+    return this;
+  }
+
+  /** Returns the issued at time in seconds or {@code null} for none. */
+  public Long getIssuedAtTimeSeconds() {
+    return issuedAtTimeSeconds;
+  }
+
+  /**
+   * Sets the issued at time in seconds or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setIssuedAtTimeSeconds(Long issuedAtTimeSeconds) {
+    this.issuedAtTimeSeconds = issuedAtTimeSeconds;
+    return this;
+  }
+
+  /** Returns the subject of the token or {@code null} for none. */
+  public String getSubject() {
+    return subject;
+  }
+
+  /**
+   * Sets the subject of the token or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setSubject(String subject) {
+    this.subject = subject;
+    return this;
+  }
+
+  /** Returns the audience of the token, a {@link String} or a {@link List}, or {@code null}. */
+  public Object getAudience() {
+    return audience;
+  }
+
+  /** Returns the audience of the token as a list, which is empty for none. */
+  @SuppressWarnings("unchecked")
+  public List<String> getAudienceAsList() {
+    if (audience == null) {
+      return Collections.emptyList();
+    }
+    if (audience instanceof String) {
+      return Collections.singletonList((String) audience);
+    }
+    return (List<String>) audience;
+  }
+
+  /**
+   * Sets the audience of the token, a {@link String} or a {@link List}, or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setAudience(Object audience) {
+    this.audience = audience;
+    return this;
+  }
+
+  /** Returns the issuer of the token or {@code null} for none. */
+  public String getIssuer() {
+    return issuer;
+  }
+
+  /**
+   * Sets the issuer of the token or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setIssuer(String issuer) {
+    this.issuer = issuer;
+    return this;
+  }
+
+  /** Returns the unique identifier of the token or {@code null} for none. */
+  public String getJwtId() {
+    return jwtId;
+  }
+
+  /**
+   * Sets the unique identifier of the token or {@code null} for none.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public IntrospectionResponse setJwtId(String jwtId) {
+    this.jwtId = jwtId;
+    return this;
+  }
+
+  @Override
+  public IntrospectionResponse set(String fieldName, Object value) {
+    return (IntrospectionResponse) super.set(fieldName, value);
+  }
+
+  @Override
+  public IntrospectionResponse clone() {
+    return (IntrospectionResponse) super.clone();
+  }
+}
@@ -0,0 +1,549 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+/**
+ * Thread-safe OAuth 2.0 credential that obtains access tokens with a signed JWT as authorization
+ * grant as specified in <a href="https://tools.ietf.org/html/rfc7523#section-2.1">Using JWTs as
+ * Authorization Grants</a>.
+ *
+ * <p>Signing an assertion is a private key operation, so signed assertions are cached and sent with
+ * every token request until shortly before they expire. If a {@link
+ * Builder#setSigningExecutor(Executor) signing executor} is set, the next assertion is signed on
+ * that executor once half of the lifetime of the current one has passed, so token requests normally
+ * find a signed assertion ready and never sign on the calling thread. Sample usage:
+ *
+ * <pre>
+ * JwtBearerCredential credential = new JwtBearerCredential.Builder()
+ * .setTransport(transport)
+ * .setJsonFactory(jsonFactory)
+ * .setTokenServerUrl(new GenericUrl("https://server.example.com/token"))
+ * .setPrivateKey(privateKey)
+ * .setIssuer("service-account-17")
+ * .setSigningExecutor(sharedSigningExecutor)
+ * .build();
+ * HttpRequestFactory requestFactory = transport.createRequestFactory(credential);
+ * </pre>
+ *
+ * @since 1.40.0
+ */
+public class JwtBearerCredential extends Credential {
+
+  /** Default value for the lifetime of a signed assertion in seconds (1 hour). */
+  public static final long DEFAULT_ASSERTION_LIFETIME_SECONDS = 60 * 60;
+
+  /** Maximum milliseconds before expiration at which a signed assertion is no longer sent. */
+  private static final long MAX_EXPIRATION_MARGIN_MILLIS = 60 * 1000;
+
+  /** Maximum milliseconds to wait for an assertion that is being signed ahead of time. */
+  private static final long MAX_SIGNING_WAIT_MILLIS = 10 * 1000;
+
+  /** Private key used to sign assertions. */
+  private final PrivateKey privateKey;
+
+  /** Key ID of the private key or {@code null} for none. */
+  private final String privateKeyId;
+
+  /** Issuer of the assertions. */
+  private final String issuer;
+
+  /** Subject of the assertions. */
+  private final String subject;
+
+  /** Audience of the assertions. */
+  private final String audience;
+
+  /** Scopes to request or empty for none. */
+  private final Collection<String> scopes;
+
+  /** Lifetime of a signed assertion in seconds. */
+  private final long assertionLifetimeSeconds;
+
+  /** Executor for signing assertions ahead of time or {@code null} to sign when needed. */
+  private final Executor signingExecutor;
+
+  /** Lock on the signed assertions. */
+  private final Object assertionLock = new Object();
+
+  /** Current signed assertion or {@code null} for none, guarded by {@link #assertionLock}. */
+  private SignedAssertion signedAssertion;
+
+  /** Assertion being signed ahead of time or {@code null}, guarded by {@link #assertionLock}. */
+  private SigningTask nextSignedAssertion;
+
+  /** @param builder credential builder */
+  protected JwtBearerCredential(Builder builder) {
+    super(builder);
+    privateKey = Preconditions.checkNotNull(builder.privateKey);
+    privateKeyId = builder.privateKeyId;
+    issuer = Preconditions.checkNotNull(builder.issuer);
+    subject = builder.subject == null ? builder.issuer : builder.subject;
+    Preconditions.checkArgument(
+        builder.audience != null || builder.tokenServerUrl != null,
+        "audience or token server URL is required");
+    audience = builder.audience == null ? builder.tokenServerUrl.build() : builder.audience;
+    scopes = Collections.unmodifiableCollection(builder.scopes);
+    assertionLifetimeSeconds = builder.assertionLifetimeSeconds;
+    signingExecutor = builder.signingExecutor;
+  }
+
+  /** Returns the issuer of the assertions. */
+  public final String getIssuer() {
+    return issuer;
+  }
+
+  /** Returns the subject of the assertions. */
+  public final String getSubject() {
+    return subject;
+  }
+
+  /** Returns the audience of the assertions. */
+  public final String getAudience() {
+    return audience;
+  }
+
+  /** Returns the unmodifiable collection of scopes to request. */
+  public final Collection<String> getScopes() {
+    return scopes;
+  }
+
+  /**
+   * Returns a signed assertion that is valid for at least the next minute (or a quarter of the
+   * assertion lifetime, if shorter), reusing a previously signed assertion when possible.
+   */
+  public final String getAssertion() throws IOException {
+    synchronized (assertionLock) {
+      long now = getClock().currentTimeMillis();
+      if (nextSignedAssertion != null && nextSignedAssertion.isDone()) {
+        SignedAssertion next = awaitNextSignedAssertion();
+        if (next != null) {
+          signedAssertion = next;
+        }
+      }
+      SignedAssertion current = signedAssertion;
+      if (current != null && now < current.reuseUntilMillis) {
+        if (signingExecutor != null
+            && nextSignedAssertion == null
+            && now >= current.signAheadTimeMillis) {
+          SigningTask task =
+              new SigningTask(
+                  new Callable<SignedAssertion>() {
+                    @Override
+                    public SignedAssertion call() throws IOException {
+                      return sign();
+                    }
+                  });
+          try {
+            signingExecutor.execute(task);
+            nextSignedAssertion = task;
+          } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.WARNING, "unable to sign assertion ahead of time", e);
+          }
+        }
+        return current.value;
+      }
+      // no usable assertion left, so wait for the one being signed or sign one right away
+      SignedAssertion next = nextSignedAssertion == null ? null : awaitNextSignedAssertion();
+      if (next == null || getClock().currentTimeMillis() >= next.reuseUntilMillis) {
+        next = sign();
+      }
+      signedAssertion = next;
+      return next.value;
+    }
+  }
+
+  /**
+   * Waits for the assertion signed ahead of time and returns it, or {@code null} if signing failed,
+   * has not started yet or does not finish in time.
+   *
+   * <p>A task that has not started yet is cancelled rather than awaited, since the executor may be
+   * busy or may even have discarded it.
+   */
+  private SignedAssertion awaitNextSignedAssertion() {
+    SigningTask next = nextSignedAssertion;
+    nextSignedAssertion = null;
+    if (!next.started && next.cancel(false)) {
+      return null;
+    }
+    try {
+      return next.get(MAX_SIGNING_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      LOGGER.log(Level.WARNING, "unable to sign assertion ahead of time", e.getCause());
+    } catch (TimeoutException e) {
+      next.cancel(false);
+      LOGGER.log(Level.WARNING, "timed out waiting for assertion signed ahead of time", e);
+    }
+    return null;
+  }
+
+  /** Signs a new assertion that is issued now. */
+  private SignedAssertion sign() throws IOException {
+    long now = getClock().currentTimeMillis();
+    long lifetimeMillis = TimeUnit.SECONDS.toMillis(assertionLifetimeSeconds);
+    JsonWebSignature.Header header = new JsonWebSignature.Header();
+    header.setAlgorithm("RS256");
+    header.setType("JWT");
+    header.setKeyId(privateKeyId);
+    JsonWebToken.Payload payload = new JsonWebToken.Payload();
+    payload.setIssuer(issuer);
+    payload.setSubject(subject);
+    payload.setAudience(audience);
+    payload.setIssuedAtTimeSeconds(now / 1000);
+    payload.setExpirationTimeSeconds((now + lifetimeMillis) / 1000);
+    String value;
+    try {
+      value = JsonWebSignature.signUsingRsaSha256(privateKey, getJsonFactory(), header, payload);
+    } catch (GeneralSecurityException e) {
+      IOException io = new IOException();
+      io.initCause(e);
+      throw io;
+    }
+    long margin = Math.min(MAX_EXPIRATION_MARGIN_MILLIS, lifetimeMillis / 4);
+    return new SignedAssertion(value, now + lifetimeMillis / 2, now + lifetimeMillis - margin);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The default implementation calls {@link JwtBearerTokenRequest#execute()} with {@link
+   * #getAssertion()} and the {@link #getScopes() scopes}.
+   */
+  @Override
+  protected TokenResponse executeRefreshToken() throws IOException {
+    return newTokenRequest().setScopes(scopes).execute();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The default implementation calls {@link JwtBearerTokenRequest#execute()} with {@link
+   * #getAssertion()} and the given scopes instead of {@link #getScopes()}.
+   */
+  @Override
+  protected TokenResponse executeRefreshToken(String scopes) throws IOException {
+    return newTokenRequest().setScopes(Collections.singleton(scopes)).execute();
+  }
+
+  private JwtBearerTokenRequest newTokenRequest() throws IOException {
+    return new JwtBearerTokenRequest(
+            getTransport(),
+            getJsonFactory(),
+            new GenericUrl(getTokenServerEncodedUrl()),
+            getAssertion())
+        .setClientAuthentication(getClientAuthentication())
+        .setRequestInitializer(getRequestInitializer());
+  }
+
+  @Override
+  public JwtBearerCredential setAccessToken(String accessToken) {
+    return (JwtBearerCredential) super.setAccessToken(accessToken);
+  }
+
+  @Override
+  public JwtBearerCredential setExpirationTimeMilliseconds(Long expirationTimeMilliseconds) {
+    return (JwtBearerCredential) super.setExpirationTimeMilliseconds(expirationTimeMilliseconds);
+  }
+
+  @Override
+  public JwtBearerCredential setExpiresInSeconds(Long expiresIn) {
+    return (JwtBearerCredential) super.setExpiresInSeconds(expiresIn);
+  }
+
+  @Override
+  public JwtBearerCredential setFromTokenResponse(TokenResponse tokenResponse) {
+    return (JwtBearerCredential) super.setFromTokenResponse(tokenResponse);
+  }
+
+  /** Task signing an assertion ahead of time, which records whether it has started running. */
+  private static final class SigningTask extends FutureTask<SignedAssertion> {
+
+    volatile boolean started;
+
+    SigningTask(Callable<SignedAssertion> callable) {
+      super(callable);
+    }
+
+    @Override
+    public void run() {
+      started = true;
+      super.run();
+    }
+  }
+
+  /** Signed assertion together with the times to sign the next one and to stop sending it. */
+  private static final class SignedAssertion {
+
+    final String value;
+
+    /** Time in milliseconds after which the next assertion may be signed ahead of time. */
+    final long signAheadTimeMillis;
+
+    /** Time in milliseconds after which the assertion is no longer sent. */
+    final long reuseUntilMillis;
+
+    SignedAssertion(String value, long signAheadTimeMillis, long reuseUntilMillis) {
+      this.value = value;
+      this.signAheadTimeMillis = signAheadTimeMillis;
+      this.reuseUntilMillis = reuseUntilMillis;
+    }
+  }
+
+  /**
+   * Builder for {@link JwtBearerCredential}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static class Builder extends Credential.Builder {
+
+    /** Private key used to sign assertions. */
+    PrivateKey privateKey;
+
+    /** Key ID of the private key or {@code null} for none. */
+    String privateKeyId;
+
+    /** Issuer of the assertions. */
+    String issuer;
+
+    /** Subject of the assertions or {@code null} for the issuer. */
+    String subject;
+
+    /** Audience of the assertions or {@code null} for the token server URL. */
+    String audience;
+
+    /** Scopes to request. */
+    Collection<String> scopes = Collections.emptyList();
+
+    /** Lifetime of a signed assertion in seconds. */
+    long assertionLifetimeSeconds = DEFAULT_ASSERTION_LIFETIME_SECONDS;
+
+    /** Executor for signing assertions ahead of time or {@code null} to sign when needed. */
+    Executor signingExecutor;
+
+    public Builder() {
+      super(BearerToken.authorizationHeaderAccessMethod());
+    }
+
+    @Override
+    public JwtBearerCredential build() {
+      return new JwtBearerCredential(this);
+    }
+
+    @Override
+    public Builder setTransport(HttpTransport transport) {
+      return (Builder) super.setTransport(transport);
+    }
+
+    @Override
+    public Builder setClock(Clock clock) {
+      return (Builder) super.setClock(clock);
+    }
+
+    @Override
+    public Builder setJsonFactory(JsonFactory jsonFactory) {
+      return (Builder) super.setJsonFactory(jsonFactory);
+    }
+
+    @Override
+    public Builder setTokenServerUrl(GenericUrl tokenServerUrl) {
+      return (Builder) super.setTokenServerUrl(tokenServerUrl);
+    }
+
+    @Override
+    public Builder setTokenServerEncodedUrl(String tokenServerEncodedUrl) {
+      return (Builder) super.setTokenServerEncodedUrl(tokenServerEncodedUrl);
+    }
+
+    @Override
+    public Builder setClientAuthentication(HttpExecuteInterceptor clientAuthentication) {
+      return (Builder) super.setClientAuthentication(clientAuthentication);
+    }
+
+    @Override
+    public Builder setRequestInitializer(HttpRequestInitializer requestInitializer) {
+      return (Builder) super.setRequestInitializer(requestInitializer);
+    }
+
+    @Override
+    public Builder addRefreshListener(CredentialRefreshListener refreshListener) {
+      return (Builder) super.addRefreshListener(refreshListener);
+    }
+
+    @Override
+    public Builder setRefreshListeners(Collection<CredentialRefreshListener> refreshListeners) {
+      return (Builder) super.setRefreshListeners(refreshListeners);
+    }
+
+    /** Returns the private key used to sign assertions. */
+    public final PrivateKey getPrivateKey() {
+      return privateKey;
+    }
+
+    /**
+     * Sets the RSA private key used to sign assertions with {@code RS256}.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setPrivateKey(PrivateKey privateKey) {
+      this.privateKey = Preconditions.checkNotNull(privateKey);
+      return this;
+    }
+
+    /** Returns the key ID of the private key or {@code null} for none. */
+    public final String getPrivateKeyId() {
+      return privateKeyId;
+    }
+
+    /**
+     * Sets the key ID of the private key, sent as {@code "kid"} header, or {@code null} for none.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setPrivateKeyId(String privateKeyId) {
+      this.privateKeyId = privateKeyId;
+      return this;
+    }
+
+    /** Returns the issuer of the assertions. */
+    public final String getIssuer() {
+      return issuer;
+    }
+
+    /**
+     * Sets the issuer of the assertions ({@code "iss"}), which is required.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setIssuer(String issuer) {
+      this.issuer = Preconditions.checkNotNull(issuer);
+      return this;
+    }
+
+    /** Returns the subject of the assertions or {@code null} for the issuer. */
+    public final String getSubject() {
+      return subject;
+    }
+
+    /**
+     * Sets the subject of the assertions ({@code "sub"}) or {@code null} for the issuer.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setSubject(String subject) {
+      this.subject = subject;
+      return this;
+    }
+
+    /** Returns the audience of the assertions or {@code null} for the token server URL. */
+    public final String getAudience() {
+      return audience;
+    }
+
+    /**
+     * Sets the audience of the assertions ({@code "aud"}) or {@code null} for the token server URL.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setAudience(String audience) {
+      this.audience = audience;
+      return this;
+    }
+
+    /** Returns the scopes to request. */
+    public final Collection<String> getScopes() {
+      return scopes;
+    }
+
+    /**
+     * Sets the scopes to request (default is none).
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setScopes(Collection<String> scopes) {
+      this.scopes = Preconditions.checkNotNull(scopes);
+      return this;
+    }
+
+    /** Returns the lifetime of a signed assertion in seconds. */
+    public final long getAssertionLifetimeSeconds() {
+      return assertionLifetimeSeconds;
+    }
+
+    /**
+     * Sets the lifetime of a signed assertion in seconds (default is {@link
+     * #DEFAULT_ASSERTION_LIFETIME_SECONDS}).
+     *
+     * <p>It must be greater than zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setAssertionLifetimeSeconds(long assertionLifetimeSeconds) {
+      Preconditions.checkArgument(assertionLifetimeSeconds > 0);
+      this.assertionLifetimeSeconds = assertionLifetimeSeconds;
+      return this;
+    }
+
+    /** Returns the executor for signing assertions ahead of time or {@code null} for none. */
+    public final Executor getSigningExecutor() {
+      return signingExecutor;
+    }
+
+    /**
+     * Sets the executor for signing assertions ahead of time or {@code null} to sign assertions on
+     * the thread that needs them (the default).
+     *
+     * <p>A single bounded executor is meant to be shared by all credentials, so that signing for
+     * many credentials is spread over time and limited to the threads of the executor.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setSigningExecutor(Executor signingExecutor) {
+      this.signingExecutor = signingExecutor;
+      return this;
+    }
+  }
+}
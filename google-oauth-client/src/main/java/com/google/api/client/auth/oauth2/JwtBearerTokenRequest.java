@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.util.Key;
+import com.google.api.client.util.Preconditions;
+import java.util.Collection;
+
+/**
+ * OAuth 2.0 request for an access token using a signed JWT as authorization grant as specified in
+ * <a href="https://tools.ietf.org/html/rfc7523#section-2.1">Using JWTs as Authorization Grants</a>.
+ *
+ * <p>Use {@link JwtBearerCredential} to sign the assertions and access protected resources from the
+ * resource server. On error, {@link #execute()} will throw {@link TokenResponseException}.
+ *
+ * <p>Sample usage:
+ *
+ * <pre>{@code
+ * static void requestAccessToken(String signedJwt) throws IOException {
+ * TokenResponse response =
+ * new JwtBearerTokenRequest(new NetHttpTransport(), new GsonFactory(),
+ * new GenericUrl("https://server.example.com/token"), signedJwt).execute();
+ * System.out.println("Access token: " + response.getAccessToken());
+ * }
+ * }</pre>
+ *
+ * <p>Implementation is not thread-safe.
+ *
+ * @since 1.40.0
+ */
+public class JwtBearerTokenRequest extends TokenRequest {
+
+  /** Grant type of the JWT bearer authorization grant. */
+  public static final String GRANT_TYPE = "urn:ietf:params:oauth:grant-type:jwt-bearer";
+
+  /** Signed JWT used as authorization grant. */
+  @Key("assertion")
+  private String assertion;
+
+  /**
+   * @param transport HTTP transport
+   * @param jsonFactory JSON factory
+   * @param tokenServerUrl token server URL
+   * @param assertion signed JWT used as authorization grant
+   */
+  public JwtBearerTokenRequest(
+      HttpTransport transport,
+      JsonFactory jsonFactory,
+      GenericUrl tokenServerUrl,
+      String assertion) {
+    super(transport, jsonFactory, tokenServerUrl, GRANT_TYPE);
+    setAssertion(assertion);
+  }
+
+  @Override
+  public JwtBearerTokenRequest setRequestInitializer(HttpRequestInitializer requestInitializer) {
+    return (JwtBearerTokenRequest) super.setRequestInitializer(requestInitializer);
+  }
+
+  @Override
+  public JwtBearerTokenRequest setTokenServerUrl(GenericUrl tokenServerUrl) {
+    return (JwtBearerTokenRequest) super.setTokenServerUrl(tokenServerUrl);
+  }
+
+  @Override
+  public JwtBearerTokenRequest setScopes(Collection<String> scopes) {
+    return (JwtBearerTokenRequest) super.setScopes(scopes);
+  }
+
+  @Override
+  public JwtBearerTokenRequest setGrantType(String grantType) {
+    return (JwtBearerTokenRequest) super.setGrantType(grantType);
+  }
+
+  @Override
+  public JwtBearerTokenRequest setClientAuthentication(
+      HttpExecuteInterceptor clientAuthentication) {
+    return (JwtBearerTokenRequest) super.setClientAuthentication(clientAuthentication);
+  }
+
+  @Override
+  public JwtBearerTokenRequest setResponseClass(Class<? extends TokenResponse> responseClass) {
+    return (JwtBearerTokenRequest) super.setResponseClass(responseClass);
+  }
+
+  /** Returns the signed JWT used as authorization grant. */
+  public final String getAssertion() {
+    return assertion;
+  }
+
+  /**
+   * Sets the signed JWT used as authorization grant.
+   *
+   * <p>Overriding is only supported for the purpose of calling the super implementation and
+   * changing the return type, but nothing else.
+   */
+  public JwtBearerTokenRequest setAssertion(String assertion) {
+    this.assertion = Preconditions.checkNotNull(assertion);
+    return this;
+  }
+
+  @Override
+  public JwtBearerTokenRequest set(String fieldName, Object value) {
+    return (JwtBearerTokenRequest) super.set(fieldName, value);
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory {@link AuthorizationStateStore} with a bounded size.
+ *
+ * <p>Lookups and removals take constant time. Once {@link Builder#setMaximumSize(long)} pending
+ * authorizations are stored, the least recently created ones are dropped. Expired entries are also
+ * evicted in the background. Sample usage:
+ *
+ * <pre>
+ * AuthorizationCodeFlow flow = new AuthorizationCodeFlow.Builder(...)
+ * .setAuthorizationStateStore(new MemoryAuthorizationStateStore())
+ * .build();
+ * </pre>
+ *
+ * <p>Implementation is thread-safe.
+ *
+ * @since 1.40.0
+ */
+public final class MemoryAuthorizationStateStore
+    implements AuthorizationStateStore, AuthorizationStateEviction.Evictable {
+
+  /** Default value for the seconds a pending authorization remains valid (10 minutes). */
+  public static final long DEFAULT_TIME_TO_LIVE_SECONDS = 10 * 60;
+
+  /** Default value for the maximum number of pending authorizations. */
+  public static final long DEFAULT_MAXIMUM_SIZE = 100000;
+
+  private final Clock clock;
+  private final long timeToLiveMillis;
+  private final long maximumSize;
+
+  /** Pending authorizations by {@code state} parameter. */
+  private final Cache<String, AuthorizationState> states;
+
+  public MemoryAuthorizationStateStore() {
+    this(new Builder());
+  }
+
+  /** @param builder builder */
+  MemoryAuthorizationStateStore(Builder builder) {
+    clock = builder.clock;
+    timeToLiveMillis = TimeUnit.SECONDS.toMillis(builder.timeToLiveSeconds);
+    maximumSize = builder.maximumSize;
+    states =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLiveMillis, TimeUnit.MILLISECONDS)
+            .build();
+    AuthorizationStateEviction.schedule(this, timeToLiveMillis);
+  }
+
+  /** Returns the seconds a pending authorization remains valid. */
+  public long getTimeToLiveSeconds() {
+    return TimeUnit.MILLISECONDS.toSeconds(timeToLiveMillis);
+  }
+
+  /** Returns the maximum number of pending authorizations. */
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  /** Returns the approximate number of pending authorizations. */
+  public long size() {
+    return states.size();
+  }
+
+  @Override
+  public AuthorizationState create(String userId) {
+    AuthorizationState state =
+        AuthorizationState.newRandom(userId, clock.currentTimeMillis() + timeToLiveMillis);
+    states.put(state.getState(), state);
+    return state;
+  }
+
+  @Override
+  public AuthorizationState consume(String state, String userId) {
+    if (state == null) {
+      return null;
+    }
+    AuthorizationState result = states.asMap().remove(state);
+    return result == null
+            || !result.getUserId().equals(userId)
+            || result.isExpired(clock.currentTimeMillis())
+        ? null
+        : result;
+  }
+
+  /** Evicts expired pending authorizations, which is also done periodically in the background. */
+  @Override
+  public void evictExpired() {
+    states.cleanUp();
+  }
+
+  /**
+   * Builder for {@link MemoryAuthorizationStateStore}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static final class Builder {
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Seconds a pending authorization remains valid. */
+    long timeToLiveSeconds = DEFAULT_TIME_TO_LIVE_SECONDS;
+
+    /** Maximum number of pending authorizations. */
+    long maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    /** Builds a new instance of {@link MemoryAuthorizationStateStore}. */
+    public MemoryAuthorizationStateStore build() {
+      return new MemoryAuthorizationStateStore(this);
+    }
+
+    /** Sets the clock. */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /**
+     * Sets the seconds a pending authorization remains valid (default is {@link
+     * #DEFAULT_TIME_TO_LIVE_SECONDS}).
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setTimeToLiveSeconds(long timeToLiveSeconds) {
+      Preconditions.checkArgument(timeToLiveSeconds > 0);
+      this.timeToLiveSeconds = timeToLiveSeconds;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of pending authorizations (default is {@link #DEFAULT_MAXIMUM_SIZE}).
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setMaximumSize(long maximumSize) {
+      Preconditions.checkArgument(maximumSize > 0);
+      this.maximumSize = maximumSize;
+      return this;
+    }
+  }
+}
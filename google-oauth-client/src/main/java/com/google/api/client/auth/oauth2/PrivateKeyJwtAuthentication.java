@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.UrlEncodedContent;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Data;
+import com.google.api.client.util.Preconditions;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client authentication with a JWT signed by the private key of the client ({@code
+ * private_key_jwt}) as specified in <a href="https://tools.ietf.org/html/rfc7523#section-2.2">Using
+ * JWTs for Client Authentication</a>.
+ *
+ * <p>This implementation assumes that the {@link HttpRequest#getContent()} is {@code null} or an
+ * instance of {@link UrlEncodedContent}. This is used as the client authentication in {@link
+ * TokenRequest#setClientAuthentication(HttpExecuteInterceptor)}, {@link
+ * Credential.Builder#setClientAuthentication(HttpExecuteInterceptor)} and {@link
+ * AuthorizationCodeFlow.Builder}.
+ *
+ * <p>A signed client assertion is cached and sent with subsequent token requests until shortly
+ * before it expires, so a burst of token requests costs a single signature. Authorization servers
+ * that only accept each {@code "jti"} once need {@link Builder#setMaxUses(int) setMaxUses(1)}.
+ * Sample usage:
+ *
+ * <pre>
+ * PrivateKeyJwtAuthentication clientAuthentication =
+ * new PrivateKeyJwtAuthentication.Builder(jsonFactory, "s6BhdRkqt3", privateKey,
+ * "https://server.example.com/token")
+ * .setPrivateKeyId("key-2026-01")
+ * .build();
+ * </pre>
+ *
+ * <p>Implementation is thread-safe.
+ *
+ * @since 1.40.0
+ */
+public class PrivateKeyJwtAuthentication implements HttpRequestInitializer, HttpExecuteInterceptor {
+
+  /** Client assertion type of a JWT client assertion. */
+  public static final String CLIENT_ASSERTION_TYPE =
+      "urn:ietf:params:oauth:client-assertion-type:jwt-bearer";
+
+  /** Default value for the lifetime of a client assertion in seconds (5 minutes). */
+  public static final long DEFAULT_ASSERTION_LIFETIME_SECONDS = 5 * 60;
+
+  /** Maximum milliseconds before expiration at which a client assertion is no longer sent. */
+  private static final long MAX_EXPIRATION_MARGIN_MILLIS = 30 * 1000;
+
+  /** JSON factory. */
+  private final JsonFactory jsonFactory;
+
+  /** Client identifier issued to the client during the registration process. */
+  private final String clientId;
+
+  /** Private key used to sign client assertions. */
+  private final PrivateKey privateKey;
+
+  /** Key ID of the private key or {@code null} for none. */
+  private final String privateKeyId;
+
+  /** Audience of the client assertions. */
+  private final String audience;
+
+  /** Lifetime of a client assertion in milliseconds. */
+  private final long assertionLifetimeMillis;
+
+  /** Maximum number of token requests a client assertion is sent with. */
+  private final int maxUses;
+
+  /** Clock. */
+  private final Clock clock;
+
+  /** Current client assertion or {@code null} for none, guarded by {@code this}. */
+  private String assertion;
+
+  /** Time in milliseconds after which the current assertion is no longer sent. */
+  private long reuseUntilMillis;
+
+  /** Number of token requests the current assertion was sent with. */
+  private int uses;
+
+  /** @param builder builder */
+  protected PrivateKeyJwtAuthentication(Builder builder) {
+    jsonFactory = builder.jsonFactory;
+    clientId = builder.clientId;
+    privateKey = builder.privateKey;
+    privateKeyId = builder.privateKeyId;
+    audience = builder.audience;
+    assertionLifetimeMillis = TimeUnit.SECONDS.toMillis(builder.assertionLifetimeSeconds);
+    maxUses = builder.maxUses;
+    clock = builder.clock;
+  }
+
+  public void initialize(HttpRequest request) throws IOException {
+    request.setInterceptor(this);
+  }
+
+  public void intercept(HttpRequest request) throws IOException {
+    Map<String, Object> data = Data.mapOf(UrlEncodedContent.getContent(request).getData());
+    data.put("client_id", clientId);
+    data.put("client_assertion_type", CLIENT_ASSERTION_TYPE);
+    data.put("client_assertion", getClientAssertion());
+  }
+
+  /** Returns the client identifier issued to the client during the registration process. */
+  public final String getClientId() {
+    return clientId;
+  }
+
+  /** Returns the audience of the client assertions. */
+  public final String getAudience() {
+    return audience;
+  }
+
+  /**
+   * Returns the client assertion to send with the next token request, signing a new one if the
+   * current one is about to expire or has been sent the {@link Builder#setMaxUses(int) maximum
+   * number of times}.
+   */
+  public synchronized String getClientAssertion() throws IOException {
+    long now = clock.currentTimeMillis();
+    if (assertion == null || now >= reuseUntilMillis || uses >= maxUses) {
+      assertion = sign(now);
+      reuseUntilMillis =
+          now
+              + assertionLifetimeMillis
+              - Math.min(MAX_EXPIRATION_MARGIN_MILLIS, assertionLifetimeMillis / 4);
+      uses = 0;
+    }
+    uses++;
+    return assertion;
+  }
+
+  private String sign(long now) throws IOException {
+    JsonWebSignature.Header header = new JsonWebSignature.Header();
+    header.setAlgorithm("RS256");
+    header.setType("JWT");
+    header.setKeyId(privateKeyId);
+    JsonWebToken.Payload payload = new JsonWebToken.Payload();
+    payload.setIssuer(clientId);
+    payload.setSubject(clientId);
+    payload.setAudience(audience);
+    payload.setJwtId(UUID.randomUUID().toString());
+    payload.setIssuedAtTimeSeconds(now / 1000);
+    payload.setExpirationTimeSeconds((now + assertionLifetimeMillis) / 1000);
+    try {
+      return JsonWebSignature.signUsingRsaSha256(privateKey, jsonFactory, header, payload);
+    } catch (GeneralSecurityException e) {
+      IOException io = new IOException();
+      io.initCause(e);
+      throw io;
+    }
+  }
+
+  /**
+   * Builder for {@link PrivateKeyJwtAuthentication}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static class Builder {
+
+    /** JSON factory. */
+    final JsonFactory jsonFactory;
+
+    /** Client identifier issued to the client during the registration process. */
+    final String clientId;
+
+    /** Private key used to sign client assertions. */
+    final PrivateKey privateKey;
+
+    /** Audience of the client assertions. */
+    final String audience;
+
+    /** Key ID of the private key or {@code null} for none. */
+    String privateKeyId;
+
+    /** Lifetime of a client assertion in seconds. */
+    long assertionLifetimeSeconds = DEFAULT_ASSERTION_LIFETIME_SECONDS;
+
+    /** Maximum number of token requests a client assertion is sent with. */
+    int maxUses = Integer.MAX_VALUE;
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /**
+     * @param jsonFactory JSON factory
+     * @param clientId client identifier issued to the client during the registration process
+     * @param privateKey RSA private key used to sign client assertions with {@code RS256}
+     * @param audience audience of the client assertions, usually the token server URL
+     */
+    public Builder(
+        JsonFactory jsonFactory, String clientId, PrivateKey privateKey, String audience) {
+      this.jsonFactory = Preconditions.checkNotNull(jsonFactory);
+      this.clientId = Preconditions.checkNotNull(clientId);
+      this.privateKey = Preconditions.checkNotNull(privateKey);
+      this.audience = Preconditions.checkNotNull(audience);
+    }
+
+    /** Returns a new instance of the client authentication. */
+    public PrivateKeyJwtAuthentication build() {
+      return new PrivateKeyJwtAuthentication(this);
+    }
+
+    /** Returns the key ID of the private key or {@code null} for none. */
+    public final String getPrivateKeyId() {
+      return privateKeyId;
+    }
+
+    /**
+     * Sets the key ID of the private key, sent as {@code "kid"} header, or {@code null} for none.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setPrivateKeyId(String privateKeyId) {
+      this.privateKeyId = privateKeyId;
+      return this;
+    }
+
+    /** Returns the lifetime of a client assertion in seconds. */
+    public final long getAssertionLifetimeSeconds() {
+      return assertionLifetimeSeconds;
+    }
+
+    /**
+     * Sets the lifetime of a client assertion in seconds (default is {@link
+     * #DEFAULT_ASSERTION_LIFETIME_SECONDS}).
+     *
+     * <p>It must be greater than zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setAssertionLifetimeSeconds(long assertionLifetimeSeconds) {
+      Preconditions.checkArgument(assertionLifetimeSeconds > 0);
+      this.assertionLifetimeSeconds = assertionLifetimeSeconds;
+      return this;
+    }
+
+    /** Returns the maximum number of token requests a client assertion is sent with. */
+    public final int getMaxUses() {
+      return maxUses;
+    }
+
+    /**
+     * Sets the maximum number of token requests a client assertion is sent with (default is
+     * unlimited). Set it to {@code 1} if the authorization server rejects a reused {@code "jti"}.
+     *
+     * <p>It must be greater than zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setMaxUses(int maxUses) {
+      Preconditions.checkArgument(maxUses > 0);
+      this.maxUses = maxUses;
+      return this;
+    }
+
+    /** Returns the clock. */
+    public final Clock getClock() {
+      return clock;
+    }
+
+    /**
+     * Sets the clock.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.util.Base64;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.StringUtils;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Stateless {@link AuthorizationStateStore} that keeps no server-side state, for horizontally
+ * scaled applications without a shared store.
+ *
+ * <p>The {@code state} parameter carries a random nonce and the expiration time, signed with
+ * HMAC-SHA256 under a secret shared by all nodes together with the user ID, so that it is only
+ * accepted for the user that started the authorization. The PKCE code verifier is derived from the
+ * signed state and the user ID with the same secret, so it never leaves the server even though the
+ * {@code state} parameter is visible to the browser and the authorization server. Sample usage:
+ *
+ * <pre>
+ * AuthorizationCodeFlow flow = new AuthorizationCodeFlow.Builder(...)
+ * .setAuthorizationStateStore(new SignedAuthorizationStateStore.Builder(secret).build())
+ * .build();
+ * </pre>
+ *
+ * <p>Since nothing is recorded, a {@code state} parameter is <b>not</b> single use: it is accepted
+ * any number of times for the same user until it expires. The authorization code it comes with can
+ * still only be redeemed once. Use {@link MemoryAuthorizationStateStore} or {@link
+ * DataStoreAuthorizationStateStore} if states must be single use.
+ *
+ * <p>Implementation is thread-safe.
+ *
+ * @since 1.40.0
+ */
+public final class SignedAuthorizationStateStore implements AuthorizationStateStore {
+
+  /** Length in bytes of the random nonce. */
+  private static final int NONCE_LENGTH = 16;
+
+  /** Length in bytes of the payload: the nonce followed by the expiration time in seconds. */
+  private static final int PAYLOAD_LENGTH = NONCE_LENGTH + 8;
+
+  /** Domain separation prefix of the state signature. */
+  private static final byte STATE_SIGNATURE = 0;
+
+  /** Domain separation prefix of the code verifier. */
+  private static final byte CODE_VERIFIER = 1;
+
+  private final Clock clock;
+  private final long timeToLiveMillis;
+
+  /** MAC engines initialized with the secret, per thread. */
+  private final ThreadLocal<Mac> macs;
+
+  /** @param builder builder */
+  SignedAuthorizationStateStore(Builder builder) {
+    clock = builder.clock;
+    timeToLiveMillis = TimeUnit.SECONDS.toMillis(builder.timeToLiveSeconds);
+    final SecretKeySpec key = new SecretKeySpec(builder.secret, "HmacSHA256");
+    macs =
+        new ThreadLocal<Mac>() {
+          @Override
+          protected Mac initialValue() {
+            try {
+              Mac mac = Mac.getInstance("HmacSHA256");
+              mac.init(key);
+              return mac;
+            } catch (GeneralSecurityException e) {
+              throw new IllegalStateException(e);
+            }
+          }
+        };
+    // fail fast on an unusable key
+    macs.get();
+  }
+
+  /** Returns the seconds a pending authorization remains valid. */
+  public long getTimeToLiveSeconds() {
+    return TimeUnit.MILLISECONDS.toSeconds(timeToLiveMillis);
+  }
+
+  @Override
+  public AuthorizationState create(String userId) {
+    long expirationTimeSeconds =
+        TimeUnit.MILLISECONDS.toSeconds(clock.currentTimeMillis() + timeToLiveMillis);
+    byte[] payload =
+        ByteBuffer.allocate(PAYLOAD_LENGTH)
+            .put(AuthorizationState.randomBytes(NONCE_LENGTH))
+            .putLong(expirationTimeSeconds)
+            .array();
+    String state =
+        Base64.encodeBase64URLSafeString(payload)
+            + '.'
+            + Base64.encodeBase64URLSafeString(mac(STATE_SIGNATURE, payload, userId));
+    return newAuthorizationState(state, payload, userId, expirationTimeSeconds);
+  }
+
+  @Override
+  public AuthorizationState consume(String state, String userId) {
+    if (state == null || userId == null) {
+      return null;
+    }
+    int dot = state.indexOf('.');
+    if (dot == -1) {
+      return null;
+    }
+    byte[] payload;
+    byte[] signature;
+    try {
+      payload = Base64.decodeBase64(state.substring(0, dot));
+      signature = Base64.decodeBase64(state.substring(dot + 1));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    if (payload == null
+        || payload.length != PAYLOAD_LENGTH
+        || !MessageDigest.isEqual(mac(STATE_SIGNATURE, payload, userId), signature)) {
+      return null;
+    }
+    long expirationTimeSeconds = ByteBuffer.wrap(payload, NONCE_LENGTH, 8).getLong();
+    AuthorizationState result =
+        newAuthorizationState(state, payload, userId, expirationTimeSeconds);
+    return result.isExpired(clock.currentTimeMillis()) ? null : result;
+  }
+
+  private AuthorizationState newAuthorizationState(
+      String state, byte[] payload, String userId, long expirationTimeSeconds) {
+    return new AuthorizationState(
+        state,
+        userId,
+        Base64.encodeBase64URLSafeString(mac(CODE_VERIFIER, payload, userId)),
+        TimeUnit.SECONDS.toMillis(expirationTimeSeconds));
+  }
+
+  /** Returns the MAC of the given prefix, the fixed-length payload and the user ID. */
+  private byte[] mac(byte prefix, byte[] payload, String userId) {
+    Mac mac = macs.get();
+    mac.update(prefix);
+    mac.update(payload);
+    return mac.doFinal(StringUtils.getBytesUtf8(userId));
+  }
+
+  /**
+   * Builder for {@link SignedAuthorizationStateStore}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static final class Builder {
+
+    /** Secret shared by all nodes. */
+    byte[] secret;
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Seconds a pending authorization remains valid. */
+    long timeToLiveSeconds = MemoryAuthorizationStateStore.DEFAULT_TIME_TO_LIVE_SECONDS;
+
+    /**
+     * @param secret random secret of at least 32 bytes shared by all nodes, which must be kept
+     *     confidential
+     */
+    public Builder(byte[] secret) {
+      Preconditions.checkArgument(secret.length >= 32, "secret must be at least 32 bytes");
+      this.secret = secret.clone();
+    }
+
+    /** Builds a new instance of {@link SignedAuthorizationStateStore}. */
+    public SignedAuthorizationStateStore build() {
+      return new SignedAuthorizationStateStore(this);
+    }
+
+    /** Sets the clock. */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /**
+     * Sets the seconds a pending authorization remains valid (default is {@link
+     * MemoryAuthorizationStateStore#DEFAULT_TIME_TO_LIVE_SECONDS}).
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setTimeToLiveSeconds(long timeToLiveSeconds) {
+      Preconditions.checkArgument(timeToLiveSeconds > 0);
+      this.timeToLiveSeconds = timeToLiveSeconds;
+      return this;
+    }
+  }
+}
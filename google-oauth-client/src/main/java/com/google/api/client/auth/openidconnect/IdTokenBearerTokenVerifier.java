@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.auth.oauth2.BearerTokenVerifier;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.util.Preconditions;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BearerTokenVerifier} that accepts ID tokens verified by an {@link IdTokenVerifier}.
+ *
+ * <p>Tokens are verified with {@link IdTokenVerifier#verifyAndProject}, so only the claims of the
+ * projection are read from the payload. The details of a verified token are its {@link
+ * IdTokenClaims}, and its subject is the {@code "sub"} claim if the projection includes it. Sample
+ * usage:
+ *
+ * <pre>
+ * BearerTokenVerifier verifier = new IdTokenBearerTokenVerifier(
+ * new IdTokenVerifier.Builder().setAudience(Arrays.asList(audience)).build(),
+ * GsonFactory.getDefaultInstance(),
+ * IdTokenClaims.projection("sub", "email"));
+ * </pre>
+ *
+ * <p>Bearer tokens are presented with every request, so the ID token verifier should not have a
+ * {@link IdTokenVerifier#getReplayGuard() replay guard}.
+ *
+ * <p>Implementation is immutable and thread-safe.
+ *
+ * @since 1.40.0
+ */
+public final class IdTokenBearerTokenVerifier implements BearerTokenVerifier {
+
+  /** Name of the subject claim. */
+  private static final String SUBJECT = "sub";
+
+  /** Default projection, which only retains the subject. */
+  private static final IdTokenClaims.Projection DEFAULT_PROJECTION =
+      IdTokenClaims.projection(SUBJECT);
+
+  private final IdTokenVerifier idTokenVerifier;
+
+  private final JsonFactory jsonFactory;
+
+  private final IdTokenClaims.Projection projection;
+
+  /**
+   * @param idTokenVerifier ID token verifier
+   * @param jsonFactory JSON factory
+   */
+  public IdTokenBearerTokenVerifier(IdTokenVerifier idTokenVerifier, JsonFactory jsonFactory) {
+    this(idTokenVerifier, jsonFactory, DEFAULT_PROJECTION);
+  }
+
+  /**
+   * @param idTokenVerifier ID token verifier
+   * @param jsonFactory JSON factory
+   * @param projection claims to retain in the details of a verified token
+   */
+  public IdTokenBearerTokenVerifier(
+      IdTokenVerifier idTokenVerifier,
+      JsonFactory jsonFactory,
+      IdTokenClaims.Projection projection) {
+    this.idTokenVerifier = Preconditions.checkNotNull(idTokenVerifier);
+    this.jsonFactory = Preconditions.checkNotNull(jsonFactory);
+    this.projection = Preconditions.checkNotNull(projection);
+  }
+
+  /** Returns the ID token verifier. */
+  public IdTokenVerifier getIdTokenVerifier() {
+    return idTokenVerifier;
+  }
+
+  /** Returns the JSON factory. */
+  public JsonFactory getJsonFactory() {
+    return jsonFactory;
+  }
+
+  /** Returns the claims retained in the details of a verified token. */
+  public IdTokenClaims.Projection getProjection() {
+    return projection;
+  }
+
+  @Override
+  public VerifiedToken verify(String token) throws IOException {
+    IdTokenClaims claims = idTokenVerifier.verifyAndProject(jsonFactory, token, projection);
+    if (claims == null) {
+      return null;
+    }
+    Long expirationTimeSeconds = claims.getExpirationTimeSeconds();
+    return new VerifiedToken(
+        projection.getClaimNames().contains(SUBJECT) ? claims.getString(SUBJECT) : null,
+        expirationTimeSeconds == null ? null : TimeUnit.SECONDS.toMillis(expirationTimeSeconds),
+        claims);
+  }
+}
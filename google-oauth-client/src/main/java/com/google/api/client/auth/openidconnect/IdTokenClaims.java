@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
+import com.google.api.client.util.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, flat projection of a caller-chosen set of claims from a verified ID token payload.
+ *
+ * <p>Instances are returned by {@link IdTokenVerifier#verifyAndProject(com.google.api.client.json.
+ * JsonFactory, String, Projection)}. Unlike {@link IdToken.Payload}, the payload is read with a
+ * streaming JSON parser and only the claims named in the {@link Projection}, plus the ones needed
+ * for verification, are retained. Sample usage:
+ *
+ * <pre>
+ * static final IdTokenClaims.Projection CLAIMS =
+ *     IdTokenClaims.projection("sub", "email", "aud", "exp");
+ * ...
+ * IdTokenClaims claims = verifier.verifyAndProject(jsonFactory, idTokenString, CLAIMS);
+ * if (claims != null) {
+ *   String subject = claims.getString("sub");
+ * }
+ * </pre>
+ *
+ * <p>Scalar claims are returned as {@link String}, {@link Long} (integral numbers), {@link
+ * java.math.BigDecimal} (other numbers) or {@link Boolean}. Array claims are returned as
+ * unmodifiable {@link List}s and object claims as unmodifiable {@link Map}s.
+ *
+ * <p>Implementation is immutable and thread-safe.
+ *
+ * @since 1.40.0
+ */
+public final class IdTokenClaims {
+
+  /** Projection the claims were extracted for. */
+  private final Projection projection;
+
+  /** Claim values, indexed by the position of the claim name in the projection. */
+  private final Object[] values;
+
+  /** Issuer ({@code "iss"}) or {@code null} for none. */
+  private final String issuer;
+
+  /** Audience ({@code "aud"}): a {@link String}, a {@link List} or {@code null} for none. */
+  private final Object audience;
+
+  /** Expiration time ({@code "exp"}) in seconds or {@code null} for none. */
+  private final Long expirationTimeSeconds;
+
+  /** Issued at time ({@code "iat"}) in seconds or {@code null} for none. */
+  private final Long issuedAtTimeSeconds;
+
+  /** JWT ID ({@code "jti"}) or {@code null} for none. */
+  private final String jwtId;
+
+  /** Nonce ({@code "nonce"}) or {@code null} for none. */
+  private final String nonce;
+
+  private IdTokenClaims(
+      Projection projection,
+      Object[] values,
+      String issuer,
+      Object audience,
+      Long expirationTimeSeconds,
+      Long issuedAtTimeSeconds,
+      String jwtId,
+      String nonce) {
+    this.projection = projection;
+    this.values = values;
+    this.issuer = issuer;
+    this.audience = audience;
+    this.expirationTimeSeconds = expirationTimeSeconds;
+    this.issuedAtTimeSeconds = issuedAtTimeSeconds;
+    this.jwtId = jwtId;
+    this.nonce = nonce;
+  }
+
+  /**
+   * Returns a new projection for the given claim names.
+   *
+   * <p>Projections are immutable and meant to be created once and shared.
+   *
+   * @param claimNames names of the claims to extract
+   */
+  public static Projection projection(String... claimNames) {
+    return new Projection(claimNames);
+  }
+
+  /** Returns the projection the claims were extracted for. */
+  public Projection getProjection() {
+    return projection;
+  }
+
+  /**
+   * Returns whether the given claim is part of the projection and was present in the payload with a
+   * non-{@code null} value.
+   */
+  public boolean has(String claimName) {
+    return get(claimName) != null;
+  }
+
+  /**
+   * Returns the value of the given claim or {@code null} if it was absent from the payload.
+   *
+   * @throws IllegalArgumentException if the claim is not part of the projection
+   */
+  public Object get(String claimName) {
+    return values[projection.indexOf(claimName)];
+  }
+
+  /**
+   * Returns the value of the given string claim or {@code null} if it was absent from the payload.
+   *
+   * @throws IllegalArgumentException if the claim is not part of the projection
+   * @throws ClassCastException if the claim is not a string
+   */
+  public String getString(String claimName) {
+    return (String) get(claimName);
+  }
+
+  /**
+   * Returns the value of the given integral numeric claim or {@code null} if it was absent from the
+   * payload.
+   *
+   * @throws IllegalArgumentException if the claim is not part of the projection
+   * @throws ClassCastException if the claim is not an integral number
+   */
+  public Long getLong(String claimName) {
+    return (Long) get(claimName);
+  }
+
+  /**
+   * Returns the value of the given boolean claim or {@code null} if it was absent from the payload.
+   *
+   * @throws IllegalArgumentException if the claim is not part of the projection
+   * @throws ClassCastException if the claim is not a boolean
+   */
+  public Boolean getBoolean(String claimName) {
+    return (Boolean) get(claimName);
+  }
+
+  /**
+   * Returns the value of the given claim as a list of strings, or {@code null} if it was absent
+   * from the payload. A single string value (as commonly used for {@code "aud"}) is returned as a
+   * singleton list.
+   *
+   * @throws IllegalArgumentException if the claim is not part of the projection
+   * @throws ClassCastException if the claim is neither a string nor an array
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> getStringList(String claimName) {
+    Object value = get(claimName);
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof String) {
+      return Collections.singletonList((String) value);
+    }
+    return (List<String>) value;
+  }
+
+  /** Returns the issuer ({@code "iss"}) or {@code null} for none. */
+  public String getIssuer() {
+    return issuer;
+  }
+
+  /** Returns the expiration time ({@code "exp"}) in seconds or {@code null} for none. */
+  public Long getExpirationTimeSeconds() {
+    return expirationTimeSeconds;
+  }
+
+  /** Returns the issued at time ({@code "iat"}) in seconds or {@code null} for none. */
+  public Long getIssuedAtTimeSeconds() {
+    return issuedAtTimeSeconds;
+  }
+
+  /** Returns the audience: a {@link String}, a {@link List} or {@code null} for none. */
+  Object getAudience() {
+    return audience;
+  }
+
+  /** Returns the JWT ID ({@code "jti"}) or {@code null} for none. */
+  String getJwtId() {
+    return jwtId;
+  }
+
+  /** Returns the nonce ({@code "nonce"}) or {@code null} for none. */
+  String getNonce() {
+    return nonce;
+  }
+
+  /**
+   * Reads the claims of a JSON object from the given streaming parser, which must point at the
+   * start of the input.
+   */
+  static IdTokenClaims parse(JsonParser parser, Projection projection) throws IOException {
+    Object[] values = new Object[projection.names.length];
+    String issuer = null;
+    Object audience = null;
+    Long expirationTimeSeconds = null;
+    Long issuedAtTimeSeconds = null;
+    String jwtId = null;
+    String nonce = null;
+
+    JsonToken token = parser.nextToken();
+    Preconditions.checkArgument(token == JsonToken.START_OBJECT, "expected a JSON object");
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      String name = parser.getCurrentName();
+      parser.nextToken();
+      Integer index = projection.indices.get(name);
+      if (index == null && !Projection.VERIFIED_CLAIMS.contains(name)) {
+        parser.skipChildren();
+        continue;
+      }
+      Object value = readValue(parser);
+      if (index != null) {
+        values[index] = value;
+      }
+      switch (name) {
+        case "iss":
+          issuer = value instanceof String ? (String) value : null;
+          break;
+        case "aud":
+          audience = value;
+          break;
+        case "exp":
+          expirationTimeSeconds = value instanceof Long ? (Long) value : null;
+          break;
+        case "iat":
+          issuedAtTimeSeconds = value instanceof Long ? (Long) value : null;
+          break;
+        case "jti":
+          jwtId = value instanceof String ? (String) value : null;
+          break;
+        case "nonce":
+          nonce = value instanceof String ? (String) value : null;
+          break;
+        default:
+          break;
+      }
+    }
+    Preconditions.checkArgument(token == JsonToken.END_OBJECT, "malformed JSON object");
+    return new IdTokenClaims(
+        projection,
+        values,
+        issuer,
+        audience,
+        expirationTimeSeconds,
+        issuedAtTimeSeconds,
+        jwtId,
+        nonce);
+  }
+
+  private static Object readValue(JsonParser parser) throws IOException {
+    JsonToken token = parser.getCurrentToken();
+    switch (token) {
+      case START_ARRAY:
+        List<Object> elements = new ArrayList<Object>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          elements.add(readValue(parser));
+        }
+        return Collections.unmodifiableList(elements);
+      case START_OBJECT:
+        @SuppressWarnings("unchecked")
+        Map<String, Object> object = (Map<String, Object>) parser.parse(Object.class, false);
+        return Collections.unmodifiableMap(object);
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+        return parser.getLongValue();
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDecimalValue();
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      case VALUE_NULL:
+        return null;
+      default:
+        throw new IllegalArgumentException("unexpected JSON token: " + token);
+    }
+  }
+
+  /**
+   * Immutable set of claim names to extract from an ID token payload.
+   *
+   * <p>Create instances with {@link IdTokenClaims#projection(String...)}.
+   */
+  public static final class Projection {
+
+    /** Claims that are always read because they are needed for verification. */
+    static final Set<String> VERIFIED_CLAIMS =
+        ImmutableSet.of("iss", "aud", "exp", "iat", "jti", "nonce");
+
+    /** Claim names in projection order. */
+    private final String[] names;
+
+    /** Map from claim name to its index in {@link #names}. */
+    private final ImmutableMap<String, Integer> indices;
+
+    Projection(String... claimNames) {
+      ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+      for (int i = 0; i < claimNames.length; i++) {
+        builder.put(Preconditions.checkNotNull(claimNames[i]), i);
+      }
+      this.names = claimNames.clone();
+      this.indices = builder.build();
+    }
+
+    /** Returns the unmodifiable set of claim names in this projection. */
+    public Set<String> getClaimNames() {
+      return indices.keySet();
+    }
+
+    int indexOf(String claimName) {
+      Integer index = indices.get(claimName);
+      Preconditions.checkArgument(index != null, "claim not in projection: %s", claimName);
+      return index;
+    }
+  }
+}
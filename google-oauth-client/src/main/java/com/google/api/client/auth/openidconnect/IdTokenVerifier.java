@@ -17,49 +17,64 @@ package com.google.api.client.auth.openidconnect;
 import com.google.api.client.http.GenericUrl;
 import com.google.api.client.http.HttpBackOffUnsuccessfulResponseHandler;
 import com.google.api.client.http.HttpBackOffUnsuccessfulResponseHandler.BackOffRequired;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
 import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
 import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
 import com.google.api.client.json.webtoken.JsonWebSignature.Header;
+import com.google.api.client.json.webtoken.JsonWebToken;
 import com.google.api.client.util.Base64;
+import com.google.api.client.util.Charsets;
 import com.google.api.client.util.Clock;
 import com.google.api.client.util.ExponentialBackOff;
 import com.google.api.client.util.Key;
 import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.StringUtils;
+import com.google.api.client.util.store.DataStore;
+import com.google.api.client.util.store.DataStoreFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.math.BigInteger;
-import java.security.AlgorithmParameters;
 import java.security.GeneralSecurityException;
-import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
-import java.security.spec.ECGenParameterSpec;
-import java.security.spec.ECParameterSpec;
-import java.security.spec.ECPoint;
-import java.security.spec.ECPublicKeySpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.InvalidParameterSpecException;
-import java.security.spec.RSAPublicKeySpec;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -99,7 +114,8 @@ import java.util.logging.Logger;
  * </pre>
  *
  * not recommended: this check can be disabled with OAUTH_CLIENT_SKIP_SIGNATURE environment variable
- * set to true. Use {@link #verifyPayload(IdToken)} instead.
+ * set to true. Use {@link #verifyPayload(IdToken)} instead. The variable, like the rest of the
+ * configuration, is read once when the verifier is built.
  *
  * <p>Note that {@link #verify(IdToken)} only implements a subset of the verification steps, mostly
  * just the MUST steps. Please read <a
@@ -117,32 +133,59 @@ public class IdTokenVerifier {
   private static final String NOT_SUPPORTED_ALGORITHM =
       "Unexpected signing algorithm %s: expected either RS256 or ES256";
 
+  /** Payload placeholder for signature checks of tokens whose payload was streamed. */
+  static final JsonWebToken.Payload EMPTY_PAYLOAD = new JsonWebToken.Payload();
+
   static final HttpTransport HTTP_TRANSPORT = new NetHttpTransport();
   static final String SKIP_SIGNATURE_ENV_VAR = "OAUTH_CLIENT_SKIP_SIGNATURE";
   /** Default value for seconds of time skew to accept when verifying time (5 minutes). */
   public static final long DEFAULT_TIME_SKEW_SECONDS = 300;
 
+  /**
+   * Default value for the maximum age in seconds of a key set snapshot that may be used (1 day).
+   *
+   * @since 1.40.0
+   */
+  public static final long DEFAULT_KEY_SET_SNAPSHOT_MAX_AGE_SECONDS = 24 * 60 * 60;
+
   /** Clock to use for expiration checks. */
   private final Clock clock;
 
   private final String certificatesLocation;
-  private final Environment environment;
+
+  /**
+   * Whether signature checks are disabled with the {@link #SKIP_SIGNATURE_ENV_VAR} environment
+   * variable, which is read once when the verifier is built.
+   */
+  private final boolean skipSignature;
+
+  /** Private public key cache or {@code null} if the key sets come from {@link #keySetRegistry}. */
   private final LoadingCache<String, Map<String, PublicKey>> publicKeyCache;
 
+  /** Shared key set registry or {@code null} to use the private {@link #publicKeyCache}. */
+  private final JsonWebKeySetRegistry keySetRegistry;
+
+  /** Key set handles acquired from {@link #keySetRegistry} by certificate location. */
+  private final ConcurrentMap<String, JsonWebKeySetRegistry.Handle> keySetHandles =
+      new ConcurrentHashMap<String, JsonWebKeySetRegistry.Handle>();
+
   /** Seconds of time skew to accept when verifying time. */
   private final long acceptableTimeSkewSeconds;
 
   /**
-   * Unmodifiable collection of equivalent expected issuers or {@code null} to suppress the issuer
-   * check.
+   * Unmodifiable hash set of equivalent expected issuers in configuration order or {@code null} to
+   * suppress the issuer check.
    */
-  private final Collection<String> issuers;
+  private final Set<String> issuers;
 
   /**
-   * Unmodifiable list of trusted audience client IDs or {@code null} to suppress the audience
-   * check.
+   * Unmodifiable hash set of trusted audience client IDs in configuration order or {@code null} to
+   * suppress the audience check.
    */
-  private final Collection<String> audience;
+  private final Set<String> audience;
+
+  /** Replay guard or {@code null} to accept tokens more than once. */
+  private final ReplayGuard replayGuard;
 
   public IdTokenVerifier() {
     this(new Builder());
@@ -153,18 +196,59 @@ public class IdTokenVerifier {
     this.certificatesLocation = builder.certificatesLocation;
     clock = builder.clock;
     acceptableTimeSkewSeconds = builder.acceptableTimeSkewSeconds;
-    issuers = builder.issuers == null ? null : Collections.unmodifiableCollection(builder.issuers);
-    audience =
-        builder.audience == null ? null : Collections.unmodifiableCollection(builder.audience);
+    issuers = toUnmodifiableSet(builder.issuers);
+    audience = toUnmodifiableSet(builder.audience);
+    Environment environment = builder.environment == null ? new Environment() : builder.environment;
+    this.skipSignature = Boolean.parseBoolean(environment.getVariable(SKIP_SIGNATURE_ENV_VAR));
+    this.replayGuard = builder.replayGuard;
+    this.keySetRegistry = builder.keySetRegistry;
+    if (keySetRegistry != null) {
+      this.publicKeyCache = null;
+      return;
+    }
     HttpTransportFactory transport =
         builder.httpTransportFactory == null
             ? new DefaultHttpTransportFactory()
             : builder.httpTransportFactory;
-    this.publicKeyCache =
-        CacheBuilder.newBuilder()
-            .expireAfterWrite(1, TimeUnit.HOURS)
-            .build(new PublicKeyLoader(transport));
-    this.environment = builder.environment == null ? new Environment() : builder.environment;
+    PublicKeyLoader publicKeyLoader =
+        new PublicKeyLoader(
+            transport,
+            builder.keySetDataStore,
+            clock,
+            TimeUnit.SECONDS.toMillis(builder.keySetSnapshotMaxAgeSeconds));
+    if (builder.keySetDataStore == null) {
+      this.publicKeyCache =
+          CacheBuilder.newBuilder().expireAfterWrite(1, TimeUnit.HOURS).build(publicKeyLoader);
+    } else {
+      this.publicKeyCache =
+          CacheBuilder.newBuilder()
+              .expireAfterWrite(1, TimeUnit.HOURS)
+              .build(CacheLoader.asyncReloading(publicKeyLoader, RefreshExecutorHolder.INSTANCE));
+      primeFromSnapshots(publicKeyLoader);
+    }
+  }
+
+  /** Returns an unmodifiable hash set of the given values in iteration order or {@code null}. */
+  private static Set<String> toUnmodifiableSet(Collection<String> values) {
+    return values == null ? null : Collections.unmodifiableSet(new LinkedHashSet<String>(values));
+  }
+
+  /**
+   * Seeds the public key cache from the stored key set snapshots, so that tokens can be verified
+   * right away, and refreshes the seeded key sets in the background.
+   */
+  private void primeFromSnapshots(PublicKeyLoader publicKeyLoader) {
+    List<String> locations =
+        certificatesLocation != null
+            ? Collections.singletonList(certificatesLocation)
+            : Arrays.asList(FEDERATED_SIGNON_CERT_URL, IAP_CERT_URL);
+    for (String location : locations) {
+      Map<String, PublicKey> keys = publicKeyLoader.loadSnapshot(location);
+      if (keys != null) {
+        publicKeyCache.put(location, keys);
+        publicKeyCache.refresh(location);
+      }
+    }
   }
 
   /** Returns the clock. */
@@ -172,6 +256,31 @@ public class IdTokenVerifier {
     return clock;
   }
 
+  /**
+   * Returns the shared key set registry or {@code null} if this verifier caches key sets privately.
+   *
+   * @since 1.40.0
+   */
+  public final JsonWebKeySetRegistry getKeySetRegistry() {
+    return keySetRegistry;
+  }
+
+  /**
+   * Releases the key sets this verifier acquired from its {@link #getKeySetRegistry() key set
+   * registry}, allowing the registry to drop them once no other verifier uses them. Has no effect
+   * if no registry is used. The verifier remains usable and re-acquires key sets on demand.
+   *
+   * @since 1.40.0
+   */
+  public void releaseKeySets() {
+    for (Iterator<JsonWebKeySetRegistry.Handle> iterator = keySetHandles.values().iterator();
+        iterator.hasNext(); ) {
+      JsonWebKeySetRegistry.Handle handle = iterator.next();
+      iterator.remove();
+      handle.release();
+    }
+  }
+
   /** Returns the seconds of time skew to accept when verifying time. */
   public final long getAcceptableTimeSkewSeconds() {
     return acceptableTimeSkewSeconds;
@@ -205,6 +314,15 @@ public class IdTokenVerifier {
     return audience;
   }
 
+  /**
+   * Returns the replay guard or {@code null} if tokens may be accepted more than once.
+   *
+   * @since 1.40.0
+   */
+  public final ReplayGuard getReplayGuard() {
+    return replayGuard;
+  }
+
   /**
    * Verifies that the given ID token is valid using the cached public keys.
    *
@@ -264,6 +382,8 @@ public class IdTokenVerifier {
    *       certificate location and transport implementation can be overridden via {@link Builder}
    *       not recommended: this check can be disabled with OAUTH_CLIENT_SKIP_SIGNATURE environment
    *       variable set to true.
+   *   <li>If a {@link #getReplayGuard() replay guard} is set, that the token has not been accepted
+   *       before. Tokens with neither a {@code "jti"} nor a {@code "nonce"} claim are rejected.
    * </ul>
    *
    * <p>Overriding is allowed, but it must call the super implementation.
@@ -281,11 +401,42 @@ public class IdTokenVerifier {
     }
 
     try {
-      return verifySignature(idToken);
+      if (!verifySignature(idToken)) {
+        return false;
+      }
     } catch (VerificationException ex) {
       LOGGER.log(Level.INFO, "Id token signature verification failed. ", ex);
       return false;
     }
+
+    IdToken.Payload payload = idToken.getPayload();
+    return verifyFirstUse(
+        payload.getIssuer(),
+        payload.getJwtId(),
+        payload.getNonce(),
+        payload.getExpirationTimeSeconds());
+  }
+
+  /**
+   * Checks with the replay guard, if any, that a token with a valid signature is used for the first
+   * time.
+   */
+  private boolean verifyFirstUse(
+      String issuer, String jwtId, String nonce, Long expirationTimeSeconds) throws IOException {
+    if (replayGuard == null) {
+      return true;
+    }
+    String tokenId = jwtId != null ? jwtId : nonce;
+    if (tokenId == null || expirationTimeSeconds == null) {
+      LOGGER.log(Level.INFO, "Id token has no jti or nonce claim for replay detection.");
+      return false;
+    }
+    if (!replayGuard.checkAndRecord(
+        issuer, tokenId, expirationTimeSeconds + acceptableTimeSkewSeconds)) {
+      LOGGER.log(Level.INFO, "Id token has already been used.");
+      return false;
+    }
+    return true;
   }
 
   /**
@@ -309,42 +460,194 @@ public class IdTokenVerifier {
    * @return {@code true} if verified successfully or {@code false} if failed
    */
   protected boolean verifyPayload(IdToken idToken) {
+    IdToken.Payload payload = idToken.getPayload();
     boolean tokenPayloadValid =
-        (issuers == null || idToken.verifyIssuer(issuers))
-            && (audience == null || idToken.verifyAudience(audience))
+        (issuers == null || issuers.contains(payload.getIssuer()))
+            && verifyAudience(payload.getAudience())
             && idToken.verifyTime(clock.currentTimeMillis(), acceptableTimeSkewSeconds);
 
     return tokenPayloadValid;
   }
 
+  /**
+   * Returns whether the given {@code "aud"} claim value, a {@link String} or a {@link List},
+   * contains only trusted client IDs. Equivalent to {@link IdToken#verifyAudience(Collection)}, but
+   * without copying the claim value.
+   */
+  private boolean verifyAudience(Object tokenAudience) {
+    if (audience == null) {
+      return true;
+    }
+    if (tokenAudience instanceof String) {
+      return audience.contains(tokenAudience);
+    }
+    if (!(tokenAudience instanceof List)) {
+      return false;
+    }
+    List<?> tokenAudienceList = (List<?>) tokenAudience;
+    int size = tokenAudienceList.size();
+    if (size == 0) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (!audience.contains(tokenAudienceList.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Verifies the given ID token string and returns the claims selected by the given projection.
+   *
+   * <p>It performs the same checks as {@link #verifyOrThrow(IdToken)}, but reads the payload with a
+   * streaming parser and retains only the claims named in the projection instead of building an
+   * {@link IdToken.Payload}. Use it on hot paths where only a handful of claims are needed after
+   * verification. Overrides of {@link #verifyPayload(IdToken)} are not consulted.
+   *
+   * @param jsonFactory JSON factory
+   * @param idTokenString ID token string
+   * @param projection claims to extract
+   * @return the projected claims or {@code null} if verification failed
+   * @throws IOException if verification fails to run. For example, if it fails to get public keys
+   *     for signature verification.
+   * @since 1.40.0
+   */
+  public IdTokenClaims verifyAndProject(
+      JsonFactory jsonFactory, String idTokenString, IdTokenClaims.Projection projection)
+      throws IOException {
+    int firstDot = idTokenString.indexOf('.');
+    int secondDot = firstDot == -1 ? -1 : idTokenString.indexOf('.', firstDot + 1);
+    if (secondDot == -1 || idTokenString.indexOf('.', secondDot + 1) != -1) {
+      LOGGER.log(Level.INFO, "Id token is not a well-formed JWS.");
+      return null;
+    }
+
+    Header header;
+    IdTokenClaims claims;
+    try {
+      header = parseHeader(jsonFactory, Base64.decodeBase64(idTokenString.substring(0, firstDot)));
+      JsonParser parser =
+          jsonFactory.createJsonParser(
+              new ByteArrayInputStream(
+                  Base64.decodeBase64(idTokenString.substring(firstDot + 1, secondDot))),
+              Charsets.UTF_8);
+      try {
+        claims = IdTokenClaims.parse(parser, projection);
+      } finally {
+        parser.close();
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      LOGGER.log(Level.INFO, "Id token could not be parsed. ", e);
+      return null;
+    }
+
+    if (!verifyClaims(claims)) {
+      return null;
+    }
+
+    JsonWebSignature jws =
+        new JsonWebSignature(
+            header,
+            EMPTY_PAYLOAD,
+            Base64.decodeBase64(idTokenString.substring(secondDot + 1)),
+            StringUtils.getBytesUtf8(idTokenString.substring(0, secondDot)));
+    try {
+      if (!verifySignature(jws)) {
+        return null;
+      }
+    } catch (VerificationException ex) {
+      LOGGER.log(Level.INFO, "Id token signature verification failed. ", ex);
+      return null;
+    }
+    return verifyFirstUse(
+            claims.getIssuer(),
+            claims.getJwtId(),
+            claims.getNonce(),
+            claims.getExpirationTimeSeconds())
+        ? claims
+        : null;
+  }
+
+  /** Checks issuer, audience and time of the given projected claims like {@link #verifyPayload}. */
+  private boolean verifyClaims(IdTokenClaims claims) {
+    if (issuers != null && !issuers.contains(claims.getIssuer())) {
+      return false;
+    }
+    if (!verifyAudience(claims.getAudience())) {
+      return false;
+    }
+    Long expirationTimeSeconds = claims.getExpirationTimeSeconds();
+    Long issuedAtTimeSeconds = claims.getIssuedAtTimeSeconds();
+    if (expirationTimeSeconds == null || issuedAtTimeSeconds == null) {
+      return false;
+    }
+    long currentTimeMillis = clock.currentTimeMillis();
+    return currentTimeMillis <= (expirationTimeSeconds + acceptableTimeSkewSeconds) * 1000
+        && currentTimeMillis >= (issuedAtTimeSeconds - acceptableTimeSkewSeconds) * 1000;
+  }
+
+  /**
+   * Reads only the header parameters needed for verification ({@code alg}, {@code kid}, {@code
+   * typ}).
+   */
+  static Header parseHeader(JsonFactory jsonFactory, byte[] headerBytes) throws IOException {
+    Header header = new Header();
+    JsonParser parser =
+        jsonFactory.createJsonParser(new ByteArrayInputStream(headerBytes), Charsets.UTF_8);
+    try {
+      JsonToken token = parser.nextToken();
+      Preconditions.checkArgument(token == JsonToken.START_OBJECT, "expected a JSON object");
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        token = parser.nextToken();
+        if (token == JsonToken.VALUE_STRING && "alg".equals(name)) {
+          header.setAlgorithm(parser.getText());
+        } else if (token == JsonToken.VALUE_STRING && "kid".equals(name)) {
+          header.setKeyId(parser.getText());
+        } else if (token == JsonToken.VALUE_STRING && "typ".equals(name)) {
+          header.setType(parser.getText());
+        } else {
+          parser.skipChildren();
+        }
+      }
+    } finally {
+      parser.close();
+    }
+    Preconditions.checkArgument(header.getAlgorithm() != null, "missing alg header");
+    return header;
+  }
+
   @VisibleForTesting
   boolean verifySignature(IdToken idToken) throws IOException, VerificationException {
-    if (Boolean.parseBoolean(environment.getVariable(SKIP_SIGNATURE_ENV_VAR))) {
+    return verifySignature((JsonWebSignature) idToken);
+  }
+
+  boolean verifySignature(JsonWebSignature jws) throws IOException, VerificationException {
+    if (skipSignature) {
       return true;
     }
 
     // Short-circuit signature types
-    if (!SUPPORTED_ALGORITHMS.contains(idToken.getHeader().getAlgorithm())) {
+    if (!SUPPORTED_ALGORITHMS.contains(jws.getHeader().getAlgorithm())) {
       throw new VerificationException(
-          String.format(NOT_SUPPORTED_ALGORITHM, idToken.getHeader().getAlgorithm()));
+          String.format(NOT_SUPPORTED_ALGORITHM, jws.getHeader().getAlgorithm()));
     }
 
-    PublicKey publicKeyToUse = null;
-    try {
-      String certificateLocation = getCertificateLocation(idToken.getHeader());
-      publicKeyToUse = publicKeyCache.get(certificateLocation).get(idToken.getHeader().getKeyId());
-    } catch (ExecutionException | UncheckedExecutionException e) {
-      throw new IOException(
-          "Error fetching public key from certificate location " + certificatesLocation, e);
-    }
+    String certificateLocation = getCertificateLocation(jws.getHeader());
+    PublicKey publicKeyToUse = getPublicKeys(certificateLocation).get(jws.getHeader().getKeyId());
 
     if (publicKeyToUse == null) {
       throw new IOException(
-          "Could not find public key for provided keyId: " + idToken.getHeader().getKeyId());
+          "Could not find public key for provided keyId: " + jws.getHeader().getKeyId());
     }
 
     try {
-      if (idToken.verifySignature(publicKeyToUse)) {
+      if (SignatureVerifier.verify(
+          jws.getHeader().getAlgorithm(),
+          publicKeyToUse,
+          jws.getSignatureBytes(),
+          jws.getSignedContentBytes())) {
         return true;
       }
       throw new VerificationException("Invalid signature");
@@ -353,6 +656,29 @@ public class IdTokenVerifier {
     }
   }
 
+  /** Returns the public keys of the given certificate location by key ID. */
+  private Map<String, PublicKey> getPublicKeys(String certificateLocation) throws IOException {
+    try {
+      if (keySetRegistry == null) {
+        return publicKeyCache.get(certificateLocation);
+      }
+      JsonWebKeySetRegistry.Handle handle = keySetHandles.get(certificateLocation);
+      if (handle == null) {
+        JsonWebKeySetRegistry.Handle acquired = keySetRegistry.acquire(certificateLocation);
+        handle = keySetHandles.putIfAbsent(certificateLocation, acquired);
+        if (handle == null) {
+          handle = acquired;
+        } else {
+          acquired.release();
+        }
+      }
+      return handle.getKeys();
+    } catch (ExecutionException | UncheckedExecutionException | IOException e) {
+      throw new IOException(
+          "Error fetching public key from certificate location " + certificateLocation, e);
+    }
+  }
+
   private String getCertificateLocation(Header header) throws VerificationException {
     if (certificatesLocation != null) return certificatesLocation;
 
@@ -394,6 +720,18 @@ public class IdTokenVerifier {
 
     HttpTransportFactory httpTransportFactory;
 
+    /** Data store for key set snapshots or {@code null} for none. */
+    DataStore<JsonWebKeySetSnapshot> keySetDataStore;
+
+    /** Maximum age in seconds of a key set snapshot that may be used. */
+    long keySetSnapshotMaxAgeSeconds = DEFAULT_KEY_SET_SNAPSHOT_MAX_AGE_SECONDS;
+
+    /** Shared key set registry or {@code null} to cache key sets privately. */
+    JsonWebKeySetRegistry keySetRegistry;
+
+    /** Replay guard or {@code null} to accept tokens more than once. */
+    ReplayGuard replayGuard;
+
     /** Builds a new instance of {@link IdTokenVerifier}. */
     public IdTokenVerifier build() {
       return new IdTokenVerifier(this);
@@ -539,6 +877,126 @@ public class IdTokenVerifier {
       this.httpTransportFactory = httpTransportFactory;
       return this;
     }
+
+    /**
+     * Returns the data store for key set snapshots or {@code null} for none.
+     *
+     * @since 1.40.0
+     */
+    public final DataStore<JsonWebKeySetSnapshot> getKeySetDataStore() {
+      return keySetDataStore;
+    }
+
+    /**
+     * Sets the data store factory used to persist the last successfully fetched key set of each
+     * certificate location using {@link JsonWebKeySetSnapshot#getDefaultDataStore}.
+     *
+     * <p>When set, the verifier seeds its key cache from the stored snapshots on construction and
+     * refreshes them in the background, and it falls back to a stored snapshot when the certificate
+     * location cannot be reached. Snapshots older than {@link #getKeySetSnapshotMaxAgeSeconds()}
+     * are ignored.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @since 1.40.0
+     */
+    public Builder setKeySetDataStoreFactory(DataStoreFactory dataStoreFactory) throws IOException {
+      return setKeySetDataStore(JsonWebKeySetSnapshot.getDefaultDataStore(dataStoreFactory));
+    }
+
+    /**
+     * Sets the data store used to persist key set snapshots or {@code null} for none.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @see #setKeySetDataStoreFactory(DataStoreFactory)
+     * @since 1.40.0
+     */
+    public Builder setKeySetDataStore(DataStore<JsonWebKeySetSnapshot> keySetDataStore) {
+      this.keySetDataStore = keySetDataStore;
+      return this;
+    }
+
+    /**
+     * Returns the maximum age in seconds of a key set snapshot that may be used.
+     *
+     * @since 1.40.0
+     */
+    public final long getKeySetSnapshotMaxAgeSeconds() {
+      return keySetSnapshotMaxAgeSeconds;
+    }
+
+    /**
+     * Sets the maximum age in seconds of a key set snapshot that may be used (default is {@link
+     * #DEFAULT_KEY_SET_SNAPSHOT_MAX_AGE_SECONDS}).
+     *
+     * <p>It must be greater or equal to zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @since 1.40.0
+     */
+    public Builder setKeySetSnapshotMaxAgeSeconds(long keySetSnapshotMaxAgeSeconds) {
+      Preconditions.checkArgument(keySetSnapshotMaxAgeSeconds >= 0);
+      this.keySetSnapshotMaxAgeSeconds = keySetSnapshotMaxAgeSeconds;
+      return this;
+    }
+
+    /**
+     * Returns the shared key set registry or {@code null} to cache key sets privately.
+     *
+     * @since 1.40.0
+     */
+    public final JsonWebKeySetRegistry getKeySetRegistry() {
+      return keySetRegistry;
+    }
+
+    /**
+     * Sets the shared key set registry to get public keys from or {@code null} to cache key sets
+     * privately in each verifier (the default).
+     *
+     * <p>Verifiers sharing a registry fetch and parse each certificate location only once. When a
+     * registry is set, the {@link #setHttpTransportFactory HTTP transport factory} and key set
+     * snapshot settings of this builder are not used; configure them on the registry instead.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @since 1.40.0
+     */
+    public Builder setKeySetRegistry(JsonWebKeySetRegistry keySetRegistry) {
+      this.keySetRegistry = keySetRegistry;
+      return this;
+    }
+
+    /**
+     * Returns the replay guard or {@code null} if tokens may be accepted more than once.
+     *
+     * @since 1.40.0
+     */
+    public final ReplayGuard getReplayGuard() {
+      return replayGuard;
+    }
+
+    /**
+     * Sets the replay guard used to reject tokens that have been accepted before or {@code null} to
+     * accept tokens more than once (the default).
+     *
+     * <p>The guard is consulted only for tokens that pass all other checks. When a guard is set,
+     * tokens without a {@code "jti"} or {@code "nonce"} claim are rejected.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @since 1.40.0
+     */
+    public Builder setReplayGuard(ReplayGuard replayGuard) {
+      this.replayGuard = replayGuard;
+      return this;
+    }
   }
 
   /** Custom CacheLoader for mapping certificate urls to the contained public keys. */
@@ -548,6 +1006,16 @@ public class IdTokenVerifier {
     private static final double RETRY_RANDOMIZATION_FACTOR = 0.1;
     private static final double RETRY_MULTIPLIER = 2;
     private final HttpTransportFactory httpTransportFactory;
+    private final DataStore<JsonWebKeySetSnapshot> snapshotStore;
+    private final Clock clock;
+    private final long snapshotMaxAgeMillis;
+
+    /** Last fetched key set by certificate location. */
+    private final ConcurrentMap<String, KeySetState> states =
+        new ConcurrentHashMap<String, KeySetState>();
+
+    /** Lazily created request factory, kept so that connections can be reused between fetches. */
+    private volatile HttpRequestFactory requestFactory;
 
     /**
      * Data class used for deserializing a JSON Web Key Set (JWKS) from an external HTTP request.
@@ -575,24 +1043,188 @@ public class IdTokenVerifier {
       @Key public String e;
 
       @Key public String n;
+
+      /** Returns the key parameters that determine the resulting public key. */
+      String getParameters() {
+        return kty + '|' + alg + '|' + crv + '|' + x + '|' + y + '|' + e + '|' + n;
+      }
+    }
+
+    /** Validators and parsed keys of the last key set fetched from a certificate location. */
+    static final class KeySetState {
+
+      /** Raw key set document. */
+      final String content;
+
+      /** Entity tag of the key set or {@code null} for none. */
+      final String etag;
+
+      /** Last modification date of the key set or {@code null} for none. */
+      final String lastModified;
+
+      /** Public keys by key ID. */
+      final Map<String, PublicKey> keys;
+
+      /** Public keys by their {@link JsonWebKey#getParameters() parameters} or PEM encoding. */
+      final Map<String, PublicKey> keysByParameters;
+
+      KeySetState(
+          String content,
+          String etag,
+          String lastModified,
+          Map<String, PublicKey> keys,
+          Map<String, PublicKey> keysByParameters) {
+        this.content = content;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.keys = keys;
+        this.keysByParameters = keysByParameters;
+      }
     }
 
     PublicKeyLoader(HttpTransportFactory httpTransportFactory) {
+      this(httpTransportFactory, null, Clock.SYSTEM, 0);
+    }
+
+    /**
+     * @param httpTransportFactory HTTP transport factory
+     * @param snapshotStore data store for key set snapshots or {@code null} for none
+     * @param clock clock used to determine the age of key set snapshots
+     * @param snapshotMaxAgeMillis maximum age in milliseconds of a usable key set snapshot
+     */
+    PublicKeyLoader(
+        HttpTransportFactory httpTransportFactory,
+        DataStore<JsonWebKeySetSnapshot> snapshotStore,
+        Clock clock,
+        long snapshotMaxAgeMillis) {
       super();
       this.httpTransportFactory = httpTransportFactory;
+      this.snapshotStore = snapshotStore;
+      this.clock = clock;
+      this.snapshotMaxAgeMillis = snapshotMaxAgeMillis;
+    }
+
+    /**
+     * Forgets the last fetched key set of the given certificate location, so that it no longer
+     * takes memory once the location is no longer used.
+     */
+    void forget(String certificateUrl) {
+      states.remove(certificateUrl);
+    }
+
+    /** Returns whether the last fetched key set of the given certificate location is retained. */
+    @VisibleForTesting
+    boolean hasState(String certificateUrl) {
+      return states.containsKey(certificateUrl);
     }
 
     @Override
     public Map<String, PublicKey> load(String certificateUrl) throws Exception {
-      HttpTransport httpTransport = httpTransportFactory.create();
-      JsonWebKeySet jwks;
+      KeySetState previous = states.get(certificateUrl);
+      HttpResponse response;
       try {
-        HttpRequest request =
-            httpTransport
-                .createRequestFactory()
-                .buildGetRequest(new GenericUrl(certificateUrl))
-                .setParser(GsonFactory.getDefaultInstance().createJsonObjectParser());
+        response = fetch(certificateUrl, previous);
+      } catch (IOException io) {
+        Map<String, PublicKey> snapshotKeys = loadSnapshot(certificateUrl);
+        if (snapshotKeys != null) {
+          LOGGER.log(
+              Level.WARNING,
+              "Using stored key set snapshot for certificate location " + certificateUrl,
+              io);
+          return snapshotKeys;
+        }
+        throw io;
+      }
+
+      KeySetState current;
+      if (previous != null
+          && response.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED) {
+        // release the connection for reuse and keep the keys parsed last time
+        response.ignore();
+        current = previous;
+      } else {
+        HttpHeaders headers = response.getHeaders();
+        String etag = headers.getETag();
+        String lastModified = headers.getLastModified();
+        String content = response.parseAsString();
+        current = parseKeySet(certificateUrl, content, etag, lastModified, previous);
+        states.put(certificateUrl, current);
+      }
+      saveSnapshot(certificateUrl, current.content);
+      return current.keys;
+    }
+
+    /**
+     * Returns the public keys of the stored snapshot for the given certificate location or {@code
+     * null} if there is no usable snapshot.
+     */
+    Map<String, PublicKey> loadSnapshot(String certificateUrl) {
+      if (snapshotStore == null) {
+        return null;
+      }
+      try {
+        JsonWebKeySetSnapshot snapshot = snapshotStore.get(certificateUrl);
+        if (snapshot == null) {
+          return null;
+        }
+        if (!snapshot.isUsable(certificateUrl, clock.currentTimeMillis(), snapshotMaxAgeMillis)) {
+          LOGGER.log(Level.INFO, "Ignoring stale or corrupted key set snapshot " + snapshot);
+          return null;
+        }
+        return parseKeySet(certificateUrl, snapshot.getContent(), null, null, null).keys;
+      } catch (Exception e) {
+        LOGGER.log(
+            Level.WARNING,
+            "Failed to load key set snapshot for certificate location " + certificateUrl,
+            e);
+        return null;
+      }
+    }
+
+    private void saveSnapshot(String certificateUrl, String content) {
+      if (snapshotStore == null) {
+        return;
+      }
+      try {
+        snapshotStore.set(
+            certificateUrl,
+            new JsonWebKeySetSnapshot(certificateUrl, content, clock.currentTimeMillis()));
+      } catch (IOException e) {
+        LOGGER.log(
+            Level.WARNING,
+            "Failed to store key set snapshot for certificate location " + certificateUrl,
+            e);
+      }
+    }
+
+    /** Returns the request factory, which is created on first use and then kept for reuse. */
+    private HttpRequestFactory getRequestFactory() {
+      HttpRequestFactory result = requestFactory;
+      if (result == null) {
+        synchronized (this) {
+          result = requestFactory;
+          if (result == null) {
+            result = requestFactory = httpTransportFactory.create().createRequestFactory();
+          }
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Fetches the key set document from the given certificate location. If the key set was fetched
+     * before, the request is made conditional on the stored validators, and a response with status
+     * {@code 304 Not Modified} may be returned.
+     */
+    private HttpResponse fetch(String certificateUrl, KeySetState previous) throws IOException {
+      try {
+        HttpRequest request = getRequestFactory().buildGetRequest(new GenericUrl(certificateUrl));
         request.setNumberOfRetries(DEFAULT_NUMBER_OF_RETRIES);
+        request.setThrowExceptionOnExecuteError(false);
+        if (previous != null) {
+          request.getHeaders().setIfNoneMatch(previous.etag);
+          request.getHeaders().setIfModifiedSince(previous.lastModified);
+        }
 
         ExponentialBackOff backoff =
             new ExponentialBackOff.Builder()
@@ -603,10 +1235,21 @@ public class IdTokenVerifier {
 
         request.setUnsuccessfulResponseHandler(
             new HttpBackOffUnsuccessfulResponseHandler(backoff)
-                .setBackOffRequired(BackOffRequired.ALWAYS));
+                .setBackOffRequired(
+                    new BackOffRequired() {
+                      @Override
+                      public boolean isRequired(HttpResponse response) {
+                        return response.getStatusCode() != HttpStatusCodes.STATUS_CODE_NOT_MODIFIED;
+                      }
+                    }));
 
         HttpResponse response = request.execute();
-        jwks = response.parseAs(JsonWebKeySet.class);
+        int statusCode = response.getStatusCode();
+        if (!response.isSuccessStatusCode()
+            && (previous == null || statusCode != HttpStatusCodes.STATUS_CODE_NOT_MODIFIED)) {
+          throw new HttpResponseException(response);
+        }
+        return response;
       } catch (IOException io) {
         LOGGER.log(
             Level.WARNING,
@@ -614,18 +1257,48 @@ public class IdTokenVerifier {
             io);
         throw io;
       }
+    }
 
+    /**
+     * Parses a raw key set document into a map from key ID to public key. Keys whose parameters are
+     * unchanged since the previous key set are reused instead of being rebuilt.
+     */
+    private KeySetState parseKeySet(
+        String certificateUrl,
+        String content,
+        String etag,
+        String lastModified,
+        KeySetState previous)
+        throws IOException, GeneralSecurityException, VerificationException {
+      JsonWebKeySet jwks =
+          GsonFactory.getDefaultInstance().fromString(content, JsonWebKeySet.class);
+      Map<String, PublicKey> reusableKeys =
+          previous == null ? Collections.<String, PublicKey>emptyMap() : previous.keysByParameters;
+      Map<String, PublicKey> keysByParameters = new HashMap<String, PublicKey>();
       ImmutableMap.Builder<String, PublicKey> keyCacheBuilder = new ImmutableMap.Builder<>();
       if (jwks.keys == null) {
         // Fall back to x509 formatted specification
         for (String keyId : jwks.keySet()) {
           String publicKeyPem = (String) jwks.get(keyId);
-          keyCacheBuilder.put(keyId, buildPublicKey(publicKeyPem));
+          PublicKey publicKey = reusableKeys.get(publicKeyPem);
+          if (publicKey == null) {
+            publicKey = buildPublicKey(publicKeyPem);
+          }
+          keysByParameters.put(publicKeyPem, publicKey);
+          keyCacheBuilder.put(keyId, publicKey);
         }
       } else {
         for (JsonWebKey key : jwks.keys) {
           try {
-            keyCacheBuilder.put(key.kid, buildPublicKey(key));
+            String parameters = key.getParameters();
+            PublicKey publicKey = reusableKeys.get(parameters);
+            if (publicKey == null) {
+              publicKey = buildPublicKey(key);
+            }
+            if (publicKey != null) {
+              keysByParameters.put(parameters, publicKey);
+            }
+            keyCacheBuilder.put(key.kid, publicKey);
           } catch (NoSuchAlgorithmException
               | InvalidKeySpecException
               | InvalidParameterSpecException ignored) {
@@ -641,7 +1314,7 @@ public class IdTokenVerifier {
             "No valid public key returned by the keystore: " + certificateUrl);
       }
 
-      return keyCache;
+      return new KeySetState(content, etag, lastModified, keyCache, keysByParameters);
     }
 
     private PublicKey buildPublicKey(JsonWebKey key)
@@ -671,9 +1344,7 @@ public class IdTokenVerifier {
       BigInteger modulus = new BigInteger(1, Base64.decodeBase64(key.n));
       BigInteger exponent = new BigInteger(1, Base64.decodeBase64(key.e));
 
-      RSAPublicKeySpec spec = new RSAPublicKeySpec(modulus, exponent);
-      KeyFactory factory = KeyFactory.getInstance("RSA");
-      return factory.generatePublic(spec);
+      return SignatureVerifier.buildRsaPublicKey(modulus, exponent);
     }
 
     private PublicKey buildEs256PublicKey(JsonWebKey key)
@@ -683,13 +1354,7 @@ public class IdTokenVerifier {
 
       BigInteger x = new BigInteger(1, Base64.decodeBase64(key.x));
       BigInteger y = new BigInteger(1, Base64.decodeBase64(key.y));
-      ECPoint pubPoint = new ECPoint(x, y);
-      AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
-      parameters.init(new ECGenParameterSpec("secp256r1"));
-      ECParameterSpec ecParameters = parameters.getParameterSpec(ECParameterSpec.class);
-      ECPublicKeySpec pubSpec = new ECPublicKeySpec(pubPoint, ecParameters);
-      KeyFactory kf = KeyFactory.getInstance("EC");
-      return kf.generatePublic(pubSpec);
+      return SignatureVerifier.buildP256PublicKey(x, y);
     }
   }
 
@@ -704,6 +1369,16 @@ public class IdTokenVerifier {
     }
   }
 
+  /** Holder of the lazily created executor for background key set refreshes. */
+  private static class RefreshExecutorHolder {
+    static final Executor INSTANCE =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("IdTokenVerifier-key-refresh-%d")
+                .build());
+  }
+
   static class DefaultHttpTransportFactory implements HttpTransportFactory {
     public HttpTransport create() {
       return HTTP_TRANSPORT;
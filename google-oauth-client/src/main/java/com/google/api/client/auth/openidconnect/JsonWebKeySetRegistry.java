@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.auth.openidconnect.IdTokenVerifier.DefaultHttpTransportFactory;
+import com.google.api.client.auth.openidconnect.IdTokenVerifier.PublicKeyLoader;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.store.DataStore;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe registry of public key sets shared by any number of {@link IdTokenVerifier}
+ * instances.
+ *
+ * <p>Each certificate location is fetched and parsed once per registry no matter how many verifiers
+ * use it, and all verifiers see the same {@link PublicKey} objects. Key sets are reference counted:
+ * an entry is created when the first verifier acquires it and dropped when the last one releases it
+ * (see {@link IdTokenVerifier#releaseKeySets()}). A single daemon thread per registry refreshes all
+ * live entries in the background. Sample usage:
+ *
+ * <pre>
+ * JsonWebKeySetRegistry registry = JsonWebKeySetRegistry.getDefaultInstance();
+ * IdTokenVerifier verifier = new IdTokenVerifier.Builder()
+ * .setAudience(Arrays.asList(tenantClientId))
+ * .setKeySetRegistry(registry)
+ * .build();
+ * </pre>
+ *
+ * @since 1.40.0
+ */
+public final class JsonWebKeySetRegistry {
+  private static final Logger LOGGER = Logger.getLogger(JsonWebKeySetRegistry.class.getName());
+
+  /** Default value for seconds between background refreshes of a key set (1 hour). */
+  public static final long DEFAULT_REFRESH_INTERVAL_SECONDS = 60 * 60;
+
+  /** Interner used to share equal public keys across certificate locations. */
+  private static final Interner<PublicKey> KEY_INTERNER = Interners.newWeakInterner();
+
+  /** Holder of the lazily created process-wide instance. */
+  private static class DefaultInstanceHolder {
+    static final JsonWebKeySetRegistry INSTANCE = new Builder().build();
+  }
+
+  private final PublicKeyLoader loader;
+  private final Clock clock;
+  private final long refreshIntervalMillis;
+
+  /** Live entries by certificate location, guarded by {@code this}. */
+  private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+  /** Background refresher, created on first acquisition and guarded by {@code this}. */
+  private ScheduledExecutorService refresher;
+
+  /** @param builder builder */
+  JsonWebKeySetRegistry(Builder builder) {
+    this.clock = builder.clock;
+    this.refreshIntervalMillis = TimeUnit.SECONDS.toMillis(builder.refreshIntervalSeconds);
+    this.loader =
+        new PublicKeyLoader(
+            builder.httpTransportFactory == null
+                ? new DefaultHttpTransportFactory()
+                : builder.httpTransportFactory,
+            builder.keySetDataStore,
+            clock,
+            TimeUnit.SECONDS.toMillis(builder.keySetSnapshotMaxAgeSeconds));
+  }
+
+  /**
+   * Returns the process-wide registry, which fetches key sets with {@link
+   * com.google.api.client.http.javanet.NetHttpTransport}.
+   */
+  public static JsonWebKeySetRegistry getDefaultInstance() {
+    return DefaultInstanceHolder.INSTANCE;
+  }
+
+  /** Returns the seconds between background refreshes of a key set. */
+  public long getRefreshIntervalSeconds() {
+    return TimeUnit.MILLISECONDS.toSeconds(refreshIntervalMillis);
+  }
+
+  /**
+   * Acquires a reference to the key set of the given certificate location. The key set itself is
+   * fetched lazily on first use.
+   *
+   * @param certificatesLocation URL to published public keys
+   * @return handle that must be {@link Handle#release() released} when no longer needed
+   */
+  public synchronized Handle acquire(String certificatesLocation) {
+    Preconditions.checkNotNull(certificatesLocation);
+    Entry entry = entries.get(certificatesLocation);
+    if (entry == null) {
+      entry = new Entry(certificatesLocation);
+      entries.put(certificatesLocation, entry);
+    }
+    entry.referenceCount++;
+    if (refresher == null) {
+      refresher =
+          Executors.newSingleThreadScheduledExecutor(
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("JsonWebKeySetRegistry-refresh-%d")
+                  .build());
+      refresher.scheduleWithFixedDelay(
+          new Runnable() {
+            @Override
+            public void run() {
+              refreshAll();
+            }
+          },
+          refreshIntervalMillis,
+          refreshIntervalMillis,
+          TimeUnit.MILLISECONDS);
+    }
+    return new Handle(entry);
+  }
+
+  /** Returns the number of certificate locations currently referenced. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** Returns the loader of the key sets. */
+  @VisibleForTesting
+  PublicKeyLoader getLoader() {
+    return loader;
+  }
+
+  private synchronized void release(Entry entry) {
+    if (--entry.referenceCount == 0) {
+      entries.remove(entry.certificatesLocation);
+      loader.forget(entry.certificatesLocation);
+      if (entries.isEmpty() && refresher != null) {
+        refresher.shutdown();
+        refresher = null;
+      }
+    }
+  }
+
+  /** Refreshes all live entries that have been loaded at least once. */
+  void refreshAll() {
+    List<Entry> snapshot;
+    synchronized (this) {
+      snapshot = new ArrayList<Entry>(entries.values());
+    }
+    for (Entry entry : snapshot) {
+      if (entry.keys != null) {
+        try {
+          entry.reload();
+        } catch (IOException e) {
+          LOGGER.log(
+              Level.WARNING,
+              "Failed to refresh public keys from certificate location "
+                  + entry.certificatesLocation,
+              e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Reference to the shared key set of a certificate location.
+   *
+   * <p>Implementation is thread-safe.
+   */
+  public final class Handle {
+
+    private final Entry entry;
+
+    /** Whether this handle has been released, guarded by the registry. */
+    private boolean released;
+
+    Handle(Entry entry) {
+      this.entry = entry;
+    }
+
+    /** Returns the certificate location of this key set. */
+    public String getCertificatesLocation() {
+      return entry.certificatesLocation;
+    }
+
+    /**
+     * Returns the public keys by key ID, fetching them on first use or if background refreshes have
+     * been failing for more than one refresh interval.
+     *
+     * @throws IOException if the key set could not be fetched
+     */
+    public Map<String, PublicKey> getKeys() throws IOException {
+      return entry.getKeys();
+    }
+
+    /** Releases this reference. Calling it more than once has no effect. */
+    public void release() {
+      synchronized (JsonWebKeySetRegistry.this) {
+        if (released) {
+          return;
+        }
+        released = true;
+      }
+      JsonWebKeySetRegistry.this.release(entry);
+    }
+  }
+
+  /** Shared key set of a single certificate location. */
+  private final class Entry {
+
+    final String certificatesLocation;
+
+    /** Number of unreleased handles, guarded by the registry. */
+    int referenceCount;
+
+    /** Current keys or {@code null} if never loaded. */
+    volatile Map<String, PublicKey> keys;
+
+    /** Time the current keys were loaded in milliseconds. */
+    volatile long loadTimeMillis;
+
+    Entry(String certificatesLocation) {
+      this.certificatesLocation = certificatesLocation;
+    }
+
+    Map<String, PublicKey> getKeys() throws IOException {
+      Map<String, PublicKey> current = keys;
+      if (current != null
+          && clock.currentTimeMillis() - loadTimeMillis <= 2 * refreshIntervalMillis) {
+        return current;
+      }
+      synchronized (this) {
+        // another thread may have loaded the keys while this one was waiting
+        current = keys;
+        if (current != null
+            && clock.currentTimeMillis() - loadTimeMillis <= 2 * refreshIntervalMillis) {
+          return current;
+        }
+        return reload();
+      }
+    }
+
+    synchronized Map<String, PublicKey> reload() throws IOException {
+      Map<String, PublicKey> loaded;
+      try {
+        loaded = loader.load(certificatesLocation);
+      } catch (IOException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new IOException(
+            "Error fetching public key from certificate location " + certificatesLocation, e);
+      }
+      ImmutableMap.Builder<String, PublicKey> interned = ImmutableMap.builder();
+      for (Map.Entry<String, PublicKey> key : loaded.entrySet()) {
+        interned.put(key.getKey(), KEY_INTERNER.intern(key.getValue()));
+      }
+      Map<String, PublicKey> result = interned.build();
+      keys = result;
+      loadTimeMillis = clock.currentTimeMillis();
+      synchronized (JsonWebKeySetRegistry.this) {
+        // the last handle may have been released during a background refresh
+        if (!entries.containsKey(certificatesLocation)) {
+          loader.forget(certificatesLocation);
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Builder for {@link JsonWebKeySetRegistry}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static final class Builder {
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Seconds between background refreshes of a key set. */
+    long refreshIntervalSeconds = DEFAULT_REFRESH_INTERVAL_SECONDS;
+
+    HttpTransportFactory httpTransportFactory;
+
+    /** Data store for key set snapshots or {@code null} for none. */
+    DataStore<JsonWebKeySetSnapshot> keySetDataStore;
+
+    /** Maximum age in seconds of a key set snapshot that may be used. */
+    long keySetSnapshotMaxAgeSeconds = IdTokenVerifier.DEFAULT_KEY_SET_SNAPSHOT_MAX_AGE_SECONDS;
+
+    /** Builds a new instance of {@link JsonWebKeySetRegistry}. */
+    public JsonWebKeySetRegistry build() {
+      return new JsonWebKeySetRegistry(this);
+    }
+
+    /** Sets the clock. */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /**
+     * Sets the seconds between background refreshes of a key set (default is {@link
+     * #DEFAULT_REFRESH_INTERVAL_SECONDS}).
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setRefreshIntervalSeconds(long refreshIntervalSeconds) {
+      Preconditions.checkArgument(refreshIntervalSeconds > 0);
+      this.refreshIntervalSeconds = refreshIntervalSeconds;
+      return this;
+    }
+
+    /** Sets the HttpTransportFactory used for requesting public keys from certificate locations. */
+    public Builder setHttpTransportFactory(HttpTransportFactory httpTransportFactory) {
+      this.httpTransportFactory = httpTransportFactory;
+      return this;
+    }
+
+    /**
+     * Sets the data store used to persist key set snapshots or {@code null} for none.
+     *
+     * @see IdTokenVerifier.Builder#setKeySetDataStoreFactory
+     */
+    public Builder setKeySetDataStore(DataStore<JsonWebKeySetSnapshot> keySetDataStore) {
+      this.keySetDataStore = keySetDataStore;
+      return this;
+    }
+
+    /**
+     * Sets the maximum age in seconds of a key set snapshot that may be used (default is {@link
+     * IdTokenVerifier#DEFAULT_KEY_SET_SNAPSHOT_MAX_AGE_SECONDS}).
+     *
+     * <p>It must be greater or equal to zero.
+     */
+    public Builder setKeySetSnapshotMaxAgeSeconds(long keySetSnapshotMaxAgeSeconds) {
+      Preconditions.checkArgument(keySetSnapshotMaxAgeSeconds >= 0);
+      this.keySetSnapshotMaxAgeSeconds = keySetSnapshotMaxAgeSeconds;
+      return this;
+    }
+  }
+}
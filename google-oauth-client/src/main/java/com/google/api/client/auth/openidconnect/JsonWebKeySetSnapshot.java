@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.util.Base64;
+import com.google.api.client.util.Objects;
+import com.google.api.client.util.StringUtils;
+import com.google.api.client.util.store.DataStore;
+import com.google.api.client.util.store.DataStoreFactory;
+import java.io.IOException;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Last successfully fetched public key set of a certificate location, to be stored in a {@link
+ * DataStoreFactory} so that an {@link IdTokenVerifier} can verify tokens right after start-up or
+ * while the certificate location is unavailable.
+ *
+ * <p>The snapshot keeps the raw key set document together with its SHA-256 digest, which is checked
+ * before the snapshot is used.
+ *
+ * <p>Implementation is immutable and thread-safe.
+ *
+ * @since 1.40.0
+ */
+public final class JsonWebKeySetSnapshot implements Serializable {
+
+  /** Default data store ID. */
+  public static final String DEFAULT_DATA_STORE_ID = JsonWebKeySetSnapshot.class.getSimpleName();
+
+  private static final long serialVersionUID = 1L;
+
+  /** Certificate location the key set was fetched from. */
+  private final String certificatesLocation;
+
+  /** Raw key set document. */
+  private final String content;
+
+  /** Time the key set was fetched in milliseconds. */
+  private final long fetchTimeMilliseconds;
+
+  /** Base64 encoded SHA-256 digest of the certificate location and the content. */
+  private final String digest;
+
+  /**
+   * @param certificatesLocation certificate location the key set was fetched from
+   * @param content raw key set document
+   * @param fetchTimeMilliseconds time the key set was fetched in milliseconds
+   */
+  public JsonWebKeySetSnapshot(
+      String certificatesLocation, String content, long fetchTimeMilliseconds) {
+    this.certificatesLocation = certificatesLocation;
+    this.content = content;
+    this.fetchTimeMilliseconds = fetchTimeMilliseconds;
+    this.digest = computeDigest(certificatesLocation, content);
+  }
+
+  /** Returns the certificate location the key set was fetched from. */
+  public String getCertificatesLocation() {
+    return certificatesLocation;
+  }
+
+  /** Returns the raw key set document. */
+  public String getContent() {
+    return content;
+  }
+
+  /** Returns the time the key set was fetched in milliseconds. */
+  public long getFetchTimeMilliseconds() {
+    return fetchTimeMilliseconds;
+  }
+
+  /**
+   * Returns whether the snapshot is intact, belongs to the given certificate location and is not
+   * older than the given maximum age.
+   *
+   * @param certificatesLocation expected certificate location
+   * @param currentTimeMillis current time in milliseconds
+   * @param maxAgeMillis maximum accepted age in milliseconds
+   */
+  public boolean isUsable(String certificatesLocation, long currentTimeMillis, long maxAgeMillis) {
+    return content != null
+        && Objects.equal(this.certificatesLocation, certificatesLocation)
+        && currentTimeMillis - fetchTimeMilliseconds <= maxAgeMillis
+        && MessageDigest.isEqual(
+            StringUtils.getBytesUtf8(digest),
+            StringUtils.getBytesUtf8(computeDigest(certificatesLocation, content)));
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(JsonWebKeySetSnapshot.class)
+        .add("certificatesLocation", certificatesLocation)
+        .add("fetchTimeMilliseconds", fetchTimeMilliseconds)
+        .toString();
+  }
+
+  private static String computeDigest(String certificatesLocation, String content) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      sha256.update(StringUtils.getBytesUtf8(String.valueOf(certificatesLocation)));
+      sha256.update((byte) 0);
+      sha256.update(StringUtils.getBytesUtf8(String.valueOf(content)));
+      return Base64.encodeBase64String(sha256.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns the data store for key set snapshots using the ID {@link #DEFAULT_DATA_STORE_ID}.
+   *
+   * @param dataStoreFactory data store factory
+   * @return key set snapshot data store
+   */
+  public static DataStore<JsonWebKeySetSnapshot> getDefaultDataStore(
+      DataStoreFactory dataStoreFactory) throws IOException {
+    return dataStoreFactory.getDataStore(DEFAULT_DATA_STORE_ID);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.util.Preconditions;
+import java.util.List;
+
+/**
+ * Verified JWT access token as specified in <a href="https://www.rfc-editor.org/rfc/rfc9068">RFC
+ * 9068: JSON Web Token (JWT) Profile for OAuth 2.0 Access Tokens</a>.
+ *
+ * <p>Instances are returned by {@link JwtAccessTokenVerifier#verify}. Scopes known to the verifier
+ * are held as a bitset, so that {@link #hasScope(String)} and {@link
+ * #hasScopes(JwtAccessTokenVerifier.ScopeMask)} do not need to split or compare strings. Sample
+ * usage:
+ *
+ * <pre>
+ * static final JwtAccessTokenVerifier.ScopeMask WRITE = verifier.getScopeMask("files.write");
+ * ...
+ * JwtAccessToken accessToken = verifier.verify(jsonFactory, bearerToken);
+ * if (accessToken == null || !accessToken.hasScopes(WRITE)) {
+ *   // respond with 401 or 403
+ * }
+ * </pre>
+ *
+ * <p>Implementation is immutable and thread-safe.
+ *
+ * @since 1.40.0
+ */
+public final class JwtAccessToken {
+
+  /** Verifier that verified the token and owns the scope bit indices. */
+  private final JwtAccessTokenVerifier verifier;
+
+  /** Claims of the token. */
+  private final IdTokenClaims claims;
+
+  /** Bits of the known scopes granted by the token. */
+  private final long[] scopeBits;
+
+  JwtAccessToken(JwtAccessTokenVerifier verifier, IdTokenClaims claims, long[] scopeBits) {
+    this.verifier = verifier;
+    this.claims = claims;
+    this.scopeBits = scopeBits;
+  }
+
+  /**
+   * Returns the claims of the token, which include {@code "sub"}, {@code "client_id"}, {@code
+   * "scope"} and the {@link JwtAccessTokenVerifier.Builder#setClaimNames(String...) claims
+   * configured} on the verifier.
+   */
+  public IdTokenClaims getClaims() {
+    return claims;
+  }
+
+  /** Returns the issuer ({@code "iss"}). */
+  public String getIssuer() {
+    return claims.getIssuer();
+  }
+
+  /** Returns the subject ({@code "sub"}) or {@code null} for none. */
+  public String getSubject() {
+    return getStringClaim(JwtAccessTokenVerifier.SUBJECT);
+  }
+
+  /** Returns the client ID ({@code "client_id"}) or {@code null} for none. */
+  public String getClientId() {
+    return getStringClaim(JwtAccessTokenVerifier.CLIENT_ID);
+  }
+
+  /** Returns the audience ({@code "aud"}) as a list. */
+  public List<String> getAudience() {
+    return JwtAccessTokenVerifier.toList(claims.getAudience());
+  }
+
+  /** Returns the expiration time ({@code "exp"}) in seconds. */
+  public long getExpirationTimeSeconds() {
+    return claims.getExpirationTimeSeconds();
+  }
+
+  /** Returns the space-separated scopes ({@code "scope"}) or {@code null} for none. */
+  public String getScope() {
+    return getStringClaim(JwtAccessTokenVerifier.SCOPE);
+  }
+
+  private String getStringClaim(String claimName) {
+    Object value = claims.get(claimName);
+    return value instanceof String ? (String) value : null;
+  }
+
+  /** Returns whether the token grants the given scope. */
+  public boolean hasScope(String scope) {
+    int index = verifier.getScopeIndex(scope);
+    if (index >= 0) {
+      return (scopeBits[index >>> 6] & (1L << index)) != 0;
+    }
+    return JwtAccessTokenVerifier.containsScope(getScope(), scope);
+  }
+
+  /**
+   * Returns whether the token grants all scopes of the given mask.
+   *
+   * @param scopeMask scope mask obtained from the verifier that returned this token
+   */
+  public boolean hasScopes(JwtAccessTokenVerifier.ScopeMask scopeMask) {
+    Preconditions.checkArgument(
+        scopeMask.getVerifier() == verifier, "scope mask belongs to a different verifier");
+    return scopeMask.isSubsetOf(scopeBits);
+  }
+}
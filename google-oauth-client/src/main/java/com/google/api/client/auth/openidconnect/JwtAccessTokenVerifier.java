@@ -0,0 +1,616 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.auth.openidconnect.IdTokenVerifier.VerificationException;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebSignature.Header;
+import com.google.api.client.util.Base64;
+import com.google.api.client.util.Charsets;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.StringUtils;
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe verifier of JWT access tokens as specified in <a
+ * href="https://www.rfc-editor.org/rfc/rfc9068">RFC 9068: JSON Web Token (JWT) Profile for OAuth
+ * 2.0 Access Tokens</a>, meant for resource servers.
+ *
+ * <p>Public keys are fetched, cached and refreshed exactly as by {@link IdTokenVerifier}, including
+ * the optional {@link JsonWebKeySetRegistry shared registry}. Sample usage:
+ *
+ * <pre>
+ * JwtAccessTokenVerifier verifier = new JwtAccessTokenVerifier.Builder()
+ * .setIssuer("https://as.example.com")
+ * .setAudience(Arrays.asList("https://api.example.com"))
+ * .setCertificatesLocation("https://as.example.com/jwks")
+ * .setKnownScopes(Arrays.asList("files.read", "files.write"))
+ * .build();
+ * ...
+ * JwtAccessToken accessToken = verifier.verify(jsonFactory, bearerToken);
+ * if (accessToken == null) {...}
+ * </pre>
+ *
+ * <p>It verifies:
+ *
+ * <ul>
+ *   <li>The {@code "typ"} header is {@code "at+jwt"} or {@code "application/at+jwt"}.
+ *   <li>The issuer is one of {@link #getIssuers()}.
+ *   <li>The audience contains at least one of {@link #getAudience()}.
+ *   <li>The expiration time and, if present, the issued at time against the current time, allowing
+ *       for a time skew specified in {@link #getAcceptableTimeSkewSeconds()}.
+ *   <li>The token grants all {@link Builder#setRequiredScopes(Collection) required scopes}.
+ *   <li>The RS256 or ES256 signature, with the keys published at the required {@link
+ *       Builder#setCertificatesLocation(String) certificates location}. Unlike {@link
+ *       IdTokenVerifier}, the {@code OAUTH_CLIENT_SKIP_SIGNATURE} environment variable is ignored.
+ * </ul>
+ *
+ * <p>Scopes passed to {@link Builder#setKnownScopes(Collection)} are assigned bit indices once, so
+ * that scope checks on verified tokens are bit operations, see {@link #getScopeMask(String...)}.
+ *
+ * @since 1.40.0
+ */
+public class JwtAccessTokenVerifier {
+  private static final Logger LOGGER = Logger.getLogger(JwtAccessTokenVerifier.class.getName());
+
+  /** Access token type ({@code "typ"} header) required by RFC 9068. */
+  public static final String ACCESS_TOKEN_TYPE = "at+jwt";
+
+  static final String SUBJECT = "sub";
+  static final String CLIENT_ID = "client_id";
+  static final String SCOPE = "scope";
+
+  /**
+   * Environment without any variable, so that signature checks can never be skipped with {@link
+   * IdTokenVerifier#SKIP_SIGNATURE_ENV_VAR}.
+   */
+  private static final Environment NO_ENVIRONMENT =
+      new Environment() {
+        @Override
+        public String getVariable(String name) {
+          return null;
+        }
+      };
+
+  /** Verifier used for its public keys and signature checks. */
+  private final IdTokenVerifier signatureVerifier;
+
+  /** Clock to use for expiration checks. */
+  private final Clock clock;
+
+  /** Seconds of time skew to accept when verifying time. */
+  private final long acceptableTimeSkewSeconds;
+
+  /** Unmodifiable set of accepted issuers. */
+  private final Set<String> issuers;
+
+  /** Unmodifiable set of accepted audiences. */
+  private final Set<String> audience;
+
+  /** Bit index by known scope. */
+  private final ImmutableMap<String, Integer> scopeIndices;
+
+  /** Scopes that every accepted token must grant. */
+  private final ScopeMask requiredScopes;
+
+  /** Claims read from the payload. */
+  private final IdTokenClaims.Projection projection;
+
+  /** @param builder builder */
+  protected JwtAccessTokenVerifier(Builder builder) {
+    Preconditions.checkArgument(builder.issuers != null, "issuers must be set");
+    Preconditions.checkArgument(builder.audience != null, "audience must be set");
+    Preconditions.checkArgument(
+        builder.certificatesLocation != null, "certificates location must be set");
+    this.clock = builder.clock;
+    this.acceptableTimeSkewSeconds = builder.acceptableTimeSkewSeconds;
+    this.issuers = Collections.unmodifiableSet(new LinkedHashSet<String>(builder.issuers));
+    this.audience = Collections.unmodifiableSet(new LinkedHashSet<String>(builder.audience));
+    ImmutableMap.Builder<String, Integer> indices = ImmutableMap.builder();
+    int index = 0;
+    Set<String> knownScopes = new LinkedHashSet<String>(builder.knownScopes);
+    knownScopes.addAll(builder.requiredScopes);
+    for (String scope : knownScopes) {
+      indices.put(scope, index++);
+    }
+    this.scopeIndices = indices.build();
+    this.requiredScopes = getScopeMask(builder.requiredScopes.toArray(new String[0]));
+    Set<String> claimNames = new LinkedHashSet<String>(Arrays.asList(SUBJECT, CLIENT_ID, SCOPE));
+    claimNames.addAll(builder.claimNames);
+    this.projection = IdTokenClaims.projection(claimNames.toArray(new String[0]));
+    this.signatureVerifier =
+        new IdTokenVerifier.Builder()
+            .setClock(builder.clock)
+            .setCertificatesLocation(builder.certificatesLocation)
+            .setHttpTransportFactory(builder.httpTransportFactory)
+            .setKeySetRegistry(builder.keySetRegistry)
+            .setEnvironment(NO_ENVIRONMENT)
+            .build();
+  }
+
+  /** Returns the clock. */
+  public final Clock getClock() {
+    return clock;
+  }
+
+  /** Returns the seconds of time skew to accept when verifying time. */
+  public final long getAcceptableTimeSkewSeconds() {
+    return acceptableTimeSkewSeconds;
+  }
+
+  /** Returns the unmodifiable set of accepted issuers. */
+  public final Set<String> getIssuers() {
+    return issuers;
+  }
+
+  /** Returns the unmodifiable set of accepted audiences. */
+  public final Set<String> getAudience() {
+    return audience;
+  }
+
+  /** Returns the unmodifiable set of known scopes, in bit index order. */
+  public final Set<String> getKnownScopes() {
+    return scopeIndices.keySet();
+  }
+
+  /**
+   * Returns the mask of the given known scopes, to be checked with {@link
+   * JwtAccessToken#hasScopes(ScopeMask)}. Masks are immutable and meant to be created once and
+   * shared.
+   *
+   * @throws IllegalArgumentException if a scope is not one of {@link #getKnownScopes()}
+   */
+  public final ScopeMask getScopeMask(String... scopes) {
+    long[] bits = new long[(scopeIndices.size() + 63) >>> 6];
+    for (String scope : scopes) {
+      Integer index = scopeIndices.get(scope);
+      Preconditions.checkArgument(index != null, "unknown scope: %s", scope);
+      bits[index >>> 6] |= 1L << index;
+    }
+    return new ScopeMask(this, bits);
+  }
+
+  /** Returns the bit index of the given scope or {@code -1} if unknown. */
+  int getScopeIndex(String scope) {
+    Integer index = scopeIndices.get(scope);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Releases the key sets acquired from the {@link Builder#setKeySetRegistry key set registry}, if
+   * any. See {@link IdTokenVerifier#releaseKeySets()}.
+   */
+  public void releaseKeySets() {
+    signatureVerifier.releaseKeySets();
+  }
+
+  /**
+   * Verifies the given access token string.
+   *
+   * @param jsonFactory JSON factory
+   * @param accessTokenString JWT access token string
+   * @return the verified access token or {@code null} if verification failed
+   * @throws IOException if verification fails to run. For example, if it fails to get public keys
+   *     for signature verification.
+   */
+  public JwtAccessToken verify(JsonFactory jsonFactory, String accessTokenString)
+      throws IOException {
+    int firstDot = accessTokenString.indexOf('.');
+    int secondDot = firstDot == -1 ? -1 : accessTokenString.indexOf('.', firstDot + 1);
+    if (secondDot == -1 || accessTokenString.indexOf('.', secondDot + 1) != -1) {
+      LOGGER.log(Level.INFO, "Access token is not a well-formed JWS.");
+      return null;
+    }
+
+    Header header;
+    IdTokenClaims claims;
+    try {
+      header =
+          IdTokenVerifier.parseHeader(
+              jsonFactory, Base64.decodeBase64(accessTokenString.substring(0, firstDot)));
+      JsonParser parser =
+          jsonFactory.createJsonParser(
+              new ByteArrayInputStream(
+                  Base64.decodeBase64(accessTokenString.substring(firstDot + 1, secondDot))),
+              Charsets.UTF_8);
+      try {
+        claims = IdTokenClaims.parse(parser, projection);
+      } finally {
+        parser.close();
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      LOGGER.log(Level.INFO, "Access token could not be parsed. ", e);
+      return null;
+    }
+
+    String type = header.getType();
+    if (!ACCESS_TOKEN_TYPE.equalsIgnoreCase(type)
+        && !("application/" + ACCESS_TOKEN_TYPE).equalsIgnoreCase(type)) {
+      LOGGER.log(Level.INFO, "Access token has unexpected type: " + type);
+      return null;
+    }
+    if (!verifyClaims(claims)) {
+      return null;
+    }
+    Object scope = claims.get(SCOPE);
+    if (scope != null && !(scope instanceof String)) {
+      return null;
+    }
+    long[] scopeBits = parseScopes((String) scope);
+    if (!requiredScopes.isSubsetOf(scopeBits)) {
+      return null;
+    }
+
+    JsonWebSignature jws =
+        new JsonWebSignature(
+            header,
+            IdTokenVerifier.EMPTY_PAYLOAD,
+            Base64.decodeBase64(accessTokenString.substring(secondDot + 1)),
+            StringUtils.getBytesUtf8(accessTokenString.substring(0, secondDot)));
+    try {
+      if (!signatureVerifier.verifySignature(jws)) {
+        return null;
+      }
+    } catch (VerificationException ex) {
+      LOGGER.log(Level.INFO, "Access token signature verification failed. ", ex);
+      return null;
+    }
+    return new JwtAccessToken(this, claims, scopeBits);
+  }
+
+  /** Checks issuer, audience and time of the given claims. */
+  private boolean verifyClaims(IdTokenClaims claims) {
+    if (!issuers.contains(claims.getIssuer())) {
+      return false;
+    }
+    Object tokenAudience = claims.getAudience();
+    if (tokenAudience instanceof String) {
+      if (!audience.contains(tokenAudience)) {
+        return false;
+      }
+    } else if (tokenAudience instanceof List) {
+      List<?> tokenAudienceList = (List<?>) tokenAudience;
+      boolean found = false;
+      for (int i = 0; i < tokenAudienceList.size() && !found; i++) {
+        found = audience.contains(tokenAudienceList.get(i));
+      }
+      if (!found) {
+        return false;
+      }
+    } else {
+      return false;
+    }
+    Long expirationTimeSeconds = claims.getExpirationTimeSeconds();
+    if (expirationTimeSeconds == null) {
+      return false;
+    }
+    long currentTimeMillis = clock.currentTimeMillis();
+    Long issuedAtTimeSeconds = claims.getIssuedAtTimeSeconds();
+    return currentTimeMillis <= (expirationTimeSeconds + acceptableTimeSkewSeconds) * 1000
+        && (issuedAtTimeSeconds == null
+            || currentTimeMillis >= (issuedAtTimeSeconds - acceptableTimeSkewSeconds) * 1000);
+  }
+
+  /** Returns the bits of the known scopes in the given space-separated scope string. */
+  private long[] parseScopes(String scope) {
+    long[] bits = new long[(scopeIndices.size() + 63) >>> 6];
+    if (scope == null || bits.length == 0) {
+      return bits;
+    }
+    int start = 0;
+    int length = scope.length();
+    while (start < length) {
+      int end = scope.indexOf(' ', start);
+      if (end == -1) {
+        end = length;
+      }
+      if (end > start) {
+        Integer index = scopeIndices.get(scope.substring(start, end));
+        if (index != null) {
+          bits[index >>> 6] |= 1L << index;
+        }
+      }
+      start = end + 1;
+    }
+    return bits;
+  }
+
+  /** Returns whether the given space-separated scope string contains the given scope. */
+  static boolean containsScope(String scopes, String scope) {
+    if (scopes == null || scope.isEmpty()) {
+      return false;
+    }
+    int from = 0;
+    int index;
+    while ((index = scopes.indexOf(scope, from)) != -1) {
+      int end = index + scope.length();
+      if ((index == 0 || scopes.charAt(index - 1) == ' ')
+          && (end == scopes.length() || scopes.charAt(end) == ' ')) {
+        return true;
+      }
+      from = index + 1;
+    }
+    return false;
+  }
+
+  /** Returns the given {@code "aud"} claim value as a list. */
+  @SuppressWarnings("unchecked")
+  static List<String> toList(Object audience) {
+    if (audience == null) {
+      return Collections.emptyList();
+    }
+    if (audience instanceof String) {
+      return Collections.singletonList((String) audience);
+    }
+    return (List<String>) audience;
+  }
+
+  /**
+   * Immutable set of known scopes of a verifier, represented as a bitset.
+   *
+   * <p>Create instances with {@link JwtAccessTokenVerifier#getScopeMask(String...)}.
+   */
+  public static final class ScopeMask {
+
+    private final JwtAccessTokenVerifier verifier;
+    private final long[] bits;
+
+    ScopeMask(JwtAccessTokenVerifier verifier, long[] bits) {
+      this.verifier = verifier;
+      this.bits = bits;
+    }
+
+    JwtAccessTokenVerifier getVerifier() {
+      return verifier;
+    }
+
+    /** Returns whether all bits of this mask are set in the given bits. */
+    boolean isSubsetOf(long[] otherBits) {
+      for (int i = 0; i < bits.length; i++) {
+        if ((bits[i] & ~otherBits[i]) != 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Builder for {@link JwtAccessTokenVerifier}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static class Builder {
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Seconds of time skew to accept when verifying time. */
+    long acceptableTimeSkewSeconds = IdTokenVerifier.DEFAULT_TIME_SKEW_SECONDS;
+
+    /** Accepted issuers. */
+    Collection<String> issuers;
+
+    /** Accepted audiences. */
+    Collection<String> audience;
+
+    /** URL of the published public keys. */
+    String certificatesLocation;
+
+    HttpTransportFactory httpTransportFactory;
+
+    /** Shared key set registry or {@code null} to cache key sets privately. */
+    JsonWebKeySetRegistry keySetRegistry;
+
+    /** Scopes that are assigned bit indices. */
+    Collection<String> knownScopes = Collections.emptyList();
+
+    /** Scopes that every accepted token must grant. */
+    Collection<String> requiredScopes = Collections.emptyList();
+
+    /** Additional claims to read from the payload. */
+    Collection<String> claimNames = Collections.emptyList();
+
+    /** Builds a new instance of {@link JwtAccessTokenVerifier}. */
+    public JwtAccessTokenVerifier build() {
+      return new JwtAccessTokenVerifier(this);
+    }
+
+    /** Returns the clock. */
+    public final Clock getClock() {
+      return clock;
+    }
+
+    /**
+     * Sets the clock.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /** Returns the seconds of time skew to accept when verifying time. */
+    public final long getAcceptableTimeSkewSeconds() {
+      return acceptableTimeSkewSeconds;
+    }
+
+    /**
+     * Sets the seconds of time skew to accept when verifying time (default is {@link
+     * IdTokenVerifier#DEFAULT_TIME_SKEW_SECONDS}).
+     *
+     * <p>It must be greater or equal to zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setAcceptableTimeSkewSeconds(long acceptableTimeSkewSeconds) {
+      Preconditions.checkArgument(acceptableTimeSkewSeconds >= 0);
+      this.acceptableTimeSkewSeconds = acceptableTimeSkewSeconds;
+      return this;
+    }
+
+    /** Returns the accepted issuers. */
+    public final Collection<String> getIssuers() {
+      return issuers;
+    }
+
+    /**
+     * Sets the accepted issuer, which is required.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setIssuer(String issuer) {
+      return setIssuers(Collections.singleton(Preconditions.checkNotNull(issuer)));
+    }
+
+    /**
+     * Sets the accepted equivalent issuers, which are required and must not be empty.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setIssuers(Collection<String> issuers) {
+      Preconditions.checkArgument(!issuers.isEmpty(), "Issuers must not be empty");
+      this.issuers = issuers;
+      return this;
+    }
+
+    /** Returns the accepted audiences. */
+    public final Collection<String> getAudience() {
+      return audience;
+    }
+
+    /**
+     * Sets the accepted audiences, typically the resource indicators of this resource server, which
+     * are required. A token is accepted if its audience contains at least one of them.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setAudience(Collection<String> audience) {
+      this.audience = Preconditions.checkNotNull(audience);
+      return this;
+    }
+
+    /** Returns the URL of the published public keys. */
+    public final String getCertificatesLocation() {
+      return certificatesLocation;
+    }
+
+    /**
+     * Sets the URL of the published public keys of the authorization server, typically its {@code
+     * jwks_uri}.
+     *
+     * <p>It is required, since the default keys of {@link IdTokenVerifier} are those of Google.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setCertificatesLocation(String certificatesLocation) {
+      this.certificatesLocation = certificatesLocation;
+      return this;
+    }
+
+    /**
+     * Sets the HttpTransportFactory used for requesting public keys from the certificate location.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setHttpTransportFactory(HttpTransportFactory httpTransportFactory) {
+      this.httpTransportFactory = httpTransportFactory;
+      return this;
+    }
+
+    /**
+     * Sets the shared key set registry to get public keys from or {@code null} to cache key sets
+     * privately (the default).
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setKeySetRegistry(JsonWebKeySetRegistry keySetRegistry) {
+      this.keySetRegistry = keySetRegistry;
+      return this;
+    }
+
+    /** Returns the scopes that are assigned bit indices. */
+    public final Collection<String> getKnownScopes() {
+      return knownScopes;
+    }
+
+    /**
+     * Sets the scopes that are assigned bit indices for fast scope checks. Required scopes are
+     * added automatically.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setKnownScopes(Collection<String> knownScopes) {
+      this.knownScopes = Preconditions.checkNotNull(knownScopes);
+      return this;
+    }
+
+    /** Returns the scopes that every accepted token must grant. */
+    public final Collection<String> getRequiredScopes() {
+      return requiredScopes;
+    }
+
+    /**
+     * Sets the scopes that every accepted token must grant (default is none).
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setRequiredScopes(Collection<String> requiredScopes) {
+      this.requiredScopes = Preconditions.checkNotNull(requiredScopes);
+      return this;
+    }
+
+    /** Returns the additional claims to read from the payload. */
+    public final Collection<String> getClaimNames() {
+      return claimNames;
+    }
+
+    /**
+     * Sets the additional claims to read from the payload and expose through {@link
+     * JwtAccessToken#getClaims()}.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setClaimNames(String... claimNames) {
+      this.claimNames = Arrays.asList(claimNames);
+      return this;
+    }
+  }
+}
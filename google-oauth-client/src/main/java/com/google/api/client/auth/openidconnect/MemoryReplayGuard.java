@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory {@link ReplayGuard} with a fixed memory ceiling.
+ *
+ * <p>Token identifiers are recorded in two tiers:
+ *
+ * <ul>
+ *   <li>an exact tier that holds the most recently seen identifiers, bounded by {@link
+ *       Builder#setExactTierSize(int)}, which also makes concurrent presentations of the same token
+ *       race-free;
+ *   <li>Bloom filters, one per time bucket of {@link Builder#setBucketSeconds(long)} seconds, into
+ *       which each identifier is put according to the time until which its token is accepted. A
+ *       bucket is dropped as a whole once all tokens in it have expired.
+ * </ul>
+ *
+ * <p>At most {@code maxTokenLifetimeSeconds / bucketSeconds + 2} buckets exist at any time, each
+ * sized for {@link Builder#setExpectedInsertionsPerBucket(int)} identifiers, so memory use does not
+ * grow with traffic. Exceeding the expected insertions raises the false positive probability of a
+ * bucket, which leads to genuine tokens being rejected as replays, never to replays being accepted.
+ * Tokens that are accepted for longer than {@link Builder#setMaxTokenLifetimeSeconds(long)} from
+ * now cannot be tracked and are rejected. Sample usage:
+ *
+ * <pre>
+ * IdTokenVerifier verifier = new IdTokenVerifier.Builder()
+ * .setAudience(Arrays.asList("myClientId"))
+ * .setReplayGuard(new MemoryReplayGuard.Builder()
+ * .setExpectedInsertionsPerBucket(1000000)
+ * .build())
+ * .build();
+ * </pre>
+ *
+ * <p>Implementation is thread-safe.
+ *
+ * @since 1.40.0
+ */
+public final class MemoryReplayGuard implements ReplayGuard {
+
+  /** Default value for the seconds covered by a single Bloom filter bucket (5 minutes). */
+  public static final long DEFAULT_BUCKET_SECONDS = 5 * 60;
+
+  /** Default value for the maximum token lifetime in seconds that can be tracked (2 hours). */
+  public static final long DEFAULT_MAX_TOKEN_LIFETIME_SECONDS = 2 * 60 * 60;
+
+  /** Default value for the number of identifiers each bucket is sized for. */
+  public static final int DEFAULT_EXPECTED_INSERTIONS_PER_BUCKET = 100000;
+
+  /** Default value for the false positive probability of a bucket. */
+  public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 1e-6;
+
+  /** Default value for the number of recent identifiers held exactly. */
+  public static final int DEFAULT_EXACT_TIER_SIZE = 10000;
+
+  private final Clock clock;
+  private final long bucketSeconds;
+  private final long maxTokenLifetimeSeconds;
+  private final int expectedInsertionsPerBucket;
+  private final double falsePositiveProbability;
+
+  /** Recently seen identifiers. */
+  private final ConcurrentMap<String, Boolean> exactTier;
+
+  /** Bloom filters by bucket index, which is the accepted-until time divided by bucket seconds. */
+  private final ConcurrentMap<Long, BloomFilter<CharSequence>> buckets =
+      new ConcurrentHashMap<Long, BloomFilter<CharSequence>>();
+
+  public MemoryReplayGuard() {
+    this(new Builder());
+  }
+
+  /** @param builder builder */
+  MemoryReplayGuard(Builder builder) {
+    clock = builder.clock;
+    bucketSeconds = builder.bucketSeconds;
+    maxTokenLifetimeSeconds = builder.maxTokenLifetimeSeconds;
+    expectedInsertionsPerBucket = builder.expectedInsertionsPerBucket;
+    falsePositiveProbability = builder.falsePositiveProbability;
+    exactTier =
+        CacheBuilder.newBuilder()
+            .maximumSize(builder.exactTierSize)
+            .<String, Boolean>build()
+            .asMap();
+  }
+
+  @Override
+  public boolean checkAndRecord(String issuer, String tokenId, long acceptedUntilSeconds) {
+    long nowSeconds = TimeUnit.MILLISECONDS.toSeconds(clock.currentTimeMillis());
+    long currentIndex = nowSeconds / bucketSeconds;
+    long index = acceptedUntilSeconds / bucketSeconds;
+    if (index > (nowSeconds + maxTokenLifetimeSeconds) / bucketSeconds) {
+      return false;
+    }
+    String key = issuer + '\0' + tokenId;
+    if (exactTier.putIfAbsent(key, Boolean.TRUE) != null) {
+      return false;
+    }
+    if (index < currentIndex) {
+      // already expired, so it can neither be accepted nor replayed
+      return true;
+    }
+    BloomFilter<CharSequence> bucket = buckets.get(index);
+    if (bucket == null) {
+      bucket =
+          BloomFilter.create(
+              Funnels.unencodedCharsFunnel(),
+              expectedInsertionsPerBucket,
+              falsePositiveProbability);
+      BloomFilter<CharSequence> existing = buckets.putIfAbsent(index, bucket);
+      if (existing != null) {
+        bucket = existing;
+      } else {
+        dropExpiredBuckets(currentIndex);
+      }
+    }
+    // put returns false if all bits were set already, i.e. the key might have been seen
+    return bucket.put(key);
+  }
+
+  /** Returns the number of live Bloom filter buckets. */
+  int getBucketCount() {
+    return buckets.size();
+  }
+
+  private void dropExpiredBuckets(long currentIndex) {
+    for (Iterator<Long> iterator = buckets.keySet().iterator(); iterator.hasNext(); ) {
+      if (iterator.next() < currentIndex) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Builder for {@link MemoryReplayGuard}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static final class Builder {
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Seconds covered by a single Bloom filter bucket. */
+    long bucketSeconds = DEFAULT_BUCKET_SECONDS;
+
+    /** Maximum token lifetime in seconds that can be tracked. */
+    long maxTokenLifetimeSeconds = DEFAULT_MAX_TOKEN_LIFETIME_SECONDS;
+
+    /** Number of identifiers each bucket is sized for. */
+    int expectedInsertionsPerBucket = DEFAULT_EXPECTED_INSERTIONS_PER_BUCKET;
+
+    /** False positive probability of a bucket. */
+    double falsePositiveProbability = DEFAULT_FALSE_POSITIVE_PROBABILITY;
+
+    /** Number of recent identifiers held exactly. */
+    int exactTierSize = DEFAULT_EXACT_TIER_SIZE;
+
+    /** Builds a new instance of {@link MemoryReplayGuard}. */
+    public MemoryReplayGuard build() {
+      return new MemoryReplayGuard(this);
+    }
+
+    /** Sets the clock. */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /**
+     * Sets the seconds covered by a single Bloom filter bucket (default is {@link
+     * #DEFAULT_BUCKET_SECONDS}).
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setBucketSeconds(long bucketSeconds) {
+      Preconditions.checkArgument(bucketSeconds > 0);
+      this.bucketSeconds = bucketSeconds;
+      return this;
+    }
+
+    /**
+     * Sets the maximum token lifetime in seconds that can be tracked (default is {@link
+     * #DEFAULT_MAX_TOKEN_LIFETIME_SECONDS}). It must cover the lifetime of the tokens of all
+     * issuers plus the acceptable time skew of the verifier.
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setMaxTokenLifetimeSeconds(long maxTokenLifetimeSeconds) {
+      Preconditions.checkArgument(maxTokenLifetimeSeconds > 0);
+      this.maxTokenLifetimeSeconds = maxTokenLifetimeSeconds;
+      return this;
+    }
+
+    /**
+     * Sets the number of identifiers each bucket is sized for (default is {@link
+     * #DEFAULT_EXPECTED_INSERTIONS_PER_BUCKET}), which should be the number of tokens expected to
+     * expire within one bucket period.
+     *
+     * <p>It must be greater than zero.
+     */
+    public Builder setExpectedInsertionsPerBucket(int expectedInsertionsPerBucket) {
+      Preconditions.checkArgument(expectedInsertionsPerBucket > 0);
+      this.expectedInsertionsPerBucket = expectedInsertionsPerBucket;
+      return this;
+    }
+
+    /**
+     * Sets the false positive probability of a bucket (default is {@link
+     * #DEFAULT_FALSE_POSITIVE_PROBABILITY}).
+     *
+     * <p>It must be between zero and one, exclusive.
+     */
+    public Builder setFalsePositiveProbability(double falsePositiveProbability) {
+      Preconditions.checkArgument(falsePositiveProbability > 0 && falsePositiveProbability < 1);
+      this.falsePositiveProbability = falsePositiveProbability;
+      return this;
+    }
+
+    /**
+     * Sets the number of recent identifiers held exactly (default is {@link
+     * #DEFAULT_EXACT_TIER_SIZE}).
+     *
+     * <p>It must be greater or equal to zero.
+     */
+    public Builder setExactTierSize(int exactTierSize) {
+      Preconditions.checkArgument(exactTierSize >= 0);
+      this.exactTierSize = exactTierSize;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.auth.openidconnect.IdTokenVerifier.DefaultHttpTransportFactory;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.Clock;
+import com.google.api.client.util.Key;
+import com.google.api.client.util.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread-safe ID token verifier that accepts tokens from several issuers.
+ *
+ * <p>Tokens are routed on their (not yet verified) {@code iss} claim. Tokens from issuers that were
+ * not configured are rejected before any network I/O. For every configured issuer the certificate
+ * location is either given explicitly or resolved from the {@code jwks_uri} of the issuer's <a
+ * href="https://openid.net/specs/openid-connect-discovery-1_0.html">OpenID Provider
+ * Configuration</a> at {@code <issuer>/.well-known/openid-configuration}, which is cached. Each
+ * issuer gets its own {@link IdTokenVerifier} and thus its own public key cache. Sample usage:
+ *
+ * <pre>
+ * MultiIssuerIdTokenVerifier verifier = new MultiIssuerIdTokenVerifier.Builder()
+ * .addIssuer("https://keycloak.example.com/realms/main")
+ * .addIssuer("https://accounts.google.com", "https://www.googleapis.com/oauth2/v3/certs")
+ * .setAudience(Arrays.asList("myClientId"))
+ * .build();
+ * ...
+ * if (!verifier.verifyOrThrow(idToken)) {...}
+ * </pre>
+ *
+ * @since 1.40.0
+ */
+public class MultiIssuerIdTokenVerifier {
+  private static final Logger LOGGER = Logger.getLogger(MultiIssuerIdTokenVerifier.class.getName());
+
+  /** Path of the OpenID Provider Configuration document relative to the issuer. */
+  static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+
+  /** Default value for seconds to cache provider configuration documents (1 hour). */
+  public static final long DEFAULT_DISCOVERY_CACHE_SECONDS = 60 * 60;
+
+  /**
+   * Unmodifiable map from issuer to its explicit certificate location, or to {@code null} if the
+   * certificate location is discovered.
+   */
+  private final Map<String, String> issuers;
+
+  private final Clock clock;
+  private final long acceptableTimeSkewSeconds;
+  private final Collection<String> audience;
+  private final HttpTransportFactory httpTransportFactory;
+  private final JsonWebKeySetRegistry keySetRegistry;
+
+  /** Cache from issuer to the {@code jwks_uri} of its provider configuration. */
+  private final LoadingCache<String, String> discoveryCache;
+
+  /** Per-issuer verifiers. */
+  private final ConcurrentMap<String, IssuerVerifier> verifiers =
+      new ConcurrentHashMap<String, IssuerVerifier>();
+
+  /** @param builder builder */
+  protected MultiIssuerIdTokenVerifier(Builder builder) {
+    Preconditions.checkArgument(!builder.issuers.isEmpty(), "Issuers must not be empty");
+    issuers = Collections.unmodifiableMap(new LinkedHashMap<String, String>(builder.issuers));
+    clock = builder.clock;
+    acceptableTimeSkewSeconds = builder.acceptableTimeSkewSeconds;
+    audience = builder.audience;
+    httpTransportFactory =
+        builder.httpTransportFactory == null
+            ? new DefaultHttpTransportFactory()
+            : builder.httpTransportFactory;
+    keySetRegistry = builder.keySetRegistry;
+    discoveryCache =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(builder.discoveryCacheSeconds, TimeUnit.SECONDS)
+            .build(new DiscoveryLoader(httpTransportFactory));
+  }
+
+  /** Returns the unmodifiable set of accepted issuers. */
+  public final Set<String> getIssuers() {
+    return issuers.keySet();
+  }
+
+  /**
+   * Returns the trusted audience client IDs or {@code null} if the audience check is suppressed.
+   */
+  public final Collection<String> getAudience() {
+    return audience;
+  }
+
+  /**
+   * Verifies the given ID token with the verifier of its issuer.
+   *
+   * @param idToken ID token
+   * @return {@code true} if verified successfully or {@code false} if the issuer is not accepted or
+   *     verification failed
+   * @throws IOException if verification fails to run. For example, if it fails to get the provider
+   *     configuration or the public keys for signature verification.
+   * @see IdTokenVerifier#verifyOrThrow(IdToken)
+   */
+  public boolean verifyOrThrow(IdToken idToken) throws IOException {
+    IdTokenVerifier verifier = getVerifier(idToken.getPayload().getIssuer());
+    return verifier != null && verifier.verifyOrThrow(idToken);
+  }
+
+  /**
+   * Returns the verifier for the given issuer or {@code null} if the issuer is not accepted.
+   *
+   * @param issuer issuer
+   * @throws IOException if the provider configuration of the issuer could not be fetched
+   */
+  public IdTokenVerifier getVerifier(String issuer) throws IOException {
+    if (issuer == null || !issuers.containsKey(issuer)) {
+      LOGGER.log(Level.INFO, "Id token issuer is not accepted: " + issuer);
+      return null;
+    }
+    String certificatesLocation = issuers.get(issuer);
+    if (certificatesLocation == null) {
+      try {
+        certificatesLocation = discoveryCache.get(issuer);
+      } catch (ExecutionException | UncheckedExecutionException e) {
+        throw new IOException("Error fetching provider configuration of issuer " + issuer, e);
+      }
+    }
+    IssuerVerifier current = verifiers.get(issuer);
+    if (current != null && current.certificatesLocation.equals(certificatesLocation)) {
+      return current.verifier;
+    }
+    IssuerVerifier created =
+        new IssuerVerifier(certificatesLocation, newIssuerVerifier(issuer, certificatesLocation));
+    if (current == null) {
+      current = verifiers.putIfAbsent(issuer, created);
+      if (current != null) {
+        created.verifier.releaseKeySets();
+        return current.verifier;
+      }
+    } else {
+      verifiers.replace(issuer, current, created);
+      current.verifier.releaseKeySets();
+    }
+    return created.verifier;
+  }
+
+  /**
+   * Creates the verifier for a single issuer.
+   *
+   * <p>Overriding is allowed, but the returned verifier must check the given issuer and certificate
+   * location.
+   *
+   * @param issuer issuer
+   * @param certificatesLocation URL to the public keys of the issuer
+   */
+  protected IdTokenVerifier newIssuerVerifier(String issuer, String certificatesLocation) {
+    return new IdTokenVerifier.Builder()
+        .setIssuer(issuer)
+        .setCertificatesLocation(certificatesLocation)
+        .setAudience(audience)
+        .setClock(clock)
+        .setAcceptableTimeSkewSeconds(acceptableTimeSkewSeconds)
+        .setHttpTransportFactory(httpTransportFactory)
+        .setKeySetRegistry(keySetRegistry)
+        .build();
+  }
+
+  /** Per-issuer verifier together with the certificate location it was built for. */
+  private static final class IssuerVerifier {
+    final String certificatesLocation;
+    final IdTokenVerifier verifier;
+
+    IssuerVerifier(String certificatesLocation, IdTokenVerifier verifier) {
+      this.certificatesLocation = certificatesLocation;
+      this.verifier = verifier;
+    }
+  }
+
+  /** Data class used for deserializing an OpenID Provider Configuration document. */
+  public static class ProviderConfiguration extends GenericJson {
+    @Key public String issuer;
+
+    @Key("jwks_uri")
+    public String jwksUri;
+  }
+
+  /** Custom CacheLoader for mapping issuers to the {@code jwks_uri} of their configuration. */
+  static class DiscoveryLoader extends CacheLoader<String, String> {
+    private final HttpTransportFactory httpTransportFactory;
+
+    DiscoveryLoader(HttpTransportFactory httpTransportFactory) {
+      this.httpTransportFactory = httpTransportFactory;
+    }
+
+    @Override
+    public String load(String issuer) throws Exception {
+      String discoveryUrl =
+          (issuer.endsWith("/") ? issuer.substring(0, issuer.length() - 1) : issuer)
+              + DISCOVERY_PATH;
+      HttpRequest request =
+          httpTransportFactory
+              .create()
+              .createRequestFactory()
+              .buildGetRequest(new GenericUrl(discoveryUrl))
+              .setParser(GsonFactory.getDefaultInstance().createJsonObjectParser());
+      ProviderConfiguration configuration = request.execute().parseAs(ProviderConfiguration.class);
+      if (!issuer.equals(configuration.issuer)) {
+        throw new IOException(
+            "Provider configuration issuer " + configuration.issuer + " does not match " + issuer);
+      }
+      if (configuration.jwksUri == null) {
+        throw new IOException("Provider configuration of " + issuer + " has no jwks_uri");
+      }
+      return configuration.jwksUri;
+    }
+  }
+
+  /**
+   * Builder for {@link MultiIssuerIdTokenVerifier}.
+   *
+   * <p>Implementation is not thread-safe.
+   */
+  public static class Builder {
+
+    /** Map from issuer to its explicit certificate location or {@code null} to discover it. */
+    final Map<String, String> issuers = new LinkedHashMap<String, String>();
+
+    /** Clock. */
+    Clock clock = Clock.SYSTEM;
+
+    /** Seconds of time skew to accept when verifying time. */
+    long acceptableTimeSkewSeconds = IdTokenVerifier.DEFAULT_TIME_SKEW_SECONDS;
+
+    /** List of trusted audience client IDs or {@code null} to suppress the audience check. */
+    Collection<String> audience;
+
+    /** Seconds to cache provider configuration documents. */
+    long discoveryCacheSeconds = DEFAULT_DISCOVERY_CACHE_SECONDS;
+
+    HttpTransportFactory httpTransportFactory;
+
+    /** Shared key set registry or {@code null} to cache key sets per issuer. */
+    JsonWebKeySetRegistry keySetRegistry;
+
+    /** Builds a new instance of {@link MultiIssuerIdTokenVerifier}. */
+    public MultiIssuerIdTokenVerifier build() {
+      return new MultiIssuerIdTokenVerifier(this);
+    }
+
+    /**
+     * Adds an accepted issuer whose certificate location is resolved through OpenID Connect
+     * discovery.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @param issuer issuer, exactly as it appears in the {@code iss} claim
+     */
+    public Builder addIssuer(String issuer) {
+      issuers.put(Preconditions.checkNotNull(issuer), null);
+      return this;
+    }
+
+    /**
+     * Adds an accepted issuer with an explicit certificate location.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @param issuer issuer, exactly as it appears in the {@code iss} claim
+     * @param certificatesLocation URL to published public keys
+     */
+    public Builder addIssuer(String issuer, String certificatesLocation) {
+      issuers.put(
+          Preconditions.checkNotNull(issuer), Preconditions.checkNotNull(certificatesLocation));
+      return this;
+    }
+
+    /**
+     * Sets the clock.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setClock(Clock clock) {
+      this.clock = Preconditions.checkNotNull(clock);
+      return this;
+    }
+
+    /**
+     * Sets the list of trusted audience client IDs or {@code null} to suppress the audience check.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setAudience(Collection<String> audience) {
+      this.audience = audience;
+      return this;
+    }
+
+    /**
+     * Sets the seconds of time skew to accept when verifying time (default is {@link
+     * IdTokenVerifier#DEFAULT_TIME_SKEW_SECONDS}).
+     *
+     * <p>It must be greater or equal to zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setAcceptableTimeSkewSeconds(long acceptableTimeSkewSeconds) {
+      Preconditions.checkArgument(acceptableTimeSkewSeconds >= 0);
+      this.acceptableTimeSkewSeconds = acceptableTimeSkewSeconds;
+      return this;
+    }
+
+    /**
+     * Sets the seconds to cache provider configuration documents (default is {@link
+     * #DEFAULT_DISCOVERY_CACHE_SECONDS}).
+     *
+     * <p>It must be greater than zero.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setDiscoveryCacheSeconds(long discoveryCacheSeconds) {
+      Preconditions.checkArgument(discoveryCacheSeconds > 0);
+      this.discoveryCacheSeconds = discoveryCacheSeconds;
+      return this;
+    }
+
+    /**
+     * Sets the HttpTransportFactory used for requesting provider configurations and public keys.
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     */
+    public Builder setHttpTransportFactory(HttpTransportFactory httpTransportFactory) {
+      this.httpTransportFactory = httpTransportFactory;
+      return this;
+    }
+
+    /**
+     * Sets the shared key set registry used by the per-issuer verifiers or {@code null} to cache
+     * key sets per issuer (the default).
+     *
+     * <p>Overriding is only supported for the purpose of calling the super implementation and
+     * changing the return type, but nothing else.
+     *
+     * @see IdTokenVerifier.Builder#setKeySetRegistry(JsonWebKeySetRegistry)
+     */
+    public Builder setKeySetRegistry(JsonWebKeySetRegistry keySetRegistry) {
+      this.keySetRegistry = keySetRegistry;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import java.io.IOException;
+
+/**
+ * Records the identifiers of tokens that have been accepted in order to reject tokens that are
+ * presented a second time.
+ *
+ * <p>A replay guard is consulted by {@link IdTokenVerifier} after a token has otherwise been
+ * verified, see {@link IdTokenVerifier.Builder#setReplayGuard(ReplayGuard)}. Tokens are identified
+ * by their issuer and their {@code "jti"} claim, or their {@code "nonce"} claim if they have no
+ * {@code "jti"}. Use {@link MemoryReplayGuard} for a single process, or implement this interface on
+ * top of a shared store when tokens may be presented to any of several processes.
+ *
+ * <p>A replay guard is also consulted by {@link
+ * com.google.api.client.auth.oauth.OAuthRequestVerifier} for OAuth 1.0a requests, whose nonces are
+ * unique per consumer, timestamp and token. Then the issuer is the {@code oauth_consumer_key} and
+ * the token identifier combines the {@code oauth_timestamp}, {@code oauth_nonce} and {@code
+ * oauth_token} parameters, so an implementation must not assume that it is a {@code "jti"} claim or
+ * that the issuer is a URL.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @since 1.40.0
+ */
+public interface ReplayGuard {
+
+  /**
+   * Atomically checks whether the given token has been seen before and records it.
+   *
+   * <p>An identifier needs to be remembered only until the given time, after which the verifier
+   * rejects the token anyway.
+   *
+   * @param issuer issuer ({@code "iss"}) of the token or {@code null} for none, or the consumer key
+   *     of an OAuth 1.0a request
+   * @param tokenId {@code "jti"} or {@code "nonce"} claim of the token, or the timestamp, nonce and
+   *     token of an OAuth 1.0a request
+   * @param acceptedUntilSeconds time in seconds until which the token would still be accepted, i.e.
+   *     its expiration time plus the acceptable time skew, or the timestamp of an OAuth 1.0a
+   *     request plus the timestamp window
+   * @return {@code true} if the token is presented for the first time, {@code false} if it is a
+   *     replay or must be rejected for another reason
+   * @throws IOException if the underlying store could not be reached
+   */
+  boolean checkAndRecord(String issuer, String tokenId, long acceptedUntilSeconds)
+      throws IOException;
+}
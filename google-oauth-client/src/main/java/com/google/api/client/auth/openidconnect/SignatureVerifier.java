@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.util.Preconditions;
+import com.google.api.client.util.SecurityUtils;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.InvalidParameterSpecException;
+import java.security.spec.KeySpec;
+import java.security.spec.RSAPublicKeySpec;
+
+/**
+ * Verifies RS256 and ES256 signatures and builds the corresponding public keys with JCA engines
+ * that are confined to the calling thread and reused across calls, instead of being looked up from
+ * the security providers every time.
+ *
+ * <p>Results are the same as those of {@link
+ * com.google.api.client.json.webtoken.JsonWebSignature#verifySignature(PublicKey)}.
+ *
+ * <p>Implementation is thread-safe.
+ */
+final class SignatureVerifier {
+
+  /** Signature engine for RS256, per thread. */
+  private static final ThreadLocal<Engine> RS256_ENGINES = new ThreadLocal<Engine>();
+
+  /** Signature engine for ES256, per thread. */
+  private static final ThreadLocal<Engine> ES256_ENGINES = new ThreadLocal<Engine>();
+
+  /** RSA key factory, per thread. */
+  private static final ThreadLocal<KeyFactory> RSA_KEY_FACTORIES = new ThreadLocal<KeyFactory>();
+
+  /** EC key factory, per thread. */
+  private static final ThreadLocal<KeyFactory> EC_KEY_FACTORIES = new ThreadLocal<KeyFactory>();
+
+  /** Parameters of the P-256 curve or {@code null} if not yet looked up. */
+  private static volatile ECParameterSpec p256Parameters;
+
+  private SignatureVerifier() {}
+
+  /**
+   * Verifies the signature of a JSON Web Signature.
+   *
+   * @param algorithm {@code "alg"} header parameter
+   * @param publicKey public key
+   * @param signatureBytes signature bytes, for ES256 in the JOSE (R || S) format
+   * @param signedContentBytes signed content bytes
+   * @return whether the signature is valid, or {@code false} for unsupported algorithms
+   */
+  static boolean verify(
+      String algorithm, PublicKey publicKey, byte[] signatureBytes, byte[] signedContentBytes)
+      throws GeneralSecurityException {
+    if ("RS256".equals(algorithm)) {
+      return verify(RS256_ENGINES, false, publicKey, signatureBytes, signedContentBytes);
+    } else if ("ES256".equals(algorithm)) {
+      return verify(ES256_ENGINES, true, publicKey, toDer(signatureBytes), signedContentBytes);
+    } else {
+      return false;
+    }
+  }
+
+  private static boolean verify(
+      ThreadLocal<Engine> engines,
+      boolean ecdsa,
+      PublicKey publicKey,
+      byte[] signatureBytes,
+      byte[] signedContentBytes)
+      throws GeneralSecurityException {
+    Engine engine = engines.get();
+    if (engine == null) {
+      engine =
+          new Engine(
+              ecdsa
+                  ? SecurityUtils.getEs256SignatureAlgorithm()
+                  : SecurityUtils.getSha256WithRsaSignatureAlgorithm());
+      engines.set(engine);
+    }
+    // a successful or failed verify() resets the engine to the state after initVerify(), so it
+    // only needs to be initialized again for a different key
+    if (engine.publicKey != publicKey) {
+      engine.publicKey = null;
+      engine.signature.initVerify(publicKey);
+      engine.publicKey = publicKey;
+    }
+    try {
+      engine.signature.update(signedContentBytes);
+      return engine.signature.verify(signatureBytes);
+    } catch (SignatureException e) {
+      // the engine state is unspecified after an exception
+      engine.publicKey = null;
+      return false;
+    }
+  }
+
+  /** Builds an RSA public key from its modulus and public exponent. */
+  static PublicKey buildRsaPublicKey(BigInteger modulus, BigInteger exponent)
+      throws NoSuchAlgorithmException, InvalidKeySpecException {
+    return generatePublic(RSA_KEY_FACTORIES, "RSA", new RSAPublicKeySpec(modulus, exponent));
+  }
+
+  /** Builds an EC public key on the P-256 curve from its affine coordinates. */
+  static PublicKey buildP256PublicKey(BigInteger x, BigInteger y)
+      throws NoSuchAlgorithmException, InvalidParameterSpecException, InvalidKeySpecException {
+    ECParameterSpec parameters = p256Parameters;
+    if (parameters == null) {
+      AlgorithmParameters algorithmParameters = AlgorithmParameters.getInstance("EC");
+      algorithmParameters.init(new ECGenParameterSpec("secp256r1"));
+      parameters = algorithmParameters.getParameterSpec(ECParameterSpec.class);
+      p256Parameters = parameters;
+    }
+    return generatePublic(
+        EC_KEY_FACTORIES, "EC", new ECPublicKeySpec(new ECPoint(x, y), parameters));
+  }
+
+  private static PublicKey generatePublic(
+      ThreadLocal<KeyFactory> keyFactories, String algorithm, KeySpec keySpec)
+      throws NoSuchAlgorithmException, InvalidKeySpecException {
+    KeyFactory keyFactory = keyFactories.get();
+    if (keyFactory == null) {
+      keyFactory = KeyFactory.getInstance(algorithm);
+      keyFactories.set(keyFactory);
+    }
+    return keyFactory.generatePublic(keySpec);
+  }
+
+  /** Converts a JOSE ES256 signature (R || S, 32 bytes each) to a DER encoded ECDSA signature. */
+  static byte[] toDer(byte[] signatureBytes) {
+    Preconditions.checkState(signatureBytes.length == 64);
+    int rStart = integerStart(signatureBytes, 0);
+    int sStart = integerStart(signatureBytes, 32);
+    int rLength = 32 - rStart + (signatureBytes[rStart] < 0 ? 1 : 0);
+    int sLength = 64 - sStart + (signatureBytes[sStart] < 0 ? 1 : 0);
+    byte[] der = new byte[6 + rLength + sLength];
+    der[0] = 0x30;
+    der[1] = (byte) (der.length - 2);
+    der[2] = 0x02;
+    der[3] = (byte) rLength;
+    System.arraycopy(signatureBytes, rStart, der, 4 + rLength - (32 - rStart), 32 - rStart);
+    int offset = 4 + rLength;
+    der[offset] = 0x02;
+    der[offset + 1] = (byte) sLength;
+    System.arraycopy(
+        signatureBytes, sStart, der, offset + 2 + sLength - (64 - sStart), 64 - sStart);
+    return der;
+  }
+
+  /**
+   * Returns the index of the first significant byte of the unsigned 32 byte integer at the given
+   * offset, keeping at least one byte.
+   */
+  private static int integerStart(byte[] bytes, int offset) {
+    int start = offset;
+    while (start < offset + 31 && bytes[start] == 0) {
+      start++;
+    }
+    return start;
+  }
+
+  /** Signature engine together with the key it was last initialized with. */
+  private static final class Engine {
+
+    final Signature signature;
+
+    /** Key the signature engine is initialized with or {@code null} if it must be initialized. */
+    PublicKey publicKey;
+
+    Engine(Signature signature) {
+      this.signature = signature;
+    }
+  }
+}
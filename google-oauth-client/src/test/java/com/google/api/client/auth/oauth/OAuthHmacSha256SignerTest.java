@@ -51,4 +51,16 @@ public class OAuthHmacSha256SignerTest {
     String expectedSignature = "sfnrBcfwccOs2mpc60VQ5zXx5ReP/46lgUcBhU2a4PM=";
     assertEquals(expectedSignature, signer.computeSignature("baseString"));
   }
+
+  @Test
+  public void testComputeSignatureAfterTokenSecretChange() throws GeneralSecurityException {
+    OAuthHmacSha256Signer signer = new OAuthHmacSha256Signer("clientSecret");
+    assertEquals(
+        "cNrT2sqgyQ+dd7rbAhYBFBk8o82/yZyZkavqsfMDqpo=", signer.computeSignature("baseString"));
+    signer.setTokenSecret("tokenSecret");
+    assertEquals(
+        "sfnrBcfwccOs2mpc60VQ5zXx5ReP/46lgUcBhU2a4PM=", signer.computeSignature("baseString"));
+    assertEquals(
+        "sfnrBcfwccOs2mpc60VQ5zXx5ReP/46lgUcBhU2a4PM=", signer.computeSignature("baseString"));
+  }
 }
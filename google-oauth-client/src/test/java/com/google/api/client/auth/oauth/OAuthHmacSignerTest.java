@@ -32,4 +32,15 @@ public class OAuthHmacSignerTest extends TestCase {
     signer.tokenSharedSecret = "def";
     assertEquals(EXPECTED_SIGNATURE, signer.computeSignature("foo"));
   }
+
+  public void testComputeSignatureAfterSecretChange() throws GeneralSecurityException {
+    OAuthHmacSigner signer = new OAuthHmacSigner();
+    signer.clientSharedSecret = "abc";
+    String withoutToken = signer.computeSignature("foo");
+    signer.tokenSharedSecret = "def";
+    assertEquals(EXPECTED_SIGNATURE, signer.computeSignature("foo"));
+    assertEquals(EXPECTED_SIGNATURE, signer.computeSignature("foo"));
+    signer.tokenSharedSecret = null;
+    assertEquals(withoutToken, signer.computeSignature("foo"));
+  }
 }
@@ -14,12 +14,21 @@
 
 package com.google.api.client.auth.oauth;
 
+import com.google.api.client.http.AbstractHttpContent;
+import com.google.api.client.http.ByteArrayContent;
 import com.google.api.client.http.GenericUrl;
 import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.InputStreamContent;
 import com.google.api.client.http.UrlEncodedContent;
 import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.util.Base64;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import junit.framework.TestCase;
@@ -110,4 +119,130 @@ public class OAuthParametersTest extends TestCase {
         "GET&https%3A%2F%2Fexample.local&foo%3Dbar%26foo%3Dbaz%26oauth_signature_method%3Dmock",
         parameters.signature);
   }
+
+  public void testSignatureBaseStringNormalization() throws GeneralSecurityException {
+    OAuthParameters parameters = new OAuthParameters();
+    parameters.signer = new MockSigner();
+    parameters.consumerKey = "key with spaces";
+    parameters.token = "4/token+";
+
+    GenericUrl url =
+        new GenericUrl(
+            "https://user@Example.local:443/a%20path/caf%C3%A9/?b=%E2%82%AC&a=1&a=1&a=&c&%7E=x#f");
+    parameters.computeSignature("POST", url);
+    assertEquals(
+        "POST&https%3A%2F%2FExample.local%2Fa%2520path%2Fcaf%25C3%25A9%2F&"
+            + "a%3D%26a%3D1%26b%3D%25E2%2582%25AC%26c%3D%26"
+            + "oauth_consumer_key%3Dkey%2520with%2520spaces%26oauth_signature_method%3Dmock%26"
+            + "oauth_token%3D4%252Ftoken%252B%26~%3Dx",
+        parameters.signature);
+    url.setPort(8443);
+    parameters.computeSignature("POST", url);
+    assertEquals(
+        "POST&https%3A%2F%2FExample.local%3A8443%2Fa%2520path%2Fcaf%25C3%25A9%2F&"
+            + "a%3D%26a%3D1%26b%3D%25E2%2582%25AC%26c%3D%26"
+            + "oauth_consumer_key%3Dkey%2520with%2520spaces%26oauth_signature_method%3Dmock%26"
+            + "oauth_token%3D4%252Ftoken%252B%26~%3Dx",
+        parameters.signature);
+  }
+
+  public void testBodyHash() throws Exception {
+    OAuthParameters parameters = new OAuthParameters();
+    parameters.signer = new MockSigner();
+    parameters.bodyHashAlgorithm = "SHA-1";
+
+    GenericUrl url = new GenericUrl("https://example.local");
+    HttpRequest request =
+        new NetHttpTransport()
+            .createRequestFactory()
+            .buildPostRequest(url, ByteArrayContent.fromString("text/plain", "Hello World!"));
+    parameters.intercept(request);
+
+    assertEquals("Lve95gjOVATpfV8EL5X4nxwjKHE=", parameters.bodyHash);
+    assertTrue(parameters.signature.contains("oauth_body_hash%3DLve95gjOVATpfV8EL5X4nxwjKHE%253D"));
+    assertTrue(
+        request
+            .getHeaders()
+            .getAuthorization()
+            .startsWith("OAuth oauth_body_hash=\"Lve95gjOVATpfV8EL5X4nxwjKHE%3D\""));
+
+    // empty body
+    parameters.computeBodyHash(null);
+    assertEquals("2jmj7l5rSw0yVb/vlWAYkK/YBwk=", parameters.bodyHash);
+  }
+
+  public void testBodyHashIsStreamed() throws Exception {
+    final byte[] chunk = new byte[64 * 1024];
+    Arrays.fill(chunk, (byte) 'x');
+    final int chunks = 256;
+    AbstractHttpContent content =
+        new AbstractHttpContent("application/octet-stream") {
+          public void writeTo(OutputStream out) throws IOException {
+            for (int i = 0; i < chunks; i++) {
+              out.write(chunk);
+            }
+          }
+        };
+    OAuthParameters parameters = new OAuthParameters();
+    parameters.bodyHashAlgorithm = "SHA-256";
+    parameters.computeBodyHash(content);
+
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    for (int i = 0; i < chunks; i++) {
+      digest.update(chunk);
+    }
+    assertEquals(Base64.encodeBase64String(digest.digest()), parameters.bodyHash);
+  }
+
+  public void testBodyHashRequiresRetryableContent() throws Exception {
+    OAuthParameters parameters = new OAuthParameters();
+    parameters.bodyHashAlgorithm = "SHA-1";
+    try {
+      parameters.computeBodyHash(
+          new InputStreamContent("text/plain", new ByteArrayInputStream(new byte[1])));
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testBodyHashNotUsedWithUrlEncodedContent() throws IOException {
+    OAuthParameters parameters = new OAuthParameters();
+    parameters.signer = new MockSigner();
+    parameters.bodyHashAlgorithm = "SHA-1";
+
+    HttpRequest request =
+        new NetHttpTransport()
+            .createRequestFactory()
+            .buildPostRequest(
+                new GenericUrl("https://example.local"),
+                new UrlEncodedContent(Collections.singletonMap("this", "that")));
+    parameters.intercept(request);
+
+    assertNull(parameters.bodyHash);
+    assertFalse(request.getHeaders().getAuthorization().contains("oauth_body_hash"));
+  }
+
+  public void testBodyHashNotReusedForNextRequest() throws IOException {
+    OAuthParameters parameters = new OAuthParameters();
+    parameters.signer = new MockSigner();
+    parameters.bodyHashAlgorithm = "SHA-1";
+    HttpRequestFactory requestFactory = new NetHttpTransport().createRequestFactory();
+    GenericUrl url = new GenericUrl("https://example.local");
+
+    HttpRequest jsonRequest =
+        requestFactory.buildPostRequest(
+            url, ByteArrayContent.fromString("application/json", "{\"a\":1}"));
+    parameters.intercept(jsonRequest);
+    assertNotNull(parameters.bodyHash);
+    assertTrue(jsonRequest.getHeaders().getAuthorization().contains("oauth_body_hash"));
+
+    HttpRequest formRequest =
+        requestFactory.buildPostRequest(
+            url, new UrlEncodedContent(Collections.singletonMap("this", "that")));
+    parameters.intercept(formRequest);
+    assertNull(parameters.bodyHash);
+    assertFalse(parameters.signature.contains("oauth_body_hash"));
+    assertFalse(formRequest.getHeaders().getAuthorization().contains("oauth_body_hash"));
+  }
 }
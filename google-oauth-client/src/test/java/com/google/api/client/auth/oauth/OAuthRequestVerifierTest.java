@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.UrlEncodedContent;
+import com.google.api.client.testing.http.FixedClock;
+import com.google.api.client.testing.http.MockHttpTransport;
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+
+/** Tests {@link OAuthRequestVerifier}. */
+public class OAuthRequestVerifierTest extends TestCase {
+
+  private static final String CONSUMER_KEY = "dpf43f3p2l4k3l03";
+  private static final String CONSUMER_SECRET = "kd94hf93k423kf44";
+  private static final String TOKEN = "nnch734d00sl2jdk";
+  private static final String TOKEN_SECRET = "pfkkdhi9sl3r4s00";
+  private static final long NOW_MILLIS = 1191242096000L;
+
+  static class MockSecretProvider implements OAuthRequestVerifier.SecretProvider {
+
+    final AtomicInteger consumerLookups = new AtomicInteger();
+    PublicKey publicKey;
+    String tokenSecret = TOKEN_SECRET;
+
+    public String getConsumerSecret(String consumerKey) {
+      consumerLookups.incrementAndGet();
+      return CONSUMER_KEY.equals(consumerKey) ? CONSUMER_SECRET : null;
+    }
+
+    public PublicKey getConsumerPublicKey(String consumerKey) {
+      consumerLookups.incrementAndGet();
+      return CONSUMER_KEY.equals(consumerKey) ? publicKey : null;
+    }
+
+    public String getTokenSecret(String consumerKey, String token) {
+      return CONSUMER_KEY.equals(consumerKey) && TOKEN.equals(token) ? tokenSecret : null;
+    }
+  }
+
+  private static OAuthHmacSigner newHmacSigner() {
+    OAuthHmacSigner signer = new OAuthHmacSigner();
+    signer.clientSharedSecret = CONSUMER_SECRET;
+    signer.tokenSharedSecret = TOKEN_SECRET;
+    return signer;
+  }
+
+  private static String sign(OAuthSigner signer, String consumerKey, HttpRequest request)
+      throws IOException {
+    new OAuthSigningConfiguration.Builder(signer, consumerKey)
+        .setToken(TOKEN)
+        .setRealm("Photos")
+        .setClock(new FixedClock(NOW_MILLIS))
+        .build()
+        .intercept(request);
+    return request.getHeaders().getAuthorization();
+  }
+
+  private static HttpRequest newGetRequest(String url) throws IOException {
+    return new MockHttpTransport().createRequestFactory().buildGetRequest(new GenericUrl(url));
+  }
+
+  private static OAuthRequestVerifier.Builder newVerifierBuilder(
+      OAuthRequestVerifier.SecretProvider secretProvider) {
+    return new OAuthRequestVerifier.Builder(secretProvider).setClock(new FixedClock(NOW_MILLIS));
+  }
+
+  public void testParseAuthorizationHeader() {
+    OAuthParameters parameters =
+        OAuthRequestVerifier.parseAuthorizationHeader(
+            "OAuth realm=\"Photos\", oauth_consumer_key=\"key\", oauth_nonce=\"n\","
+                + " oauth_signature=\"wOJIO9A2W5mFwDgiDvZbTSMK%2FPY%3D\","
+                + " oauth_signature_method=\"HMAC-SHA1\", oauth_timestamp=\"137131200\","
+                + " oauth_token=\"4%2Ftoken\", oauth_version=\"1.0\", other=\"x\"");
+    assertEquals("Photos", parameters.realm);
+    assertEquals("key", parameters.consumerKey);
+    assertEquals("n", parameters.nonce);
+    assertEquals("wOJIO9A2W5mFwDgiDvZbTSMK/PY=", parameters.signature);
+    assertEquals("HMAC-SHA1", parameters.signatureMethod);
+    assertEquals("137131200", parameters.timestamp);
+    assertEquals("4/token", parameters.token);
+    assertEquals("1.0", parameters.version);
+
+    assertNull(OAuthRequestVerifier.parseAuthorizationHeader("Bearer abc"));
+    assertNull(OAuthRequestVerifier.parseAuthorizationHeader("OAuthx a=\"b\""));
+    for (String malformed :
+        new String[] {
+          "OAuth oauth_nonce=n",
+          "OAuth oauth_nonce=\"n",
+          "OAuth oauth_nonce=\"n\" x",
+          "OAuth oauth_nonce=\"n\", oauth_nonce=\"m\"",
+          "OAuth other, oauth_nonce=\"n\""
+        }) {
+      try {
+        OAuthRequestVerifier.parseAuthorizationHeader(malformed);
+        fail("expected " + IllegalArgumentException.class + " for " + malformed);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  public void testParseAuthorizationHeader_quotedRealm() {
+    OAuthParameters parameters =
+        OAuthRequestVerifier.parseAuthorizationHeader(
+            "OAuth realm=\"Photos, Inc. \\\"West\\\" 100%\",oauth_nonce=\"n\"");
+    assertEquals("Photos, Inc. \"West\" 100%", parameters.realm);
+    assertEquals("n", parameters.nonce);
+  }
+
+  public void testVerify_otherHeaderParameters() throws Exception {
+    OAuthRequestVerifier verifier = newVerifierBuilder(new MockSecretProvider()).build();
+    String url = "https://photos.example.net/photos?file=vacation.jpg";
+    // the extension parameter is signed like a query parameter, but sent in the header
+    OAuthParameters parameters = new OAuthParameters();
+    parameters.signer = newHmacSigner();
+    parameters.consumerKey = CONSUMER_KEY;
+    parameters.token = TOKEN;
+    parameters.nonce = "nonce";
+    parameters.timestamp = String.valueOf(NOW_MILLIS / 1000);
+    parameters.computeSignature("GET", new GenericUrl(url + "&xoauth_requestor_id=alice"));
+    String authorization = parameters.getAuthorizationHeader();
+
+    assertNull(verifier.verify("GET", new GenericUrl(url), authorization));
+    assertNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), authorization + ", xoauth_requestor_id=\"mallory\""));
+    assertNotNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), authorization + ", xoauth_requestor_id=\"alice\""));
+  }
+
+  public void testVerify() throws Exception {
+    OAuthRequestVerifier verifier = newVerifierBuilder(new MockSecretProvider()).build();
+    String url = "https://photos.example.net/photos?file=vacation.jpg&size=original";
+    String authorization = sign(newHmacSigner(), CONSUMER_KEY, newGetRequest(url));
+
+    OAuthParameters parameters = verifier.verify("GET", new GenericUrl(url), authorization);
+    assertNotNull(parameters);
+    assertEquals(CONSUMER_KEY, parameters.consumerKey);
+    assertEquals(TOKEN, parameters.token);
+    assertEquals("Photos", parameters.realm);
+
+    // replayed
+    assertNull(verifier.verify("GET", new GenericUrl(url), authorization));
+  }
+
+  public void testVerify_tampered() throws Exception {
+    OAuthRequestVerifier verifier = newVerifierBuilder(new MockSecretProvider()).build();
+    String url = "https://photos.example.net/photos?size=original";
+    String authorization = sign(newHmacSigner(), CONSUMER_KEY, newGetRequest(url));
+
+    assertNull(
+        verifier.verify(
+            "GET", new GenericUrl("https://photos.example.net/photos?size=small"), authorization));
+    assertNull(verifier.verify("POST", new GenericUrl(url), authorization));
+    assertNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), authorization.replace("HMAC-SHA1", "HMAC-SHA256")));
+    assertNull(
+        verifier.verify(
+            "GET",
+            new GenericUrl(url),
+            authorization.replace(
+                "oauth_timestamp=\"1191242096\"", "oauth_timestamp=\"1191242097\"")));
+    assertNull(verifier.verify("GET", new GenericUrl(url), null));
+    // the tampered requests did not consume the nonce
+    assertNotNull(verifier.verify("GET", new GenericUrl(url), authorization));
+  }
+
+  public void testVerify_unknownCredentials() throws Exception {
+    OAuthRequestVerifier verifier = newVerifierBuilder(new MockSecretProvider()).build();
+    String url = "https://photos.example.net/photos";
+    assertNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), sign(newHmacSigner(), "unknown", newGetRequest(url))));
+
+    OAuthHmacSigner signer = newHmacSigner();
+    signer.tokenSharedSecret = "wrong";
+    assertNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), sign(signer, CONSUMER_KEY, newGetRequest(url))));
+  }
+
+  public void testVerify_timestampWindow() throws Exception {
+    String url = "https://photos.example.net/photos";
+    String authorization = sign(newHmacSigner(), CONSUMER_KEY, newGetRequest(url));
+
+    OAuthRequestVerifier verifier =
+        new OAuthRequestVerifier.Builder(new MockSecretProvider())
+            .setClock(new FixedClock(NOW_MILLIS + 301000))
+            .build();
+    assertNull(verifier.verify("GET", new GenericUrl(url), authorization));
+    verifier =
+        new OAuthRequestVerifier.Builder(new MockSecretProvider())
+            .setClock(new FixedClock(NOW_MILLIS - 300000))
+            .build();
+    assertNotNull(verifier.verify("GET", new GenericUrl(url), authorization));
+  }
+
+  public void testVerify_formParameters() throws Exception {
+    OAuthRequestVerifier verifier = newVerifierBuilder(new MockSecretProvider()).build();
+    HttpRequest request =
+        new MockHttpTransport()
+            .createRequestFactory()
+            .buildPostRequest(
+                new GenericUrl("https://photos.example.net/photos?a=1"),
+                new UrlEncodedContent(Collections.singletonMap("b", "2")));
+    String authorization = sign(newHmacSigner(), CONSUMER_KEY, request);
+
+    assertNull(
+        verifier.verify(
+            "POST", new GenericUrl("https://photos.example.net/photos?a=1"), authorization));
+    assertNotNull(
+        verifier.verify(
+            "POST", new GenericUrl("https://photos.example.net/photos?a=1&b=2"), authorization));
+  }
+
+  public void testVerify_hmacSha256() throws Exception {
+    OAuthRequestVerifier verifier = newVerifierBuilder(new MockSecretProvider()).build();
+    OAuthHmacSha256Signer signer = new OAuthHmacSha256Signer(CONSUMER_SECRET);
+    signer.setTokenSecret(TOKEN_SECRET);
+    String url = "https://photos.example.net/photos";
+    assertNotNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), sign(signer, CONSUMER_KEY, newGetRequest(url))));
+  }
+
+  public void testVerify_rsaSha1() throws Exception {
+    KeyPair keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+    MockSecretProvider secretProvider = new MockSecretProvider();
+    secretProvider.publicKey = keyPair.getPublic();
+    OAuthRequestVerifier verifier = newVerifierBuilder(secretProvider).build();
+    OAuthRsaSigner signer = new OAuthRsaSigner();
+    signer.privateKey = keyPair.getPrivate();
+    String url = "https://photos.example.net/photos?size=original";
+    String authorization = sign(signer, CONSUMER_KEY, newGetRequest(url));
+
+    assertNull(
+        verifier.verify(
+            "GET", new GenericUrl("https://photos.example.net/photos?size=small"), authorization));
+    assertNotNull(verifier.verify("GET", new GenericUrl(url), authorization));
+  }
+
+  public void testSecretCache() throws Exception {
+    MockSecretProvider secretProvider = new MockSecretProvider();
+    OAuthRequestVerifier verifier = newVerifierBuilder(secretProvider).build();
+    String url = "https://photos.example.net/photos";
+    for (int i = 0; i < 3; i++) {
+      assertNotNull(
+          verifier.verify(
+              "GET", new GenericUrl(url), sign(newHmacSigner(), CONSUMER_KEY, newGetRequest(url))));
+    }
+    assertEquals(1, secretProvider.consumerLookups.get());
+
+    verifier = newVerifierBuilder(secretProvider).setSecretCacheSeconds(0).build();
+    for (int i = 0; i < 3; i++) {
+      assertNotNull(
+          verifier.verify(
+              "GET", new GenericUrl(url), sign(newHmacSigner(), CONSUMER_KEY, newGetRequest(url))));
+    }
+    assertEquals(4, secretProvider.consumerLookups.get());
+  }
+
+  public void testHmacKeyCache() throws Exception {
+    MockSecretProvider secretProvider = new MockSecretProvider();
+    OAuthRequestVerifier verifier = newVerifierBuilder(secretProvider).build();
+    String url = "https://photos.example.net/photos";
+    assertNotNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), sign(newHmacSigner(), CONSUMER_KEY, newGetRequest(url))));
+    SigningEngines.HmacKey hmacKey = verifier.getCachedHmacKey("HMAC-SHA1", CONSUMER_KEY, TOKEN);
+    assertNotNull(hmacKey);
+    assertNotNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), sign(newHmacSigner(), CONSUMER_KEY, newGetRequest(url))));
+    assertSame(hmacKey, verifier.getCachedHmacKey("HMAC-SHA1", CONSUMER_KEY, TOKEN));
+
+    // a changed token secret derives a new key
+    secretProvider.tokenSecret = "rotated";
+    OAuthHmacSigner signer = newHmacSigner();
+    assertNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), sign(signer, CONSUMER_KEY, newGetRequest(url))));
+    signer.tokenSharedSecret = "rotated";
+    assertNotNull(
+        verifier.verify(
+            "GET", new GenericUrl(url), sign(signer, CONSUMER_KEY, newGetRequest(url))));
+    assertNotSame(hmacKey, verifier.getCachedHmacKey("HMAC-SHA1", CONSUMER_KEY, TOKEN));
+  }
+}
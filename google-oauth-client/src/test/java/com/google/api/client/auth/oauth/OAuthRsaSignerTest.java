@@ -18,6 +18,7 @@ import com.google.api.client.util.Base64;
 import com.google.api.client.util.SecurityUtils;
 import com.google.api.client.util.StringUtils;
 import java.security.GeneralSecurityException;
+import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import junit.framework.TestCase;
 
@@ -40,4 +41,22 @@ public class OAuthRsaSignerTest extends TestCase {
             StringUtils.getBytesUtf8("foo"));
     assertEquals(Base64.encodeBase64String(expected), signer.computeSignature("foo"));
   }
+
+  public void testComputeSignatureWithDifferentKeys() throws GeneralSecurityException {
+    KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+    keyPairGenerator.initialize(1024);
+    KeyPair first = keyPairGenerator.genKeyPair();
+    KeyPair second = keyPairGenerator.genKeyPair();
+    OAuthRsaSigner signer = new OAuthRsaSigner();
+    for (KeyPair keyPair : new KeyPair[] {first, second, first}) {
+      signer.privateKey = keyPair.getPrivate();
+      byte[] signature = Base64.decodeBase64(signer.computeSignature("foo"));
+      assertTrue(
+          SecurityUtils.verify(
+              SecurityUtils.getSha1WithRsaSignatureAlgorithm(),
+              keyPair.getPublic(),
+              signature,
+              StringUtils.getBytesUtf8("foo")));
+    }
+  }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.testing.http.FixedClock;
+import com.google.api.client.testing.http.MockHttpTransport;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import junit.framework.TestCase;
+
+/** Tests {@link OAuthSigningConfiguration}. */
+public class OAuthSigningConfigurationTest extends TestCase {
+
+  private static final GenericUrl URL = new GenericUrl("https://example.local/photos?size=large");
+
+  private static OAuthHmacSigner newSigner() {
+    OAuthHmacSigner signer = new OAuthHmacSigner();
+    signer.clientSharedSecret = "kd94hf93k423kf44";
+    signer.tokenSharedSecret = "pfkkdhi9sl3r4s00";
+    return signer;
+  }
+
+  public void testIntercept() throws Exception {
+    OAuthSigningConfiguration configuration =
+        new OAuthSigningConfiguration.Builder(newSigner(), "dpf43f3p2l4k3l03")
+            .setToken("nnch734d00sl2jdk")
+            .setRealm("Photos")
+            .setClock(new FixedClock(1191242096000L))
+            .build();
+    HttpRequest request =
+        new MockHttpTransport().createRequestFactory(configuration).buildGetRequest(URL);
+    configuration.intercept(request);
+
+    Map<String, String> header = parseHeader(request.getHeaders().getAuthorization());
+    assertEquals("Photos", header.get("realm"));
+    assertEquals("1191242096", header.get("oauth_timestamp"));
+    assertEquals("HMAC-SHA1", header.get("oauth_signature_method"));
+    assertEquals(expectedSignature(configuration, header), header.get("oauth_signature"));
+    assertEquals(URL, request.getUrl());
+  }
+
+  public void testFrom() {
+    OAuthParameters parameters = new OAuthParameters();
+    parameters.signer = newSigner();
+    parameters.consumerKey = "key";
+    parameters.token = "token";
+    parameters.verifier = "verifier";
+    parameters.nonce = "ignored";
+    OAuthSigningConfiguration configuration =
+        OAuthSigningConfiguration.Builder.from(parameters).build();
+    assertSame(parameters.signer, configuration.getSigner());
+    assertEquals("key", configuration.getConsumerKey());
+    assertEquals("token", configuration.getToken());
+    assertEquals("verifier", configuration.getVerifier());
+
+    OAuthParameters snapshot = configuration.newParameters();
+    assertNotSame(parameters, snapshot);
+    assertNotNull(snapshot.nonce);
+    assertFalse("ignored".equals(snapshot.nonce));
+    assertNotSame(snapshot, configuration.newParameters());
+  }
+
+  public void testConcurrentSigning() throws Exception {
+    final OAuthSigningConfiguration configuration =
+        new OAuthSigningConfiguration.Builder(newSigner(), "dpf43f3p2l4k3l03")
+            .setToken("nnch734d00sl2jdk")
+            .build();
+    final HttpRequestFactory requestFactory =
+        new MockHttpTransport().createRequestFactory(configuration);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Map<String, String>>> futures = new ArrayList<Future<Map<String, String>>>();
+      for (int i = 0; i < 200; i++) {
+        final GenericUrl url = new GenericUrl(URL.build() + "&page=" + i);
+        futures.add(
+            executor.submit(
+                new Callable<Map<String, String>>() {
+                  public Map<String, String> call() throws Exception {
+                    HttpRequest request = requestFactory.buildGetRequest(url);
+                    configuration.intercept(request);
+                    Map<String, String> header =
+                        parseHeader(request.getHeaders().getAuthorization());
+                    OAuthParameters parameters = toParameters(configuration, header);
+                    parameters.computeSignature("GET", url);
+                    assertEquals(parameters.signature, header.get("oauth_signature"));
+                    return header;
+                  }
+                }));
+      }
+      Set<String> nonces = new HashSet<String>();
+      for (Future<Map<String, String>> future : futures) {
+        nonces.add(future.get().get("oauth_nonce"));
+      }
+      assertEquals(futures.size(), nonces.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static String expectedSignature(
+      OAuthSigningConfiguration configuration, Map<String, String> header) throws Exception {
+    OAuthParameters parameters = toParameters(configuration, header);
+    parameters.computeSignature("GET", URL);
+    return parameters.signature;
+  }
+
+  private static OAuthParameters toParameters(
+      OAuthSigningConfiguration configuration, Map<String, String> header) {
+    OAuthParameters parameters = configuration.newParameters();
+    parameters.nonce = header.get("oauth_nonce");
+    parameters.timestamp = header.get("oauth_timestamp");
+    return parameters;
+  }
+
+  private static Map<String, String> parseHeader(String authorization) throws Exception {
+    assertTrue(authorization.startsWith("OAuth "));
+    Map<String, String> result = new HashMap<String, String>();
+    for (String parameter : authorization.substring("OAuth ".length()).split(", ")) {
+      int equals = parameter.indexOf('=');
+      String value = parameter.substring(equals + 2, parameter.length() - 1);
+      result.put(parameter.substring(0, equals), URLDecoder.decode(value, "UTF-8"));
+    }
+    return result;
+  }
+}
@@ -25,6 +25,8 @@ import com.google.api.client.testing.http.MockLowLevelHttpRequest;
 import com.google.api.client.testing.http.MockLowLevelHttpResponse;
 import com.google.api.client.util.GenericData;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import junit.framework.TestCase;
 
 /**
@@ -52,12 +54,18 @@ public abstract class AuthenticationTestBase extends TestCase {
 
     int calls = 0;
 
+    /** Contents of the requests to the token server. */
+    final List<String> tokenRequests = new ArrayList<String>();
+
     @Override
     public LowLevelHttpRequest buildRequest(String method, String url) {
       return new MockLowLevelHttpRequest(url) {
         @Override
         public LowLevelHttpResponse execute() throws IOException {
           calls++;
+          if (getUrl().equals(TOKEN_SERVER_URL.build())) {
+            tokenRequests.add(getContentAsString());
+          }
           MockLowLevelHttpResponse response = new MockLowLevelHttpResponse();
           response.setContentType(Json.MEDIA_TYPE);
           GenericData responseData;
@@ -16,7 +16,13 @@ package com.google.api.client.auth.oauth2;
 
 import com.google.api.client.auth.oauth2.AuthorizationCodeFlow.CredentialCreatedListener;
 import com.google.api.client.http.BasicAuthentication;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
 import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
 import com.google.api.client.util.Joiner;
 import java.io.IOException;
 import java.util.Arrays;
@@ -154,4 +160,124 @@ public class AuthorizationCodeFlowTest extends AuthenticationTestBase {
     assertTrue(methods.contains(url.getCodeChallengeMethod().toLowerCase()));
     assertTrue(url.getCodeChallenge().length() > 0);
   }
+
+  public void testAuthorizationState() throws IOException {
+    final StringBuilder content = new StringBuilder();
+    MockHttpTransport transport =
+        new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) {
+            return new MockLowLevelHttpRequest(url) {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                content.append(getContentAsString());
+                return new MockLowLevelHttpResponse()
+                    .setContentType(Json.MEDIA_TYPE)
+                    .setContent("{\"access_token\":\"abc\"}");
+              }
+            };
+          }
+        };
+    AuthorizationCodeFlow flow =
+        new AuthorizationCodeFlow.Builder(
+                BearerToken.queryParameterAccessMethod(),
+                transport,
+                new GsonFactory(),
+                TOKEN_SERVER_URL,
+                new BasicAuthentication(CLIENT_ID, CLIENT_SECRET),
+                CLIENT_ID,
+                "https://example.com")
+            .setAuthorizationStateStore(new MemoryAuthorizationStateStore())
+            .build();
+
+    AuthorizationState state = flow.newAuthorizationState("user");
+    AuthorizationCodeRequestUrl url = flow.newAuthorizationUrl(state);
+    assertEquals(state.getState(), url.getState());
+    assertEquals(state.getCodeChallenge(), url.getCodeChallenge());
+    assertEquals("S256", url.getCodeChallengeMethod());
+    assertFalse(
+        state
+            .getCodeChallenge()
+            .equals(
+                flow.newAuthorizationUrl(flow.newAuthorizationState("user")).getCodeChallenge()));
+
+    AuthorizationState consumed = flow.consumeAuthorizationState(url.getState(), "user");
+    assertNotNull(consumed);
+    assertNull(flow.consumeAuthorizationState(url.getState(), "user"));
+    flow.newTokenRequest("code", consumed).setRedirectUri("https://example.com/rd").execute();
+    assertTrue(content.toString().contains("code_verifier=" + state.getCodeVerifier()));
+  }
+
+  public void testAuthorizationStateWithOverriddenHooks() throws IOException {
+    final StringBuilder content = new StringBuilder();
+    MockHttpTransport transport =
+        new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) {
+            return new MockLowLevelHttpRequest(url) {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                content.append(getContentAsString());
+                return new MockLowLevelHttpResponse()
+                    .setContentType(Json.MEDIA_TYPE)
+                    .setContent("{\"access_token\":\"abc\"}");
+              }
+            };
+          }
+        };
+    AuthorizationCodeFlow.Builder builder =
+        new AuthorizationCodeFlow.Builder(
+                BearerToken.queryParameterAccessMethod(),
+                transport,
+                new GsonFactory(),
+                TOKEN_SERVER_URL,
+                new BasicAuthentication(CLIENT_ID, CLIENT_SECRET),
+                CLIENT_ID,
+                "https://example.com")
+            .enablePKCE()
+            .setAuthorizationStateStore(new MemoryAuthorizationStateStore());
+    AuthorizationCodeFlow flow =
+        new AuthorizationCodeFlow(builder) {
+          @Override
+          public AuthorizationCodeRequestUrl newAuthorizationUrl() {
+            return super.newAuthorizationUrl().set("access_type", "offline");
+          }
+
+          @Override
+          public AuthorizationCodeTokenRequest newTokenRequest(String authorizationCode) {
+            return super.newTokenRequest(authorizationCode).set("custom", "value");
+          }
+        };
+
+    AuthorizationState state = flow.newAuthorizationState("user");
+    AuthorizationCodeRequestUrl url = flow.newAuthorizationUrl(state);
+    assertEquals("offline", url.get("access_type"));
+    assertEquals(state.getState(), url.getState());
+    assertEquals(state.getCodeChallenge(), url.getCodeChallenge());
+
+    flow.newTokenRequest("code", flow.consumeAuthorizationState(url.getState(), "user")).execute();
+    assertTrue(content.toString().contains("custom=value"));
+    // the code verifier of the authorization state is not replaced by that of enablePKCE()
+    assertTrue(content.toString().contains("code_verifier=" + state.getCodeVerifier()));
+    assertEquals(1, content.toString().split("code_verifier=", -1).length - 1);
+  }
+
+  public void testAuthorizationStateWithoutStore() throws IOException {
+    AuthorizationCodeFlow flow =
+        new AuthorizationCodeFlow.Builder(
+                BearerToken.queryParameterAccessMethod(),
+                new AccessTokenTransport(),
+                new GsonFactory(),
+                TOKEN_SERVER_URL,
+                new BasicAuthentication(CLIENT_ID, CLIENT_SECRET),
+                CLIENT_ID,
+                "https://example.com")
+            .build();
+    try {
+      flow.newAuthorizationState("user");
+      fail("expected " + IllegalStateException.class);
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.BasicAuthentication;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.testing.http.FixedClock;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Tests {@link ClientCredentialsTokenProvider}. */
+public class ClientCredentialsTokenProviderTest extends AuthenticationTestBase {
+
+  private static final long NOW_MILLIS = 1000000000000L;
+
+  private static final String RESOURCE_URL = "http://example.com/resource";
+
+  /**
+   * Mock token server issuing numbered tokens, and resource server accepting only the latest token.
+   */
+  static class TokenServerTransport extends MockHttpTransport {
+
+    final AtomicInteger tokenCalls = new AtomicInteger();
+    final List<String> scopes = Collections.synchronizedList(new ArrayList<String>());
+    volatile int tokenStatusCode = 200;
+    volatile String validToken;
+    volatile CountDownLatch started;
+    volatile CountDownLatch release;
+
+    @Override
+    public LowLevelHttpRequest buildRequest(String method, final String url) {
+      return new MockLowLevelHttpRequest(url) {
+        @Override
+        public LowLevelHttpResponse execute() throws IOException {
+          MockLowLevelHttpResponse response =
+              new MockLowLevelHttpResponse().setContentType(Json.MEDIA_TYPE);
+          if (url.equals(RESOURCE_URL)) {
+            String authorization = getFirstHeaderValue("Authorization");
+            if (!("Bearer " + validToken).equals(authorization)) {
+              response.setStatusCode(401);
+              response.addHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+            }
+            return response.setContent("{}");
+          }
+          int call = tokenCalls.incrementAndGet();
+          scopes.add(getContentAsString());
+          if (started != null) {
+            started.countDown();
+            try {
+              release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              throw new IOException(e);
+            }
+          }
+          if (tokenStatusCode != 200) {
+            return response
+                .setStatusCode(tokenStatusCode)
+                .setContent("{\"error\":\"invalid_client\"}");
+          }
+          validToken = "token" + call;
+          return response.setContent(
+              "{\"access_token\":\"" + validToken + "\",\"expires_in\":" + EXPIRES_IN + "}");
+        }
+      };
+    }
+  }
+
+  private final FixedClock clock = new FixedClock(NOW_MILLIS);
+
+  private TokenServerTransport transport;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    transport = new TokenServerTransport();
+  }
+
+  private ClientCredentialsTokenProvider newProvider() {
+    return new ClientCredentialsTokenProvider.Builder(
+            transport,
+            JSON_FACTORY,
+            TOKEN_SERVER_URL,
+            new BasicAuthentication(CLIENT_ID, CLIENT_SECRET))
+        .setScopes(Arrays.asList("read"))
+        .setClock(clock)
+        .build();
+  }
+
+  public void testCachingAndRefreshAhead() throws Exception {
+    ClientCredentialsTokenProvider provider = newProvider();
+    assertEquals("token1", provider.getAccessToken());
+    assertEquals("token1", provider.getAccessToken());
+    assertEquals(1, transport.tokenCalls.get());
+    assertTrue(transport.scopes.get(0).contains("scope=read"));
+
+    // inside the refresh window a new token is fetched
+    clock.setTime(NOW_MILLIS + TimeUnit.SECONDS.toMillis(EXPIRES_IN - 60));
+    assertEquals("token2", provider.getAccessToken());
+    assertEquals(2, transport.tokenCalls.get());
+
+    // a failed refresh ahead of expiration keeps the current token
+    clock.setTime(clock.currentTimeMillis() + TimeUnit.SECONDS.toMillis(EXPIRES_IN - 60));
+    transport.tokenStatusCode = 400;
+    assertEquals("token2", provider.getAccessToken());
+
+    // an expired token is never returned
+    clock.setTime(clock.currentTimeMillis() + TimeUnit.SECONDS.toMillis(120));
+    try {
+      provider.getAccessToken();
+      fail("expected " + TokenResponseException.class);
+    } catch (TokenResponseException e) {
+      assertEquals("invalid_client", e.getDetails().getError());
+    }
+  }
+
+  public void testScopeSets() throws Exception {
+    ClientCredentialsTokenProvider provider = newProvider();
+    String token = provider.getAccessToken(Arrays.asList("write", "read"));
+    assertEquals(token, provider.getAccessToken(Arrays.asList("read", "write", "read")));
+    assertEquals("token1", token);
+    assertEquals("token2", provider.getAccessToken());
+    assertEquals(2, transport.tokenCalls.get());
+    assertTrue(transport.scopes.get(0).contains("scope=read+write"));
+    assertTrue(provider.forScopes(Arrays.asList("read")) != null);
+
+    provider.invalidateAll();
+    assertEquals("token3", provider.getAccessToken());
+  }
+
+  public void testInitializer() throws Exception {
+    ClientCredentialsTokenProvider provider = newProvider();
+    HttpRequestFactory requestFactory = transport.createRequestFactory(provider);
+    HttpResponse response = requestFactory.buildGetRequest(new GenericUrl(RESOURCE_URL)).execute();
+    assertEquals(200, response.getStatusCode());
+    assertEquals(1, transport.tokenCalls.get());
+
+    // the token is revoked by the server, so the request is retried once with a new token
+    transport.validToken = "revoked";
+    HttpRequest request = requestFactory.buildGetRequest(new GenericUrl(RESOURCE_URL));
+    assertEquals(200, request.execute().getStatusCode());
+    assertEquals(2, transport.tokenCalls.get());
+    assertEquals("Bearer token2", request.getHeaders().getAuthorization());
+  }
+
+  public void testConcurrentFetchesAreCollapsed() throws Exception {
+    final ClientCredentialsTokenProvider provider = newProvider();
+    transport.started = new CountDownLatch(1);
+    transport.release = new CountDownLatch(1);
+    final String[] tokens = new String[4];
+    Thread[] threads = new Thread[tokens.length];
+    for (int i = 0; i < threads.length; i++) {
+      final int index = i;
+      threads[i] =
+          new Thread() {
+            @Override
+            public void run() {
+              try {
+                tokens[index] = provider.getAccessToken();
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            }
+          };
+      threads[i].start();
+    }
+    assertTrue(transport.started.await(10, TimeUnit.SECONDS));
+    Thread.sleep(100);
+    transport.release.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(1, transport.tokenCalls.get());
+    for (String token : tokens) {
+      assertEquals("token1", token);
+    }
+  }
+}
@@ -17,6 +17,7 @@ package com.google.api.client.auth.oauth2;
 import com.google.api.client.http.BasicAuthentication;
 import com.google.api.client.http.HttpRequest;
 import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.HttpStatusCodes;
 import com.google.api.client.http.LowLevelHttpRequest;
 import com.google.api.client.http.LowLevelHttpResponse;
@@ -25,6 +26,7 @@ import com.google.api.client.testing.http.HttpTesting;
 import com.google.api.client.testing.http.MockHttpTransport;
 import com.google.api.client.testing.http.MockLowLevelHttpRequest;
 import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -316,6 +318,83 @@ public class CredentialTest extends AuthenticationTestBase {
     assertNotNull(access.getExpirationTimeMilliseconds());
   }
 
+  public void testForScopes() throws Exception {
+    AccessTokenTransport transport = new AccessTokenTransport();
+    Credential access =
+        new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
+            .setTransport(transport)
+            .setJsonFactory(JSON_FACTORY)
+            .setTokenServerUrl(TOKEN_SERVER_URL)
+            .setClientAuthentication(new BasicAuthentication(CLIENT_ID, CLIENT_SECRET))
+            .build()
+            .setAccessToken(ACCESS_TOKEN)
+            .setRefreshToken(REFRESH_TOKEN);
+    HttpRequestInitializer scoped = access.forScopes(Arrays.asList("b", "a"));
+    assertSame(scoped, access.forScopes(Arrays.asList("a", "b")));
+    HttpRequestFactory requestFactory = transport.createRequestFactory(scoped);
+
+    // 2 requests = 1 token request for the scopes and 1 request with the scoped token
+    HttpRequest request = requestFactory.buildDeleteRequest(HttpTesting.SIMPLE_GENERIC_URL);
+    request.execute();
+    assertEquals(2, transport.calls);
+    assertEquals("Bearer " + NEW_ACCESS_TOKEN, request.getHeaders().getAuthorization());
+    requestFactory.buildDeleteRequest(HttpTesting.SIMPLE_GENERIC_URL).execute();
+    assertEquals(3, transport.calls);
+
+    // the main access token is left alone, but the rotated refresh token is shared
+    assertEquals(ACCESS_TOKEN, access.getAccessToken());
+    assertEquals(NEW_REFRESH_TOKEN, access.getRefreshToken());
+
+    // 3 requests = 1 invalid token, 1 token request for the scopes, and 1 retry
+    transport.statusCode = 401;
+    requestFactory.buildDeleteRequest(HttpTesting.SIMPLE_GENERIC_URL).execute();
+    assertEquals(6, transport.calls);
+
+    // the scopes are requested, with the latest refresh token
+    assertEquals(2, transport.tokenRequests.size());
+    assertTrue(transport.tokenRequests.get(0).contains("scope=a+b"));
+    assertTrue(transport.tokenRequests.get(0).contains("refresh_token=" + REFRESH_TOKEN));
+    assertTrue(transport.tokenRequests.get(1).contains("scope=a+b"));
+    assertTrue(transport.tokenRequests.get(1).contains("refresh_token=" + NEW_REFRESH_TOKEN));
+  }
+
+  public void testForScopes_errorResponse() throws Exception {
+    AccessTokenTransport transport = new AccessTokenTransport();
+    final TokenErrorResponse[] errors = new TokenErrorResponse[1];
+    Credential access =
+        new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
+            .setTransport(transport)
+            .setJsonFactory(JSON_FACTORY)
+            .setTokenServerUrl(TOKEN_SERVER_URL)
+            .setClientAuthentication(new BasicAuthentication(CLIENT_ID, CLIENT_SECRET))
+            .addRefreshListener(
+                new CredentialRefreshListener() {
+                  @Override
+                  public void onTokenResponse(Credential credential, TokenResponse tokenResponse) {
+                    fail();
+                  }
+
+                  @Override
+                  public void onTokenErrorResponse(
+                      Credential credential, TokenErrorResponse tokenErrorResponse) {
+                    errors[0] = tokenErrorResponse;
+                  }
+                })
+            .build()
+            .setRefreshToken(REFRESH_TOKEN);
+    transport.statusCode = 400;
+    try {
+      transport
+          .createRequestFactory(access.forScopes(Arrays.asList("a")))
+          .buildDeleteRequest(HttpTesting.SIMPLE_GENERIC_URL)
+          .execute();
+      fail("expected " + TokenResponseException.class);
+    } catch (TokenResponseException e) {
+      // expected
+    }
+    assertEquals("invalid_client", errors[0].getError());
+  }
+
   public void testInvalidTokenErrorMatcher() {
     String withQuote = "error = \"invalid_token\"";
     String withoutQuote = "error = invalid_token";
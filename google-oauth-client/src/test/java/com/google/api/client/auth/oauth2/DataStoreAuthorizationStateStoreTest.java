@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.testing.http.FixedClock;
+import com.google.api.client.util.store.DataStore;
+import com.google.api.client.util.store.MemoryDataStoreFactory;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import junit.framework.TestCase;
+
+/** Tests {@link DataStoreAuthorizationStateStore}. */
+public class DataStoreAuthorizationStateStoreTest extends TestCase {
+
+  private static final long NOW_MILLIS = 1000000000000L;
+
+  public void testCreateAndConsume() throws IOException {
+    DataStoreAuthorizationStateStore store =
+        new DataStoreAuthorizationStateStore.Builder(new MemoryDataStoreFactory())
+            .setClock(new FixedClock(NOW_MILLIS))
+            .build();
+    AuthorizationState state = store.create("user");
+    assertEquals(1, store.getDataStore().size());
+
+    AuthorizationState consumed = store.consume(state.getState(), "user");
+    assertEquals(state.getCodeVerifier(), consumed.getCodeVerifier());
+    assertEquals(state.getCodeChallenge(), consumed.getCodeChallenge());
+    assertTrue(store.getDataStore().isEmpty());
+    // single use
+    assertNull(store.consume(state.getState(), "user"));
+    assertNull(store.consume(null, "user"));
+  }
+
+  public void testExpiration() throws IOException {
+    FixedClock clock = new FixedClock(NOW_MILLIS);
+    DataStoreAuthorizationStateStore store =
+        new DataStoreAuthorizationStateStore.Builder(new MemoryDataStoreFactory())
+            .setClock(clock)
+            .setTimeToLiveSeconds(60)
+            .build();
+    AuthorizationState expired = store.create("user");
+    clock.setTime(NOW_MILLIS + 30000L);
+    AuthorizationState pending = store.create("user");
+    clock.setTime(NOW_MILLIS + 60000L);
+    store.evictExpired();
+    assertEquals(1, store.getDataStore().size());
+    assertNull(store.consume(expired.getState(), "user"));
+    assertNotNull(store.consume(pending.getState(), "user"));
+  }
+
+  public void testMaximumSize() throws IOException {
+    FixedClock clock = new FixedClock(NOW_MILLIS);
+    DataStoreAuthorizationStateStore store =
+        new DataStoreAuthorizationStateStore.Builder(new MemoryDataStoreFactory())
+            .setClock(clock)
+            .setTimeToLiveSeconds(60)
+            .setMaximumSize(2)
+            .build();
+    AuthorizationState consumed = store.create("user");
+    store.create("user");
+    try {
+      store.create("user");
+      fail("expected " + IOException.class);
+    } catch (IOException e) {
+      // expected
+    }
+    // consumed authorizations make room for new ones
+    clock.setTime(NOW_MILLIS + 30000L);
+    assertNotNull(store.consume(consumed.getState(), "user"));
+    AuthorizationState pending = store.create("user");
+    try {
+      store.create("user");
+      fail("expected " + IOException.class);
+    } catch (IOException e) {
+      // expected
+    }
+    // expired authorizations make room for new ones
+    clock.setTime(NOW_MILLIS + 60000L);
+    store.create("user");
+    assertEquals(2, store.getDataStore().size());
+    assertNotNull(store.consume(pending.getState(), "user"));
+  }
+
+  public void testEvictionInterval() throws IOException {
+    DataStoreAuthorizationStateStore.Builder builder =
+        new DataStoreAuthorizationStateStore.Builder(new MemoryDataStoreFactory());
+    try {
+      builder.setEvictionIntervalSeconds(-1);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    assertNotNull(builder.setEvictionIntervalSeconds(60).build());
+  }
+
+  public void testOtherUser() throws IOException {
+    DataStoreAuthorizationStateStore store =
+        new DataStoreAuthorizationStateStore.Builder(new MemoryDataStoreFactory()).build();
+    // an attacker's authorization response must not be accepted for the victim
+    AuthorizationState state = store.create("attacker");
+    assertNull(store.consume(state.getState(), "victim"));
+    assertNull(store.consume(state.getState(), "attacker"));
+  }
+
+  public void testConsumeDoesNotBlockOthers() throws Exception {
+    final DataStore<AuthorizationState> memory =
+        new MemoryDataStoreFactory()
+            .getDataStore(DataStoreAuthorizationStateStore.DEFAULT_DATA_STORE_ID);
+    final CountDownLatch getStarted = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+    @SuppressWarnings("unchecked")
+    DataStore<AuthorizationState> slow =
+        (DataStore<AuthorizationState>)
+            Proxy.newProxyInstance(
+                DataStore.class.getClassLoader(),
+                new Class<?>[] {DataStore.class},
+                new InvocationHandler() {
+                  public Object invoke(Object proxy, Method method, Object[] args)
+                      throws Throwable {
+                    if (method.getName().equals("get") && getStarted.getCount() > 0) {
+                      getStarted.countDown();
+                      assertTrue(released.await(10, TimeUnit.SECONDS));
+                    }
+                    try {
+                      return method.invoke(memory, args);
+                    } catch (InvocationTargetException e) {
+                      throw e.getCause();
+                    }
+                  }
+                });
+    final DataStoreAuthorizationStateStore store =
+        new DataStoreAuthorizationStateStore.Builder(slow).build();
+    final AuthorizationState state = store.create("user");
+    final AtomicReference<AuthorizationState> consumed = new AtomicReference<AuthorizationState>();
+    Thread consumer =
+        new Thread() {
+          @Override
+          public void run() {
+            try {
+              consumed.set(store.consume(state.getState(), "user"));
+            } catch (IOException e) {
+              throw new RuntimeException(e);
+            }
+          }
+        };
+    consumer.start();
+    assertTrue(getStarted.await(10, TimeUnit.SECONDS));
+
+    // while the data store is slow to return the state, other authorizations proceed
+    AuthorizationState other = store.create("user");
+    assertNotNull(store.consume(other.getState(), "user"));
+    // and the state being consumed is not returned a second time
+    assertNull(store.consume(state.getState(), "user"));
+
+    released.countDown();
+    consumer.join(10000);
+    assertEquals(state.getCodeVerifier(), consumed.get().getCodeVerifier());
+  }
+}
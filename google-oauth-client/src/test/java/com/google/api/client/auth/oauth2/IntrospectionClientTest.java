@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.testing.http.FixedClock;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Tests {@link IntrospectionClient}. */
+public class IntrospectionClientTest extends AuthenticationTestBase {
+
+  private static final long NOW_MILLIS = 1000000000000L;
+
+  /** Mock introspection endpoint that counts requests. */
+  static class IntrospectionTransport extends MockHttpTransport {
+
+    final AtomicInteger calls = new AtomicInteger();
+    volatile String content = "{\"active\":true}";
+    volatile CountDownLatch started;
+    volatile CountDownLatch release;
+
+    @Override
+    public LowLevelHttpRequest buildRequest(String method, String url) {
+      return new MockLowLevelHttpRequest(url) {
+        @Override
+        public LowLevelHttpResponse execute() throws IOException {
+          calls.incrementAndGet();
+          if (started != null) {
+            started.countDown();
+            try {
+              release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              throw new IOException(e);
+            }
+          }
+          return new MockLowLevelHttpResponse().setContentType(Json.MEDIA_TYPE).setContent(content);
+        }
+      };
+    }
+  }
+
+  private final IntrospectionTransport transport = new IntrospectionTransport();
+  private final FixedClock clock = new FixedClock(NOW_MILLIS);
+
+  private IntrospectionClient newClient() {
+    return new IntrospectionClient.Builder(transport, JSON_FACTORY, TOKEN_SERVER_URL)
+        .setClock(clock)
+        .setMaxCacheSeconds(300)
+        .setInactiveCacheSeconds(10)
+        .build();
+  }
+
+  public void testActiveResultCachedUntilExpiration() throws Exception {
+    transport.content = "{\"active\":true,\"exp\":" + (NOW_MILLIS / 1000 + 60) + "}";
+    IntrospectionClient client = newClient();
+    assertTrue(client.introspect(ACCESS_TOKEN).isActive());
+    clock.setTime(NOW_MILLIS + 59000);
+    assertTrue(client.introspect(ACCESS_TOKEN).isActive());
+    assertEquals(1, transport.calls.get());
+    clock.setTime(NOW_MILLIS + 60000);
+    client.introspect(ACCESS_TOKEN);
+    assertEquals(2, transport.calls.get());
+    client.introspect(NEW_ACCESS_TOKEN);
+    assertEquals(3, transport.calls.get());
+  }
+
+  public void testActiveResultCappedByMaxCacheSeconds() throws Exception {
+    transport.content = "{\"active\":true,\"exp\":" + (NOW_MILLIS / 1000 + 3600) + "}";
+    IntrospectionClient client = newClient();
+    client.introspect(ACCESS_TOKEN);
+    clock.setTime(NOW_MILLIS + 299000);
+    client.introspect(ACCESS_TOKEN);
+    assertEquals(1, transport.calls.get());
+    clock.setTime(NOW_MILLIS + 300000);
+    client.introspect(ACCESS_TOKEN);
+    assertEquals(2, transport.calls.get());
+  }
+
+  public void testVerify() throws Exception {
+    transport.content =
+        "{\"active\":true,\"sub\":\"user\",\"exp\":" + (NOW_MILLIS / 1000 + 60) + "}";
+    BearerTokenVerifier.VerifiedToken token = newClient().verify(ACCESS_TOKEN);
+    assertEquals("user", token.getSubject());
+    assertEquals(Long.valueOf(NOW_MILLIS + 60000), token.getExpirationTimeMilliseconds());
+    assertTrue(((IntrospectionResponse) token.getDetails()).isActive());
+
+    transport.content = "{\"active\":false}";
+    assertNull(newClient().verify(ACCESS_TOKEN));
+  }
+
+  public void testInactiveResultCachedBriefly() throws Exception {
+    transport.content = "{\"active\":false}";
+    IntrospectionClient client = newClient();
+    assertFalse(client.introspect(ACCESS_TOKEN).isActive());
+    clock.setTime(NOW_MILLIS + 9000);
+    assertFalse(client.introspect(ACCESS_TOKEN).isActive());
+    assertEquals(1, transport.calls.get());
+    clock.setTime(NOW_MILLIS + 10000);
+    client.introspect(ACCESS_TOKEN);
+    assertEquals(2, transport.calls.get());
+    client.invalidate(ACCESS_TOKEN);
+    client.introspect(ACCESS_TOKEN);
+    assertEquals(3, transport.calls.get());
+  }
+
+  public void testConcurrentIntrospectionsAreCollapsed() throws Exception {
+    transport.started = new CountDownLatch(1);
+    transport.release = new CountDownLatch(1);
+    final IntrospectionClient client = newClient();
+    final AtomicInteger active = new AtomicInteger();
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] =
+          new Thread() {
+            @Override
+            public void run() {
+              try {
+                if (client.introspect(ACCESS_TOKEN).isActive()) {
+                  active.incrementAndGet();
+                }
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            }
+          };
+      threads[i].start();
+    }
+    assertTrue(transport.started.await(10, TimeUnit.SECONDS));
+    Thread.sleep(100);
+    transport.release.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(threads.length, active.get());
+    assertEquals(1, transport.calls.get());
+  }
+
+  public void testErrorsAreNotCached() throws Exception {
+    transport.content = "not json";
+    IntrospectionClient client = newClient();
+    for (int i = 1; i <= 2; i++) {
+      try {
+        client.introspect(ACCESS_TOKEN);
+        fail("Exception expected");
+      } catch (IOException | IllegalArgumentException e) {
+        // expected
+      }
+      assertEquals(i, transport.calls.get());
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.BasicAuthentication;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import java.io.IOException;
+import java.util.Arrays;
+
+/** Tests {@link IntrospectionRequest}. */
+public class IntrospectionRequestTest extends AuthenticationTestBase {
+
+  public void testExecute() throws Exception {
+    MockHttpTransport transport =
+        new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) {
+            assertEquals("POST", method);
+            assertEquals(TOKEN_SERVER_URL.build(), url);
+            return new MockLowLevelHttpRequest(url) {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                assertEquals("token=abc&token_type_hint=access_token", getContentAsString());
+                assertNotNull(getFirstHeaderValue("Authorization"));
+                return new MockLowLevelHttpResponse()
+                    .setContentType(Json.MEDIA_TYPE)
+                    .setContent(
+                        "{\"active\":true,\"scope\":\"read write\",\"client_id\":\"id\","
+                            + "\"exp\":1419356238,\"aud\":[\"a\",\"b\"]}");
+              }
+            };
+          }
+        };
+    IntrospectionResponse response =
+        new IntrospectionRequest(transport, JSON_FACTORY, TOKEN_SERVER_URL, ACCESS_TOKEN)
+            .setTokenTypeHint("access_token")
+            .setClientAuthentication(new BasicAuthentication(CLIENT_ID, CLIENT_SECRET))
+            .execute();
+    assertTrue(response.isActive());
+    assertEquals("read write", response.getScope());
+    assertEquals(CLIENT_ID, response.getClientId());
+    assertEquals(Long.valueOf(1419356238L), response.getExpirationTimeSeconds());
+    assertEquals(Arrays.asList("a", "b"), response.getAudienceAsList());
+  }
+
+  public void testInactive() throws Exception {
+    MockHttpTransport transport =
+        new MockHttpTransport.Builder()
+            .setLowLevelHttpResponse(
+                new MockLowLevelHttpResponse()
+                    .setContentType(Json.MEDIA_TYPE)
+                    .setContent("{\"active\":false}"))
+            .build();
+    IntrospectionResponse response =
+        new IntrospectionRequest(transport, JSON_FACTORY, TOKEN_SERVER_URL, ACCESS_TOKEN).execute();
+    assertFalse(response.isActive());
+    assertTrue(response.getAudienceAsList().isEmpty());
+  }
+
+  public void testErrorResponse() throws Exception {
+    AccessTokenTransport transport = new AccessTokenTransport();
+    transport.statusCode = 400;
+    try {
+      new IntrospectionRequest(transport, JSON_FACTORY, TOKEN_SERVER_URL, ACCESS_TOKEN).execute();
+      fail("Exception expected");
+    } catch (TokenResponseException e) {
+      assertEquals("invalid_client", e.getDetails().getError());
+    }
+  }
+}
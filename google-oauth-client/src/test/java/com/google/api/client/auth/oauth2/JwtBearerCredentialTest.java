@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.http.UrlEncodedParser;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.testing.http.FixedClock;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/** Tests {@link JwtBearerCredential}. */
+public class JwtBearerCredentialTest extends AuthenticationTestBase {
+
+  private static final long NOW_MILLIS = 1000000000000L;
+
+  /** Mock token server that records the received assertions. */
+  static class AssertionTransport extends MockHttpTransport {
+
+    final List<String> assertions = new ArrayList<String>();
+
+    @Override
+    public LowLevelHttpRequest buildRequest(String method, String url) {
+      return new MockLowLevelHttpRequest(url) {
+        @Override
+        public LowLevelHttpResponse execute() throws IOException {
+          Map<String, Object> parameters = new HashMap<String, Object>();
+          UrlEncodedParser.parse(getContentAsString(), parameters);
+          assertEquals(
+              Collections.singletonList(JwtBearerTokenRequest.GRANT_TYPE),
+              parameters.get("grant_type"));
+          assertions.add(((List<?>) parameters.get("assertion")).get(0).toString());
+          return new MockLowLevelHttpResponse()
+              .setContentType(Json.MEDIA_TYPE)
+              .setContent(
+                  "{\"access_token\":\"token" + assertions.size() + "\",\"expires_in\":60}");
+        }
+      };
+    }
+  }
+
+  /** Executor that counts and runs tasks on the calling thread. */
+  static class CountingExecutor implements Executor {
+
+    int tasks;
+
+    @Override
+    public void execute(Runnable command) {
+      tasks++;
+      command.run();
+    }
+  }
+
+  /** Executor that counts and then rejects or silently discards tasks. */
+  static class FailingExecutor implements Executor {
+
+    final boolean reject;
+
+    int tasks;
+
+    FailingExecutor(boolean reject) {
+      this.reject = reject;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      tasks++;
+      if (reject) {
+        throw new RejectedExecutionException();
+      }
+    }
+  }
+
+  private final FixedClock clock = new FixedClock(NOW_MILLIS);
+
+  private final AssertionTransport transport = new AssertionTransport();
+
+  private KeyPair keyPair;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    keyPair = generator.generateKeyPair();
+  }
+
+  private JwtBearerCredential.Builder newBuilder() {
+    return new JwtBearerCredential.Builder()
+        .setTransport(transport)
+        .setJsonFactory(JSON_FACTORY)
+        .setTokenServerUrl(TOKEN_SERVER_URL)
+        .setClock(clock)
+        .setPrivateKey(keyPair.getPrivate())
+        .setPrivateKeyId("key1")
+        .setIssuer(CLIENT_ID);
+  }
+
+  public void testAssertion() throws Exception {
+    JwtBearerCredential credential = newBuilder().setSubject("user").build();
+    assertTrue(credential.refreshToken());
+    assertEquals("token1", credential.getAccessToken());
+
+    JsonWebSignature assertion = JsonWebSignature.parse(JSON_FACTORY, transport.assertions.get(0));
+    assertTrue(assertion.verifySignature(keyPair.getPublic()));
+    assertEquals("RS256", assertion.getHeader().getAlgorithm());
+    assertEquals("key1", assertion.getHeader().getKeyId());
+    assertEquals(CLIENT_ID, assertion.getPayload().getIssuer());
+    assertEquals("user", assertion.getPayload().getSubject());
+    assertEquals(TOKEN_SERVER_URL.build(), assertion.getPayload().getAudience());
+    assertEquals(
+        Long.valueOf(NOW_MILLIS / 1000 + JwtBearerCredential.DEFAULT_ASSERTION_LIFETIME_SECONDS),
+        assertion.getPayload().getExpirationTimeSeconds());
+  }
+
+  public void testAssertionIsReused() throws Exception {
+    JwtBearerCredential credential = newBuilder().build();
+    credential.refreshToken();
+    clock.setTime(NOW_MILLIS + TimeUnit.MINUTES.toMillis(30));
+    credential.refreshToken();
+    assertEquals(2, transport.assertions.size());
+    assertEquals(transport.assertions.get(0), transport.assertions.get(1));
+
+    // too close to its expiration, the assertion is signed again
+    clock.setTime(NOW_MILLIS + TimeUnit.MINUTES.toMillis(59) + 1);
+    credential.refreshToken();
+    assertFalse(transport.assertions.get(1).equals(transport.assertions.get(2)));
+  }
+
+  public void testSigningAhead() throws Exception {
+    CountingExecutor executor = new CountingExecutor();
+    JwtBearerCredential credential = newBuilder().setSigningExecutor(executor).build();
+    String first = credential.getAssertion();
+    assertEquals(0, executor.tasks);
+
+    // past half of the lifetime the next assertion is signed on the executor
+    clock.setTime(NOW_MILLIS + TimeUnit.MINUTES.toMillis(31));
+    assertEquals(first, credential.getAssertion());
+    assertEquals(1, executor.tasks);
+    String second = credential.getAssertion();
+    assertFalse(first.equals(second));
+    assertEquals(1, executor.tasks);
+    assertEquals(second, credential.getAssertion());
+  }
+
+  public void testSigningAheadRejected() throws Exception {
+    subtestSigningAheadFails(new FailingExecutor(true));
+  }
+
+  public void testSigningAheadDiscarded() throws Exception {
+    subtestSigningAheadFails(new FailingExecutor(false));
+  }
+
+  private void subtestSigningAheadFails(FailingExecutor executor) throws Exception {
+    JwtBearerCredential credential = newBuilder().setSigningExecutor(executor).build();
+    String first = credential.getAssertion();
+    clock.setTime(NOW_MILLIS + TimeUnit.MINUTES.toMillis(31));
+    assertEquals(first, credential.getAssertion());
+    assertEquals(1, executor.tasks);
+
+    // once the assertion is too close to its expiration, the next one is signed right away
+    clock.setTime(NOW_MILLIS + TimeUnit.MINUTES.toMillis(59) + 1);
+    String second = credential.getAssertion();
+    assertFalse(first.equals(second));
+    assertEquals(second, credential.getAssertion());
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.testing.http.FixedClock;
+import junit.framework.TestCase;
+
+/** Tests {@link MemoryAuthorizationStateStore}. */
+public class MemoryAuthorizationStateStoreTest extends TestCase {
+
+  private static final long NOW_MILLIS = 1000000000000L;
+
+  public void testCreateAndConsume() {
+    MemoryAuthorizationStateStore store =
+        new MemoryAuthorizationStateStore.Builder().setClock(new FixedClock(NOW_MILLIS)).build();
+    AuthorizationState state = store.create("user");
+    assertEquals(NOW_MILLIS + 600000L, state.getExpirationTimeMilliseconds());
+    assertEquals(
+        AuthorizationState.computeCodeChallenge(state.getCodeVerifier()), state.getCodeChallenge());
+    assertEquals(1, store.size());
+
+    AuthorizationState other = store.create("user");
+    assertFalse(state.getState().equals(other.getState()));
+    assertFalse(state.getCodeVerifier().equals(other.getCodeVerifier()));
+
+    AuthorizationState consumed = store.consume(state.getState(), "user");
+    assertEquals(state.getCodeVerifier(), consumed.getCodeVerifier());
+    // single use
+    assertNull(store.consume(state.getState(), "user"));
+    assertNull(store.consume("unknown", "user"));
+    assertNull(store.consume(null, "user"));
+  }
+
+  public void testExpiration() {
+    FixedClock clock = new FixedClock(NOW_MILLIS);
+    MemoryAuthorizationStateStore store =
+        new MemoryAuthorizationStateStore.Builder()
+            .setClock(clock)
+            .setTimeToLiveSeconds(60)
+            .build();
+    AuthorizationState state = store.create("user");
+    clock.setTime(NOW_MILLIS + 60000L);
+    assertNull(store.consume(state.getState(), "user"));
+  }
+
+  public void testMaximumSize() {
+    MemoryAuthorizationStateStore store =
+        new MemoryAuthorizationStateStore.Builder().setMaximumSize(10).build();
+    for (int i = 0; i < 100; i++) {
+      store.create("user");
+    }
+    assertTrue(store.size() <= 10);
+  }
+
+  public void testOtherUser() {
+    MemoryAuthorizationStateStore store = new MemoryAuthorizationStateStore();
+    // an attacker's authorization response must not be accepted for the victim
+    AuthorizationState state = store.create("attacker");
+    assertEquals("attacker", state.getUserId());
+    assertNull(store.consume(state.getState(), "victim"));
+    assertNull(store.consume(state.getState(), "attacker"));
+  }
+}
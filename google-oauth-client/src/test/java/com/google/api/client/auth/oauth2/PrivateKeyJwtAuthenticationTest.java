@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.UrlEncodedContent;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.testing.http.FixedClock;
+import com.google.api.client.testing.http.HttpTesting;
+import com.google.api.client.testing.http.MockHttpTransport;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Tests {@link PrivateKeyJwtAuthentication}. */
+public class PrivateKeyJwtAuthenticationTest extends AuthenticationTestBase {
+
+  private static final long NOW_MILLIS = 1000000000000L;
+
+  private final FixedClock clock = new FixedClock(NOW_MILLIS);
+
+  private KeyPair keyPair;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    keyPair = generator.generateKeyPair();
+  }
+
+  private PrivateKeyJwtAuthentication.Builder newBuilder() {
+    return new PrivateKeyJwtAuthentication.Builder(
+            JSON_FACTORY, CLIENT_ID, keyPair.getPrivate(), TOKEN_SERVER_URL.build())
+        .setClock(clock);
+  }
+
+  public void testIntercept() throws Exception {
+    HttpRequest request =
+        new MockHttpTransport()
+            .createRequestFactory()
+            .buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+    PrivateKeyJwtAuthentication auth = newBuilder().setPrivateKeyId("key1").build();
+    auth.intercept(request);
+    @SuppressWarnings("unchecked")
+    Map<String, ?> data = (Map<String, ?>) ((UrlEncodedContent) request.getContent()).getData();
+    assertEquals(CLIENT_ID, data.get("client_id"));
+    assertEquals(
+        PrivateKeyJwtAuthentication.CLIENT_ASSERTION_TYPE, data.get("client_assertion_type"));
+    assertNull(data.get("client_secret"));
+
+    JsonWebSignature assertion =
+        JsonWebSignature.parse(JSON_FACTORY, (String) data.get("client_assertion"));
+    assertTrue(assertion.verifySignature(keyPair.getPublic()));
+    assertEquals("key1", assertion.getHeader().getKeyId());
+    assertEquals(CLIENT_ID, assertion.getPayload().getIssuer());
+    assertEquals(CLIENT_ID, assertion.getPayload().getSubject());
+    assertEquals(TOKEN_SERVER_URL.build(), assertion.getPayload().getAudience());
+    assertNotNull(assertion.getPayload().getJwtId());
+  }
+
+  public void testAssertionIsCached() throws Exception {
+    PrivateKeyJwtAuthentication auth = newBuilder().build();
+    String assertion = auth.getClientAssertion();
+    clock.setTime(NOW_MILLIS + TimeUnit.MINUTES.toMillis(4));
+    assertEquals(assertion, auth.getClientAssertion());
+    clock.setTime(NOW_MILLIS + TimeUnit.SECONDS.toMillis(271));
+    assertFalse(assertion.equals(auth.getClientAssertion()));
+  }
+
+  public void testMaxUses() throws Exception {
+    PrivateKeyJwtAuthentication auth = newBuilder().setMaxUses(2).build();
+    String assertion = auth.getClientAssertion();
+    assertEquals(assertion, auth.getClientAssertion());
+    String next = auth.getClientAssertion();
+    assertFalse(assertion.equals(next));
+    assertFalse(
+        JsonWebSignature.parse(JSON_FACTORY, assertion)
+            .getPayload()
+            .getJwtId()
+            .equals(JsonWebSignature.parse(JSON_FACTORY, next).getPayload().getJwtId()));
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.oauth2;
+
+import com.google.api.client.testing.http.FixedClock;
+import java.util.Arrays;
+import junit.framework.TestCase;
+
+/** Tests {@link SignedAuthorizationStateStore}. */
+public class SignedAuthorizationStateStoreTest extends TestCase {
+
+  private static final long NOW_MILLIS = 1000000000000L;
+
+  private static final byte[] SECRET = new byte[32];
+
+  static {
+    Arrays.fill(SECRET, (byte) 7);
+  }
+
+  public void testCreateAndConsume() {
+    SignedAuthorizationStateStore store =
+        new SignedAuthorizationStateStore.Builder(SECRET)
+            .setClock(new FixedClock(NOW_MILLIS))
+            .build();
+    AuthorizationState state = store.create("user");
+    AuthorizationState other = store.create("user");
+    assertFalse(state.getState().equals(other.getState()));
+    assertFalse(state.getCodeVerifier().equals(other.getCodeVerifier()));
+
+    // any node sharing the secret recovers the same code verifier
+    SignedAuthorizationStateStore node =
+        new SignedAuthorizationStateStore.Builder(SECRET.clone())
+            .setClock(new FixedClock(NOW_MILLIS))
+            .build();
+    AuthorizationState consumed = node.consume(state.getState(), "user");
+    assertEquals(state.getCodeVerifier(), consumed.getCodeVerifier());
+    assertEquals(state.getCodeChallenge(), consumed.getCodeChallenge());
+    assertEquals(state.getExpirationTimeMilliseconds(), consumed.getExpirationTimeMilliseconds());
+  }
+
+  public void testExpiration() {
+    FixedClock clock = new FixedClock(NOW_MILLIS);
+    SignedAuthorizationStateStore store =
+        new SignedAuthorizationStateStore.Builder(SECRET)
+            .setClock(clock)
+            .setTimeToLiveSeconds(60)
+            .build();
+    AuthorizationState state = store.create("user");
+    clock.setTime(NOW_MILLIS + 59000L);
+    assertNotNull(store.consume(state.getState(), "user"));
+    clock.setTime(NOW_MILLIS + 60000L);
+    assertNull(store.consume(state.getState(), "user"));
+  }
+
+  public void testTampered() {
+    SignedAuthorizationStateStore store = new SignedAuthorizationStateStore.Builder(SECRET).build();
+    String state = store.create("user").getState();
+    int dot = state.indexOf('.');
+    char first = state.charAt(dot + 1);
+    assertNull(
+        store.consume(
+            state.substring(0, dot + 1) + (first == 'A' ? 'B' : 'A') + state.substring(dot + 2),
+            "user"));
+    assertNull(store.consume("A" + state, "user"));
+    assertNull(store.consume(state.replace(".", ""), "user"));
+    assertNull(store.consume("!!.!!", "user"));
+    assertNull(store.consume(null, "user"));
+
+    byte[] otherSecret = SECRET.clone();
+    otherSecret[0] = 0;
+    assertNull(
+        new SignedAuthorizationStateStore.Builder(otherSecret).build().consume(state, "user"));
+  }
+
+  public void testShortSecret() {
+    try {
+      new SignedAuthorizationStateStore.Builder(new byte[16]);
+      fail("expected " + IllegalArgumentException.class);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testOtherUser() {
+    SignedAuthorizationStateStore store = new SignedAuthorizationStateStore.Builder(SECRET).build();
+    // an attacker's authorization response must not be accepted for the victim
+    AuthorizationState state = store.create("attacker");
+    assertNull(store.consume(state.getState(), "victim"));
+    assertNull(store.consume(state.getState(), null));
+    AuthorizationState consumed = store.consume(state.getState(), "attacker");
+    assertEquals(state.getCodeVerifier(), consumed.getCodeVerifier());
+    // the code verifier depends on the user
+    assertFalse(state.getCodeVerifier().equals(store.create("victim").getCodeVerifier()));
+  }
+}
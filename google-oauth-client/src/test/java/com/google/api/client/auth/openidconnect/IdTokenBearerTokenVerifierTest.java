@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.auth.oauth2.BearerTokenVerifier;
+import java.io.IOException;
+import java.util.Collections;
+import junit.framework.TestCase;
+
+/** Tests {@link IdTokenBearerTokenVerifier}. */
+public class IdTokenBearerTokenVerifierTest extends TestCase {
+
+  private static IdTokenVerifier newIdTokenVerifier(String audience) throws IOException {
+    return new IdTokenVerifier.Builder()
+        .setClock(IdTokenVerifierTest.FIXED_CLOCK)
+        .setIssuer("https://cloud.google.com/iap")
+        .setAudience(Collections.singleton(audience))
+        .setHttpTransportFactory(
+            IdTokenVerifierTest.mockTransport(
+                "https://www.gstatic.com/iap/verify/public_key-jwk",
+                IdTokenVerifierTest.readResourceAsString("iap_keys.json")))
+        .build();
+  }
+
+  public void testVerify() throws IOException {
+    IdTokenBearerTokenVerifier verifier =
+        new IdTokenBearerTokenVerifier(
+            newIdTokenVerifier("/projects/652562776798/apps/cloud-samples-tests-php-iap"),
+            IdTokenVerifierTest.JSON_FACTORY,
+            IdTokenClaims.projection("sub", "email"));
+    BearerTokenVerifier.VerifiedToken token = verifier.verify(IdTokenVerifierTest.ES256_TOKEN);
+    assertEquals("accounts.google.com:112181712771201972891", token.getSubject());
+    assertEquals(Long.valueOf(1584047617000L), token.getExpirationTimeMilliseconds());
+    assertEquals("chingor@google.com", ((IdTokenClaims) token.getDetails()).getString("email"));
+  }
+
+  public void testVerifyWithoutSubject() throws IOException {
+    IdTokenBearerTokenVerifier verifier =
+        new IdTokenBearerTokenVerifier(
+            newIdTokenVerifier("/projects/652562776798/apps/cloud-samples-tests-php-iap"),
+            IdTokenVerifierTest.JSON_FACTORY,
+            IdTokenClaims.projection("email"));
+    assertNull(verifier.verify(IdTokenVerifierTest.ES256_TOKEN).getSubject());
+  }
+
+  public void testRejected() throws IOException {
+    IdTokenBearerTokenVerifier verifier =
+        new IdTokenBearerTokenVerifier(
+            newIdTokenVerifier("other"), IdTokenVerifierTest.JSON_FACTORY);
+    assertNull(verifier.verify(IdTokenVerifierTest.ES256_TOKEN));
+    assertNull(verifier.verify("not.a.token"));
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.gson.GsonFactory;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import junit.framework.TestCase;
+
+/** Tests {@link IdTokenClaims}. */
+public class IdTokenClaimsTest extends TestCase {
+
+  private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+
+  private static final String PAYLOAD =
+      "{\"iss\":\"issuer\",\"aud\":[\"a\",\"b\"],\"exp\":2000,\"iat\":1000,"
+          + "\"sub\":\"subject\",\"email_verified\":true,\"score\":1.5,\"nothing\":null,"
+          + "\"google\":{\"access_levels\":[\"x\"]},\"ignored\":{\"deep\":[1,2,{}]}}";
+
+  private static IdTokenClaims parse(String json, IdTokenClaims.Projection projection)
+      throws IOException {
+    JsonParser parser = JSON_FACTORY.createJsonParser(json);
+    try {
+      return IdTokenClaims.parse(parser, projection);
+    } finally {
+      parser.close();
+    }
+  }
+
+  public void testParse() throws IOException {
+    IdTokenClaims claims =
+        parse(
+            PAYLOAD,
+            IdTokenClaims.projection(
+                "sub", "aud", "email_verified", "score", "nothing", "google", "missing"));
+    assertEquals("subject", claims.getString("sub"));
+    assertEquals(Arrays.asList("a", "b"), claims.getStringList("aud"));
+    assertEquals(Boolean.TRUE, claims.getBoolean("email_verified"));
+    assertEquals(new BigDecimal("1.5"), claims.get("score"));
+    assertNull(claims.get("nothing"));
+    assertFalse(claims.has("missing"));
+    assertTrue(claims.get("google") instanceof Map);
+    assertEquals("issuer", claims.getIssuer());
+    assertEquals(Long.valueOf(2000L), claims.getExpirationTimeSeconds());
+    assertEquals(Long.valueOf(1000L), claims.getIssuedAtTimeSeconds());
+    assertEquals(Arrays.asList("a", "b"), claims.getAudience());
+  }
+
+  public void testClaimNotInProjection() throws IOException {
+    IdTokenClaims claims = parse(PAYLOAD, IdTokenClaims.projection("sub"));
+    try {
+      claims.get("iss");
+      fail("Exception expected");
+    } catch (IllegalArgumentException ex) {
+      // Expected
+    }
+  }
+
+  public void testProjectedValuesAreUnmodifiable() throws IOException {
+    IdTokenClaims claims = parse(PAYLOAD, IdTokenClaims.projection("aud"));
+    try {
+      claims.getStringList("aud").add("c");
+      fail("Exception expected");
+    } catch (UnsupportedOperationException ex) {
+      // Expected
+    }
+  }
+
+  public void testDuplicateClaimNamesFail() {
+    try {
+      IdTokenClaims.projection("sub", "sub");
+      fail("Exception expected");
+    } catch (IllegalArgumentException ex) {
+      // Expected
+    }
+  }
+}
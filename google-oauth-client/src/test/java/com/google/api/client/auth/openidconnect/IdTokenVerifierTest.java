@@ -28,11 +28,14 @@ import com.google.api.client.testing.http.MockLowLevelHttpRequest;
 import com.google.api.client.testing.http.MockLowLevelHttpResponse;
 import com.google.api.client.util.Clock;
 import com.google.api.client.util.Lists;
+import com.google.api.client.util.store.DataStore;
+import com.google.api.client.util.store.MemoryDataStoreFactory;
 import com.google.common.io.CharStreams;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.security.PublicKey;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
@@ -59,7 +62,7 @@ public class IdTokenVerifierTest extends TestCase {
   private static final String ISSUER2 = ISSUER + "2";
   private static final String ISSUER3 = ISSUER + "3";
 
-  private static final String ES256_TOKEN =
+  static final String ES256_TOKEN =
       "eyJhbGciOiJFUzI1NiIsInR5cCI6IkpXVCIsImtpZCI6Im1wZjBEQSJ9.eyJhdWQiOiIvcHJvamVjdHMvNjUyNTYyNzc2Nzk4L2FwcHMvY2xvdWQtc2FtcGxlcy10ZXN0cy1waHAtaWFwIiwiZW1haWwiOiJjaGluZ29yQGdvb2dsZS5jb20iLCJleHAiOjE1ODQwNDc2MTcsImdvb2dsZSI6eyJhY2Nlc3NfbGV2ZWxzIjpbImFjY2Vzc1BvbGljaWVzLzUxODU1MTI4MDkyNC9hY2Nlc3NMZXZlbHMvcmVjZW50U2VjdXJlQ29ubmVjdERhdGEiLCJhY2Nlc3NQb2xpY2llcy81MTg1NTEyODA5MjQvYWNjZXNzTGV2ZWxzL3Rlc3ROb09wIiwiYWNjZXNzUG9saWNpZXMvNTE4NTUxMjgwOTI0L2FjY2Vzc0xldmVscy9ldmFwb3JhdGlvblFhRGF0YUZ1bGx5VHJ1c3RlZCJdfSwiaGQiOiJnb29nbGUuY29tIiwiaWF0IjoxNTg0MDQ3MDE3LCJpc3MiOiJodHRwczovL2Nsb3VkLmdvb2dsZS5jb20vaWFwIiwic3ViIjoiYWNjb3VudHMuZ29vZ2xlLmNvbToxMTIxODE3MTI3NzEyMDE5NzI4OTEifQ.yKNtdFY5EKkRboYNexBdfugzLhC3VuGyFcuFYA8kgpxMqfyxa41zkML68hYKrWu2kOBTUW95UnbGpsIi_u1fiA";
 
   private static final String FEDERATED_SIGNON_RS256_TOKEN =
@@ -74,6 +77,8 @@ public class IdTokenVerifierTest extends TestCase {
   private static final String SERVICE_ACCOUNT_CERT_URL =
       "https://www.googleapis.com/oauth2/v3/certs";
 
+  static final String IAP_CERT_URL = "https://www.gstatic.com/iap/verify/public_key-jwk";
+
   private static final List<String> ALL_TOKENS =
       Arrays.asList(ES256_TOKEN, FEDERATED_SIGNON_RS256_TOKEN, SERVICE_ACCOUNT_RS256_TOKEN);
 
@@ -153,6 +158,38 @@ public class IdTokenVerifierTest extends TestCase {
     assertFalse(verifier.verifyPayload(idToken));
   }
 
+  public void testConfigurationIsResolvedAtBuildTime() throws Exception {
+    MockClock clock = new MockClock(1500000L);
+    MockEnvironment testEnvironment = new MockEnvironment();
+    testEnvironment.setVariable(IdTokenVerifier.SKIP_SIGNATURE_ENV_VAR, "true");
+    List<String> audience = Lists.newArrayList();
+    for (int i = 0; i < 1000; i++) {
+      audience.add("client" + i);
+    }
+    audience.add(CLIENT_ID);
+    IdTokenVerifier verifier =
+        new IdTokenVerifier.Builder()
+            .setIssuer(ISSUER)
+            .setAudience(audience)
+            .setClock(clock)
+            .setEnvironment(testEnvironment)
+            .build();
+
+    // later changes to the builder inputs have no effect
+    testEnvironment.setVariable(IdTokenVerifier.SKIP_SIGNATURE_ENV_VAR, "false");
+    audience.remove(CLIENT_ID);
+    assertTrue(verifier.verifyOrThrow(newIdToken(ISSUER, CLIENT_ID)));
+    assertEquals(CLIENT_ID, Lists.newArrayList(verifier.getAudience()).get(1000));
+
+    IdToken multipleAudiences = newIdToken(ISSUER, CLIENT_ID);
+    multipleAudiences.getPayload().setAudience(Arrays.asList("client7", CLIENT_ID));
+    assertTrue(verifier.verifyPayload(multipleAudiences));
+    multipleAudiences.getPayload().setAudience(Arrays.asList("client7", CLIENT_ID2));
+    assertFalse(verifier.verifyPayload(multipleAudiences));
+    multipleAudiences.getPayload().setAudience(Collections.emptyList());
+    assertFalse(verifier.verifyPayload(multipleAudiences));
+  }
+
   public void testEmptyIssuersFails() throws Exception {
     IdTokenVerifier.Builder builder = new IdTokenVerifier.Builder();
     try {
@@ -291,6 +328,195 @@ public class IdTokenVerifierTest extends TestCase {
     assertTrue(tokenVerifier.verify(IdToken.parse(JSON_FACTORY, ES256_TOKEN)));
   }
 
+  public void testVerifyAndProjectEs256Token() throws IOException {
+    HttpTransportFactory httpTransportFactory =
+        mockTransport(
+            "https://www.gstatic.com/iap/verify/public_key-jwk",
+            readResourceAsString("iap_keys.json"));
+    IdTokenVerifier tokenVerifier =
+        new IdTokenVerifier.Builder()
+            .setClock(FIXED_CLOCK)
+            .setIssuer("https://cloud.google.com/iap")
+            .setAudience(
+                Collections.singleton("/projects/652562776798/apps/cloud-samples-tests-php-iap"))
+            .setHttpTransportFactory(httpTransportFactory)
+            .build();
+    IdTokenClaims claims =
+        tokenVerifier.verifyAndProject(
+            JSON_FACTORY, ES256_TOKEN, IdTokenClaims.projection("sub", "email", "aud", "exp"));
+    assertNotNull(claims);
+    assertEquals("accounts.google.com:112181712771201972891", claims.getString("sub"));
+    assertEquals("chingor@google.com", claims.getString("email"));
+    assertEquals(
+        Collections.singletonList("/projects/652562776798/apps/cloud-samples-tests-php-iap"),
+        claims.getStringList("aud"));
+    assertEquals(Long.valueOf(1584047617L), claims.getLong("exp"));
+    assertEquals("https://cloud.google.com/iap", claims.getIssuer());
+  }
+
+  public void testVerifyAndProjectRejectsInvalidTokens() throws IOException {
+    MockEnvironment testEnvironment = new MockEnvironment();
+    testEnvironment.setVariable(IdTokenVerifier.SKIP_SIGNATURE_ENV_VAR, "true");
+    IdTokenVerifier tokenVerifier =
+        new IdTokenVerifier.Builder()
+            .setClock(FIXED_CLOCK)
+            .setAudience(Collections.singleton(CLIENT_ID))
+            .setEnvironment(testEnvironment)
+            .build();
+    IdTokenClaims.Projection projection = IdTokenClaims.projection("sub");
+    // audience mismatch
+    assertNull(tokenVerifier.verifyAndProject(JSON_FACTORY, ES256_TOKEN, projection));
+    // malformed tokens
+    assertNull(tokenVerifier.verifyAndProject(JSON_FACTORY, "abc", projection));
+    assertNull(tokenVerifier.verifyAndProject(JSON_FACTORY, "a.b.c.d", projection));
+    assertNull(tokenVerifier.verifyAndProject(JSON_FACTORY, "e30.bm90IGpzb24.", projection));
+  }
+
+  public void testVerifyWithKeySetSnapshot() throws IOException {
+    DataStore<JsonWebKeySetSnapshot> dataStore =
+        JsonWebKeySetSnapshot.getDefaultDataStore(new MemoryDataStoreFactory());
+    IdTokenVerifier tokenVerifier =
+        new IdTokenVerifier.Builder()
+            .setClock(FIXED_CLOCK)
+            .setKeySetDataStore(dataStore)
+            .setHttpTransportFactory(
+                mockTransport(IAP_CERT_URL, readResourceAsString("iap_keys.json")))
+            .build();
+    assertTrue(tokenVerifier.verifyOrThrow(IdToken.parse(JSON_FACTORY, ES256_TOKEN)));
+    JsonWebKeySetSnapshot snapshot = dataStore.get(IAP_CERT_URL);
+    assertNotNull(snapshot);
+    assertEquals(FIXED_CLOCK.currentTimeMillis(), snapshot.getFetchTimeMilliseconds());
+
+    // a new verifier starts from the snapshot even though the certificate location is down
+    IdTokenVerifier restartedVerifier =
+        new IdTokenVerifier.Builder()
+            .setClock(FIXED_CLOCK)
+            .setKeySetDataStore(dataStore)
+            .setHttpTransportFactory(failingTransport())
+            .build();
+    assertTrue(restartedVerifier.verifyOrThrow(IdToken.parse(JSON_FACTORY, ES256_TOKEN)));
+  }
+
+  public void testStaleKeySetSnapshotIsIgnored() throws IOException {
+    DataStore<JsonWebKeySetSnapshot> dataStore =
+        JsonWebKeySetSnapshot.getDefaultDataStore(new MemoryDataStoreFactory());
+    dataStore.set(
+        IAP_CERT_URL,
+        new JsonWebKeySetSnapshot(
+            IAP_CERT_URL, readResourceAsString("iap_keys.json"), 1584047020000L - 3600001L));
+    IdTokenVerifier tokenVerifier =
+        new IdTokenVerifier.Builder()
+            .setClock(FIXED_CLOCK)
+            .setKeySetDataStore(dataStore)
+            .setKeySetSnapshotMaxAgeSeconds(3600)
+            .setHttpTransportFactory(failingTransport())
+            .build();
+    try {
+      tokenVerifier.verifyOrThrow(IdToken.parse(JSON_FACTORY, ES256_TOKEN));
+      fail("Should have failed verification");
+    } catch (IOException ex) {
+      assertTrue(ex.getMessage().contains("Error fetching public key"));
+    }
+  }
+
+  public void testKeySetSnapshotIntegrity() throws IOException {
+    String content = readResourceAsString("iap_keys.json");
+    JsonWebKeySetSnapshot snapshot = new JsonWebKeySetSnapshot(IAP_CERT_URL, content, 1000L);
+    assertTrue(snapshot.isUsable(IAP_CERT_URL, 2000L, 1000L));
+    assertFalse(snapshot.isUsable(IAP_CERT_URL, 2001L, 1000L));
+    assertFalse(snapshot.isUsable(SERVICE_ACCOUNT_CERT_URL, 2000L, 1000L));
+  }
+
+  public void testConditionalKeySetFetch() throws Exception {
+    final String content = readResourceAsString("iap_keys.json");
+    MockLowLevelHttpRequest firstRequest =
+        new MockLowLevelHttpRequest() {
+          @Override
+          public LowLevelHttpResponse execute() throws IOException {
+            assertNull(getFirstHeaderValue("If-None-Match"));
+            MockLowLevelHttpResponse response = new MockLowLevelHttpResponse();
+            response.setContentType("application/json");
+            response.addHeader("ETag", "\"v1\"");
+            response.addHeader("Last-Modified", "Thu, 12 Mar 2020 21:00:00 GMT");
+            response.setContent(content);
+            return response;
+          }
+        };
+
+    MockLowLevelHttpRequest notModifiedRequest =
+        new MockLowLevelHttpRequest() {
+          @Override
+          public LowLevelHttpResponse execute() throws IOException {
+            assertEquals("\"v1\"", getFirstHeaderValue("If-None-Match"));
+            assertEquals("Thu, 12 Mar 2020 21:00:00 GMT", getFirstHeaderValue("If-Modified-Since"));
+            MockLowLevelHttpResponse response = new MockLowLevelHttpResponse();
+            response.setStatusCode(304);
+            return response;
+          }
+        };
+
+    MockLowLevelHttpRequest modifiedRequest =
+        new MockLowLevelHttpRequest() {
+          @Override
+          public LowLevelHttpResponse execute() throws IOException {
+            assertEquals("\"v1\"", getFirstHeaderValue("If-None-Match"));
+            MockLowLevelHttpResponse response = new MockLowLevelHttpResponse();
+            response.setContentType("application/json");
+            response.addHeader("ETag", "\"v2\"");
+            response.setContent(content);
+            return response;
+          }
+        };
+
+    IdTokenVerifier.PublicKeyLoader loader =
+        new IdTokenVerifier.PublicKeyLoader(
+            mockTransport(firstRequest, notModifiedRequest, modifiedRequest));
+    Map<String, PublicKey> keys = loader.load(IAP_CERT_URL);
+    assertFalse(keys.isEmpty());
+    assertSame(keys, loader.load(IAP_CERT_URL));
+
+    // a changed document with the same key parameters reuses the parsed keys
+    Map<String, PublicKey> reloaded = loader.load(IAP_CERT_URL);
+    assertNotSame(keys, reloaded);
+    assertEquals(keys.keySet(), reloaded.keySet());
+    for (Map.Entry<String, PublicKey> entry : keys.entrySet()) {
+      assertSame(entry.getValue(), reloaded.get(entry.getKey()));
+    }
+  }
+
+  public void testReplayGuard() throws Exception {
+    TestTokenSigner signer = new TestTokenSigner("replay");
+    long nowSeconds = FIXED_CLOCK.currentTimeMillis() / 1000;
+    IdTokenVerifier verifier =
+        new IdTokenVerifier.Builder()
+            .setClock(FIXED_CLOCK)
+            .setAudience(Collections.singleton(CLIENT_ID))
+            .setCertificatesLocation(SERVICE_ACCOUNT_CERT_URL)
+            .setHttpTransportFactory(
+                mockTransport(SERVICE_ACCOUNT_CERT_URL, signer.getJsonWebKeySet()))
+            .setReplayGuard(new MemoryReplayGuard.Builder().setClock(FIXED_CLOCK).build())
+            .build();
+    IdToken.Payload payload =
+        new IdToken.Payload()
+            .setIssuer(ISSUER)
+            .setAudience(CLIENT_ID)
+            .setIssuedAtTimeSeconds(nowSeconds)
+            .setExpirationTimeSeconds(nowSeconds + 3600);
+
+    String token = signer.sign("JWT", payload.clone().setJwtId("jti-1"));
+    assertTrue(verifier.verifyOrThrow(IdToken.parse(JSON_FACTORY, token)));
+    assertFalse(verifier.verifyOrThrow(IdToken.parse(JSON_FACTORY, token)));
+
+    IdTokenClaims.Projection projection = IdTokenClaims.projection("sub");
+    String nonceToken = signer.sign("JWT", payload.clone().setNonce("nonce-1"));
+    assertNotNull(verifier.verifyAndProject(JSON_FACTORY, nonceToken, projection));
+    assertNull(verifier.verifyAndProject(JSON_FACTORY, nonceToken, projection));
+    assertFalse(verifier.verifyOrThrow(IdToken.parse(JSON_FACTORY, nonceToken)));
+
+    // tokens without an identifier cannot be protected
+    assertFalse(verifier.verifyOrThrow(IdToken.parse(JSON_FACTORY, signer.sign("JWT", payload))));
+  }
+
   public void testVerifyRs256Token() throws IOException {
     HttpTransportFactory httpTransportFactory =
         mockTransport(
@@ -373,6 +599,25 @@ public class IdTokenVerifierTest extends TestCase {
     };
   }
 
+  static HttpTransportFactory failingTransport() {
+    return new HttpTransportFactory() {
+      @Override
+      public HttpTransport create() {
+        return new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) throws IOException {
+            return new MockLowLevelHttpRequest() {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                throw new IOException("certificate location is down");
+              }
+            };
+          }
+        };
+      }
+    };
+  }
+
   static HttpTransportFactory mockTransport(String url, String certificates) {
     final String certificatesContent = certificates;
     final String certificatesUrl = url;
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.auth.openidconnect.IdTokenVerifierTest.MockClock;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import java.io.IOException;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+
+/** Tests {@link JsonWebKeySetRegistry}. */
+public class JsonWebKeySetRegistryTest extends TestCase {
+
+  private static final String IAP_CERT_URL = "https://www.gstatic.com/iap/verify/public_key-jwk";
+
+  private static final String ES256_TOKEN =
+      "eyJhbGciOiJFUzI1NiIsInR5cCI6IkpXVCIsImtpZCI6Im1wZjBEQSJ9.eyJhdWQiOiIvcHJvamVjdHMvNjUyNTYyNzc2Nzk4L2FwcHMvY2xvdWQtc2FtcGxlcy10ZXN0cy1waHAtaWFwIiwiZW1haWwiOiJjaGluZ29yQGdvb2dsZS5jb20iLCJleHAiOjE1ODQwNDc2MTcsImdvb2dsZSI6eyJhY2Nlc3NfbGV2ZWxzIjpbImFjY2Vzc1BvbGljaWVzLzUxODU1MTI4MDkyNC9hY2Nlc3NMZXZlbHMvcmVjZW50U2VjdXJlQ29ubmVjdERhdGEiLCJhY2Nlc3NQb2xpY2llcy81MTg1NTEyODA5MjQvYWNjZXNzTGV2ZWxzL3Rlc3ROb09wIiwiYWNjZXNzUG9saWNpZXMvNTE4NTUxMjgwOTI0L2FjY2Vzc0xldmVscy9ldmFwb3JhdGlvblFhRGF0YUZ1bGx5VHJ1c3RlZCJdfSwiaGQiOiJnb29nbGUuY29tIiwiaWF0IjoxNTg0MDQ3MDE3LCJpc3MiOiJodHRwczovL2Nsb3VkLmdvb2dsZS5jb20vaWFwIiwic3ViIjoiYWNjb3VudHMuZ29vZ2xlLmNvbToxMTIxODE3MTI3NzEyMDE5NzI4OTEifQ.yKNtdFY5EKkRboYNexBdfugzLhC3VuGyFcuFYA8kgpxMqfyxa41zkML68hYKrWu2kOBTUW95UnbGpsIi_u1fiA";
+
+  private static final String AUDIENCE = "/projects/652562776798/apps/cloud-samples-tests-php-iap";
+
+  private final AtomicInteger fetchCount = new AtomicInteger();
+
+  private HttpTransportFactory countingTransport() throws IOException {
+    final String certificates = IdTokenVerifierTest.readResourceAsString("iap_keys.json");
+    return new HttpTransportFactory() {
+      @Override
+      public HttpTransport create() {
+        return new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) throws IOException {
+            assertEquals(IAP_CERT_URL, url);
+            return new MockLowLevelHttpRequest() {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                fetchCount.incrementAndGet();
+                MockLowLevelHttpResponse response = new MockLowLevelHttpResponse();
+                response.setStatusCode(200);
+                response.setContentType("application/json");
+                response.setContent(certificates);
+                return response;
+              }
+            };
+          }
+        };
+      }
+    };
+  }
+
+  private IdTokenVerifier newVerifier(JsonWebKeySetRegistry registry, MockClock clock) {
+    return new IdTokenVerifier.Builder()
+        .setClock(clock)
+        .setAudience(Collections.singleton(AUDIENCE))
+        .setKeySetRegistry(registry)
+        .build();
+  }
+
+  public void testVerifiersShareKeySets() throws IOException {
+    MockClock clock = new MockClock(1584047020000L);
+    JsonWebKeySetRegistry registry =
+        new JsonWebKeySetRegistry.Builder()
+            .setClock(clock)
+            .setHttpTransportFactory(countingTransport())
+            .build();
+    IdTokenVerifier verifier1 = newVerifier(registry, clock);
+    IdTokenVerifier verifier2 = newVerifier(registry, clock);
+    assertTrue(
+        verifier1.verifyOrThrow(IdToken.parse(IdTokenVerifierTest.JSON_FACTORY, ES256_TOKEN)));
+    assertTrue(
+        verifier2.verifyOrThrow(IdToken.parse(IdTokenVerifierTest.JSON_FACTORY, ES256_TOKEN)));
+    assertEquals(1, fetchCount.get());
+    assertEquals(1, registry.size());
+
+    verifier1.releaseKeySets();
+    assertEquals(1, registry.size());
+    verifier2.releaseKeySets();
+    assertEquals(0, registry.size());
+  }
+
+  public void testHandlesShareKeyObjects() throws IOException {
+    MockClock clock = new MockClock(1584047020000L);
+    JsonWebKeySetRegistry registry =
+        new JsonWebKeySetRegistry.Builder()
+            .setClock(clock)
+            .setHttpTransportFactory(countingTransport())
+            .build();
+    JsonWebKeySetRegistry.Handle handle1 = registry.acquire(IAP_CERT_URL);
+    JsonWebKeySetRegistry.Handle handle2 = registry.acquire(IAP_CERT_URL);
+    Map<String, PublicKey> keys = handle1.getKeys();
+    assertSame(keys, handle2.getKeys());
+
+    // background refresh replaces the map but keeps the interned key objects
+    registry.refreshAll();
+    assertEquals(2, fetchCount.get());
+    Map<String, PublicKey> refreshed = handle2.getKeys();
+    for (Map.Entry<String, PublicKey> entry : keys.entrySet()) {
+      assertSame(entry.getValue(), refreshed.get(entry.getKey()));
+    }
+
+    handle1.release();
+    handle1.release();
+    assertEquals(1, registry.size());
+    assertTrue(registry.getLoader().hasState(IAP_CERT_URL));
+    handle2.release();
+    assertEquals(0, registry.size());
+    // the fetched key set is forgotten with the last handle
+    assertFalse(registry.getLoader().hasState(IAP_CERT_URL));
+  }
+
+  public void testReleaseDuringRefreshForgetsKeySet() throws IOException {
+    MockClock clock = new MockClock(1584047020000L);
+    JsonWebKeySetRegistry registry =
+        new JsonWebKeySetRegistry.Builder()
+            .setClock(clock)
+            .setRefreshIntervalSeconds(60)
+            .setHttpTransportFactory(countingTransport())
+            .build();
+    JsonWebKeySetRegistry.Handle handle = registry.acquire(IAP_CERT_URL);
+    handle.getKeys();
+    handle.release();
+    assertFalse(registry.getLoader().hasState(IAP_CERT_URL));
+    // a refresh of the released entry, as started before the release, does not keep its key set
+    clock.timeMillis += 120001L;
+    handle.getKeys();
+    assertEquals(2, fetchCount.get());
+    assertFalse(registry.getLoader().hasState(IAP_CERT_URL));
+  }
+
+  public void testStaleKeySetIsReloaded() throws IOException {
+    MockClock clock = new MockClock(1584047020000L);
+    JsonWebKeySetRegistry registry =
+        new JsonWebKeySetRegistry.Builder()
+            .setClock(clock)
+            .setRefreshIntervalSeconds(60)
+            .setHttpTransportFactory(countingTransport())
+            .build();
+    JsonWebKeySetRegistry.Handle handle = registry.acquire(IAP_CERT_URL);
+    handle.getKeys();
+    clock.timeMillis += 120000L;
+    handle.getKeys();
+    assertEquals(1, fetchCount.get());
+    clock.timeMillis += 1L;
+    handle.getKeys();
+    assertEquals(2, fetchCount.get());
+    handle.release();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.auth.openidconnect.IdTokenVerifierTest.MockClock;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import java.util.Arrays;
+import java.util.Collections;
+import junit.framework.TestCase;
+
+/** Tests {@link JwtAccessTokenVerifier}. */
+public class JwtAccessTokenVerifierTest extends TestCase {
+
+  private static final JsonFactory JSON_FACTORY = TestTokenSigner.JSON_FACTORY;
+  private static final String ISSUER = "https://as.example.com";
+  private static final String RESOURCE = "https://api.example.com";
+  private static final String JWKS_URI = "https://as.example.com/jwks";
+  private static final long NOW_SECONDS = 1584047020L;
+
+  private TestTokenSigner signer;
+  private JwtAccessTokenVerifier verifier;
+
+  @Override
+  protected void setUp() throws Exception {
+    signer = new TestTokenSigner("at");
+    verifier =
+        new JwtAccessTokenVerifier.Builder()
+            .setIssuer(ISSUER)
+            .setAudience(Collections.singleton(RESOURCE))
+            .setCertificatesLocation(JWKS_URI)
+            .setHttpTransportFactory(
+                IdTokenVerifierTest.mockTransport(JWKS_URI, signer.getJsonWebKeySet()))
+            .setClock(new MockClock(NOW_SECONDS * 1000))
+            .setKnownScopes(Arrays.asList("files.read", "files.write", "files.delete"))
+            .setRequiredScopes(Collections.singleton("files.read"))
+            .setClaimNames("email")
+            .build();
+  }
+
+  private JsonWebToken.Payload newPayload() {
+    JsonWebToken.Payload payload =
+        new JsonWebToken.Payload()
+            .setIssuer(ISSUER)
+            .setAudience(RESOURCE)
+            .setSubject("user")
+            .setIssuedAtTimeSeconds(NOW_SECONDS)
+            .setExpirationTimeSeconds(NOW_SECONDS + 600);
+    payload.set("client_id", "client");
+    payload.set("scope", "openid files.read files.write");
+    payload.set("email", "user@example.com");
+    return payload;
+  }
+
+  public void testVerify() throws Exception {
+    JwtAccessToken accessToken = verifier.verify(JSON_FACTORY, signer.sign("at+jwt", newPayload()));
+    assertNotNull(accessToken);
+    assertEquals(ISSUER, accessToken.getIssuer());
+    assertEquals("user", accessToken.getSubject());
+    assertEquals("client", accessToken.getClientId());
+    assertEquals(Collections.singletonList(RESOURCE), accessToken.getAudience());
+    assertEquals(NOW_SECONDS + 600, accessToken.getExpirationTimeSeconds());
+    assertEquals("user@example.com", accessToken.getClaims().getString("email"));
+
+    assertTrue(accessToken.hasScope("files.read"));
+    assertTrue(accessToken.hasScope("openid"));
+    assertFalse(accessToken.hasScope("files.delete"));
+    assertFalse(accessToken.hasScope("files"));
+    assertTrue(accessToken.hasScopes(verifier.getScopeMask("files.read", "files.write")));
+    assertFalse(accessToken.hasScopes(verifier.getScopeMask("files.write", "files.delete")));
+
+    JsonWebToken.Payload payload = newPayload();
+    payload.setAudience(Arrays.asList("https://other.example.com", RESOURCE));
+    assertNotNull(verifier.verify(JSON_FACTORY, signer.sign("application/at+jwt", payload)));
+  }
+
+  public void testRejectsInvalidTokens() throws Exception {
+    // ID tokens and other JWTs are not access tokens
+    assertNull(verifier.verify(JSON_FACTORY, signer.sign("JWT", newPayload())));
+    assertNull(verifier.verify(JSON_FACTORY, signer.signIdToken(ISSUER, RESOURCE, NOW_SECONDS)));
+
+    JsonWebToken.Payload payload = newPayload().setIssuer("https://evil.example.com");
+    assertNull(verifier.verify(JSON_FACTORY, signer.sign("at+jwt", payload)));
+
+    payload = newPayload().setAudience("https://other.example.com");
+    assertNull(verifier.verify(JSON_FACTORY, signer.sign("at+jwt", payload)));
+
+    payload = newPayload().setExpirationTimeSeconds(NOW_SECONDS - 3600);
+    assertNull(verifier.verify(JSON_FACTORY, signer.sign("at+jwt", payload)));
+
+    payload = newPayload();
+    payload.set("scope", "files.write");
+    assertNull(verifier.verify(JSON_FACTORY, signer.sign("at+jwt", payload)));
+
+    // signed by another key with the same key ID
+    TestTokenSigner otherSigner = new TestTokenSigner("at");
+    assertNull(verifier.verify(JSON_FACTORY, otherSigner.sign("at+jwt", newPayload())));
+
+    assertNull(verifier.verify(JSON_FACTORY, "not.a.jwt.at.all"));
+  }
+
+  public void testScopeMaskRequiresKnownScopes() {
+    try {
+      verifier.getScopeMask("openid");
+      fail("Exception expected");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testCertificatesLocationRequired() {
+    try {
+      new JwtAccessTokenVerifier.Builder()
+          .setIssuer(ISSUER)
+          .setAudience(Collections.singleton(RESOURCE))
+          .build();
+      fail("Exception expected");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.auth.openidconnect.IdTokenVerifierTest.MockClock;
+import junit.framework.TestCase;
+
+/** Tests {@link MemoryReplayGuard}. */
+public class MemoryReplayGuardTest extends TestCase {
+
+  private static final long NOW_SECONDS = 1584047020L;
+
+  private final MockClock clock = new MockClock(NOW_SECONDS * 1000);
+
+  public void testRejectsReplays() {
+    MemoryReplayGuard guard = new MemoryReplayGuard.Builder().setClock(clock).build();
+    assertTrue(guard.checkAndRecord("issuer", "id1", NOW_SECONDS + 600));
+    assertFalse(guard.checkAndRecord("issuer", "id1", NOW_SECONDS + 600));
+    assertTrue(guard.checkAndRecord("issuer", "id2", NOW_SECONDS + 600));
+    assertTrue(guard.checkAndRecord("other", "id1", NOW_SECONDS + 600));
+  }
+
+  public void testRejectsReplaysOutsideExactTier() {
+    MemoryReplayGuard guard =
+        new MemoryReplayGuard.Builder().setClock(clock).setExactTierSize(0).build();
+    assertTrue(guard.checkAndRecord("issuer", "id1", NOW_SECONDS + 600));
+    assertTrue(guard.checkAndRecord("issuer", "id2", NOW_SECONDS + 600));
+    assertFalse(guard.checkAndRecord("issuer", "id1", NOW_SECONDS + 600));
+  }
+
+  public void testRejectsTokensBeyondMaxLifetime() {
+    MemoryReplayGuard guard =
+        new MemoryReplayGuard.Builder()
+            .setClock(clock)
+            .setBucketSeconds(60)
+            .setMaxTokenLifetimeSeconds(3600)
+            .build();
+    assertTrue(guard.checkAndRecord("issuer", "id1", NOW_SECONDS + 3500));
+    assertFalse(guard.checkAndRecord("issuer", "id2", NOW_SECONDS + 7200));
+  }
+
+  public void testExpiredBucketsAreDropped() {
+    MemoryReplayGuard guard =
+        new MemoryReplayGuard.Builder().setClock(clock).setBucketSeconds(60).build();
+    for (int i = 0; i < 10; i++) {
+      assertTrue(guard.checkAndRecord("issuer", "id" + i, NOW_SECONDS + 60 * i));
+    }
+    assertEquals(10, guard.getBucketCount());
+    clock.timeMillis += 3600 * 1000;
+    assertTrue(guard.checkAndRecord("issuer", "late", NOW_SECONDS + 3600 + 60));
+    assertEquals(1, guard.getBucketCount());
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.auth.openidconnect.IdTokenVerifierTest.MockClock;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.util.StringUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+
+/** Tests {@link MultiIssuerIdTokenVerifier} against a local stub identity provider. */
+public class MultiIssuerIdTokenVerifierTest extends TestCase {
+
+  private static final String CLIENT_ID = "myclientid";
+  private static final long NOW_SECONDS = 1700000000L;
+
+  private HttpServer server;
+  private String baseUrl;
+  private final Map<String, String> documents = new ConcurrentHashMap<String, String>();
+  private final AtomicInteger requestCount = new AtomicInteger();
+
+  @Override
+  protected void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/",
+        new HttpHandler() {
+          @Override
+          public void handle(HttpExchange exchange) throws IOException {
+            requestCount.incrementAndGet();
+            String document = documents.get(exchange.getRequestURI().getPath());
+            byte[] body = StringUtils.getBytesUtf8(document == null ? "" : document);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(document == null ? 404 : 200, body.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body);
+            out.close();
+          }
+        });
+    server.start();
+    baseUrl = "http://localhost:" + server.getAddress().getPort();
+  }
+
+  @Override
+  protected void tearDown() {
+    server.stop(0);
+  }
+
+  private String addRealm(String realm, TestTokenSigner signer) throws IOException {
+    String issuer = baseUrl + "/realms/" + realm;
+    documents.put(
+        "/realms/" + realm + MultiIssuerIdTokenVerifier.DISCOVERY_PATH,
+        "{\"issuer\":\""
+            + issuer
+            + "\",\"jwks_uri\":\""
+            + issuer
+            + "/certs\",\"response_types_supported\":[\"code\"]}");
+    documents.put("/realms/" + realm + "/certs", signer.getJsonWebKeySet());
+    return issuer;
+  }
+
+  private MultiIssuerIdTokenVerifier.Builder newBuilder() {
+    return new MultiIssuerIdTokenVerifier.Builder()
+        .setAudience(Collections.singleton(CLIENT_ID))
+        .setClock(new MockClock(NOW_SECONDS * 1000))
+        .setHttpTransportFactory(
+            new HttpTransportFactory() {
+              @Override
+              public HttpTransport create() {
+                return new NetHttpTransport();
+              }
+            });
+  }
+
+  public void testRoutesByIssuer() throws Exception {
+    TestTokenSigner signer1 = new TestTokenSigner("key1");
+    TestTokenSigner signer2 = new TestTokenSigner("key2");
+    String issuer1 = addRealm("one", signer1);
+    String issuer2 = addRealm("two", signer2);
+    MultiIssuerIdTokenVerifier verifier =
+        newBuilder().addIssuer(issuer1).addIssuer(issuer2).build();
+
+    assertTrue(
+        verifier.verifyOrThrow(
+            IdToken.parse(
+                TestTokenSigner.JSON_FACTORY,
+                signer1.signIdToken(issuer1, CLIENT_ID, NOW_SECONDS))));
+    assertTrue(
+        verifier.verifyOrThrow(
+            IdToken.parse(
+                TestTokenSigner.JSON_FACTORY,
+                signer2.signIdToken(issuer2, CLIENT_ID, NOW_SECONDS))));
+    // a token claiming issuer 2 but signed with the key of issuer 1
+    try {
+      verifier.verifyOrThrow(
+          IdToken.parse(
+              TestTokenSigner.JSON_FACTORY, signer1.signIdToken(issuer2, CLIENT_ID, NOW_SECONDS)));
+      fail("Expected unknown key ID");
+    } catch (IOException ex) {
+      assertTrue(ex.getMessage().contains("Could not find public key"));
+    }
+    // discovery documents and key sets are cached
+    int requests = requestCount.get();
+    assertEquals(4, requests);
+    assertTrue(
+        verifier.verifyOrThrow(
+            IdToken.parse(
+                TestTokenSigner.JSON_FACTORY,
+                signer1.signIdToken(issuer1, CLIENT_ID, NOW_SECONDS))));
+    assertEquals(requests, requestCount.get());
+  }
+
+  public void testUnknownIssuerRejectedWithoutNetwork() throws Exception {
+    TestTokenSigner signer = new TestTokenSigner("key");
+    String issuer = addRealm("one", signer);
+    MultiIssuerIdTokenVerifier verifier = newBuilder().addIssuer(issuer).build();
+    assertFalse(
+        verifier.verifyOrThrow(
+            IdToken.parse(
+                TestTokenSigner.JSON_FACTORY,
+                signer.signIdToken(baseUrl + "/realms/other", CLIENT_ID, NOW_SECONDS))));
+    assertEquals(0, requestCount.get());
+  }
+
+  public void testDiscoveryIssuerMismatch() throws Exception {
+    TestTokenSigner signer = new TestTokenSigner("key");
+    String issuer = addRealm("one", signer);
+    documents.put(
+        "/realms/one" + MultiIssuerIdTokenVerifier.DISCOVERY_PATH,
+        "{\"issuer\":\"https://evil.example.com\",\"jwks_uri\":\"" + issuer + "/certs\"}");
+    MultiIssuerIdTokenVerifier verifier = newBuilder().addIssuer(issuer).build();
+    try {
+      verifier.verifyOrThrow(
+          IdToken.parse(
+              TestTokenSigner.JSON_FACTORY, signer.signIdToken(issuer, CLIENT_ID, NOW_SECONDS)));
+      fail("Expected discovery failure");
+    } catch (IOException ex) {
+      assertTrue(ex.getMessage().contains("Error fetching provider configuration"));
+    }
+  }
+
+  public void testExplicitCertificatesLocation() throws Exception {
+    TestTokenSigner signer = new TestTokenSigner("key");
+    String issuer = addRealm("one", signer);
+    documents.remove("/realms/one" + MultiIssuerIdTokenVerifier.DISCOVERY_PATH);
+    MultiIssuerIdTokenVerifier verifier = newBuilder().addIssuer(issuer, issuer + "/certs").build();
+    assertTrue(
+        verifier.verifyOrThrow(
+            IdToken.parse(
+                TestTokenSigner.JSON_FACTORY, signer.signIdToken(issuer, CLIENT_ID, NOW_SECONDS))));
+    assertEquals(1, requestCount.get());
+  }
+}
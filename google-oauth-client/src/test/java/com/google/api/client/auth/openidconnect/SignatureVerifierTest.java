@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.util.SecurityUtils;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.Map;
+import junit.framework.TestCase;
+
+/** Tests {@link SignatureVerifier}. */
+public class SignatureVerifierTest extends TestCase {
+
+  public void testVerifyEs256() throws Exception {
+    Map<String, PublicKey> keys =
+        new IdTokenVerifier.PublicKeyLoader(
+                IdTokenVerifierTest.mockTransport(
+                    IdTokenVerifierTest.IAP_CERT_URL,
+                    IdTokenVerifierTest.readResourceAsString("iap_keys.json")))
+            .load(IdTokenVerifierTest.IAP_CERT_URL);
+    JsonWebSignature jws =
+        JsonWebSignature.parse(IdTokenVerifierTest.JSON_FACTORY, IdTokenVerifierTest.ES256_TOKEN);
+    PublicKey publicKey = keys.get(jws.getHeader().getKeyId());
+    byte[] signedContent = jws.getSignedContentBytes();
+    byte[] signature = jws.getSignatureBytes();
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(SignatureVerifier.verify("ES256", publicKey, signature, signedContent));
+      assertEquals(
+          jws.verifySignature(publicKey),
+          SignatureVerifier.verify("ES256", publicKey, signature, signedContent));
+    }
+    byte[] tampered = signedContent.clone();
+    tampered[tampered.length - 1] ^= 1;
+    assertFalse(SignatureVerifier.verify("ES256", publicKey, signature, tampered));
+    assertTrue(SignatureVerifier.verify("ES256", publicKey, signature, signedContent));
+    assertFalse(SignatureVerifier.verify("HS256", publicKey, signature, signedContent));
+  }
+
+  public void testVerifyRs256WithAlternatingKeys() throws Exception {
+    byte[] content = "content".getBytes("UTF-8");
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    KeyPair first = generator.generateKeyPair();
+    KeyPair second = generator.generateKeyPair();
+    byte[] firstSignature =
+        SecurityUtils.sign(
+            SecurityUtils.getSha256WithRsaSignatureAlgorithm(), first.getPrivate(), content);
+    byte[] secondSignature =
+        SecurityUtils.sign(
+            SecurityUtils.getSha256WithRsaSignatureAlgorithm(), second.getPrivate(), content);
+
+    for (int i = 0; i < 2; i++) {
+      assertTrue(SignatureVerifier.verify("RS256", first.getPublic(), firstSignature, content));
+      assertFalse(SignatureVerifier.verify("RS256", first.getPublic(), secondSignature, content));
+      assertTrue(SignatureVerifier.verify("RS256", second.getPublic(), secondSignature, content));
+      assertFalse(SignatureVerifier.verify("RS256", second.getPublic(), new byte[3], content));
+    }
+  }
+
+  public void testToDer() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+    generator.initialize(256);
+    KeyPair keyPair = generator.generateKeyPair();
+    byte[] content = "content".getBytes("UTF-8");
+    for (int i = 0; i < 20; i++) {
+      Signature signer = SecurityUtils.getEs256SignatureAlgorithm();
+      signer.initSign(keyPair.getPrivate());
+      signer.update(content);
+      byte[] der = signer.sign();
+      assertTrue(Arrays.equals(der, SignatureVerifier.toDer(toJose(der))));
+    }
+    byte[] zeros = new byte[64];
+    assertTrue(
+        Arrays.equals(
+            new byte[] {0x30, 6, 0x02, 1, 0, 0x02, 1, 0}, SignatureVerifier.toDer(zeros)));
+    byte[] highBits = new byte[64];
+    Arrays.fill(highBits, (byte) 0xff);
+    assertEquals(72, SignatureVerifier.toDer(highBits).length);
+  }
+
+  /** Converts a DER encoded ECDSA signature to the JOSE format. */
+  private static byte[] toJose(byte[] der) {
+    int rLength = der[3];
+    byte[] r = Arrays.copyOfRange(der, 4, 4 + rLength);
+    byte[] s = Arrays.copyOfRange(der, 6 + rLength, 6 + rLength + der[5 + rLength]);
+    byte[] jose = new byte[64];
+    copyUnsigned(new BigInteger(1, r).toByteArray(), jose, 0);
+    copyUnsigned(new BigInteger(1, s).toByteArray(), jose, 32);
+    return jose;
+  }
+
+  private static void copyUnsigned(byte[] value, byte[] target, int offset) {
+    int length = Math.min(value.length, 32);
+    System.arraycopy(value, value.length - length, target, offset + 32 - length, length);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.api.client.auth.openidconnect;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import com.google.api.client.util.Base64;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+
+/** Signs RS256 tokens with a freshly generated key pair for tests. */
+class TestTokenSigner {
+
+  static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+
+  private final String keyId;
+  private final KeyPair keyPair;
+
+  TestTokenSigner(String keyId) throws GeneralSecurityException {
+    this.keyId = keyId;
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    this.keyPair = generator.generateKeyPair();
+  }
+
+  /** Returns a JSON Web Key Set document containing the public key. */
+  String getJsonWebKeySet() throws IOException {
+    RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+    GenericJson key = new GenericJson();
+    key.set("kty", "RSA");
+    key.set("alg", "RS256");
+    key.set("use", "sig");
+    key.set("kid", keyId);
+    key.set("n", encode(publicKey.getModulus()));
+    key.set("e", encode(publicKey.getPublicExponent()));
+    GenericJson keySet = new GenericJson();
+    keySet.set("keys", Collections.singletonList(key));
+    return JSON_FACTORY.toString(keySet);
+  }
+
+  /** Returns a signed token for the given header type and payload. */
+  String sign(String type, JsonWebToken.Payload payload)
+      throws GeneralSecurityException, IOException {
+    JsonWebSignature.Header header =
+        new JsonWebSignature.Header().setAlgorithm("RS256").setKeyId(keyId).setType(type);
+    return JsonWebSignature.signUsingRsaSha256(keyPair.getPrivate(), JSON_FACTORY, header, payload);
+  }
+
+  /** Returns a signed ID token with the given issuer and audience, valid around {@code now}. */
+  String signIdToken(String issuer, String audience, long nowSeconds)
+      throws GeneralSecurityException, IOException {
+    return sign(
+        "JWT",
+        new IdToken.Payload()
+            .setIssuer(issuer)
+            .setAudience(audience)
+            .setSubject("subject")
+            .setIssuedAtTimeSeconds(nowSeconds)
+            .setExpirationTimeSeconds(nowSeconds + 3600));
+  }
+
+  private static String encode(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    if (bytes.length > 1 && bytes[0] == 0) {
+      byte[] unsigned = new byte[bytes.length - 1];
+      System.arraycopy(bytes, 1, unsigned, 0, unsigned.length);
+      bytes = unsigned;
+    }
+    return Base64.encodeBase64URLSafeString(bytes);
+  }
+}